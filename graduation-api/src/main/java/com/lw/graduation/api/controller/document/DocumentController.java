@@ -3,27 +3,45 @@ package com.lw.graduation.api.controller.document;
 import cn.dev33.satoken.annotation.SaCheckRole;
 import cn.dev33.satoken.stp.StpUtil;
 import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.lw.graduation.api.dto.document.ChunkedUploadInitDTO;
 import com.lw.graduation.api.dto.document.DocumentPageQueryDTO;
 import com.lw.graduation.api.dto.document.DocumentReviewDTO;
 import com.lw.graduation.api.dto.document.DocumentUploadDTO;
 import com.lw.graduation.api.service.document.DocumentService;
+import com.lw.graduation.api.vo.document.ChunkedUploadVO;
+import com.lw.graduation.api.vo.document.DocumentDownloadVO;
+import com.lw.graduation.api.vo.document.DocumentProcessStatsVO;
 import com.lw.graduation.api.vo.document.DocumentVO;
+import com.lw.graduation.api.vo.document.SimilarDocumentVO;
+import com.lw.graduation.api.vo.document.StorageReconcileVO;
+import com.lw.graduation.api.vo.document.StorageUsageVO;
+import com.lw.graduation.common.base.CursorPage;
 import com.lw.graduation.common.response.Result;
+import com.lw.graduation.domain.enums.document.StorageUsageScope;
+import com.lw.graduation.infrastructure.storage.StoredFile;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.InputStream;
-import java.net.URLEncoder;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
 
 /**
  * 文档管理控制器
@@ -38,6 +56,12 @@ import java.nio.charset.StandardCharsets;
 @Slf4j
 public class DocumentController {
 
+    /** Tomcat sendfile 请求属性 */
+    private static final String SENDFILE_SUPPORT_ATTR = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+
     private final DocumentService documentService;
 
     /**
@@ -52,6 +76,18 @@ public class DocumentController {
         return Result.success(documentService.getDocumentPage(queryDTO));
     }
 
+    /**
+     * 游标分页查询文档列表
+     *
+     * @param queryDTO 查询条件
+     * @return 游标分页结果
+     */
+    @GetMapping("/cursor")
+    @Operation(summary = "游标分页查询文档列表")
+    public Result<CursorPage<DocumentVO>> getDocumentCursorPage(DocumentPageQueryDTO queryDTO) {
+        return Result.success(documentService.getDocumentCursorPage(queryDTO));
+    }
+
     /**
      * 根据ID获取文档详情
      *
@@ -91,45 +127,293 @@ public class DocumentController {
         return Result.success(documentVO);
     }
 
+    /**
+     * 初始化分片上传
+     *
+     * @param initDTO 文件信息
+     * @return 上传状态（含分片大小与分片总数）
+     */
+    @PostMapping("/uploads")
+    @Operation(summary = "初始化分片上传（大文件断点续传）")
+    @SaCheckRole({"student", "teacher"})
+    public Result<ChunkedUploadVO> initChunkedUpload(@Validated @RequestBody ChunkedUploadInitDTO initDTO) {
+        Long userId = StpUtil.getLoginIdAsLong();
+        return Result.success(documentService.initChunkedUpload(initDTO, userId));
+    }
+
+    /**
+     * 上传分片
+     * 请求体为分片原始字节（application/octet-stream），不经过 multipart 解析与临时文件缓冲
+     *
+     * @param uploadId 上传会话ID
+     * @param offset 分片偏移量
+     * @param checksum 分片MD5
+     * @param request 请求
+     * @return 上传状态
+     * @throws IOException 读取请求体失败
+     */
+    @PutMapping(value = "/uploads/{uploadId}/chunks", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @Operation(summary = "上传分片")
+    @SaCheckRole({"student", "teacher"})
+    public Result<ChunkedUploadVO> uploadChunk(
+            @PathVariable Long uploadId,
+            @Parameter(description = "分片偏移量（分片大小的整数倍）") @RequestParam Long offset,
+            @Parameter(description = "分片MD5（十六进制）") @RequestParam String checksum,
+            HttpServletRequest request) throws IOException {
+        Long userId = StpUtil.getLoginIdAsLong();
+        return Result.success(documentService.uploadChunk(uploadId, userId, offset, checksum, request.getInputStream()));
+    }
+
+    /**
+     * 查询分片上传状态
+     *
+     * @param uploadId 上传会话ID
+     * @return 上传状态（含缺失的分片序号）
+     */
+    @GetMapping("/uploads/{uploadId}")
+    @Operation(summary = "查询分片上传状态")
+    @SaCheckRole({"student", "teacher"})
+    public Result<ChunkedUploadVO> getChunkedUpload(@PathVariable Long uploadId) {
+        Long userId = StpUtil.getLoginIdAsLong();
+        return Result.success(documentService.getChunkedUpload(uploadId, userId));
+    }
+
+    /**
+     * 完成分片上传
+     *
+     * @param uploadId 上传会话ID
+     * @return 文档信息
+     */
+    @PostMapping("/uploads/{uploadId}/complete")
+    @Operation(summary = "完成分片上传")
+    @SaCheckRole({"student", "teacher"})
+    public Result<DocumentVO> completeChunkedUpload(@PathVariable Long uploadId) {
+        Long userId = StpUtil.getLoginIdAsLong();
+        return Result.success(documentService.completeChunkedUpload(uploadId, userId));
+    }
+
     /**
      * 下载文档
+     * 文件内容直接流式写入响应，不经过堆内存缓冲；支持单区间 Range 与 If-Range 断点续传，
+     * 容器支持 sendfile 时由 Tomcat 直接从文件发送，否则使用 FileChannel.transferTo 写出
      *
      * @param id 文档ID
-     * @return 文件下载响应
+     * @param request 请求
+     * @param response 响应
      */
     @GetMapping("/{id}/download")
-    @Operation(summary = "下载文档")
+    @Operation(summary = "下载文档（支持Range断点续传）")
     @SaCheckRole({"student", "teacher", "admin"})
-    public ResponseEntity<byte[]> downloadDocument(@PathVariable Long id) {
+    public void downloadDocument(@PathVariable Long id, HttpServletRequest request, HttpServletResponse response) {
         Long userId = StpUtil.getLoginIdAsLong();
-        
-        try (InputStream inputStream = documentService.downloadDocument(id, userId)) {
-            // 获取文档信息用于设置响应头
-            DocumentVO document = documentService.getDocumentById(id);
-            if (document == null) {
-                return ResponseEntity.notFound().build();
+        DocumentDownloadVO download = documentService.downloadDocument(id, userId);
+        if (download.getRedirectUrl() != null) {
+            // 对象存储：重定向到预签名地址，由存储直接提供内容（含 Range 支持）
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+            try {
+                response.sendRedirect(download.getRedirectUrl());
+            } catch (IOException e) {
+                log.warn("文档下载重定向失败: {}，{}", id, e.getMessage());
+            }
+            return;
+        }
+        long length = download.getContentLength();
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.ETAG, download.getEtag());
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, download.getLastModified());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(download.getOriginalFilename(), StandardCharsets.UTF_8).build().toString());
+        response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+
+        // 1. 解析请求区间，null 表示返回完整文件
+        long start = 0;
+        long end = length - 1;
+        HttpRange range = resolveRange(request, download);
+        if (range != null) {
+            try {
+                start = range.getRangeStart(length);
+                end = range.getRangeEnd(length);
+            } catch (IllegalArgumentException e) {
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                return;
             }
-            
-            // 读取文件内容
-            byte[] bytes = inputStream.readAllBytes();
-            
-            // 设置响应头
-            String filename = URLEncoder.encode(document.getOriginalFilename(), StandardCharsets.UTF_8);
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
-            headers.setContentDispositionFormData("attachment", filename);
-            headers.setContentLength(bytes.length);
-            
-            return ResponseEntity.ok()
-                    .headers(headers)
-                    .body(bytes);
-                    
-        } catch (Exception e) {
-            log.error("文档下载失败: {}", id, e);
-            return ResponseEntity.internalServerError().build();
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+
+        // 2. 写出文件内容
+        try {
+            writeContent(request, response, download.getFile(), start, count);
+        } catch (IOException e) {
+            // 响应已提交，客户端中断下载时只记录日志
+            log.warn("文档下载中断: {}，{}", id, e.getMessage());
         }
     }
 
+    /**
+     * 导出文档归档
+     * 按条件将匹配文档打包为 ZIP 流式写入响应（忽略分页参数），同步写出，不受异步请求超时限制
+     *
+     * @param queryDTO 过滤条件（题目、院系、文件类型、审核状态）
+     * @param response 响应
+     */
+    @GetMapping("/export")
+    @Operation(summary = "导出文档归档（ZIP）")
+    @SaCheckRole("admin")
+    public void exportDocuments(DocumentPageQueryDTO queryDTO, HttpServletResponse response) {
+        String filename = "文档归档_" + LocalDate.now() + ".zip";
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(filename, StandardCharsets.UTF_8).build().toString());
+        response.setContentType("application/zip");
+        try {
+            documentService.exportDocuments(queryDTO, response.getOutputStream());
+        } catch (IOException e) {
+            // 响应已提交，客户端中断下载时只记录日志
+            log.warn("文档归档导出中断: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 重新处理文档
+     *
+     * @param id 文档ID
+     * @return 操作结果
+     */
+    @PostMapping("/{id}/reprocess")
+    @Operation(summary = "重新处理文档（文本提取、页数、缩略图）")
+    @SaCheckRole("admin")
+    public Result<Void> reprocessDocument(@PathVariable Long id) {
+        documentService.reprocessDocument(id);
+        return Result.success();
+    }
+
+    /**
+     * 获取文档后台处理统计
+     *
+     * @return 队列深度、积压任务数与处理耗时
+     */
+    @GetMapping("/process/stats")
+    @Operation(summary = "获取文档后台处理统计")
+    @SaCheckRole("admin")
+    public Result<DocumentProcessStatsVO> getProcessStats() {
+        return Result.success(documentService.getProcessStats());
+    }
+
+    /**
+     * 立即执行存储孤儿文件对账
+     *
+     * @return 对账结果（含回收字节数）
+     */
+    @PostMapping("/storage/reconcile")
+    @Operation(summary = "立即执行存储孤儿文件对账")
+    @SaCheckRole("admin")
+    public Result<StorageReconcileVO> reconcileStorage() {
+        return Result.success(documentService.reconcileStorage());
+    }
+
+    /**
+     * 获取最近一次存储对账结果
+     *
+     * @return 对账结果
+     */
+    @GetMapping("/storage/reconcile")
+    @Operation(summary = "获取最近一次存储对账结果")
+    @SaCheckRole("admin")
+    public Result<StorageReconcileVO> getLastStorageReconcile() {
+        return Result.success(documentService.getLastStorageReconcile());
+    }
+
+    /**
+     * 获取当前用户的存储用量
+     *
+     * @return 存储用量与配额
+     */
+    @GetMapping("/storage/usage/me")
+    @Operation(summary = "获取当前用户的存储用量")
+    @SaCheckRole({"student", "teacher"})
+    public Result<StorageUsageVO> getMyStorageUsage() {
+        Long userId = StpUtil.getLoginIdAsLong();
+        return Result.success(documentService.getStorageUsage(StorageUsageScope.USER.getValue(), userId));
+    }
+
+    /**
+     * 获取用户、题目或院系的存储用量
+     *
+     * @param scope 统计范围
+     * @param ownerId 用户ID/题目ID/院系ID
+     * @return 存储用量与配额
+     */
+    @GetMapping("/storage/usage")
+    @Operation(summary = "获取用户、题目或院系的存储用量")
+    @SaCheckRole({"teacher", "admin"})
+    public Result<StorageUsageVO> getStorageUsage(
+            @Parameter(description = "统计范围: 0-用户, 1-题目, 2-院系") @RequestParam Integer scope,
+            @Parameter(description = "用户ID/题目ID/院系ID") @RequestParam Long ownerId) {
+        return Result.success(documentService.getStorageUsage(scope, ownerId));
+    }
+
+    /**
+     * 获取存储用量排行
+     *
+     * @param scope 统计范围
+     * @param limit 数量
+     * @return 按已用空间降序的存储用量
+     */
+    @GetMapping("/storage/usage/top")
+    @Operation(summary = "获取存储用量排行")
+    @SaCheckRole("admin")
+    public Result<List<StorageUsageVO>> getTopStorageUsages(
+            @Parameter(description = "统计范围: 0-用户, 1-题目, 2-院系") @RequestParam Integer scope,
+            @Parameter(description = "数量") @RequestParam(defaultValue = "20") Integer limit) {
+        return Result.success(documentService.getTopStorageUsages(scope, limit));
+    }
+
+    /**
+     * 按文档表重新汇总存储用量
+     *
+     * @return 操作结果
+     */
+    @PostMapping("/storage/usage/rebuild")
+    @Operation(summary = "按文档表重新汇总存储用量")
+    @SaCheckRole("admin")
+    public Result<Void> rebuildStorageUsage() {
+        documentService.rebuildStorageUsage();
+        return Result.success();
+    }
+
+    /**
+     * 查询内容相似的文档
+     *
+     * @param id 文档ID
+     * @param limit 最多返回数量
+     * @return 按估计相似度降序的相似文档
+     */
+    @GetMapping("/{id}/similar")
+    @Operation(summary = "查询内容相似的文档（毕业论文、外文翻译）")
+    @SaCheckRole({"teacher", "admin"})
+    public Result<List<SimilarDocumentVO>> getSimilarDocuments(
+            @PathVariable Long id,
+            @Parameter(description = "最多返回数量") @RequestParam(defaultValue = "10") Integer limit) {
+        return Result.success(documentService.getSimilarDocuments(id, limit));
+    }
+
+    /**
+     * 从数据库全量重建相似度索引
+     *
+     * @return 操作结果
+     */
+    @PostMapping("/similarity/rebuild")
+    @Operation(summary = "从数据库全量重建相似度索引")
+    @SaCheckRole("admin")
+    public Result<Void> rebuildSimilarityIndex() {
+        documentService.rebuildSimilarityIndex();
+        return Result.success();
+    }
+
     /**
      * 审核文档
      *
@@ -230,4 +514,62 @@ public class DocumentController {
         queryDTO.setReviewStatus(reviewStatus);
         return Result.success(documentService.getDocumentPage(queryDTO));
     }
-}
\ No newline at end of file
+
+    /**
+     * 解析单区间 Range 请求
+     * If-Range 与当前 ETag 或最后修改时间不一致、Range 格式错误或包含多个区间时返回 null（返回完整文件）
+     */
+    private HttpRange resolveRange(HttpServletRequest request, DocumentDownloadVO download) {
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader == null || !isIfRangeSatisfied(request, download)) {
+            return null;
+        }
+        List<HttpRange> ranges;
+        try {
+            ranges = HttpRange.parseRanges(rangeHeader);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        return ranges.size() == 1 ? ranges.getFirst() : null;
+    }
+
+    /**
+     * If-Range 校验：实体标签需强匹配，日期需与最后修改时间（秒级）一致
+     */
+    private boolean isIfRangeSatisfied(HttpServletRequest request, DocumentDownloadVO download) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        ifRange = ifRange.trim();
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(download.getEtag());
+        }
+        try {
+            return request.getDateHeader(HttpHeaders.IF_RANGE) / 1000 == download.getLastModified() / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 写出文件区间 [start, start + count)
+     * 本地文件且容器支持 sendfile 时交由 Tomcat 在请求结束后直接发送，否则经 FileChannel.transferTo 写入响应流
+     */
+    private void writeContent(HttpServletRequest request, HttpServletResponse response,
+                              StoredFile file, long start, long count) throws IOException {
+        if (count <= 0) {
+            return;
+        }
+        Path localPath = file.localPath();
+        if (localPath != null && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTR))) {
+            request.setAttribute(SENDFILE_FILENAME_ATTR, localPath.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START_ATTR, start);
+            request.setAttribute(SENDFILE_END_ATTR, start + count);
+            return;
+        }
+        WritableByteChannel channel = Channels.newChannel(response.getOutputStream());
+        file.transferTo(start, count, channel);
+        response.flushBuffer();
+    }
+}
@@ -3,20 +3,37 @@ package com.lw.graduation.api.controller.grade;
 import cn.dev33.satoken.annotation.SaCheckRole;
 import cn.dev33.satoken.stp.StpUtil;
 import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.lw.graduation.api.dto.grade.GradeBatchInputDTO;
 import com.lw.graduation.api.dto.grade.GradeInputDTO;
 import com.lw.graduation.api.dto.grade.GradePageQueryDTO;
 import com.lw.graduation.api.dto.grade.GradeStatisticsQueryDTO;
+import com.lw.graduation.api.service.grade.GradeImportService;
 import com.lw.graduation.api.service.grade.GradeService;
+import com.lw.graduation.api.vo.grade.GradeImportResultVO;
+import com.lw.graduation.api.vo.grade.GradeLeaderboardEntryVO;
+import com.lw.graduation.api.vo.grade.GradeQuantileVO;
+import com.lw.graduation.api.vo.grade.GradeRankVO;
+import com.lw.graduation.api.vo.grade.GradeRecomputeJobVO;
 import com.lw.graduation.api.vo.grade.GradeVO;
+import com.lw.graduation.common.base.CursorPage;
 import com.lw.graduation.common.response.Result;
+import com.lw.graduation.infrastructure.tabular.TabularRowWriter;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -33,6 +50,7 @@ import java.util.List;
 public class GradeController {
 
     private final GradeService gradeService;
+    private final GradeImportService gradeImportService;
 
     /**
      * 分页查询成绩列表
@@ -46,6 +64,18 @@ public class GradeController {
         return Result.success(gradeService.getGradePage(queryDTO));
     }
 
+    /**
+     * 游标分页查询成绩列表
+     *
+     * @param queryDTO 查询条件
+     * @return 游标分页结果
+     */
+    @GetMapping("/cursor")
+    @Operation(summary = "游标分页查询成绩列表")
+    public Result<CursorPage<GradeVO>> getGradeCursorPage(GradePageQueryDTO queryDTO) {
+        return Result.success(gradeService.getGradeCursorPage(queryDTO));
+    }
+
     /**
      * 根据ID获取成绩详情
      *
@@ -73,6 +103,65 @@ public class GradeController {
         return Result.success(gradeVO);
     }
 
+    /**
+     * 批量录入成绩
+     * 校验失败的条目不影响其他条目，逐条返回录入结果
+     *
+     * @param batchDTO 成绩列表
+     * @return 逐条录入结果
+     */
+    @PostMapping("/batch")
+    @Operation(summary = "批量录入成绩")
+    @SaCheckRole("teacher")
+    public Result<GradeImportResultVO> inputGrades(@Validated @RequestBody GradeBatchInputDTO batchDTO) {
+        Long graderId = StpUtil.getLoginIdAsLong();
+        return Result.success(gradeImportService.inputGrades(batchDTO.getGrades(), graderId));
+    }
+
+    /**
+     * 导入成绩
+     * 文件首行为表头，支持中文或英文列名：学号或学生ID、题目ID、成绩、评语、成绩类型
+     *
+     * @param file CSV或XLSX文件
+     * @return 逐行导入结果
+     */
+    @PostMapping("/import")
+    @Operation(summary = "导入成绩")
+    @SaCheckRole("teacher")
+    public Result<GradeImportResultVO> importGrades(
+            @Parameter(description = "CSV或XLSX文件") @RequestParam("file") MultipartFile file) {
+        Long graderId = StpUtil.getLoginIdAsLong();
+        return Result.success(gradeImportService.importGrades(file, graderId));
+    }
+
+    /**
+     * 导出成绩
+     * 按查询条件流式导出全部成绩（忽略分页参数），边查询边写出响应；同步写出，不受异步请求超时限制
+     *
+     * @param queryDTO 查询条件
+     * @param format 导出格式（csv / xlsx）
+     * @param response 响应
+     */
+    @GetMapping("/export")
+    @Operation(summary = "导出成绩")
+    @SaCheckRole("admin")
+    public void exportGrades(
+            GradePageQueryDTO queryDTO,
+            @Parameter(description = "导出格式：csv或xlsx") @RequestParam(defaultValue = "csv") String format,
+            HttpServletResponse response) {
+        String contentType = TabularRowWriter.contentType(format);
+        String filename = TabularRowWriter.filename("成绩导出_" + LocalDate.now(), format);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(filename, StandardCharsets.UTF_8).build().toString());
+        response.setContentType(contentType);
+        try {
+            gradeService.exportGrades(queryDTO, format, response.getOutputStream());
+        } catch (IOException e) {
+            // 响应已提交，客户端中断下载时只记录日志
+            log.warn("成绩导出中断: {}", e.getMessage());
+        }
+    }
+
     /**
      * 自动计算综合成绩
      *
@@ -184,6 +273,131 @@ public class GradeController {
         return Result.success(statistics);
     }
 
+    /**
+     * 院系成绩分布对比
+     *
+     * @param departmentIds 院系ID列表（可选，默认全部院系）
+     * @return 各院系与整体的成绩分布
+     */
+    @GetMapping("/statistics/departments")
+    @Operation(summary = "院系成绩分布对比")
+    @SaCheckRole("admin")
+    public Result<String> getDepartmentGradeComparison(@RequestParam(required = false) List<Long> departmentIds) {
+        return Result.success(gradeService.getDepartmentGradeComparison(departmentIds));
+    }
+
+    /**
+     * 获取学生成绩排名
+     *
+     * @param studentId 学生ID
+     * @param topicId 题目ID（可选，默认取最近一次成绩）
+     * @param scope 排名范围: 1-题目, 2-院系, 3-全校, 4-评分教师
+     * @return 排名信息
+     */
+    @GetMapping("/student/{studentId}/rank")
+    @Operation(summary = "获取学生成绩排名")
+    @SaCheckRole({"student", "teacher", "admin"})
+    public Result<GradeRankVO> getStudentRank(
+            @PathVariable Long studentId,
+            @RequestParam(required = false) Long topicId,
+            @RequestParam(required = false, defaultValue = "1") Integer scope) {
+        return Result.success(gradeService.getStudentRank(studentId, topicId, scope));
+    }
+
+    /**
+     * 分页查询成绩排行榜
+     * 排行榜随成绩录入与删除增量维护，按名次直接定位当前页
+     *
+     * @param scope 排名范围: 1-题目, 2-院系, 3-全校, 4-评分教师
+     * @param scopeId 范围ID（题目、院系或教师ID）
+     * @param current 页码
+     * @param size 每页条数
+     * @return 排行榜分页
+     */
+    @GetMapping("/leaderboard")
+    @Operation(summary = "分页查询成绩排行榜")
+    @SaCheckRole({"teacher", "admin"})
+    public Result<IPage<GradeLeaderboardEntryVO>> getLeaderboard(
+            @RequestParam Integer scope,
+            @RequestParam(required = false) Long scopeId,
+            @RequestParam(defaultValue = "1") Long current,
+            @RequestParam(defaultValue = "20") Long size) {
+        return Result.success(gradeService.getLeaderboard(scope, scopeId, current, size));
+    }
+
+    /**
+     * 获取成绩分位数
+     *
+     * @param scope 统计范围: 1-题目, 2-院系, 3-全校, 4-评分教师
+     * @param scopeId 范围ID（题目、院系或教师ID）
+     * @param percents 百分位列表，如 50,90
+     * @return 分位数信息
+     */
+    @GetMapping("/quantiles")
+    @Operation(summary = "获取成绩分位数")
+    @SaCheckRole({"teacher", "admin"})
+    public Result<GradeQuantileVO> getGradeQuantiles(
+            @RequestParam Integer scope,
+            @RequestParam(required = false) Long scopeId,
+            @RequestParam(required = false) List<Integer> percents) {
+        return Result.success(gradeService.getGradeQuantiles(scope, scopeId, percents));
+    }
+
+    /**
+     * 重建成绩统计汇总
+     * 用于数据修复或题目调整所属院系后重新汇总
+     *
+     * @return 操作结果
+     */
+    @PostMapping("/statistics/rebuild")
+    @Operation(summary = "重建成绩统计汇总")
+    @SaCheckRole("admin")
+    public Result<Void> rebuildGradeStatistics() {
+        gradeService.rebuildGradeStatistics();
+        return Result.success();
+    }
+
+    /**
+     * 启动综合成绩重算任务
+     * 按当前权重规则重新计算全部学生题目的综合成绩，异步执行
+     *
+     * @return 任务ID
+     */
+    @PostMapping("/composites/recompute")
+    @Operation(summary = "启动综合成绩重算")
+    @SaCheckRole("admin")
+    public Result<Long> startCompositeRecompute() {
+        Long userId = StpUtil.getLoginIdAsLong();
+        return Result.success(gradeService.startCompositeRecompute(userId));
+    }
+
+    /**
+     * 从断点续跑综合成绩重算任务
+     *
+     * @param jobId 任务ID
+     * @return 操作结果
+     */
+    @PostMapping("/composites/recompute/{jobId}/resume")
+    @Operation(summary = "续跑综合成绩重算")
+    @SaCheckRole("admin")
+    public Result<Void> resumeCompositeRecompute(@PathVariable Long jobId) {
+        gradeService.resumeCompositeRecompute(jobId);
+        return Result.success();
+    }
+
+    /**
+     * 查询综合成绩重算任务进度
+     *
+     * @param jobId 任务ID
+     * @return 任务进度
+     */
+    @GetMapping("/composites/recompute/{jobId}")
+    @Operation(summary = "查询综合成绩重算进度")
+    @SaCheckRole("admin")
+    public Result<GradeRecomputeJobVO> getCompositeRecomputeJob(@PathVariable Long jobId) {
+        return Result.success(gradeService.getCompositeRecomputeJob(jobId));
+    }
+
     /**
      * 获取特定题目的成绩分布
      *
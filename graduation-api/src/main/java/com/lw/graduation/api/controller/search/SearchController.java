@@ -0,0 +1,62 @@
+package com.lw.graduation.api.controller.search;
+
+import cn.dev33.satoken.annotation.SaCheckRole;
+import cn.dev33.satoken.stp.StpUtil;
+import com.lw.graduation.api.service.search.SearchService;
+import com.lw.graduation.api.vo.search.SearchHitVO;
+import com.lw.graduation.common.response.Result;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * 全文检索控制器
+ * 提供题目、通知、文档的关键词检索和索引重建API端点。
+ *
+ * @author lw
+ */
+@RestController
+@RequestMapping("/api/search")
+@Tag(name = "全文检索", description = "题目、通知、文档关键词检索接口")
+@RequiredArgsConstructor
+public class SearchController {
+
+    private final SearchService searchService;
+
+    /**
+     * 关键词检索（只返回当前用户可见的通知和文档）
+     *
+     * @param keyword 关键词
+     * @param type 文档类型（topic/notice/document），为空检索全部
+     * @param limit 最大返回条数
+     * @return 命中结果
+     */
+    @GetMapping
+    @Operation(summary = "关键词检索")
+    public Result<List<SearchHitVO>> search(@RequestParam String keyword,
+                                            @RequestParam(required = false) String type,
+                                            @RequestParam(required = false) Integer limit) {
+        Long userId = StpUtil.getLoginIdAsLong();
+        return Result.success(searchService.search(keyword, type, limit, userId));
+    }
+
+    /**
+     * 重建全文索引
+     *
+     * @return 操作结果
+     */
+    @PostMapping("/rebuild")
+    @Operation(summary = "重建全文索引")
+    @SaCheckRole("admin")
+    public Result<Void> rebuildIndex() {
+        searchService.rebuildIndex();
+        return Result.success();
+    }
+}
@@ -8,14 +8,23 @@ import com.lw.graduation.api.dto.selection.SelectionPageQueryDTO;
 import com.lw.graduation.api.dto.selection.SelectionReviewDTO;
 import com.lw.graduation.api.service.selection.SelectionService;
 import com.lw.graduation.api.vo.selection.SelectionVO;
+import com.lw.graduation.common.base.CursorPage;
 import com.lw.graduation.common.response.Result;
+import com.lw.graduation.infrastructure.tabular.TabularRowWriter;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -45,6 +54,18 @@ public class SelectionController {
         return Result.success(selectionService.getSelectionPage(queryDTO));
     }
 
+    /**
+     * 游标分页查询选题列表
+     *
+     * @param queryDTO 查询条件
+     * @return 游标分页结果
+     */
+    @GetMapping("/cursor")
+    @Operation(summary = "游标分页查询选题列表")
+    public Result<CursorPage<SelectionVO>> getSelectionCursorPage(SelectionPageQueryDTO queryDTO) {
+        return Result.success(selectionService.getSelectionCursorPage(queryDTO));
+    }
+
     /**
      * 根据ID获取选题详情
      *
@@ -57,6 +78,34 @@ public class SelectionController {
         return Result.success(selectionService.getSelectionById(id));
     }
 
+    /**
+     * 导出选题记录
+     * 按查询条件流式导出全部选题记录（忽略分页参数），边查询边写出响应；同步写出，不受异步请求超时限制
+     *
+     * @param queryDTO 查询条件
+     * @param format 导出格式（csv / xlsx）
+     * @param response 响应
+     */
+    @GetMapping("/export")
+    @Operation(summary = "导出选题记录")
+    @SaCheckRole("admin")
+    public void exportSelections(
+            SelectionPageQueryDTO queryDTO,
+            @Parameter(description = "导出格式：csv或xlsx") @RequestParam(defaultValue = "csv") String format,
+            HttpServletResponse response) {
+        String contentType = TabularRowWriter.contentType(format);
+        String filename = TabularRowWriter.filename("选题导出_" + LocalDate.now(), format);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(filename, StandardCharsets.UTF_8).build().toString());
+        response.setContentType(contentType);
+        try {
+            selectionService.exportSelections(queryDTO, format, response.getOutputStream());
+        } catch (IOException e) {
+            // 响应已提交，客户端中断下载时只记录日志
+            log.warn("选题记录导出中断: {}", e.getMessage());
+        }
+    }
+
     /**
      * 学生申请选题
      *
@@ -1,16 +1,26 @@
 package com.lw.graduation.api.controller.topic;
 
 import cn.dev33.satoken.annotation.SaCheckRole;
+import cn.dev33.satoken.stp.StpUtil;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.lw.graduation.api.dto.topic.TopicCreateDTO;
 import com.lw.graduation.api.dto.topic.TopicPageQueryDTO;
 import com.lw.graduation.api.dto.topic.TopicUpdateDTO;
+import com.lw.graduation.api.service.topic.TopicImportService;
 import com.lw.graduation.api.service.topic.TopicService;
+import com.lw.graduation.api.vo.topic.TopicCatalogVO;
+import com.lw.graduation.api.vo.topic.TopicImportResultVO;
 import com.lw.graduation.api.vo.topic.TopicVO;
+import com.lw.graduation.common.base.CursorPage;
 import com.lw.graduation.common.response.Result;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -18,8 +28,14 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * 课题管理控制器
@@ -34,6 +50,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class TopicController {
 
     private final TopicService topicService;
+    private final TopicImportService topicImportService;
 
     /**
      * 分页查询课题列表
@@ -47,6 +64,43 @@ public class TopicController {
         return Result.success(topicService.getTopicPage(queryDTO));
     }
 
+    /**
+     * 游标分页查询课题列表
+     *
+     * @param queryDTO 查询条件
+     * @return 游标分页结果
+     */
+    @GetMapping("/cursor")
+    @Operation(summary = "游标分页查询课题列表")
+    public Result<CursorPage<TopicVO>> getTopicCursorPage(TopicPageQueryDTO queryDTO) {
+        return Result.success(topicService.getTopicCursorPage(queryDTO));
+    }
+
+    /**
+     * 获取可选课题目录
+     * 支持条件请求：If-None-Match 与当前快照版本一致时返回 304
+     *
+     * @param departmentId 院系ID（可选）
+     * @param ifNoneMatch 客户端缓存的版本标识
+     * @return 可选课题列表
+     */
+    @GetMapping("/selectable")
+    @Operation(summary = "获取可选课题目录")
+    public ResponseEntity<Result<List<TopicVO>>> getSelectableTopics(
+            @RequestParam(required = false) Long departmentId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        TopicCatalogVO catalog = topicService.getSelectableTopicCatalog(departmentId);
+        if (ifNoneMatch != null && Arrays.stream(ifNoneMatch.split(","))
+                .map(tag -> tag.trim().replaceFirst("^W/", ""))
+                .anyMatch(tag -> tag.equals(catalog.getEtag()) || "*".equals(tag))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(catalog.getEtag()).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(catalog.getEtag())
+                .cacheControl(CacheControl.noCache())
+                .body(Result.success(catalog.getTopics()));
+    }
+
     /**
      * 根据ID获取课题详情
      *
@@ -73,6 +127,22 @@ public class TopicController {
         return Result.success();
     }
 
+    /**
+     * 批量导入课题
+     * 文件首行为表头，支持中文或英文列名：标题、描述、院系ID、来源、类型、性质、难度、工作量、人数上限
+     *
+     * @param file CSV或XLSX文件
+     * @return 逐行导入结果
+     */
+    @PostMapping("/import")
+    @Operation(summary = "批量导入课题")
+    @SaCheckRole("teacher") // 仅教师可导入课题
+    public Result<TopicImportResultVO> importTopics(
+            @Parameter(description = "CSV或XLSX文件") @RequestParam("file") MultipartFile file) {
+        Long userId = StpUtil.getLoginIdAsLong();
+        return Result.success(topicImportService.importTopics(file, userId));
+    }
+
     /**
      * 更新课题
      *
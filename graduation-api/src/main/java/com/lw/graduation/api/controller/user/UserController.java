@@ -7,6 +7,7 @@ import com.lw.graduation.api.dto.user.UserUpdateDTO;
 import com.lw.graduation.api.service.user.UserService;
 import com.lw.graduation.api.vo.user.UserListInfoVO;
 import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.lw.graduation.common.base.CursorPage;
 import com.lw.graduation.common.response.Result;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -50,6 +51,19 @@ public class UserController {
         return Result.success(userService.getUserPage(queryDTO));
     }
 
+    /**
+     * 游标分页查询用户列表
+     *
+     * @param queryDTO 查询条件
+     * @return 游标分页结果
+     */
+    @GetMapping("/cursor")
+    @Operation(summary = "游标分页查询用户列表")
+    @SaCheckRole("admin") // 仅管理员可访问
+    public Result<CursorPage<UserListInfoVO>> getUserCursorPage(UserPageQueryDTO queryDTO) {
+        return Result.success(userService.getUserCursorPage(queryDTO));
+    }
+
     /**
      * 根据ID获取用户详情
      *
@@ -0,0 +1,56 @@
+package com.lw.graduation.api.dto.document;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * 分片上传初始化DTO
+ * 声明待上传文件的信息，服务端据此预分配临时文件并返回分片规格
+ *
+ * @author lw
+ */
+@Data
+@Schema(description = "分片上传初始化请求DTO")
+public class ChunkedUploadInitDTO implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 关联题目ID
+     */
+    @NotNull(message = "题目ID不能为空")
+    @Schema(description = "关联题目ID", requiredMode = Schema.RequiredMode.REQUIRED)
+    private Long topicId;
+
+    /**
+     * 文件类型
+     */
+    @NotNull(message = "文件类型不能为空")
+    @Schema(description = "文件类型: 0-开题报告, 1-中期报告, 2-毕业论文, 3-外文翻译, 4-其他文档",
+            requiredMode = Schema.RequiredMode.REQUIRED)
+    private Integer fileType;
+
+    /**
+     * 原始文件名
+     */
+    @NotBlank(message = "文件名不能为空")
+    @Size(max = 255, message = "文件名长度不能超过255")
+    @Schema(description = "原始文件名", requiredMode = Schema.RequiredMode.REQUIRED)
+    private String filename;
+
+    /**
+     * 文件大小(字节)
+     */
+    @NotNull(message = "文件大小不能为空")
+    @Positive(message = "文件大小必须大于0")
+    @Schema(description = "文件大小(字节)", requiredMode = Schema.RequiredMode.REQUIRED)
+    private Long fileSize;
+}
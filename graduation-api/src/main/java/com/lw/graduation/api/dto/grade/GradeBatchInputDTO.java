@@ -0,0 +1,34 @@
+package com.lw.graduation.api.dto.grade;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 成绩批量录入DTO
+ * 一次提交多条成绩，逐条返回录入结果
+ *
+ * @author lw
+ */
+@Data
+@Schema(description = "成绩批量录入请求DTO")
+public class GradeBatchInputDTO implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 成绩列表
+     */
+    @Valid
+    @NotEmpty(message = "成绩列表不能为空")
+    @Size(max = 1000, message = "单次最多录入1000条成绩")
+    @Schema(description = "成绩列表", requiredMode = Schema.RequiredMode.REQUIRED)
+    private List<GradeInputDTO> grades;
+}
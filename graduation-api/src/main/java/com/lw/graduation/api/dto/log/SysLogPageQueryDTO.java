@@ -0,0 +1,41 @@
+package com.lw.graduation.api.dto.log;
+
+import com.lw.graduation.common.base.BasePageQueryDTO;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * 系统日志分页查询参数
+ *
+ * @author lw
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@Schema(description = "系统日志分页查询参数")
+public class SysLogPageQueryDTO extends BasePageQueryDTO {
+
+    /**
+     * 操作用户ID
+     */
+    @Schema(description = "操作用户ID")
+    private Long userId;
+
+    /**
+     * 业务模块
+     */
+    @Schema(description = "业务模块")
+    private String module;
+
+    /**
+     * 业务ID
+     */
+    @Schema(description = "业务ID")
+    private Long businessId;
+
+    /**
+     * 操作状态
+     */
+    @Schema(description = "操作状态")
+    private Integer status;
+}
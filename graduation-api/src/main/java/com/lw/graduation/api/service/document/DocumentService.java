@@ -1,13 +1,24 @@
 package com.lw.graduation.api.service.document;
 
 import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.lw.graduation.api.dto.document.ChunkedUploadInitDTO;
 import com.lw.graduation.api.dto.document.DocumentPageQueryDTO;
 import com.lw.graduation.api.dto.document.DocumentReviewDTO;
 import com.lw.graduation.api.dto.document.DocumentUploadDTO;
+import com.lw.graduation.api.vo.document.ChunkedUploadVO;
+import com.lw.graduation.api.vo.document.DocumentDownloadVO;
+import com.lw.graduation.api.vo.document.DocumentProcessStatsVO;
 import com.lw.graduation.api.vo.document.DocumentVO;
+import com.lw.graduation.api.vo.document.SimilarDocumentVO;
+import com.lw.graduation.api.vo.document.StorageReconcileVO;
+import com.lw.graduation.api.vo.document.StorageUsageVO;
+import com.lw.graduation.common.base.CursorPage;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
 
 /**
  * 文档服务接口
@@ -25,6 +36,14 @@ public interface DocumentService {
      */
     IPage<DocumentVO> getDocumentPage(DocumentPageQueryDTO queryDTO);
 
+    /**
+     * 游标分页查询文档列表（按上传时间倒序，深度翻页不产生OFFSET扫描）
+     *
+     * @param queryDTO 查询条件（cursor 为上一页返回的 nextCursor）
+     * @return 游标分页结果
+     */
+    CursorPage<DocumentVO> getDocumentCursorPage(DocumentPageQueryDTO queryDTO);
+
     /**
      * 根据ID获取文档详情
      *
@@ -42,14 +61,129 @@ public interface DocumentService {
      */
     DocumentVO uploadDocument(DocumentUploadDTO uploadDTO, Long userId);
 
+    /**
+     * 初始化分片上传（大文件断点续传），预分配临时文件
+     *
+     * @param initDTO 文件信息
+     * @param userId 用户ID
+     * @return 上传状态（含分片规格）
+     */
+    ChunkedUploadVO initChunkedUpload(ChunkedUploadInitDTO initDTO, Long userId);
+
+    /**
+     * 上传一个分片，按偏移量直接写入临时文件的对应位置
+     *
+     * @param uploadId 上传会话ID
+     * @param userId 用户ID
+     * @param offset 分片偏移量（须为分片大小的整数倍）
+     * @param checksum 分片MD5（十六进制）
+     * @param content 分片内容
+     * @return 上传状态
+     */
+    ChunkedUploadVO uploadChunk(Long uploadId, Long userId, Long offset, String checksum, InputStream content);
+
+    /**
+     * 查询分片上传状态（断线重连后据此补传缺失分片）
+     *
+     * @param uploadId 上传会话ID
+     * @param userId 用户ID
+     * @return 上传状态
+     */
+    ChunkedUploadVO getChunkedUpload(Long uploadId, Long userId);
+
+    /**
+     * 完成分片上传，将临时文件移入存储并创建文档记录
+     *
+     * @param uploadId 上传会话ID
+     * @param userId 用户ID
+     * @return 文档VO
+     */
+    DocumentVO completeChunkedUpload(Long uploadId, Long userId);
+
     /**
      * 下载文档
      *
      * @param documentId 文档ID
      * @param userId 用户ID
-     * @return 文件输入流
+     * @return 下载信息（元数据与文件句柄，内容由调用方流式写出）
+     */
+    DocumentDownloadVO downloadDocument(Long documentId, Long userId);
+
+    /**
+     * 流式导出文档归档（ZIP）
+     * 按过滤条件逐个读取文件写入输出流，文件内容不在内存或临时文件中缓存
+     *
+     * @param queryDTO 过滤条件（题目、院系、文件类型、审核状态等，忽略分页参数）
+     * @param out 输出流（由调用方关闭）
+     * @throws IOException 读取文件或写出失败
+     */
+    void exportDocuments(DocumentPageQueryDTO queryDTO, OutputStream out) throws IOException;
+
+    /**
+     * 重新处理文档（文本提取、页数、缩略图、校验和核对）
+     * 为文档创建新的后台处理任务，用于处理失败的文档
+     *
+     * @param documentId 文档ID
+     */
+    void reprocessDocument(Long documentId);
+
+    /**
+     * 获取文档后台处理统计（队列深度、积压、处理耗时等）
+     *
+     * @return 处理统计
+     */
+    DocumentProcessStatsVO getProcessStats();
+
+    /**
+     * 查询内容相似的文档（仅毕业论文与外文翻译，需已完成后台处理）
+     *
+     * @param documentId 文档ID
+     * @param limit 最多返回数量
+     * @return 按估计相似度降序的相似文档
+     */
+    List<SimilarDocumentVO> getSimilarDocuments(Long documentId, int limit);
+
+    /**
+     * 从数据库全量重建相似度索引
+     */
+    void rebuildSimilarityIndex();
+
+    /**
+     * 立即执行一次存储孤儿文件对账（删除未被文档引用且超过保留天数的文件）
+     *
+     * @return 对账结果
+     */
+    StorageReconcileVO reconcileStorage();
+
+    /**
+     * 获取最近一次存储对账结果
+     *
+     * @return 对账结果，尚未执行时为null
+     */
+    StorageReconcileVO getLastStorageReconcile();
+
+    /**
+     * 获取单个用户、题目或院系的存储用量（读取增量累计的计数，不做汇总查询）
+     *
+     * @param scope 统计范围: 0-用户, 1-题目, 2-院系
+     * @param ownerId 用户ID/题目ID/院系ID
+     * @return 存储用量
+     */
+    StorageUsageVO getStorageUsage(Integer scope, Long ownerId);
+
+    /**
+     * 获取存储用量最多的用户、题目或院系
+     *
+     * @param scope 统计范围: 0-用户, 1-题目, 2-院系
+     * @param limit 数量
+     * @return 按已用空间降序的存储用量
+     */
+    List<StorageUsageVO> getTopStorageUsages(Integer scope, int limit);
+
+    /**
+     * 按文档表重新汇总存储用量（修正累计偏差）
      */
-    InputStream downloadDocument(Long documentId, Long userId);
+    void rebuildStorageUsage();
 
     /**
      * 审核文档
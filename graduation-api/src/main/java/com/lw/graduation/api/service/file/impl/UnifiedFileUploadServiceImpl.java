@@ -5,6 +5,7 @@ import com.lw.graduation.api.service.file.UnifiedFileUploadService;
 import com.lw.graduation.api.vo.file.FileUploadResultVO;
 import com.lw.graduation.common.enums.FileFormatType;
 import com.lw.graduation.infrastructure.storage.FileStorageService;
+import com.lw.graduation.infrastructure.storage.StoreResult;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -41,10 +42,10 @@ public class UnifiedFileUploadServiceImpl implements UnifiedFileUploadService {
         }
 
         // 存储文件
-        String storedPath = fileStorageService.store(file, category);
+        StoreResult stored = fileStorageService.store(file, category);
         
         // 构建返回结果
-        return buildResult(file, storedPath);
+        return buildResult(file, stored);
     }
 
     @Override
@@ -69,10 +70,10 @@ public class UnifiedFileUploadServiceImpl implements UnifiedFileUploadService {
 
         // 存储头像文件
         String category = "avatar/" + userId;
-        String storedPath = fileStorageService.store(file, category, "avatar");
+        StoreResult stored = fileStorageService.store(file, category, "avatar");
         
         // 构建返回结果
-        return buildResult(file, storedPath);
+        return buildResult(file, stored);
     }
 
     @Override
@@ -101,10 +102,10 @@ public class UnifiedFileUploadServiceImpl implements UnifiedFileUploadService {
 
         // 存储文档文件
         String category = "document/topic_" + topicId + "/" + fileType;
-        String storedPath = fileStorageService.store(file, category);
+        StoreResult stored = fileStorageService.store(file, category);
         
         // 构建返回结果
-        return buildResult(file, storedPath);
+        return buildResult(file, stored);
     }
 
     @Override
@@ -134,16 +135,16 @@ public class UnifiedFileUploadServiceImpl implements UnifiedFileUploadService {
     /**
      * 构建上传结果
      */
-    private FileUploadResultVO buildResult(MultipartFile file, String storedPath) {
+    private FileUploadResultVO buildResult(MultipartFile file, StoreResult stored) {
         String originalFilename = file.getOriginalFilename();
         String extension = getFileExtension(originalFilename);
         
         return FileUploadResultVO.of(
             originalFilename,
-            file.getSize(),
+            stored.getSize(),
             file.getContentType(),
-            storedPath,
-            fileStorageService.getUrl(storedPath),
+            stored.getPath(),
+            fileStorageService.getUrl(stored.getPath()),
             extension,
             DateUtil.now()
         );
@@ -0,0 +1,35 @@
+package com.lw.graduation.api.service.grade;
+
+import com.lw.graduation.api.dto.grade.GradeInputDTO;
+import com.lw.graduation.api.vo.grade.GradeImportResultVO;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.List;
+
+/**
+ * 成绩批量录入服务接口
+ * 通过接口列表或CSV/XLSX文件一次录入多条成绩，逐行返回录入结果。
+ *
+ * @author lw
+ */
+public interface GradeImportService {
+
+    /**
+     * 批量录入成绩
+     * 校验失败的条目不影响其他条目录入，结果中给出每条的成功状态或失败原因
+     *
+     * @param inputs 成绩列表
+     * @param graderId 评分教师ID
+     * @return 录入结果
+     */
+    GradeImportResultVO inputGrades(List<GradeInputDTO> inputs, Long graderId);
+
+    /**
+     * 从文件批量导入成绩
+     *
+     * @param file 上传的CSV或XLSX文件（首行为表头）
+     * @param graderId 评分教师ID
+     * @return 导入结果
+     */
+    GradeImportResultVO importGrades(MultipartFile file, Long graderId);
+}
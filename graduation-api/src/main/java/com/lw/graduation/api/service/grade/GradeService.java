@@ -4,8 +4,15 @@ import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.lw.graduation.api.dto.grade.GradeInputDTO;
 import com.lw.graduation.api.dto.grade.GradePageQueryDTO;
 import com.lw.graduation.api.dto.grade.GradeStatisticsQueryDTO;
+import com.lw.graduation.api.vo.grade.GradeLeaderboardEntryVO;
+import com.lw.graduation.api.vo.grade.GradeQuantileVO;
+import com.lw.graduation.api.vo.grade.GradeRankVO;
+import com.lw.graduation.api.vo.grade.GradeRecomputeJobVO;
 import com.lw.graduation.api.vo.grade.GradeVO;
+import com.lw.graduation.common.base.CursorPage;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.util.List;
 
@@ -25,6 +32,14 @@ public interface GradeService {
      */
     IPage<GradeVO> getGradePage(GradePageQueryDTO queryDTO);
 
+    /**
+     * 游标分页查询成绩列表（按评分时间倒序，深度翻页不产生OFFSET扫描）
+     *
+     * @param queryDTO 查询条件（cursor 为上一页返回的 nextCursor）
+     * @return 游标分页结果
+     */
+    CursorPage<GradeVO> getGradeCursorPage(GradePageQueryDTO queryDTO);
+
     /**
      * 根据ID获取成绩详情
      *
@@ -75,6 +90,85 @@ public interface GradeService {
      */
     String getGradeStatistics(GradeStatisticsQueryDTO queryDTO);
 
+    /**
+     * 院系成绩分布对比
+     * 各院系分布与合并后的整体分布，未指定院系时对比全部院系（即全校报表）
+     *
+     * @param departmentIds 院系ID列表（可选）
+     * @return 院系成绩分布对比JSON字符串
+     */
+    String getDepartmentGradeComparison(List<Long> departmentIds);
+
+    /**
+     * 获取学生成绩在指定范围内的排名
+     *
+     * @param studentId 学生ID
+     * @param topicId 题目ID（为空时取该学生最近一次成绩）
+     * @param scope 排名范围: 1-题目, 2-院系, 3-全校, 4-评分教师
+     * @return 排名信息
+     */
+    GradeRankVO getStudentRank(Long studentId, Long topicId, Integer scope);
+
+    /**
+     * 获取指定范围内成绩的分位数
+     *
+     * @param scope 统计范围: 1-题目, 2-院系, 3-全校, 4-评分教师
+     * @param scopeId 范围ID（题目、院系或教师ID，全校范围忽略）
+     * @param percents 百分位列表（0~100）
+     * @return 分位数信息
+     */
+    GradeQuantileVO getGradeQuantiles(Integer scope, Long scopeId, List<Integer> percents);
+
+    /**
+     * 从成绩表全量重建成绩统计汇总
+     */
+    void rebuildGradeStatistics();
+
+    /**
+     * 启动综合成绩重算任务（异步执行，集群内同一时刻只运行一个任务）
+     *
+     * @param userId 发起人ID
+     * @return 任务ID
+     */
+    Long startCompositeRecompute(Long userId);
+
+    /**
+     * 从断点续跑未完成的综合成绩重算任务
+     *
+     * @param jobId 任务ID
+     */
+    void resumeCompositeRecompute(Long jobId);
+
+    /**
+     * 查询综合成绩重算任务进度
+     *
+     * @param jobId 任务ID
+     * @return 任务进度
+     */
+    GradeRecomputeJobVO getCompositeRecomputeJob(Long jobId);
+
+    /**
+     * 分页查询成绩排行榜（按成绩降序，同分并列）
+     *
+     * @param scope 排名范围: 1-题目, 2-院系, 3-全校, 4-评分教师
+     * @param scopeId 范围ID（全校范围忽略）
+     * @param current 页码
+     * @param size 每页条数
+     * @return 排行榜分页
+     */
+    IPage<GradeLeaderboardEntryVO> getLeaderboard(Integer scope, Long scopeId, long current, long size);
+
+    /**
+     * 流式导出成绩（含学生、题目、院系与评分教师信息）
+     * 逐行写入输出流，内存占用与导出行数无关
+     *
+     * @param queryDTO 过滤条件（忽略分页参数）
+     * @param format 导出格式（csv / xlsx）
+     * @param out 输出流（由调用方关闭）
+     * @throws IOException 写出失败
+     */
+    void exportGrades(GradePageQueryDTO queryDTO, String format, OutputStream out) throws IOException;
+
     /**
      * 删除成绩
      *
@@ -5,6 +5,7 @@ import com.lw.graduation.api.dto.notice.NoticeCreateDTO;
 import com.lw.graduation.api.dto.notice.NoticePageQueryDTO;
 import com.lw.graduation.api.dto.notice.NoticeUpdateDTO;
 import com.lw.graduation.api.vo.notice.NoticeVO;
+import com.lw.graduation.common.base.CursorPage;
 
 import java.util.List;
 
@@ -24,6 +25,14 @@ public interface NoticeService {
      */
     IPage<NoticeVO> getNoticePage(NoticePageQueryDTO queryDTO);
 
+    /**
+     * 游标分页查询通知列表（按创建时间倒序，深度翻页不产生OFFSET扫描）
+     *
+     * @param queryDTO 查询条件（cursor 为上一页返回的 nextCursor）
+     * @return 游标分页结果
+     */
+    CursorPage<NoticeVO> getNoticeCursorPage(NoticePageQueryDTO queryDTO);
+
     /**
      * 根据ID获取通知详情
      *
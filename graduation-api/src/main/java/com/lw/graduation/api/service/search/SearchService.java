@@ -0,0 +1,30 @@
+package com.lw.graduation.api.service.search;
+
+import com.lw.graduation.api.vo.search.SearchHitVO;
+
+import java.util.List;
+
+/**
+ * 全文检索服务接口
+ * 基于内嵌倒排索引检索题目、通知和文档。
+ *
+ * @author lw
+ */
+public interface SearchService {
+
+    /**
+     * 关键词检索（按当前用户的可见范围过滤）
+     *
+     * @param keyword 关键词
+     * @param type 文档类型编码，为空时检索全部类型
+     * @param limit 最大返回条数
+     * @param userId 当前用户ID
+     * @return 按相关度降序的命中结果
+     */
+    List<SearchHitVO> search(String keyword, String type, Integer limit, Long userId);
+
+    /**
+     * 从数据库全量重建索引
+     */
+    void rebuildIndex();
+}
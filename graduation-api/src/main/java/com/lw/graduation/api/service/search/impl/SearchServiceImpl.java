@@ -0,0 +1,153 @@
+package com.lw.graduation.api.service.search.impl;
+
+import cn.hutool.core.util.StrUtil;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.lw.graduation.api.service.search.SearchService;
+import com.lw.graduation.api.service.user.UserRoleService;
+import com.lw.graduation.api.vo.search.SearchHitVO;
+import com.lw.graduation.common.enums.ResponseCode;
+import com.lw.graduation.common.exception.BusinessException;
+import com.lw.graduation.domain.entity.document.BizDocument;
+import com.lw.graduation.domain.entity.notice.BizNotice;
+import com.lw.graduation.domain.entity.topic.BizTopic;
+import com.lw.graduation.domain.enums.notice.NoticeStatus;
+import com.lw.graduation.infrastructure.mapper.document.BizDocumentMapper;
+import com.lw.graduation.infrastructure.mapper.notice.BizNoticeMapper;
+import com.lw.graduation.infrastructure.mapper.topic.BizTopicMapper;
+import com.lw.graduation.infrastructure.search.SearchDocType;
+import com.lw.graduation.infrastructure.search.SearchHit;
+import com.lw.graduation.infrastructure.search.SearchIndexService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 全文检索服务实现
+ * 索引不区分可见性，命中结果按各模块的可见规则回表过滤：通知仅返回已发布且在有效期内的（发布者可见自己的全部通知），
+ * 文档仅返回本人上传或本人指导题目下的，管理员不受限制。
+ *
+ * @author lw
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SearchServiceImpl implements SearchService {
+
+    private static final int DEFAULT_LIMIT = 20;
+    private static final int MAX_LIMIT = 100;
+    /** 单类型最多扫描的命中数（可见性过滤后不足时继续向后扫描） */
+    private static final int MAX_SCAN = 1000;
+
+    private final SearchIndexService searchIndexService;
+    private final UserRoleService userRoleService;
+    private final BizNoticeMapper bizNoticeMapper;
+    private final BizDocumentMapper bizDocumentMapper;
+    private final BizTopicMapper bizTopicMapper;
+
+    @Override
+    public List<SearchHitVO> search(String keyword, String type, Integer limit, Long userId) {
+        if (StrUtil.isBlank(keyword)) {
+            throw new BusinessException(ResponseCode.PARAM_ERROR.getCode(), "检索关键词不能为空");
+        }
+        int size = limit == null || limit <= 0 ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
+
+        List<SearchDocType> types;
+        if (StrUtil.isBlank(type)) {
+            types = List.of(SearchDocType.values());
+        } else {
+            SearchDocType docType = SearchDocType.getByCode(type);
+            if (docType == null) {
+                throw new BusinessException(ResponseCode.PARAM_ERROR.getCode(), "不支持的检索类型: " + type);
+            }
+            types = List.of(docType);
+        }
+
+        boolean admin = userRoleService.hasRole(userId, "admin");
+        List<SearchHitVO> result = new ArrayList<>();
+        for (SearchDocType docType : types) {
+            List<SearchHit> hits = searchIndexService.search(docType, keyword, admin ? size : MAX_SCAN);
+            // 按批回表过滤，凑满 size 条即停止
+            int collected = 0;
+            for (int from = 0; from < hits.size() && collected < size; from += size) {
+                List<SearchHit> batch = hits.subList(from, Math.min(from + size, hits.size()));
+                Set<Long> visible = admin ? null : visibleIds(docType, batch.stream().map(SearchHit::getId).toList(), userId);
+                for (SearchHit hit : batch) {
+                    if (collected < size && (visible == null || visible.contains(hit.getId()))) {
+                        result.add(toVO(docType, hit));
+                        collected++;
+                    }
+                }
+            }
+        }
+        // 多类型合并后统一按得分排序截断
+        result.sort(Comparator.comparing(SearchHitVO::getScore).reversed());
+        return result.size() > size ? new ArrayList<>(result.subList(0, size)) : result;
+    }
+
+    @Override
+    public void rebuildIndex() {
+        searchIndexService.rebuildAll();
+    }
+
+    /**
+     * 按模块可见规则过滤命中ID
+     *
+     * @param type 文档类型
+     * @param ids 命中ID
+     * @param userId 当前用户ID
+     * @return 当前用户可见的ID
+     */
+    private Set<Long> visibleIds(SearchDocType type, List<Long> ids, Long userId) {
+        return switch (type) {
+            case TOPIC -> new HashSet<>(ids);
+            case NOTICE -> bizNoticeMapper.selectList(new LambdaQueryWrapper<BizNotice>()
+                            .select(BizNotice::getId, BizNotice::getStatus, BizNotice::getPublisherId,
+                                    BizNotice::getStartTime, BizNotice::getEndTime)
+                            .in(BizNotice::getId, ids)
+                            .eq(BizNotice::getIsDeleted, 0))
+                    .stream()
+                    .filter(notice -> Objects.equals(notice.getPublisherId(), userId)
+                            || (NoticeStatus.PUBLISHED.getValue().equals(notice.getStatus()) && notice.isEffective()))
+                    .map(BizNotice::getId)
+                    .collect(Collectors.toSet());
+            case DOCUMENT -> {
+                List<BizDocument> documents = bizDocumentMapper.selectList(new LambdaQueryWrapper<BizDocument>()
+                        .select(BizDocument::getId, BizDocument::getUserId, BizDocument::getTopicId)
+                        .in(BizDocument::getId, ids)
+                        .eq(BizDocument::getIsDeleted, 0));
+                Set<Long> topicIds = documents.stream().map(BizDocument::getTopicId).filter(Objects::nonNull)
+                        .collect(Collectors.toSet());
+                Map<Long, Long> topicTeachers = topicIds.isEmpty() ? Map.of()
+                        : bizTopicMapper.selectByIds(topicIds).stream()
+                                .filter(topic -> topic.getTeacherId() != null)
+                                .collect(Collectors.toMap(BizTopic::getId, BizTopic::getTeacherId));
+                yield documents.stream()
+                        .filter(document -> Objects.equals(document.getUserId(), userId)
+                                || Objects.equals(topicTeachers.get(document.getTopicId()), userId))
+                        .map(BizDocument::getId)
+                        .collect(Collectors.toSet());
+            }
+        };
+    }
+
+    /**
+     * 转换为命中视图对象
+     */
+    private SearchHitVO toVO(SearchDocType type, SearchHit hit) {
+        SearchHitVO vo = new SearchHitVO();
+        vo.setType(type.getCode());
+        vo.setId(hit.getId());
+        vo.setTitle(hit.getTitle());
+        vo.setScore(hit.getScore());
+        return vo;
+    }
+}
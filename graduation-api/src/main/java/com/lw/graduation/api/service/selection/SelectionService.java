@@ -5,7 +5,10 @@ import com.lw.graduation.api.dto.selection.SelectionApplyDTO;
 import com.lw.graduation.api.dto.selection.SelectionPageQueryDTO;
 import com.lw.graduation.api.dto.selection.SelectionReviewDTO;
 import com.lw.graduation.api.vo.selection.SelectionVO;
+import com.lw.graduation.common.base.CursorPage;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 /**
@@ -24,6 +27,14 @@ public interface SelectionService {
      */
     IPage<SelectionVO> getSelectionPage(SelectionPageQueryDTO queryDTO);
 
+    /**
+     * 游标分页查询选题列表（按创建时间倒序，深度翻页不产生OFFSET扫描）
+     *
+     * @param queryDTO 查询条件（cursor 为上一页返回的 nextCursor）
+     * @return 游标分页结果
+     */
+    CursorPage<SelectionVO> getSelectionCursorPage(SelectionPageQueryDTO queryDTO);
+
     /**
      * 根据ID获取选题详情
      *
@@ -100,4 +111,15 @@ public interface SelectionService {
      * @return 申请结果
      */
     SelectionVO resubmitSelection(Long selectionId, Long studentId, String applyReason);
+
+    /**
+     * 流式导出选题记录（含学生、题目、院系与审核信息）
+     * 逐行写入输出流，内存占用与导出行数无关
+     *
+     * @param queryDTO 过滤条件（忽略分页参数）
+     * @param format 导出格式（csv / xlsx）
+     * @param out 输出流（由调用方关闭）
+     * @throws IOException 写出失败
+     */
+    void exportSelections(SelectionPageQueryDTO queryDTO, String format, OutputStream out) throws IOException;
 }
\ No newline at end of file
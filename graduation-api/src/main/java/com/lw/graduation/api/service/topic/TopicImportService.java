@@ -0,0 +1,23 @@
+package com.lw.graduation.api.service.topic;
+
+import com.lw.graduation.api.vo.topic.TopicImportResultVO;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * 题目批量导入服务接口
+ * 从CSV或XLSX文件批量创建题目，逐行返回导入结果。
+ *
+ * @author lw
+ */
+public interface TopicImportService {
+
+    /**
+     * 批量导入题目
+     * 校验失败的行不影响其他行导入，结果中给出每行的成功状态或失败原因
+     *
+     * @param file 上传的CSV或XLSX文件（首行为表头）
+     * @param userId 当前登录用户ID（须为教师）
+     * @return 导入结果
+     */
+    TopicImportResultVO importTopics(MultipartFile file, Long userId);
+}
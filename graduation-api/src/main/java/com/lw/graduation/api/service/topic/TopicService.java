@@ -4,7 +4,9 @@ import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.lw.graduation.api.dto.topic.TopicCreateDTO;
 import com.lw.graduation.api.dto.topic.TopicPageQueryDTO;
 import com.lw.graduation.api.dto.topic.TopicUpdateDTO;
+import com.lw.graduation.api.vo.topic.TopicCatalogVO;
 import com.lw.graduation.api.vo.topic.TopicVO;
+import com.lw.graduation.common.base.CursorPage;
 
 import java.util.List;
 
@@ -24,6 +26,14 @@ public interface TopicService {
      */
     IPage<TopicVO> getTopicPage(TopicPageQueryDTO queryDTO);
 
+    /**
+     * 游标分页查询课题列表（按创建时间倒序，深度翻页不产生OFFSET扫描）
+     *
+     * @param queryDTO 查询条件（cursor 为上一页返回的 nextCursor）
+     * @return 游标分页结果
+     */
+    CursorPage<TopicVO> getTopicCursorPage(TopicPageQueryDTO queryDTO);
+
     /**
      * 根据ID获取课题详情
      *
@@ -62,4 +72,12 @@ public interface TopicService {
      * @return 可选课题列表
      */
     List<TopicVO> getSelectableTopics(Long departmentId);
+
+    /**
+     * 获取可选课题目录（带版本标识，用于条件请求）
+     *
+     * @param departmentId 院系ID（可选）
+     * @return 可选课题目录
+     */
+    TopicCatalogVO getSelectableTopicCatalog(Long departmentId);
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import com.lw.graduation.api.dto.user.UserCreateDTO;
 import com.lw.graduation.api.dto.user.UserPageQueryDTO;
 import com.lw.graduation.api.dto.user.UserUpdateDTO;
 import com.lw.graduation.api.vo.user.UserListInfoVO;
+import com.lw.graduation.common.base.CursorPage;
 
 /**
  * 用户服务接口
@@ -22,6 +23,14 @@ public interface UserService{
      */
     IPage<UserListInfoVO> getUserPage(UserPageQueryDTO queryDTO);
 
+    /**
+     * 游标分页查询用户列表（按创建时间倒序，深度翻页不产生OFFSET扫描）
+     *
+     * @param queryDTO 查询条件（cursor 为上一页返回的 nextCursor）
+     * @return 游标分页结果
+     */
+    CursorPage<UserListInfoVO> getUserCursorPage(UserPageQueryDTO queryDTO);
+
     /**
      * 根据ID获取用户详情
      *
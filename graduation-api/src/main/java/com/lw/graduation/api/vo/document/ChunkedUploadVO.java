@@ -0,0 +1,81 @@
+package com.lw.graduation.api.vo.document;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.lw.graduation.common.constant.CommonConstants;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 分片上传状态视图对象
+ * 客户端断线重连后据此只补传缺失的分片
+ *
+ * @author lw
+ */
+@Data
+@Schema(description = "分片上传状态视图对象")
+public class ChunkedUploadVO {
+
+    /**
+     * 上传会话ID
+     */
+    @Schema(description = "上传会话ID")
+    private Long uploadId;
+
+    /**
+     * 原始文件名
+     */
+    @Schema(description = "原始文件名")
+    private String filename;
+
+    /**
+     * 文件大小(字节)
+     */
+    @Schema(description = "文件大小(字节)")
+    private Long fileSize;
+
+    /**
+     * 分片大小(字节)，分片 i 的偏移量为 i * chunkSize
+     */
+    @Schema(description = "分片大小(字节)，分片 i 的偏移量为 i * chunkSize")
+    private Long chunkSize;
+
+    /**
+     * 分片总数
+     */
+    @Schema(description = "分片总数")
+    private Integer totalChunks;
+
+    /**
+     * 已接收分片数
+     */
+    @Schema(description = "已接收分片数")
+    private Integer receivedChunks;
+
+    /**
+     * 缺失的分片序号
+     */
+    @Schema(description = "缺失的分片序号")
+    private List<Integer> missingChunks;
+
+    /**
+     * 状态: 0-上传中, 1-已完成
+     */
+    @Schema(description = "状态: 0-上传中, 1-已完成")
+    private Integer status;
+
+    /**
+     * 合并生成的文档ID（已完成时返回）
+     */
+    @Schema(description = "合并生成的文档ID")
+    private Long documentId;
+
+    /**
+     * 过期时间
+     */
+    @Schema(description = "过期时间")
+    @JsonFormat(pattern = CommonConstants.DateTimeFormat.STANDARD)
+    private LocalDateTime expiresAt;
+}
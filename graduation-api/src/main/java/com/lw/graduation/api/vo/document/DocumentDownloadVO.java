@@ -0,0 +1,59 @@
+package com.lw.graduation.api.vo.document;
+
+import com.lw.graduation.infrastructure.storage.StoredFile;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+/**
+ * 文档下载视图对象
+ * 携带下载响应头所需的元信息和文件句柄，文件内容由控制器流式写出；
+ * 存储支持直接下载时只携带直接下载地址，由控制器重定向
+ *
+ * @author lw
+ */
+@Data
+@Schema(description = "文档下载视图对象")
+public class DocumentDownloadVO {
+
+    /**
+     * 文档ID
+     */
+    @Schema(description = "文档ID")
+    private Long documentId;
+
+    /**
+     * 原始文件名
+     */
+    @Schema(description = "原始文件名")
+    private String originalFilename;
+
+    /**
+     * 文件大小（字节，取自文档元数据）
+     */
+    @Schema(description = "文件大小（字节）")
+    private Long contentLength;
+
+    /**
+     * 最后修改时间（毫秒时间戳）
+     */
+    @Schema(description = "最后修改时间（毫秒时间戳）")
+    private Long lastModified;
+
+    /**
+     * 实体标签（用于 If-Range / If-None-Match 校验）
+     */
+    @Schema(description = "实体标签")
+    private String etag;
+
+    /**
+     * 直接下载地址（对象存储预签名URL），非空时其余下载信息为空
+     */
+    @Schema(description = "直接下载地址")
+    private String redirectUrl;
+
+    /**
+     * 文件句柄
+     */
+    @Schema(hidden = true)
+    private StoredFile file;
+}
@@ -0,0 +1,93 @@
+package com.lw.graduation.api.vo.document;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+/**
+ * 文档后台处理统计视图对象
+ * 队列与积压为当前值，计数为本实例启动以来的累计值，耗时为最近若干个任务的统计
+ *
+ * @author lw
+ */
+@Data
+@Schema(description = "文档后台处理统计视图对象")
+public class DocumentProcessStatsVO {
+
+    /**
+     * 工作线程池队列中等待的任务数
+     */
+    @Schema(description = "队列深度")
+    private Integer queueDepth;
+
+    /**
+     * 正在处理的工作线程数
+     */
+    @Schema(description = "正在处理的工作线程数")
+    private Integer activeWorkers;
+
+    /**
+     * 数据库中的待处理任务数
+     */
+    @Schema(description = "待处理任务数（含队列已满暂留数据库及等待重试的任务）")
+    private Integer backlog;
+
+    /**
+     * 已达最大重试次数的失败任务数
+     */
+    @Schema(description = "失败任务数")
+    private Long failedJobs;
+
+    /**
+     * 本实例完成的任务数
+     */
+    @Schema(description = "本实例完成的任务数")
+    private Long completedCount;
+
+    /**
+     * 本实例最终失败的任务数
+     */
+    @Schema(description = "本实例最终失败的任务数")
+    private Long failedCount;
+
+    /**
+     * 本实例安排重试的次数
+     */
+    @Schema(description = "本实例安排重试的次数")
+    private Long retriedCount;
+
+    /**
+     * 本实例因队列已满暂留数据库的任务数
+     */
+    @Schema(description = "本实例因队列已满暂留数据库的任务数")
+    private Long deferredCount;
+
+    /**
+     * 平均排队耗时（毫秒）
+     */
+    @Schema(description = "平均排队耗时（毫秒，入队到开始处理）")
+    private Long avgWaitMillis;
+
+    /**
+     * 排队耗时95分位（毫秒）
+     */
+    @Schema(description = "排队耗时95分位（毫秒）")
+    private Long p95WaitMillis;
+
+    /**
+     * 平均处理耗时（毫秒）
+     */
+    @Schema(description = "平均处理耗时（毫秒）")
+    private Long avgProcessMillis;
+
+    /**
+     * 处理耗时95分位（毫秒）
+     */
+    @Schema(description = "处理耗时95分位（毫秒）")
+    private Long p95ProcessMillis;
+
+    /**
+     * 最大处理耗时（毫秒）
+     */
+    @Schema(description = "最大处理耗时（毫秒）")
+    private Long maxProcessMillis;
+}
@@ -120,6 +120,30 @@ public class DocumentVO {
     @Schema(description = "审核意见")
     private String feedback;
 
+    /**
+     * 后台处理状态
+     */
+    @Schema(description = "后台处理状态: 0-待处理, 1-处理中, 2-已完成, 3-失败")
+    private Integer processStatus;
+
+    /**
+     * 后台处理状态描述
+     */
+    @Schema(description = "后台处理状态描述")
+    private String processStatusDesc;
+
+    /**
+     * 页数
+     */
+    @Schema(description = "页数（后台处理提取，无法识别时为空）")
+    private Integer pageCount;
+
+    /**
+     * 缩略图地址
+     */
+    @Schema(description = "缩略图地址")
+    private String thumbnailUrl;
+
     /**
      * 上传时间
      */
@@ -0,0 +1,27 @@
+package com.lw.graduation.api.vo.document;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+/**
+ * 相似文档视图对象
+ * 用于审核时展示与当前论文内容相近的其他文档
+ *
+ * @author lw
+ */
+@Data
+@Schema(description = "相似文档视图对象")
+public class SimilarDocumentVO {
+
+    /**
+     * 估计相似度
+     */
+    @Schema(description = "估计的 Jaccard 相似度（0~1，基于 MinHash 签名）")
+    private Double similarity;
+
+    /**
+     * 相似文档信息
+     */
+    @Schema(description = "相似文档信息")
+    private DocumentVO document;
+}
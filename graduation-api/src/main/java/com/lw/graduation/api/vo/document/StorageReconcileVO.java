@@ -0,0 +1,79 @@
+package com.lw.graduation.api.vo.document;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.lw.graduation.common.constant.CommonConstants;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 存储孤儿文件对账结果视图对象
+ *
+ * @author lw
+ */
+@Data
+@Schema(description = "存储孤儿文件对账结果视图对象")
+public class StorageReconcileVO {
+
+    /**
+     * 扫描的文件数
+     */
+    @Schema(description = "扫描的文件数")
+    private Integer scannedFiles;
+
+    /**
+     * 文档引用的路径数
+     */
+    @Schema(description = "文档引用的路径数（文件与缩略图）")
+    private Integer referencedPaths;
+
+    /**
+     * 删除的孤儿文件数
+     */
+    @Schema(description = "删除的孤儿文件数")
+    private Integer orphanFiles;
+
+    /**
+     * 保留期内未删除的未引用文件数
+     */
+    @Schema(description = "未超过保留天数而保留的未引用文件数")
+    private Integer recentOrphans;
+
+    /**
+     * 首次发现、待下一轮确认后删除的孤儿文件数
+     */
+    @Schema(description = "首次发现、待下一轮对账确认后删除的孤儿文件数")
+    private Integer pendingOrphans;
+
+    /**
+     * 删除的分片上传临时文件数
+     */
+    @Schema(description = "删除的分片上传临时文件数")
+    private Integer tempFiles;
+
+    /**
+     * 删除失败数
+     */
+    @Schema(description = "删除失败数")
+    private Integer failures;
+
+    /**
+     * 回收的总字节数
+     */
+    @Schema(description = "回收的总字节数（孤儿文件、临时文件与存储内部无引用内容）")
+    private Long reclaimedBytes;
+
+    /**
+     * 耗时（毫秒）
+     */
+    @Schema(description = "耗时（毫秒）")
+    private Long durationMillis;
+
+    /**
+     * 完成时间
+     */
+    @Schema(description = "完成时间")
+    @JsonFormat(pattern = CommonConstants.DateTimeFormat.STANDARD)
+    private LocalDateTime finishedAt;
+}
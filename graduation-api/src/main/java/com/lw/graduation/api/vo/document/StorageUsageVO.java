@@ -0,0 +1,73 @@
+package com.lw.graduation.api.vo.document;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.lw.graduation.common.constant.CommonConstants;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 存储用量视图对象
+ *
+ * @author lw
+ */
+@Data
+@Schema(description = "存储用量视图对象")
+public class StorageUsageVO {
+
+    /**
+     * 统计范围
+     */
+    @Schema(description = "统计范围: 0-用户, 1-题目, 2-院系")
+    private Integer scope;
+
+    /**
+     * 统计范围描述
+     */
+    @Schema(description = "统计范围描述")
+    private String scopeDesc;
+
+    /**
+     * 用户ID/题目ID/院系ID
+     */
+    @Schema(description = "用户ID/题目ID/院系ID")
+    private Long ownerId;
+
+    /**
+     * 已用空间（字节）
+     */
+    @Schema(description = "已用空间（字节）")
+    private Long usedBytes;
+
+    /**
+     * 已用空间显示格式
+     */
+    @Schema(description = "已用空间显示格式")
+    private String usedDisplay;
+
+    /**
+     * 文件数
+     */
+    @Schema(description = "文件数")
+    private Integer fileCount;
+
+    /**
+     * 配额（字节）
+     */
+    @Schema(description = "配额（字节），不限制时为空")
+    private Long quotaBytes;
+
+    /**
+     * 配额使用百分比
+     */
+    @Schema(description = "配额使用百分比，不限制时为空")
+    private Double usagePercent;
+
+    /**
+     * 更新时间
+     */
+    @Schema(description = "更新时间")
+    @JsonFormat(pattern = CommonConstants.DateTimeFormat.STANDARD)
+    private LocalDateTime updatedAt;
+}
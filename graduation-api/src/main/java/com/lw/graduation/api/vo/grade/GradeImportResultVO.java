@@ -0,0 +1,40 @@
+package com.lw.graduation.api.vo.grade;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 成绩批量录入结果视图对象
+ *
+ * @author lw
+ */
+@Data
+@Schema(description = "成绩批量录入结果视图对象")
+public class GradeImportResultVO {
+
+    /**
+     * 数据行总数（不含表头）
+     */
+    @Schema(description = "数据行总数")
+    private Integer totalRows;
+
+    /**
+     * 录入成功数
+     */
+    @Schema(description = "录入成功数")
+    private Integer successCount;
+
+    /**
+     * 录入失败数
+     */
+    @Schema(description = "录入失败数")
+    private Integer failureCount;
+
+    /**
+     * 逐行录入结果（按行号排序）
+     */
+    @Schema(description = "逐行录入结果")
+    private List<GradeImportRowVO> rows;
+}
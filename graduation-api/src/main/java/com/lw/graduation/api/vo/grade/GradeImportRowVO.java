@@ -0,0 +1,58 @@
+package com.lw.graduation.api.vo.grade;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * 成绩录入单行结果视图对象
+ *
+ * @author lw
+ */
+@Data
+@Schema(description = "成绩录入单行结果视图对象")
+public class GradeImportRowVO {
+
+    /**
+     * 行号（文件导入时为文件行号，含表头行；接口批量录入时为列表序号，从1开始）
+     */
+    @Schema(description = "行号")
+    private Integer rowNumber;
+
+    /**
+     * 学生ID
+     */
+    @Schema(description = "学生ID")
+    private Long studentId;
+
+    /**
+     * 题目ID
+     */
+    @Schema(description = "题目ID")
+    private Long topicId;
+
+    /**
+     * 最终录入的成绩
+     */
+    @Schema(description = "成绩")
+    private BigDecimal score;
+
+    /**
+     * 是否录入成功
+     */
+    @Schema(description = "是否录入成功")
+    private Boolean success;
+
+    /**
+     * 新建成绩ID（成功时返回）
+     */
+    @Schema(description = "新建成绩ID")
+    private Long gradeId;
+
+    /**
+     * 失败原因
+     */
+    @Schema(description = "失败原因")
+    private String message;
+}
@@ -0,0 +1,64 @@
+package com.lw.graduation.api.vo.grade;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * 成绩排行榜条目视图对象
+ *
+ * @author lw
+ */
+@Data
+@Schema(description = "成绩排行榜条目视图对象")
+public class GradeLeaderboardEntryVO {
+
+    /**
+     * 名次（同分并列）
+     */
+    @Schema(description = "名次（同分并列）")
+    private Integer rank;
+
+    /**
+     * 成绩ID
+     */
+    @Schema(description = "成绩ID")
+    private Long gradeId;
+
+    /**
+     * 学生ID
+     */
+    @Schema(description = "学生ID")
+    private Long studentId;
+
+    /**
+     * 学号
+     */
+    @Schema(description = "学号")
+    private String studentNumber;
+
+    /**
+     * 学生姓名
+     */
+    @Schema(description = "学生姓名")
+    private String studentName;
+
+    /**
+     * 题目ID
+     */
+    @Schema(description = "题目ID")
+    private Long topicId;
+
+    /**
+     * 题目标题
+     */
+    @Schema(description = "题目标题")
+    private String topicTitle;
+
+    /**
+     * 成绩
+     */
+    @Schema(description = "成绩")
+    private BigDecimal score;
+}
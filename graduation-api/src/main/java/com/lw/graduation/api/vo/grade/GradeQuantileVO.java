@@ -0,0 +1,53 @@
+package com.lw.graduation.api.vo.grade;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * 成绩分位数视图对象
+ *
+ * @author lw
+ */
+@Data
+@Schema(description = "成绩分位数视图对象")
+public class GradeQuantileVO {
+
+    /**
+     * 统计范围: 1-题目, 2-院系, 3-全校
+     */
+    @Schema(description = "统计范围: 1-题目, 2-院系, 3-全校")
+    private Integer scope;
+
+    /**
+     * 范围ID（题目ID或院系ID，全校范围为空）
+     */
+    @Schema(description = "范围ID")
+    private Long scopeId;
+
+    /**
+     * 范围内成绩总数
+     */
+    @Schema(description = "范围内成绩总数")
+    private Integer total;
+
+    /**
+     * 最低分
+     */
+    @Schema(description = "最低分")
+    private BigDecimal minScore;
+
+    /**
+     * 最高分
+     */
+    @Schema(description = "最高分")
+    private BigDecimal maxScore;
+
+    /**
+     * 分位数（百分位 -> 分数，如 50 -> 中位数）
+     */
+    @Schema(description = "分位数（百分位 -> 分数）")
+    private Map<Integer, BigDecimal> quantiles;
+}
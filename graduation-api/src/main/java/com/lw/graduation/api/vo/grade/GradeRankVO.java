@@ -0,0 +1,64 @@
+package com.lw.graduation.api.vo.grade;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * 学生成绩排名视图对象
+ *
+ * @author lw
+ */
+@Data
+@Schema(description = "学生成绩排名视图对象")
+public class GradeRankVO {
+
+    /**
+     * 学生ID
+     */
+    @Schema(description = "学生ID")
+    private Long studentId;
+
+    /**
+     * 成绩所属题目ID
+     */
+    @Schema(description = "题目ID")
+    private Long topicId;
+
+    /**
+     * 排名范围: 1-题目, 2-院系, 3-全校
+     */
+    @Schema(description = "排名范围: 1-题目, 2-院系, 3-全校")
+    private Integer scope;
+
+    /**
+     * 范围ID（题目ID或院系ID，全校范围为空）
+     */
+    @Schema(description = "范围ID")
+    private Long scopeId;
+
+    /**
+     * 学生成绩
+     */
+    @Schema(description = "学生成绩")
+    private BigDecimal score;
+
+    /**
+     * 名次（从1开始，同分并列）
+     */
+    @Schema(description = "名次")
+    private Integer rank;
+
+    /**
+     * 范围内成绩总数
+     */
+    @Schema(description = "范围内成绩总数")
+    private Integer total;
+
+    /**
+     * 百分位排名（超越的人数占比，百分比）
+     */
+    @Schema(description = "百分位排名")
+    private BigDecimal percentileRank;
+}
@@ -0,0 +1,81 @@
+package com.lw.graduation.api.vo.grade;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.lw.graduation.common.constant.CommonConstants;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 综合成绩重算任务视图对象
+ *
+ * @author lw
+ */
+@Data
+@Schema(description = "综合成绩重算任务视图对象")
+public class GradeRecomputeJobVO {
+
+    /**
+     * 任务ID
+     */
+    @Schema(description = "任务ID")
+    private Long jobId;
+
+    /**
+     * 状态: 0-运行中, 1-已完成, 2-失败
+     */
+    @Schema(description = "状态: 0-运行中, 1-已完成, 2-失败")
+    private Integer status;
+
+    /**
+     * 状态描述
+     */
+    @Schema(description = "状态描述")
+    private String statusDesc;
+
+    /**
+     * 是否有节点正在运行（状态为运行中但未在运行时，说明任务已中断，可续跑）
+     */
+    @Schema(description = "是否正在运行")
+    private Boolean active;
+
+    /**
+     * 待计算的学生题目数
+     */
+    @Schema(description = "待计算的学生题目数")
+    private Integer totalCount;
+
+    /**
+     * 已计算的学生题目数
+     */
+    @Schema(description = "已计算的学生题目数")
+    private Integer processedCount;
+
+    /**
+     * 进度百分比
+     */
+    @Schema(description = "进度百分比")
+    private BigDecimal progress;
+
+    /**
+     * 失败原因
+     */
+    @Schema(description = "失败原因")
+    private String errorMessage;
+
+    /**
+     * 最近一次开始运行时间
+     */
+    @Schema(description = "开始时间")
+    @JsonFormat(pattern = CommonConstants.DateTimeFormat.STANDARD)
+    private LocalDateTime startedAt;
+
+    /**
+     * 结束时间
+     */
+    @Schema(description = "结束时间")
+    @JsonFormat(pattern = CommonConstants.DateTimeFormat.STANDARD)
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,38 @@
+package com.lw.graduation.api.vo.search;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+/**
+ * 全文检索命中视图对象
+ *
+ * @author lw
+ */
+@Data
+@Schema(description = "全文检索命中视图对象")
+public class SearchHitVO {
+
+    /**
+     * 文档类型编码（topic/notice/document）
+     */
+    @Schema(description = "文档类型编码")
+    private String type;
+
+    /**
+     * 业务主键ID
+     */
+    @Schema(description = "业务主键ID")
+    private Long id;
+
+    /**
+     * 标题
+     */
+    @Schema(description = "标题")
+    private String title;
+
+    /**
+     * 相关度得分
+     */
+    @Schema(description = "相关度得分")
+    private Double score;
+}
@@ -0,0 +1,35 @@
+package com.lw.graduation.api.vo.topic;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 可选题目目录视图对象
+ * 对应某一院系可选题目的内存快照，版本标识用于HTTP条件请求（ETag / If-None-Match）。
+ *
+ * @author lw
+ */
+@Data
+@Schema(description = "可选题目目录视图对象")
+public class TopicCatalogVO {
+
+    /**
+     * 院系ID（为空表示全部院系）
+     */
+    @Schema(description = "院系ID")
+    private Long departmentId;
+
+    /**
+     * 快照版本标识
+     */
+    @Schema(description = "快照版本标识")
+    private String etag;
+
+    /**
+     * 可选题目列表（按创建时间倒序，只读）
+     */
+    @Schema(description = "可选题目列表")
+    private List<TopicVO> topics;
+}
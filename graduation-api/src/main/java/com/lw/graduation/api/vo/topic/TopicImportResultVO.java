@@ -0,0 +1,40 @@
+package com.lw.graduation.api.vo.topic;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 题目批量导入结果视图对象
+ *
+ * @author lw
+ */
+@Data
+@Schema(description = "题目批量导入结果视图对象")
+public class TopicImportResultVO {
+
+    /**
+     * 数据行总数（不含表头）
+     */
+    @Schema(description = "数据行总数")
+    private Integer totalRows;
+
+    /**
+     * 导入成功数
+     */
+    @Schema(description = "导入成功数")
+    private Integer successCount;
+
+    /**
+     * 导入失败数
+     */
+    @Schema(description = "导入失败数")
+    private Integer failureCount;
+
+    /**
+     * 逐行导入结果（按文件行号排序）
+     */
+    @Schema(description = "逐行导入结果")
+    private List<TopicImportRowVO> rows;
+}
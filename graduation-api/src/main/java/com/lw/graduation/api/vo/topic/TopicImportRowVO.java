@@ -0,0 +1,44 @@
+package com.lw.graduation.api.vo.topic;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+/**
+ * 题目导入单行结果视图对象
+ *
+ * @author lw
+ */
+@Data
+@Schema(description = "题目导入单行结果视图对象")
+public class TopicImportRowVO {
+
+    /**
+     * 文件行号（从1开始，含表头行）
+     */
+    @Schema(description = "文件行号")
+    private Integer rowNumber;
+
+    /**
+     * 题目标题
+     */
+    @Schema(description = "题目标题")
+    private String title;
+
+    /**
+     * 是否导入成功
+     */
+    @Schema(description = "是否导入成功")
+    private Boolean success;
+
+    /**
+     * 新建题目ID（成功时返回）
+     */
+    @Schema(description = "新建题目ID")
+    private Long topicId;
+
+    /**
+     * 失败原因
+     */
+    @Schema(description = "失败原因")
+    private String message;
+}
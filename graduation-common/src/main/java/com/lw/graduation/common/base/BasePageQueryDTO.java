@@ -36,4 +36,25 @@ public class BasePageQueryDTO implements Serializable {
     @Max(value = CommonConstants.Numbers.MAX_SIZE, message = "每页数量不能超过100")
     //@Schema(description = "每页大小", defaultValue = "10")
     private Integer size = CommonConstants.Numbers.DEFAULT_SIZE;
+
+    /**
+     * 游标（键集分页使用，取上一页返回的 nextCursor，首页为空）
+     */
+    //@Schema(description = "分页游标")
+    private String cursor;
+
+    /**
+     * 是否统计总数（深度翻页时可关闭以省去 COUNT 查询）
+     */
+    //@Schema(description = "是否统计总数", defaultValue = "true")
+    private Boolean searchCount = Boolean.TRUE;
+
+    /**
+     * 是否需要统计总数
+     *
+     * @return 未显式关闭时返回true
+     */
+    public boolean isCountRequired() {
+        return !Boolean.FALSE.equals(searchCount);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,63 @@
+package com.lw.graduation.common.base;
+
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 游标分页结果
+ * 键集分页（seek）返回结构：按排序键定位下一页，不使用 OFFSET，
+ * 翻页耗时只与每页大小相关，与页深度无关。
+ *
+ * @param <T> 记录类型
+ * @author lw
+ */
+@Data
+public class CursorPage<T> implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 当前页记录
+     */
+    private List<T> records;
+
+    /**
+     * 每页大小
+     */
+    private Integer size;
+
+    /**
+     * 下一页游标（不透明字符串，无下一页时为空）
+     */
+    private String nextCursor;
+
+    /**
+     * 是否还有下一页
+     */
+    private Boolean hasMore;
+
+    /**
+     * 总记录数（关闭统计时为空）
+     */
+    private Long total;
+
+    /**
+     * 构造空结果
+     *
+     * @param size 每页大小
+     * @param <T> 记录类型
+     * @return 空游标分页结果
+     */
+    public static <T> CursorPage<T> empty(Integer size) {
+        CursorPage<T> page = new CursorPage<>();
+        page.setRecords(List.of());
+        page.setSize(size);
+        page.setHasMore(false);
+        page.setTotal(0L);
+        return page;
+    }
+}
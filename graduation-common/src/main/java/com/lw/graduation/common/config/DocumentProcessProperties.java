@@ -0,0 +1,143 @@
+package com.lw.graduation.common.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 文档后台处理配置类
+ * 配置上传后处理流水线的工作线程、队列容量、重试与文本提取上限
+ *
+ * @author lw
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "document.process")
+public class DocumentProcessProperties {
+
+    /**
+     * 工作线程数
+     * 配置项：document.process.workers
+     */
+    private Integer workers;
+
+    /**
+     * 内存队列容量（已取出等待工作线程的任务数上限）
+     * 配置项：document.process.queue-capacity
+     */
+    private Integer queueCapacity;
+
+    /**
+     * 积压任务上限（待处理任务达到上限时拒绝新的上传）
+     * 配置项：document.process.max-backlog
+     */
+    private Integer maxBacklog;
+
+    /**
+     * 最大执行次数（含首次）
+     * 配置项：document.process.max-attempts
+     */
+    private Integer maxAttempts;
+
+    /**
+     * 首次重试延迟（秒），之后每次翻倍
+     * 配置项：document.process.retry-delay-seconds
+     */
+    private Integer retryDelaySeconds;
+
+    /**
+     * 调度轮询间隔（秒）
+     * 配置项：document.process.poll-interval-seconds
+     */
+    private Integer pollIntervalSeconds;
+
+    /**
+     * 处理中任务的心跳超时时间（秒），处理实例每个调度周期续约，超时视为实例中断，任务重新入队
+     * 配置项：document.process.stale-timeout-seconds
+     */
+    private Integer staleTimeoutSeconds;
+
+    /**
+     * 提取文本的最大字符数
+     * 配置项：document.process.max-text-length
+     */
+    private Integer maxTextLength;
+
+    /**
+     * 缩略图最大边长（像素）
+     * 配置项：document.process.thumbnail-size
+     */
+    private Integer thumbnailSize;
+
+    /**
+     * 获取工作线程数，提供默认值
+     * @return 工作线程数
+     */
+    public int getWorkers() {
+        return workers != null ? workers : 2;
+    }
+
+    /**
+     * 获取内存队列容量，提供默认值
+     * @return 队列容量
+     */
+    public int getQueueCapacity() {
+        return queueCapacity != null ? queueCapacity : 100;
+    }
+
+    /**
+     * 获取积压任务上限，提供默认值
+     * @return 积压任务上限
+     */
+    public int getMaxBacklog() {
+        return maxBacklog != null ? maxBacklog : 10000;
+    }
+
+    /**
+     * 获取最大执行次数，提供默认值
+     * @return 最大执行次数
+     */
+    public int getMaxAttempts() {
+        return maxAttempts != null ? maxAttempts : 3;
+    }
+
+    /**
+     * 获取首次重试延迟，提供默认值
+     * @return 重试延迟（秒）
+     */
+    public int getRetryDelaySeconds() {
+        return retryDelaySeconds != null ? retryDelaySeconds : 30;
+    }
+
+    /**
+     * 获取调度轮询间隔，提供默认值
+     * @return 轮询间隔（秒）
+     */
+    public int getPollIntervalSeconds() {
+        return pollIntervalSeconds != null ? pollIntervalSeconds : 5;
+    }
+
+    /**
+     * 获取处理中任务的心跳超时时间，提供默认值
+     * @return 超时时间（秒）
+     */
+    public int getStaleTimeoutSeconds() {
+        return staleTimeoutSeconds != null ? staleTimeoutSeconds : 600;
+    }
+
+    /**
+     * 获取提取文本的最大字符数，提供默认值
+     * @return 最大字符数
+     */
+    public int getMaxTextLength() {
+        return maxTextLength != null ? maxTextLength : 100000;
+    }
+
+    /**
+     * 获取缩略图最大边长，提供默认值
+     * @return 最大边长（像素）
+     */
+    public int getThumbnailSize() {
+        return thumbnailSize != null ? thumbnailSize : 256;
+    }
+}
@@ -55,11 +55,52 @@ public class FileStorageProperties {
     private Integer tempFileRetentionDays;
 
     /**
-     * 存储类型：local, minio, oss
+     * 孤儿文件对账间隔（小时）
+     * 配置项：file.storage.cleanup-interval-hours
+     */
+    private Integer cleanupIntervalHours;
+
+    /**
+     * 是否启用内容寻址存储（相同内容只保存一份，按引用数回收）
+     * 配置项：file.storage.content-addressed
+     */
+    private Boolean contentAddressed;
+
+    /**
+     * 分片上传临时文件目录（未合并完成的文件，不对外提供访问）
+     * 配置项：file.storage.chunk-path
+     */
+    private String chunkPath;
+
+    /**
+     * 分片上传的分片大小（字节）
+     * 配置项：file.storage.chunk-size
+     */
+    private Long chunkSize;
+
+    /**
+     * 分片上传允许的最大文件大小（字节）
+     * 配置项：file.storage.max-chunked-file-size
+     */
+    private Long maxChunkedFileSize;
+
+    /**
+     * 分片上传会话有效期（小时）
+     * 配置项：file.storage.upload-session-expire-hours
+     */
+    private Integer uploadSessionExpireHours;
+
+    /**
+     * 存储类型：local, minio（任意 S3 兼容对象存储，使用 minio 配置块）, oss
      * 配置项：file.storage.type
      */
     private String type;
 
+    /**
+     * 存储配额配置
+     */
+    private QuotaConfig quota = new QuotaConfig();
+
     /**
      * MinIO配置
      */
@@ -102,6 +143,46 @@ public class FileStorageProperties {
         return maxRequestSize != null ? maxRequestSize : 100 * 1024 * 1024; // 100MB
     }
 
+    /**
+     * 是否启用内容寻址存储
+     * @return 是否启用
+     */
+    public boolean isContentAddressed() {
+        return contentAddressed != null && contentAddressed;
+    }
+
+    /**
+     * 获取分片上传临时目录，默认为存储根路径旁的 -chunks 目录
+     * @return 分片上传临时目录
+     */
+    public String getChunkPath() {
+        return chunkPath != null ? chunkPath : getBasePath() + "-chunks";
+    }
+
+    /**
+     * 获取分片大小，提供默认值
+     * @return 分片大小（字节）
+     */
+    public long getChunkSize() {
+        return chunkSize != null ? chunkSize : 5 * 1024 * 1024; // 5MB
+    }
+
+    /**
+     * 获取分片上传最大文件大小，提供默认值
+     * @return 最大文件大小（字节）
+     */
+    public long getMaxChunkedFileSize() {
+        return maxChunkedFileSize != null ? maxChunkedFileSize : 2L * 1024 * 1024 * 1024; // 2GB
+    }
+
+    /**
+     * 获取分片上传会话有效期，提供默认值
+     * @return 有效期（小时）
+     */
+    public int getUploadSessionExpireHours() {
+        return uploadSessionExpireHours != null ? uploadSessionExpireHours : 24;
+    }
+
     /**
      * 获取存储类型，提供默认值
      * @return 存储类型
@@ -126,6 +207,62 @@ public class FileStorageProperties {
         return tempFileRetentionDays != null ? tempFileRetentionDays : 7;
     }
 
+    /**
+     * 获取孤儿文件对账间隔，提供默认值
+     * @return 对账间隔（小时）
+     */
+    public int getCleanupIntervalHours() {
+        return cleanupIntervalHours != null ? cleanupIntervalHours : 24;
+    }
+
+    /**
+     * 存储配额配置类
+     * 按用户、题目、院系限制文档占用的空间，配额小于等于0表示不限制
+     */
+    @Data
+    public static class QuotaConfig {
+        /** 是否启用配额校验（关闭时仍累计用量） */
+        private Boolean enabled;
+        /** 单个用户的配额（字节） */
+        private Long userBytes;
+        /** 单个题目的配额（字节） */
+        private Long topicBytes;
+        /** 单个院系的配额（字节） */
+        private Long departmentBytes;
+
+        /**
+         * 是否启用配额校验，提供默认值
+         * @return 是否启用
+         */
+        public boolean isEnabled() {
+            return enabled != null ? enabled : true;
+        }
+
+        /**
+         * 获取用户配额，提供默认值（1GB）
+         * @return 配额（字节）
+         */
+        public long getUserBytes() {
+            return userBytes != null ? userBytes : 1024L * 1024 * 1024;
+        }
+
+        /**
+         * 获取题目配额，提供默认值（2GB）
+         * @return 配额（字节）
+         */
+        public long getTopicBytes() {
+            return topicBytes != null ? topicBytes : 2L * 1024 * 1024 * 1024;
+        }
+
+        /**
+         * 获取院系配额，提供默认值（不限制）
+         * @return 配额（字节）
+         */
+        public long getDepartmentBytes() {
+            return departmentBytes != null ? departmentBytes : 0L;
+        }
+    }
+
     /**
      * MinIO配置类
      */
@@ -141,6 +278,16 @@ public class FileStorageProperties {
         private String bucketName;
         /** 区域 */
         private String region;
+        /** 客户端访问的端点（生成预签名URL用，默认与 endpoint 相同） */
+        private String publicEndpoint;
+        /** 是否使用路径风格访问（endpoint/bucket/key），MinIO 等自建服务通常为 true */
+        private Boolean pathStyleAccess;
+        /** 分段上传的分段大小（字节，S3 要求除最后一段外不小于5MB），小于该大小的文件单次上传 */
+        private Long partSize;
+        /** 单个文件并行上传的分段数 */
+        private Integer uploadConcurrency;
+        /** 预签名URL有效期（秒） */
+        private Integer presignExpireSeconds;
 
         /**
          * 获取MinIO端点，提供默认值
@@ -181,6 +328,46 @@ public class FileStorageProperties {
         public String getRegion() {
             return region != null ? region : "us-east-1";
         }
+
+        /**
+         * 获取客户端访问端点，默认与服务端点相同
+         * @return 端点URL
+         */
+        public String getPublicEndpoint() {
+            return publicEndpoint != null && !publicEndpoint.isEmpty() ? publicEndpoint : getEndpoint();
+        }
+
+        /**
+         * 是否使用路径风格访问，默认 true
+         * @return 路径风格返回true
+         */
+        public boolean isPathStyleAccess() {
+            return pathStyleAccess == null || pathStyleAccess;
+        }
+
+        /**
+         * 获取分段大小，默认8MB，最小5MB
+         * @return 分段大小（字节）
+         */
+        public long getPartSize() {
+            return Math.max(partSize != null ? partSize : 8 * 1024 * 1024L, 5 * 1024 * 1024L);
+        }
+
+        /**
+         * 获取并行上传分段数，默认4
+         * @return 并行分段数
+         */
+        public int getUploadConcurrency() {
+            return uploadConcurrency != null && uploadConcurrency > 0 ? uploadConcurrency : 4;
+        }
+
+        /**
+         * 获取预签名URL有效期，默认600秒
+         * @return 有效期（秒）
+         */
+        public int getPresignExpireSeconds() {
+            return presignExpireSeconds != null ? presignExpireSeconds : 600;
+        }
     }
 
     /**
@@ -0,0 +1,60 @@
+package com.lw.graduation.common.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 全文检索索引配置类
+ * 配置内嵌倒排索引的持久化目录和刷盘策略
+ *
+ * @author lw
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "search.index")
+public class SearchIndexProperties {
+
+    /**
+     * 索引快照目录
+     * 配置项：search.index.dir
+     */
+    private String dir;
+
+    /**
+     * 快照刷盘间隔（秒）
+     * 配置项：search.index.flush-interval-seconds
+     */
+    private Integer flushIntervalSeconds;
+
+    /**
+     * 单次检索最大候选数量
+     * 关键词分页只在相关度最高的这些命中内回表分页，分页总数以此为上限
+     * 配置项：search.index.max-candidates
+     */
+    private Integer maxCandidates;
+
+    /**
+     * 获取索引目录，提供默认值
+     * @return 索引目录
+     */
+    public String getDir() {
+        return dir != null ? dir : "./data/search-index";
+    }
+
+    /**
+     * 获取刷盘间隔，提供默认值
+     * @return 刷盘间隔（秒）
+     */
+    public int getFlushIntervalSeconds() {
+        return flushIntervalSeconds != null ? flushIntervalSeconds : 30;
+    }
+
+    /**
+     * 获取最大候选数量，提供默认值
+     * @return 最大候选数量
+     */
+    public int getMaxCandidates() {
+        return maxCandidates != null ? maxCandidates : 1000;
+    }
+}
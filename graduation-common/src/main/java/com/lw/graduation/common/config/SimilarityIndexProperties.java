@@ -0,0 +1,102 @@
+package com.lw.graduation.common.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 论文相似度索引配置类
+ * 配置 MinHash 签名、LSH 分段参数及索引快照的持久化目录
+ *
+ * @author lw
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "similarity.index")
+public class SimilarityIndexProperties {
+
+    /**
+     * 索引快照目录
+     * 配置项：similarity.index.dir
+     */
+    private String dir;
+
+    /**
+     * 快照刷盘间隔（秒）
+     * 配置项：similarity.index.flush-interval-seconds
+     */
+    private Integer flushIntervalSeconds;
+
+    /**
+     * 分片（shingle）长度（字符数）
+     * 配置项：similarity.index.shingle-size
+     */
+    private Integer shingleSize;
+
+    /**
+     * LSH 分段数（签名长度 = 分段数 × 每段行数）
+     * 配置项：similarity.index.bands
+     */
+    private Integer bands;
+
+    /**
+     * LSH 每段行数
+     * 配置项：similarity.index.rows
+     */
+    private Integer rows;
+
+    /**
+     * 返回结果的最低估计相似度
+     * 配置项：similarity.index.min-score
+     */
+    private Double minScore;
+
+    /**
+     * 获取索引目录，提供默认值
+     * @return 索引目录
+     */
+    public String getDir() {
+        return dir != null ? dir : "./data/similarity-index";
+    }
+
+    /**
+     * 获取刷盘间隔，提供默认值
+     * @return 刷盘间隔（秒）
+     */
+    public int getFlushIntervalSeconds() {
+        return flushIntervalSeconds != null ? flushIntervalSeconds : 30;
+    }
+
+    /**
+     * 获取分片长度，提供默认值
+     * @return 分片长度
+     */
+    public int getShingleSize() {
+        return shingleSize != null ? shingleSize : 5;
+    }
+
+    /**
+     * 获取 LSH 分段数，提供默认值
+     * @return 分段数
+     */
+    public int getBands() {
+        return bands != null ? bands : 32;
+    }
+
+    /**
+     * 获取 LSH 每段行数，提供默认值
+     * 默认 32 段 × 4 行，相似度约 0.42 以上的文档对以 50% 以上概率成为候选
+     * @return 每段行数
+     */
+    public int getRows() {
+        return rows != null ? rows : 4;
+    }
+
+    /**
+     * 获取最低估计相似度，提供默认值
+     * @return 最低估计相似度
+     */
+    public double getMinScore() {
+        return minScore != null ? minScore : 0.1;
+    }
+}
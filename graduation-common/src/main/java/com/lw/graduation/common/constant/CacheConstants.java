@@ -31,6 +31,22 @@ public class CacheConstants {
         public static final String DOCUMENT_INFO = "document:info:";
         /** 所有院系列表缓存键 */
         public static final String ALL_DEPARTMENTS = "departments:all";
+        /** 分布式锁前缀 */
+        public static final String LOCK = "lock:";
+    }
+
+    /**
+     * 跨实例缓存失效通知频道
+     */
+    public static class Channel {
+        /** 可选题目目录 */
+        public static final String TOPIC_CATALOG = "invalidate:topic-catalog";
+        /** 成绩排名索引 */
+        public static final String GRADE_RANKING = "invalidate:grade-ranking";
+        /** 成绩排行榜 */
+        public static final String GRADE_LEADERBOARD = "invalidate:grade-leaderboard";
+        /** 院系成绩分布部分结果 */
+        public static final String GRADE_PARTIALS = "invalidate:grade-partials";
     }
 
     /**
@@ -37,6 +37,25 @@ public enum FileFormatType {
     ZIP("zip", "压缩文件", Category.ARCHIVE, false, 100 * 1024 * 1024L), // 100MB
     RAR("rar", "压缩文件", Category.ARCHIVE, false, 100 * 1024 * 1024L);
 
+    /**
+     * 内容签名嗅探长度（字节），取文件开头这部分内容判断真实格式
+     */
+    public static final int SNIFF_LENGTH = 512;
+
+    private static final byte[] JPEG_MAGIC = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF};
+    private static final byte[] PNG_MAGIC = {(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A};
+    private static final byte[] GIF87_MAGIC = {'G', 'I', 'F', '8', '7', 'a'};
+    private static final byte[] GIF89_MAGIC = {'G', 'I', 'F', '8', '9', 'a'};
+    private static final byte[] PDF_MAGIC = {'%', 'P', 'D', 'F', '-'};
+    /** OLE2 复合文档（doc/xls/ppt） */
+    private static final byte[] OLE2_MAGIC = {(byte) 0xD0, (byte) 0xCF, 0x11, (byte) 0xE0,
+            (byte) 0xA1, (byte) 0xB1, 0x1A, (byte) 0xE1};
+    /** ZIP 本地文件头（docx/xlsx/pptx 均为 ZIP 容器） */
+    private static final byte[] ZIP_MAGIC = {'P', 'K', 0x03, 0x04};
+    /** 空 ZIP 的中央目录结束标记 */
+    private static final byte[] ZIP_EMPTY_MAGIC = {'P', 'K', 0x05, 0x06};
+    private static final byte[] RAR_MAGIC = {'R', 'a', 'r', '!', 0x1A, 0x07};
+
     /**
      * 文件扩展名（不含点号）
      */
@@ -129,6 +148,80 @@ public enum FileFormatType {
         return ValidationResult.valid();
     }
 
+    /**
+     * 检查文件开头内容是否符合该类型的格式签名（魔数）
+     * Office 2007+ 文档与 ZIP 同为 ZIP 容器，只能确认容器格式；文本文件没有签名，
+     * 以嗅探范围内不含 NUL 字节（带 UTF-16 BOM 的除外）判断为文本。
+     *
+     * @param header 文件开头内容
+     * @param length 有效字节数（短文件可能不足 SNIFF_LENGTH）
+     * @return 符合返回true
+     */
+    public boolean matchesSignature(byte[] header, int length) {
+        return switch (this) {
+            case JPG, JPEG -> startsWith(header, length, JPEG_MAGIC);
+            case PNG -> startsWith(header, length, PNG_MAGIC);
+            case GIF -> startsWith(header, length, GIF87_MAGIC) || startsWith(header, length, GIF89_MAGIC);
+            case DOC, XLS, PPT -> startsWith(header, length, OLE2_MAGIC);
+            case DOCX, XLSX, PPTX -> startsWith(header, length, ZIP_MAGIC);
+            case ZIP -> startsWith(header, length, ZIP_MAGIC) || startsWith(header, length, ZIP_EMPTY_MAGIC);
+            case RAR -> startsWith(header, length, RAR_MAGIC);
+            // PDF 规范允许 %PDF- 之前存在少量前导字节
+            case PDF -> indexOf(header, length, PDF_MAGIC) >= 0;
+            case TXT -> isText(header, length);
+        };
+    }
+
+    /**
+     * 文件内容本身是否已压缩（ZIP 容器、压缩包、JPEG/PNG/GIF 图片、PDF），再次压缩几乎没有收益
+     *
+     * @return 已压缩返回true
+     */
+    public boolean isCompressed() {
+        return switch (this) {
+            case DOC, XLS, PPT, TXT -> false;
+            default -> true;
+        };
+    }
+
+    private static boolean startsWith(byte[] header, int length, byte[] magic) {
+        if (length < magic.length) {
+            return false;
+        }
+        for (int i = 0; i < magic.length; i++) {
+            if (header[i] != magic[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int indexOf(byte[] header, int length, byte[] magic) {
+        for (int start = 0; start + magic.length <= length; start++) {
+            int i = 0;
+            while (i < magic.length && header[start + i] == magic[i]) {
+                i++;
+            }
+            if (i == magic.length) {
+                return start;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isText(byte[] header, int length) {
+        if (length >= 2 && ((header[0] == (byte) 0xFF && header[1] == (byte) 0xFE)
+                || (header[0] == (byte) 0xFE && header[1] == (byte) 0xFF))) {
+            return true;
+        }
+        for (int i = 0; i < length; i++) {
+            if (header[i] == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * 格式化文件大小显示
      */
@@ -4,8 +4,12 @@ import com.lw.graduation.common.constant.CacheConstants;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -19,6 +23,19 @@ import java.util.concurrent.TimeUnit;
 @Slf4j
 public class CacheHelper {
 
+    /** 键不存在时写入持有者并设置过期时间 */
+    private static final DefaultRedisScript<Long> ACQUIRE_LOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('set', KEYS[1], ARGV[1], 'NX', 'EX', ARGV[2]) then return 1 else return 0 end",
+            Long.class);
+    /** 持有者一致时续期锁 */
+    private static final DefaultRedisScript<Long> RENEW_LOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('expire', KEYS[1], ARGV[2]) else return 0 end",
+            Long.class);
+    /** 持有者一致时释放锁 */
+    private static final DefaultRedisScript<Long> RELEASE_LOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
     private final RedisTemplate<String, Object> redisTemplate;
 
     /**
@@ -173,4 +190,62 @@ public class CacheHelper {
             return -2;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 尝试获取分布式锁（键不存在时写入持有者标识并设置过期时间）
+     * Redis 不可用时视为获取失败
+     *
+     * @param key 锁键
+     * @param owner 持有者标识（释放与续期时校验）
+     * @param expireSeconds 过期时间（秒），持有者异常退出时锁自动释放
+     * @return 获取成功返回true
+     */
+    public boolean tryLock(String key, String owner, int expireSeconds) {
+        try {
+            return executeLockScript(ACQUIRE_LOCK_SCRIPT, key, owner, String.valueOf(expireSeconds));
+        } catch (Exception e) {
+            log.error("获取分布式锁失败: {}, error: {}", key, e.getMessage(), e);
+            return false;
+        }
+    }
+
+    /**
+     * 续期分布式锁（仅持有者可续期）
+     *
+     * @param key 锁键
+     * @param owner 持有者标识
+     * @param expireSeconds 新的过期时间（秒）
+     * @return 续期成功返回true，锁已过期或被他人持有时返回false
+     */
+    public boolean renewLock(String key, String owner, int expireSeconds) {
+        try {
+            return executeLockScript(RENEW_LOCK_SCRIPT, key, owner, String.valueOf(expireSeconds));
+        } catch (Exception e) {
+            log.error("续期分布式锁失败: {}, error: {}", key, e.getMessage(), e);
+            return false;
+        }
+    }
+
+    /**
+     * 释放分布式锁（仅持有者可释放，锁已过期或被他人持有时忽略）
+     *
+     * @param key 锁键
+     * @param owner 持有者标识
+     */
+    public void unlock(String key, String owner) {
+        try {
+            executeLockScript(RELEASE_LOCK_SCRIPT, key, owner);
+        } catch (Exception e) {
+            log.error("释放分布式锁失败: {}, error: {}", key, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 执行锁脚本，参数按原始字符串传递（不经过JSON序列化，脚本内可直接比较持有者）
+     */
+    private boolean executeLockScript(DefaultRedisScript<Long> script, String key, String... args) {
+        Long result = redisTemplate.execute(script, RedisSerializer.string(),
+                new GenericToStringSerializer<>(Long.class), List.of(key), (Object[]) args);
+        return result != null && result > 0;
+    }
+}
@@ -4,11 +4,20 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.lw.graduation.api.dto.document.ChunkedUploadInitDTO;
 import com.lw.graduation.api.dto.document.DocumentPageQueryDTO;
 import com.lw.graduation.api.dto.document.DocumentReviewDTO;
 import com.lw.graduation.api.dto.document.DocumentUploadDTO;
 import com.lw.graduation.api.service.document.DocumentService;
+import com.lw.graduation.api.vo.document.ChunkedUploadVO;
+import com.lw.graduation.api.vo.document.DocumentDownloadVO;
+import com.lw.graduation.api.vo.document.DocumentProcessStatsVO;
 import com.lw.graduation.api.vo.document.DocumentVO;
+import com.lw.graduation.api.vo.document.SimilarDocumentVO;
+import com.lw.graduation.api.vo.document.StorageReconcileVO;
+import com.lw.graduation.api.vo.document.StorageUsageVO;
+import com.lw.graduation.common.base.CursorPage;
+import com.lw.graduation.common.config.FileStorageProperties;
 import com.lw.graduation.common.constant.CacheConstants;
 import com.lw.graduation.common.enums.ResponseCode;
 import com.lw.graduation.common.exception.BusinessException;
@@ -16,16 +25,34 @@ import com.lw.graduation.common.util.BeanMapperUtil;
 import com.lw.graduation.common.util.CacheHelper;
 import com.lw.graduation.common.util.CollectionUtils;
 import com.lw.graduation.domain.entity.document.BizDocument;
+import com.lw.graduation.domain.entity.document.BizUploadSession;
+import com.lw.graduation.domain.entity.file.SysStorageUsage;
 import com.lw.graduation.domain.entity.selection.BizSelection;
 import com.lw.graduation.domain.entity.topic.BizTopic;
 import com.lw.graduation.domain.entity.user.SysUser;
 import com.lw.graduation.common.enums.FileFormatType;
+import com.lw.graduation.domain.enums.document.DocumentFileType;
+import com.lw.graduation.domain.enums.document.StorageUsageScope;
+import com.lw.graduation.domain.enums.status.DocumentProcessStatus;
 import com.lw.graduation.domain.enums.status.ReviewStatus;
+import com.lw.graduation.domain.enums.status.UploadSessionStatus;
+import com.lw.graduation.document.service.internal.ChunkedUploadManager;
+import com.lw.graduation.document.service.internal.DocumentArchiveExporter;
+import com.lw.graduation.document.service.internal.DocumentProcessPipeline;
+import com.lw.graduation.document.service.internal.StorageQuotaManager;
+import com.lw.graduation.document.service.internal.StorageReconciler;
 import com.lw.graduation.infrastructure.mapper.document.BizDocumentMapper;
 import com.lw.graduation.infrastructure.mapper.selection.BizSelectionMapper;
 import com.lw.graduation.infrastructure.mapper.topic.BizTopicMapper;
 import com.lw.graduation.infrastructure.mapper.user.SysUserMapper;
+import com.lw.graduation.infrastructure.page.KeysetPageHelper;
+import com.lw.graduation.infrastructure.search.SearchDocType;
+import com.lw.graduation.infrastructure.search.SearchIndexService;
+import com.lw.graduation.infrastructure.similarity.SimilarityHit;
+import com.lw.graduation.infrastructure.similarity.SimilarityIndexService;
 import com.lw.graduation.infrastructure.storage.FileStorageService;
+import com.lw.graduation.infrastructure.storage.StoreResult;
+import com.lw.graduation.infrastructure.storage.StoredFile;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -33,11 +60,15 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.NoSuchFileException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * 文档服务实现类
@@ -56,32 +87,42 @@ public class DocumentServiceImpl extends ServiceImpl<BizDocumentMapper, BizDocum
     private final SysUserMapper sysUserMapper;
     private final CacheHelper cacheHelper;
     private final FileStorageService fileStorageService;
+    private final SearchIndexService searchIndexService;
+    private final SimilarityIndexService similarityIndexService;
+    private final ChunkedUploadManager chunkedUploadManager;
+    private final DocumentArchiveExporter documentArchiveExporter;
+    private final DocumentProcessPipeline documentProcessPipeline;
+    private final StorageReconciler storageReconciler;
+    private final StorageQuotaManager storageQuotaManager;
+    private final FileStorageProperties fileStorageProperties;
 
     @Override
     public IPage<DocumentVO> getDocumentPage(DocumentPageQueryDTO queryDTO) {
         log.info("分页查询文档列表，当前页: {}，每页大小: {}，用户ID: {}，题目ID: {}", 
                 queryDTO.getCurrent(), queryDTO.getSize(), queryDTO.getUserId(), queryDTO.getTopicId());
 
-        // 1. 构建查询条件
-        LambdaQueryWrapper<BizDocument> wrapper = new LambdaQueryWrapper<>();
-        wrapper.eq(queryDTO.getUserId() != null, BizDocument::getUserId, queryDTO.getUserId())
-                .eq(queryDTO.getTopicId() != null, BizDocument::getTopicId, queryDTO.getTopicId())
-                .eq(queryDTO.getFileType() != null, BizDocument::getFileType, queryDTO.getFileType())
-                .eq(queryDTO.getReviewStatus() != null, BizDocument::getReviewStatus, queryDTO.getReviewStatus())
-                .eq(BizDocument::getIsDeleted, 0);
-
-        // 关键词搜索
-        if (StringUtils.hasText(queryDTO.getKeyword())) {
-            wrapper.like(BizDocument::getOriginalFilename, queryDTO.getKeyword());
+        // 1. 关键词优先走全文索引，得到按相关度排序的候选ID
+        String keyword = queryDTO.getKeyword();
+        List<Long> rankedIds = searchIndexService.isSearchable(keyword)
+                ? searchIndexService.searchIds(SearchDocType.DOCUMENT, keyword) : List.of();
+        // 索引未命中（如词中间的片段）时回退为模糊查询
+        boolean useIndex = !rankedIds.isEmpty();
+
+        // 2. 构建查询条件
+        LambdaQueryWrapper<BizDocument> wrapper = buildDocumentQueryWrapper(queryDTO, useIndex, rankedIds);
+
+        // 3. 执行分页查询（索引命中时按相关度在内存中分页）
+        IPage<BizDocument> documentPage;
+        if (useIndex) {
+            documentPage = searchIndexService.toRankedPage(bizDocumentMapper.selectList(wrapper),
+                    BizDocument::getId, rankedIds, queryDTO.getCurrent(), queryDTO.getSize());
+        } else {
+            wrapper.orderByDesc(BizDocument::getUploadedAt);
+            IPage<BizDocument> page = new Page<>(queryDTO.getCurrent(), queryDTO.getSize(), queryDTO.isCountRequired());
+            documentPage = bizDocumentMapper.selectPage(page, wrapper);
         }
 
-        wrapper.orderByDesc(BizDocument::getUploadedAt);
-
-        // 2. 执行分页查询
-        IPage<BizDocument> page = new Page<>(queryDTO.getCurrent(), queryDTO.getSize());
-        IPage<BizDocument> documentPage = bizDocumentMapper.selectPage(page, wrapper);
-
-        // 3. 转换为VO并批量填充关联信息（优化N+1查询）
+        // 4. 转换为VO并批量填充关联信息（优化N+1查询）
         List<DocumentVO> voList = convertToDocumentVOListOptimized(documentPage.getRecords());
         IPage<DocumentVO> voPage = new Page<>(queryDTO.getCurrent(), queryDTO.getSize());
         voPage.setRecords(voList);
@@ -90,6 +131,48 @@ public class DocumentServiceImpl extends ServiceImpl<BizDocumentMapper, BizDocum
         return voPage;
     }
 
+    @Override
+    public CursorPage<DocumentVO> getDocumentCursorPage(DocumentPageQueryDTO queryDTO) {
+        // 1. 关键词通过全文索引转为ID过滤条件
+        String keyword = queryDTO.getKeyword();
+        List<Long> matchedIds = searchIndexService.isSearchable(keyword)
+                ? searchIndexService.searchIds(SearchDocType.DOCUMENT, keyword) : List.of();
+        // 索引未命中（如词中间的片段）时回退为模糊查询
+        boolean useIndex = !matchedIds.isEmpty();
+
+        // 2. 按 (uploaded_at, id) 键集分页
+        LambdaQueryWrapper<BizDocument> wrapper = buildDocumentQueryWrapper(queryDTO, useIndex, matchedIds);
+        return KeysetPageHelper.selectPage(bizDocumentMapper, wrapper, BizDocument::getUploadedAt,
+                BizDocument::getId, queryDTO, this::convertToDocumentVOListOptimized);
+    }
+
+    /**
+     * 构建文档分页过滤条件（不含排序）
+     *
+     * @param queryDTO 查询条件
+     * @param useIndex 关键词是否已通过全文索引解析
+     * @param matchedIds 全文索引命中的ID
+     * @return 查询构造器
+     */
+    private LambdaQueryWrapper<BizDocument> buildDocumentQueryWrapper(DocumentPageQueryDTO queryDTO,
+                                                                      boolean useIndex, List<Long> matchedIds) {
+        LambdaQueryWrapper<BizDocument> wrapper = new LambdaQueryWrapper<>();
+        wrapper.in(useIndex, BizDocument::getId, matchedIds)
+                .eq(queryDTO.getUserId() != null, BizDocument::getUserId, queryDTO.getUserId())
+                .eq(queryDTO.getTopicId() != null, BizDocument::getTopicId, queryDTO.getTopicId())
+                .eq(queryDTO.getFileType() != null, BizDocument::getFileType, queryDTO.getFileType())
+                .eq(queryDTO.getReviewStatus() != null, BizDocument::getReviewStatus, queryDTO.getReviewStatus())
+                .inSql(queryDTO.getDepartmentId() != null, BizDocument::getTopicId,
+                        "SELECT id FROM biz_topic WHERE department_id = " + queryDTO.getDepartmentId())
+                .eq(BizDocument::getIsDeleted, 0);
+
+        // 关键词无法走索引时回退为模糊查询
+        if (!useIndex && StringUtils.hasText(queryDTO.getKeyword())) {
+            wrapper.like(BizDocument::getOriginalFilename, queryDTO.getKeyword());
+        }
+        return wrapper;
+    }
+
     @Override
     public DocumentVO getDocumentById(Long id) {
         if (id == null) {
@@ -113,65 +196,147 @@ public class DocumentServiceImpl extends ServiceImpl<BizDocumentMapper, BizDocum
         log.info("用户[{}] 上传文档，文件名: {}，类型: {}，题目ID: {}", 
                 userId, uploadDTO.getFile().getOriginalFilename(), uploadDTO.getFileType(), uploadDTO.getTopicId());
 
-        // 1. 验证文件类型
-        com.lw.graduation.domain.enums.document.DocumentFileType fileType =
-            com.lw.graduation.domain.enums.document.DocumentFileType.getByValue(uploadDTO.getFileType());
-        if (fileType == null) {
+        // 1. 验证文件类型、上传权限和同类型文档
+        DocumentFileType fileType = validateNewDocument(userId, uploadDTO.getTopicId(), uploadDTO.getFileType());
+        documentProcessPipeline.checkCapacity();
+        Long departmentId = storageQuotaManager.departmentOf(uploadDTO.getTopicId());
+        long reservedBytes = uploadDTO.getFile().getSize();
+        storageQuotaManager.reserve(userId, uploadDTO.getTopicId(), departmentId, reservedBytes, 1);
+
+        // 2. 上传文件到存储服务
+        String folder = "documents/" + fileType.name().toLowerCase();
+        StoreResult stored;
+        try {
+            stored = fileStorageService.store(uploadDTO.getFile(), folder);
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException(ResponseCode.PARAM_ERROR.getCode(), e.getMessage());
+        } catch (Exception e) {
+            log.error("文件存储失败", e);
+            throw new BusinessException(ResponseCode.ERROR.getCode(), "文件上传失败");
+        }
+
+        // 3. 创建文档记录
+        return saveNewDocument(userId, uploadDTO.getTopicId(), departmentId, uploadDTO.getFileType(),
+                uploadDTO.getFile().getOriginalFilename(), stored, reservedBytes);
+    }
+
+    @Override
+    public ChunkedUploadVO initChunkedUpload(ChunkedUploadInitDTO initDTO, Long userId) {
+        log.info("用户[{}] 初始化分片上传，文件名: {}，大小: {}，类型: {}，题目ID: {}",
+                userId, initDTO.getFilename(), initDTO.getFileSize(), initDTO.getFileType(), initDTO.getTopicId());
+
+        // 1. 验证文件类型、上传权限和同类型文档
+        validateNewDocument(userId, initDTO.getTopicId(), initDTO.getFileType());
+        documentProcessPipeline.checkCapacity();
+
+        // 2. 验证文件格式与大小（分片上传使用单独的大小上限）
+        String filename = initDTO.getFilename();
+        if (filename.contains("../") || filename.contains("..\\")) {
+            throw new BusinessException(ResponseCode.PARAM_ERROR.getCode(), "非法的文件名");
+        }
+        FileFormatType format = FileFormatType.getByExtension(getFileExtension(filename));
+        if (format == null || !format.isAllowed()) {
             throw new BusinessException(ResponseCode.PARAM_ERROR.getCode(), "不支持的文件类型");
         }
+        long maxSize = fileStorageProperties.getMaxChunkedFileSize();
+        if (initDTO.getFileSize() > maxSize) {
+            throw new BusinessException(ResponseCode.PARAM_ERROR.getCode(),
+                    "文件大小超出限制，最大支持" + FileStorageProperties.formatFileSize(maxSize));
+        }
+        storageQuotaManager.checkQuota(userId, initDTO.getTopicId(),
+                storageQuotaManager.departmentOf(initDTO.getTopicId()), initDTO.getFileSize());
 
-        // 2. 验证用户是否有权限上传该题目的文档
-        validateUploadPermission(userId, uploadDTO.getTopicId());
+        // 3. 创建会话并预分配临时文件
+        BizUploadSession session = chunkedUploadManager.create(userId, initDTO.getTopicId(), initDTO.getFileType(),
+                filename, initDTO.getFileSize());
+        return convertToChunkedUploadVO(session);
+    }
 
-        // 3. 检查是否已存在相同类型的文档
-        LambdaQueryWrapper<BizDocument> existWrapper = new LambdaQueryWrapper<>();
-        existWrapper.eq(BizDocument::getUserId, userId)
-                .eq(BizDocument::getTopicId, uploadDTO.getTopicId())
-                .eq(BizDocument::getFileType, uploadDTO.getFileType())
-                .eq(BizDocument::getIsDeleted, 0);
+    @Override
+    public ChunkedUploadVO uploadChunk(Long uploadId, Long userId, Long offset, String checksum, InputStream content) {
+        BizUploadSession session = chunkedUploadManager.load(uploadId, userId, false);
+        if (!UploadSessionStatus.UPLOADING.getValue().equals(session.getStatus())) {
+            throw new BusinessException(ResponseCode.PARAM_ERROR.getCode(), "上传已完成");
+        }
 
-        if (count(existWrapper) > 0) {
-            throw new BusinessException(ResponseCode.PARAM_ERROR.getCode(), "该类型文档已存在，请先删除原文件");
+        // 1. 校验偏移量（必须对齐到分片边界）
+        if (offset == null || offset < 0 || offset >= session.getFileSize() || offset % session.getChunkSize() != 0) {
+            throw new BusinessException(ResponseCode.PARAM_ERROR.getCode(), "分片偏移量无效");
         }
+        int index = (int) (offset / session.getChunkSize());
 
-        // 4. 上传文件到存储服务
-        String folder = "documents/" + fileType.name().toLowerCase();
-        String storedPath;
+        // 2. 重传已接收的分片直接返回当前状态（无锁预检，提交时在行锁内复核）
+        if (session.hasChunk(index)) {
+            return convertToChunkedUploadVO(session);
+        }
+
+        // 3. 写入暂存文件并校验MD5
+        ChunkedUploadManager.StagedChunk staged;
         try {
-            storedPath = fileStorageService.store(uploadDTO.getFile(), folder);
-        } catch (Exception e) {
-            log.error("文件存储失败", e);
-            throw new BusinessException(ResponseCode.ERROR.getCode(), "文件上传失败");
+            staged = chunkedUploadManager.stageChunk(session, index, content);
+        } catch (IOException e) {
+            log.error("分片暂存失败，会话: {}，分片: {}", uploadId, index, e);
+            throw new BusinessException(ResponseCode.ERROR.getCode(), "分片写入失败");
         }
+        try {
+            if (!staged.checksum().equalsIgnoreCase(checksum)) {
+                throw new BusinessException(ResponseCode.PARAM_ERROR.getCode(), "分片校验失败，请重新上传该分片");
+            }
 
-        // 5. 创建文档记录
-        BizDocument document = new BizDocument();
-        document.setUserId(userId);
-        document.setTopicId(uploadDTO.getTopicId());
-        document.setFileType(uploadDTO.getFileType());
-        document.setOriginalFilename(uploadDTO.getFile().getOriginalFilename());
-        document.setStoredPath(storedPath);
-        document.setFileSize(uploadDTO.getFile().getSize());
-        document.setReviewStatus(ReviewStatus.PENDING.getValue());
-        document.setUploadedAt(LocalDateTime.now());
+            // 4. 行锁内复核后写入临时文件并标记已接收
+            return convertToChunkedUploadVO(chunkedUploadManager.commitChunk(uploadId, userId, staged));
+        } finally {
+            chunkedUploadManager.discard(staged);
+        }
+    }
 
-        boolean saved = save(document);
-        if (!saved) {
-            // 上传失败时删除已存储的文件
-            deleteStoredFile(storedPath);
-            throw new BusinessException(ResponseCode.ERROR.getCode(), "文档上传失败");
+    @Override
+    public ChunkedUploadVO getChunkedUpload(Long uploadId, Long userId) {
+        return convertToChunkedUploadVO(chunkedUploadManager.load(uploadId, userId, false));
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public DocumentVO completeChunkedUpload(Long uploadId, Long userId) {
+        log.info("用户[{}] 完成分片上传: {}", userId, uploadId);
+
+        // 1. 锁定会话，重复提交时返回已生成的文档
+        BizUploadSession session = chunkedUploadManager.load(uploadId, userId, true);
+        if (UploadSessionStatus.COMPLETED.getValue().equals(session.getStatus())) {
+            return getDocumentById(session.getDocumentId());
+        }
+        if (!session.isAllChunksReceived()) {
+            throw new BusinessException(ResponseCode.PARAM_ERROR.getCode(),
+                    "仍有" + (session.getTotalChunks() - session.getReceivedChunks()) + "个分片未上传");
         }
 
-        // 6. 清除相关缓存
-        clearDocumentCache(document.getId());
+        // 2. 再次校验（初始化后可能已上传同类型文档），预占配额
+        DocumentFileType fileType = validateNewDocument(userId, session.getTopicId(), session.getFileType());
+        Long departmentId = storageQuotaManager.departmentOf(session.getTopicId());
+        storageQuotaManager.reserve(userId, session.getTopicId(), departmentId, session.getFileSize(), 1);
 
-        log.info("文档上传成功，ID: {}", document.getId());
-        return convertToDocumentVO(document);
-    }
+        // 3. 临时文件复制进存储（事务提交后删除；回滚时会话仍为上传中，临时文件保留可重试）
+        String folder = "documents/" + fileType.name().toLowerCase();
+        StoreResult stored;
+        try {
+            stored = fileStorageService.store(chunkedUploadManager.tempFile(session), folder,
+                    session.getOriginalFilename());
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException(ResponseCode.PARAM_ERROR.getCode(), e.getMessage());
+        } catch (Exception e) {
+            log.error("分片上传文件合并失败: {}", uploadId, e);
+            throw new BusinessException(ResponseCode.ERROR.getCode(), "文件上传失败");
+        }
 
+        // 4. 创建文档记录并关闭会话
+        DocumentVO documentVO = saveNewDocument(userId, session.getTopicId(), departmentId, session.getFileType(),
+                session.getOriginalFilename(), stored, session.getFileSize());
+        chunkedUploadManager.markCompleted(uploadId, documentVO.getId());
+        return documentVO;
+    }
 
     @Override
-    public InputStream downloadDocument(Long documentId, Long userId) {
+    public DocumentDownloadVO downloadDocument(Long documentId, Long userId) {
         log.info("用户 {} 下载文档: {}", userId, documentId);
 
         // 1. 获取文档信息
@@ -183,16 +348,159 @@ public class DocumentServiceImpl extends ServiceImpl<BizDocumentMapper, BizDocum
         // 2. 验证下载权限
         validateDownloadPermission(userId, document);
 
-        // 3. 下载文件
+        // 3. 存储支持直接下载时返回预签名地址，文件流量不经过应用
+        DocumentDownloadVO download = new DocumentDownloadVO();
+        download.setDocumentId(document.getId());
+        download.setOriginalFilename(document.getOriginalFilename());
+        String redirectUrl = fileStorageService.getDownloadUrl(document.getStoredPath(), document.getOriginalFilename());
+        if (redirectUrl != null) {
+            download.setRedirectUrl(redirectUrl);
+            return download;
+        }
+
+        // 4. 打开文件句柄（只读取元信息，内容由控制器流式写出）
+        StoredFile file;
         try {
-            // 注意：这里需要根据具体的文件存储实现来获取InputStream
-            // 当前假设LocalFileStorageServiceImpl提供了相应的方法
-            // 实际使用时可能需要扩展FileStorageService接口
-            throw new UnsupportedOperationException("当前文件存储实现暂不支持直接返回InputStream");
+            file = fileStorageService.download(document.getStoredPath());
+        } catch (NoSuchFileException e) {
+            log.error("文档文件不存在: {} -> {}", documentId, document.getStoredPath());
+            throw new BusinessException(ResponseCode.NOT_FOUND.getCode(), "文档文件不存在");
         } catch (Exception e) {
             log.error("文档下载失败: {}", documentId, e);
             throw new BusinessException(ResponseCode.ERROR.getCode(), "文档下载失败");
         }
+
+        // 5. 组装下载信息，文件大小取元数据；与实际文件不一致时以实际大小为准，避免响应长度错误
+        long contentLength = document.getFileSize() != null ? document.getFileSize() : file.size();
+        if (contentLength != file.size()) {
+            log.warn("文档 {} 元数据大小 {} 与文件实际大小 {} 不一致", documentId, contentLength, file.size());
+            contentLength = file.size();
+        }
+        download.setContentLength(contentLength);
+        download.setLastModified(file.lastModified());
+        download.setEtag("\"" + document.getId() + "-" + contentLength + "-" + file.lastModified() + "\"");
+        download.setFile(file);
+        return download;
+    }
+
+    @Override
+    public void exportDocuments(DocumentPageQueryDTO queryDTO, OutputStream out) throws IOException {
+        log.info("导出文档归档，条件: {}", queryDTO);
+
+        // 关键词通过全文索引转为ID过滤条件
+        String keyword = queryDTO.getKeyword();
+        List<Long> matchedIds = searchIndexService.isSearchable(keyword)
+                ? searchIndexService.searchIds(SearchDocType.DOCUMENT, keyword) : List.of();
+        // 索引未命中（如词中间的片段）时回退为模糊查询
+        boolean useIndex = !matchedIds.isEmpty();
+        documentArchiveExporter.export(() -> buildDocumentQueryWrapper(queryDTO, useIndex, matchedIds), out);
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void reprocessDocument(Long documentId) {
+        BizDocument document = getById(documentId);
+        if (document == null) {
+            throw new BusinessException(ResponseCode.NOT_FOUND.getCode(), "文档不存在");
+        }
+
+        BizDocument update = new BizDocument();
+        update.setId(documentId);
+        update.setProcessStatus(DocumentProcessStatus.PENDING.getValue());
+        updateById(update);
+        documentProcessPipeline.enqueue(documentId);
+        clearDocumentCache(documentId);
+        log.info("文档重新处理已入队，ID: {}", documentId);
+    }
+
+    @Override
+    public DocumentProcessStatsVO getProcessStats() {
+        DocumentProcessPipeline.LatencyWindow.Summary wait = documentProcessPipeline.getWaitLatency();
+        DocumentProcessPipeline.LatencyWindow.Summary process = documentProcessPipeline.getProcessLatency();
+
+        DocumentProcessStatsVO vo = new DocumentProcessStatsVO();
+        vo.setQueueDepth(documentProcessPipeline.getQueueDepth());
+        vo.setActiveWorkers(documentProcessPipeline.getActiveWorkers());
+        vo.setBacklog(documentProcessPipeline.getBacklog());
+        vo.setFailedJobs(documentProcessPipeline.countFailed());
+        vo.setCompletedCount(documentProcessPipeline.getCompletedCount());
+        vo.setFailedCount(documentProcessPipeline.getFailedCount());
+        vo.setRetriedCount(documentProcessPipeline.getRetriedCount());
+        vo.setDeferredCount(documentProcessPipeline.getDeferredCount());
+        vo.setAvgWaitMillis(wait.avg());
+        vo.setP95WaitMillis(wait.p95());
+        vo.setAvgProcessMillis(process.avg());
+        vo.setP95ProcessMillis(process.p95());
+        vo.setMaxProcessMillis(process.max());
+        return vo;
+    }
+
+    @Override
+    public void rebuildSimilarityIndex() {
+        similarityIndexService.rebuildAll();
+    }
+
+    @Override
+    public List<SimilarDocumentVO> getSimilarDocuments(Long documentId, int limit) {
+        BizDocument document = getById(documentId);
+        if (document == null || document.getIsDeleted() == 1) {
+            throw new BusinessException(ResponseCode.NOT_FOUND.getCode(), "文档不存在");
+        }
+        if (!similarityIndexService.supports(document.getFileType())) {
+            throw new BusinessException(ResponseCode.PARAM_ERROR.getCode(), "仅毕业论文与外文翻译支持相似度检测");
+        }
+
+        List<SimilarityHit> hits = similarityIndexService.findSimilar(documentId, Math.max(1, Math.min(limit, 50)));
+        if (hits == null) {
+            throw new BusinessException(ResponseCode.PARAM_ERROR.getCode(), "文档尚未完成处理或未提取到正文，暂无法检测相似度");
+        }
+        if (hits.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // 回表并按相似度顺序组装（索引与删除之间的短暂窗口内已删除的文档直接跳过）
+        List<Long> ids = hits.stream().map(SimilarityHit::getId).toList();
+        Map<Long, DocumentVO> voMap = convertToDocumentVOListOptimized(bizDocumentMapper.selectByIds(ids)).stream()
+                .collect(Collectors.toMap(DocumentVO::getId, vo -> vo));
+        List<SimilarDocumentVO> result = new ArrayList<>(hits.size());
+        for (SimilarityHit hit : hits) {
+            DocumentVO vo = voMap.get(hit.getId());
+            if (vo != null) {
+                SimilarDocumentVO similar = new SimilarDocumentVO();
+                similar.setSimilarity(hit.getScore());
+                similar.setDocument(vo);
+                result.add(similar);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public StorageReconcileVO reconcileStorage() {
+        return toReconcileVO(storageReconciler.reconcile());
+    }
+
+    @Override
+    public StorageReconcileVO getLastStorageReconcile() {
+        StorageReconciler.Report report = storageReconciler.getLastReport();
+        return report != null ? toReconcileVO(report) : null;
+    }
+
+    @Override
+    public StorageUsageVO getStorageUsage(Integer scope, Long ownerId) {
+        return toStorageUsageVO(storageQuotaManager.getUsage(requireUsageScope(scope), ownerId));
+    }
+
+    @Override
+    public List<StorageUsageVO> getTopStorageUsages(Integer scope, int limit) {
+        return storageQuotaManager.getTopUsages(requireUsageScope(scope), Math.max(1, Math.min(limit, 100))).stream()
+                .map(this::toStorageUsageVO)
+                .toList();
+    }
+
+    @Override
+    public void rebuildStorageUsage() {
+        storageQuotaManager.rebuild();
     }
 
     @Override
@@ -264,9 +572,12 @@ public class DocumentServiceImpl extends ServiceImpl<BizDocumentMapper, BizDocum
             throw new BusinessException(ResponseCode.PARAM_ERROR.getCode(), "已通过审核的文档不能删除");
         }
 
-        // 3. 删除文件存储
+        // 3. 删除文件存储（事务提交后才物理删除，回滚时文件保留）
         try {
             deleteStoredFile(document.getStoredPath());
+            if (document.getThumbnailPath() != null) {
+                deleteStoredFile(document.getThumbnailPath());
+            }
         } catch (Exception e) {
             log.warn("文件删除失败，但继续删除数据库记录: {}", document.getStoredPath(), e);
         }
@@ -276,9 +587,13 @@ public class DocumentServiceImpl extends ServiceImpl<BizDocumentMapper, BizDocum
         if (!removed) {
             throw new BusinessException(ResponseCode.ERROR.getCode(), "文档删除失败");
         }
+        storageQuotaManager.charge(document.getUserId(), document.getTopicId(), document.getDepartmentId(),
+                document.getFileSize() != null ? -document.getFileSize() : 0L, -1);
 
-        // 5. 清除缓存
+        // 5. 清除缓存，移除全文索引与相似度索引
         clearDocumentCache(id);
+        searchIndexService.remove(SearchDocType.DOCUMENT, id);
+        similarityIndexService.remove(id);
 
         log.info("文档删除成功，ID: {}", id);
     }
@@ -318,21 +633,30 @@ public class DocumentServiceImpl extends ServiceImpl<BizDocumentMapper, BizDocum
             throw new BusinessException(ResponseCode.PARAM_ERROR.getCode(), result.getMessage());
         }
         
-        // 4. 上传新文件
+        // 4. 上传新文件（配额按新旧文件大小之差预占）
+        documentProcessPipeline.checkCapacity();
+        long oldFileSize = document.getFileSize() != null ? document.getFileSize() : 0L;
+        long reservedBytes = Math.max(newFile.getSize() - oldFileSize, 0L);
+        storageQuotaManager.reserve(userId, document.getTopicId(), document.getDepartmentId(), reservedBytes, 0);
         String category = "document/topic_" + document.getTopicId() + "/" + document.getFileType();
-        String newStoredPath;
+        StoreResult stored;
         try {
-            newStoredPath = fileStorageService.store(newFile, category);
+            stored = fileStorageService.store(newFile, category);
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException(ResponseCode.PARAM_ERROR.getCode(), e.getMessage());
         } catch (Exception e) {
             log.error("文件上传失败: {}", documentId, e);
             throw new BusinessException(ResponseCode.ERROR.getCode(), "文件上传失败");
         }
         
         // 5. 更新文档信息
+        String oldStoredPath = document.getStoredPath();
         document.setOriginalFilename(originalFilename);
-        document.setStoredPath(newStoredPath);
-        document.setFileSize(newFile.getSize());
+        document.setStoredPath(stored.getPath());
+        document.setFileSize(stored.getSize());
+        document.setContentHash(stored.getSha256());
         document.setReviewStatus(ReviewStatus.PENDING.getValue()); // 重置为待审核状态
+        document.setProcessStatus(DocumentProcessStatus.PENDING.getValue());
         document.setReviewedAt(null);
         document.setReviewerId(null);
         document.setFeedback(null);
@@ -343,21 +667,29 @@ public class DocumentServiceImpl extends ServiceImpl<BizDocumentMapper, BizDocum
         if (!updated) {
             throw new BusinessException(ResponseCode.ERROR.getCode(), "文档重新提交失败");
         }
+        storageQuotaManager.charge(document.getUserId(), document.getTopicId(), document.getDepartmentId(),
+                stored.getSize() - oldFileSize - reservedBytes, 0);
+        deleteStoredFile(oldStoredPath);
+        documentProcessPipeline.enqueue(documentId);
         
-        // 6. 清除缓存
+        // 6. 清除缓存，更新全文索引；旧文件的相似度签名作废，新文件处理完成后重新写入
         clearDocumentCache(documentId);
+        searchIndexService.indexDocument(document);
+        similarityIndexService.remove(documentId);
         
         // 7. 转换为VO并返回
         return convertToDocumentVO(document);
     }
 
     /**
-     * 删除存储的文件（需要扩展FileStorageService接口）
+     * 删除存储的文件（内容寻址存储下为减少一次内容引用），事务内调用时物理删除推迟到事务提交后
      */
     private void deleteStoredFile(String filePath) {
-        // TODO: 需要在FileStorageService接口中添加delete方法
-        // 或者创建一个专门的文件管理服务
-        log.warn("文件删除功能待实现，路径: {}", filePath);
+        try {
+            fileStorageService.delete(filePath);
+        } catch (IOException e) {
+            log.warn("文件删除失败: {}", filePath, e);
+        }
     }
 
     /**
@@ -375,6 +707,80 @@ public class DocumentServiceImpl extends ServiceImpl<BizDocumentMapper, BizDocum
         }
     }
 
+    /**
+     * 校验新文档：文件类型有效、用户有权上传该题目文档且尚无同类型文档
+     */
+    private DocumentFileType validateNewDocument(Long userId, Long topicId, Integer fileTypeValue) {
+        DocumentFileType fileType = DocumentFileType.getByValue(fileTypeValue);
+        if (fileType == null) {
+            throw new BusinessException(ResponseCode.PARAM_ERROR.getCode(), "不支持的文件类型");
+        }
+
+        validateUploadPermission(userId, topicId);
+
+        LambdaQueryWrapper<BizDocument> existWrapper = new LambdaQueryWrapper<>();
+        existWrapper.eq(BizDocument::getUserId, userId)
+                .eq(BizDocument::getTopicId, topicId)
+                .eq(BizDocument::getFileType, fileTypeValue)
+                .eq(BizDocument::getIsDeleted, 0);
+        if (count(existWrapper) > 0) {
+            throw new BusinessException(ResponseCode.PARAM_ERROR.getCode(), "该类型文档已存在，请先删除原文件");
+        }
+        return fileType;
+    }
+
+    /**
+     * 保存新文档记录并创建后台处理任务，清除缓存并更新全文索引；保存失败时事务回滚，已存储但未登记的文件由存储对账回收
+     * 用量已在写入文件前预占（一个文件及 reservedBytes 字节），这里只累加实际大小与预占的差额
+     */
+    private DocumentVO saveNewDocument(Long userId, Long topicId, Long departmentId, Integer fileType,
+                                      String originalFilename, StoreResult stored, long reservedBytes) {
+        BizDocument document = new BizDocument();
+        document.setUserId(userId);
+        document.setTopicId(topicId);
+        document.setDepartmentId(departmentId);
+        document.setFileType(fileType);
+        document.setOriginalFilename(originalFilename);
+        document.setStoredPath(stored.getPath());
+        document.setFileSize(stored.getSize());
+        document.setContentHash(stored.getSha256());
+        document.setReviewStatus(ReviewStatus.PENDING.getValue());
+        document.setProcessStatus(DocumentProcessStatus.PENDING.getValue());
+        document.setUploadedAt(LocalDateTime.now());
+
+        boolean saved = save(document);
+        if (!saved) {
+            throw new BusinessException(ResponseCode.ERROR.getCode(), "文档上传失败");
+        }
+        storageQuotaManager.charge(userId, topicId, departmentId, stored.getSize() - reservedBytes, 0);
+        // 文本提取、页数、缩略图等在事务提交后由后台处理
+        documentProcessPipeline.enqueue(document.getId());
+
+        clearDocumentCache(document.getId());
+        searchIndexService.indexDocument(document);
+
+        log.info("文档上传成功，ID: {}", document.getId());
+        return convertToDocumentVO(document);
+    }
+
+    /**
+     * 转换上传会话为状态VO
+     */
+    private ChunkedUploadVO convertToChunkedUploadVO(BizUploadSession session) {
+        ChunkedUploadVO vo = new ChunkedUploadVO();
+        vo.setUploadId(session.getId());
+        vo.setFilename(session.getOriginalFilename());
+        vo.setFileSize(session.getFileSize());
+        vo.setChunkSize(session.getChunkSize());
+        vo.setTotalChunks(session.getTotalChunks());
+        vo.setReceivedChunks(session.getReceivedChunks());
+        vo.setMissingChunks(chunkedUploadManager.missingChunks(session));
+        vo.setStatus(session.getStatus());
+        vo.setDocumentId(session.getDocumentId());
+        vo.setExpiresAt(session.getExpiresAt());
+        return vo;
+    }
+
     /**
      * 验证下载权限
      */
@@ -421,6 +827,9 @@ public class DocumentServiceImpl extends ServiceImpl<BizDocumentMapper, BizDocum
             vo.setReviewStatusDesc(reviewStatus.getDescription());
         }
 
+        // 填充后台处理结果
+        fillProcessInfo(vo, document);
+
         // 填充用户信息
         if (document.getUserId() != null) {
             SysUser user = sysUserMapper.selectById(document.getUserId());
@@ -448,6 +857,48 @@ public class DocumentServiceImpl extends ServiceImpl<BizDocumentMapper, BizDocum
         return vo;
     }
 
+    private StorageUsageScope requireUsageScope(Integer scope) {
+        StorageUsageScope usageScope = StorageUsageScope.getByValue(scope);
+        if (usageScope == null) {
+            throw new BusinessException(ResponseCode.PARAM_ERROR.getCode(), "无效的统计范围");
+        }
+        return usageScope;
+    }
+
+    private StorageUsageVO toStorageUsageVO(SysStorageUsage usage) {
+        StorageUsageScope scope = StorageUsageScope.getByValue(usage.getScope());
+        long quota = storageQuotaManager.getQuotaBytes(scope);
+
+        StorageUsageVO vo = new StorageUsageVO();
+        vo.setScope(usage.getScope());
+        vo.setScopeDesc(scope.getDescription());
+        vo.setOwnerId(usage.getOwnerId());
+        vo.setUsedBytes(usage.getUsedBytes());
+        vo.setUsedDisplay(FileStorageProperties.formatFileSize(usage.getUsedBytes()));
+        vo.setFileCount(usage.getFileCount());
+        if (quota > 0) {
+            vo.setQuotaBytes(quota);
+            vo.setUsagePercent(Math.round(usage.getUsedBytes() * 10000.0 / quota) / 100.0);
+        }
+        vo.setUpdatedAt(usage.getUpdatedAt());
+        return vo;
+    }
+
+    private StorageReconcileVO toReconcileVO(StorageReconciler.Report report) {
+        StorageReconcileVO vo = new StorageReconcileVO();
+        vo.setScannedFiles(report.scannedFiles());
+        vo.setReferencedPaths(report.referencedPaths());
+        vo.setOrphanFiles(report.orphanFiles());
+        vo.setRecentOrphans(report.recentOrphans());
+        vo.setPendingOrphans(report.pendingOrphans());
+        vo.setTempFiles(report.tempFiles());
+        vo.setFailures(report.failures());
+        vo.setReclaimedBytes(report.reclaimedBytes());
+        vo.setDurationMillis(report.durationMillis());
+        vo.setFinishedAt(report.finishedAt());
+        return vo;
+    }
+
     /**
      * 批量转换文档实体为VO（优化N+1查询）
      * 通过批量查询减少数据库访问次数
@@ -464,7 +915,7 @@ public class DocumentServiceImpl extends ServiceImpl<BizDocumentMapper, BizDocum
 
         // 构建ID到详情的映射
         Map<Long, Map<String, Object>> detailsMap = documentDetails.stream()
-                .collect(java.util.stream.Collectors.toMap(
+                .collect(Collectors.toMap(
                         detail -> ((Number) detail.get("id")).longValue(),
                         detail -> detail,
                         (existing, replacement) -> existing
@@ -483,6 +934,7 @@ public class DocumentServiceImpl extends ServiceImpl<BizDocumentMapper, BizDocum
             vo.setReviewedAt(document.getReviewedAt());
             vo.setReviewerId(document.getReviewerId());
             vo.setFeedback(document.getFeedback());
+            vo.setPageCount(document.getPageCount());
             vo.setUploadedAt(document.getUploadedAt());
             vo.setCreatedAt(document.getCreatedAt());
             vo.setUpdatedAt(document.getUpdatedAt());
@@ -504,6 +956,9 @@ public class DocumentServiceImpl extends ServiceImpl<BizDocumentMapper, BizDocum
                 vo.setReviewStatusDesc(reviewStatus.getDescription());
             }
 
+            // 填充后台处理结果
+            fillProcessInfo(vo, document);
+
             // 从批量查询结果中获取关联信息
             Map<String, Object> detail = detailsMap.get(document.getId());
             if (detail != null) {
@@ -516,6 +971,20 @@ public class DocumentServiceImpl extends ServiceImpl<BizDocumentMapper, BizDocum
         }).toList();
     }
 
+    /**
+     * 填充后台处理状态与缩略图地址
+     */
+    private void fillProcessInfo(DocumentVO vo, BizDocument document) {
+        vo.setProcessStatus(document.getProcessStatus());
+        DocumentProcessStatus processStatus = DocumentProcessStatus.getByValue(document.getProcessStatus());
+        if (processStatus != null) {
+            vo.setProcessStatusDesc(processStatus.getDescription());
+        }
+        if (document.getThumbnailPath() != null) {
+            vo.setThumbnailUrl(fileStorageService.getUrl(document.getThumbnailPath()));
+        }
+    }
+
     /**
      * 获取文件类型描述
      */
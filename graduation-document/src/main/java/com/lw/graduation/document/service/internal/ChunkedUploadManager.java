@@ -0,0 +1,323 @@
+package com.lw.graduation.document.service.internal;
+
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.util.IdUtil;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.lw.graduation.common.config.FileStorageProperties;
+import com.lw.graduation.common.enums.FileFormatType;
+import com.lw.graduation.common.enums.ResponseCode;
+import com.lw.graduation.common.exception.BusinessException;
+import com.lw.graduation.domain.entity.document.BizUploadSession;
+import com.lw.graduation.domain.enums.status.UploadSessionStatus;
+import com.lw.graduation.infrastructure.mapper.document.BizUploadSessionMapper;
+import com.lw.graduation.infrastructure.storage.ValidatingInputStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * 分片上传会话管理
+ * 初始化时按声明的文件大小创建临时文件。各分片先写入独立的暂存文件并计算MD5，校验通过后在会话行锁内
+ * 复核位图，分片未接收时才按偏移量定位写（FileChannel.transferFrom）到临时文件的最终位置并更新位图，
+ * 校验失败或重复上传的分片不会改动临时文件；不同分片之间互不覆盖，可并发上传。
+ * 临时文件由 RandomAccessFile.setLength 设定长度，在支持稀疏文件的文件系统上不占用也不预留磁盘空间，
+ * 初始化时只按当前可用空间做一次检查，分片写入时仍可能因磁盘写满而失败。
+ * 已接收分片记录在会话位图中，位图更新在行锁内完成，服务重启后可据此续传。
+ * 暂存文件在分片处理结束后删除，进程异常退出时遗留的暂存文件由存储对账按过期的临时文件清理。
+ *
+ * @author lw
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ChunkedUploadManager {
+
+    /** 写入缓冲区大小 */
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    /** 分片暂存文件前缀（后缀与临时文件相同，异常遗留时由存储对账清理） */
+    private static final String STAGE_FILE_PREFIX = "chunk-";
+    private static final String STAGE_FILE_SUFFIX = ".part";
+    /** 位图最大字节数（与 chunk_bitmap 列长度一致） */
+    private static final int MAX_BITMAP_BYTES = 8192;
+
+    private final BizUploadSessionMapper bizUploadSessionMapper;
+    private final FileStorageProperties fileStorageProperties;
+
+    /**
+     * 创建上传会话并创建临时文件（稀疏文件，不预留磁盘空间）
+     *
+     * @param userId 上传人ID
+     * @param topicId 题目ID
+     * @param fileType 文件类型
+     * @param filename 原始文件名
+     * @param fileSize 文件大小
+     * @return 上传会话
+     */
+    public BizUploadSession create(Long userId, Long topicId, Integer fileType, String filename, long fileSize) {
+        long chunkSize = fileStorageProperties.getChunkSize();
+        int totalChunks = (int) ((fileSize + chunkSize - 1) / chunkSize);
+        int bitmapBytes = (totalChunks + 7) / 8;
+        if (bitmapBytes > MAX_BITMAP_BYTES) {
+            throw new BusinessException(ResponseCode.PARAM_ERROR.getCode(), "分片数量超出限制");
+        }
+
+        // 1. 创建临时文件：setLength 只设定文件长度，不写入数据，先检查可用空间
+        String tempPath = IdUtil.fastSimpleUUID() + ".part";
+        Path file = resolve(tempPath);
+        try {
+            Files.createDirectories(file.getParent());
+            if (Files.getFileStore(file.getParent()).getUsableSpace() < fileSize) {
+                throw new BusinessException(ResponseCode.ERROR.getCode(), "存储空间不足");
+            }
+            try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+                raf.setLength(fileSize);
+            }
+        } catch (IOException e) {
+            log.error("预分配分片上传临时文件失败: {}", file, e);
+            deleteQuietly(file);
+            throw new BusinessException(ResponseCode.ERROR.getCode(), "初始化上传失败");
+        }
+
+        // 2. 保存会话
+        BizUploadSession session = new BizUploadSession();
+        session.setUserId(userId);
+        session.setTopicId(topicId);
+        session.setFileType(fileType);
+        session.setOriginalFilename(filename);
+        session.setFileSize(fileSize);
+        session.setChunkSize(chunkSize);
+        session.setTotalChunks(totalChunks);
+        session.setReceivedChunks(0);
+        session.setChunkBitmap(new byte[bitmapBytes]);
+        session.setTempPath(tempPath);
+        session.setStatus(UploadSessionStatus.UPLOADING.getValue());
+        session.setExpiresAt(LocalDateTime.now().plusHours(fileStorageProperties.getUploadSessionExpireHours()));
+        try {
+            bizUploadSessionMapper.insert(session);
+        } catch (RuntimeException e) {
+            deleteQuietly(file);
+            throw e;
+        }
+        log.info("创建分片上传会话: {}，文件: {}，大小: {}，分片数: {}", session.getId(), filename, fileSize, totalChunks);
+        return session;
+    }
+
+    /**
+     * 加载当前用户的上传会话
+     *
+     * @param uploadId 上传会话ID
+     * @param userId 用户ID
+     * @param forUpdate 是否加行锁（须在事务内调用）
+     * @return 上传会话
+     */
+    public BizUploadSession load(Long uploadId, Long userId, boolean forUpdate) {
+        LambdaQueryWrapper<BizUploadSession> wrapper = new LambdaQueryWrapper<BizUploadSession>()
+                .eq(BizUploadSession::getId, uploadId);
+        if (forUpdate) {
+            wrapper.last("FOR UPDATE");
+        }
+        BizUploadSession session = bizUploadSessionMapper.selectOne(wrapper);
+        if (session == null || !session.getUserId().equals(userId)) {
+            throw new BusinessException(ResponseCode.NOT_FOUND.getCode(), "上传会话不存在");
+        }
+        if (UploadSessionStatus.UPLOADING.getValue().equals(session.getStatus()) && session.isExpired()) {
+            throw new BusinessException(ResponseCode.NOT_FOUND.getCode(), "上传会话已过期，请重新上传");
+        }
+        return session;
+    }
+
+    /**
+     * 将分片内容写入暂存文件，并计算分片MD5
+     * 请求体长度必须与分片长度一致。首个分片边写入边嗅探文件开头，内容与扩展名不符时立即拒绝，
+     * 不必等全部分片上传完成。调用方处理完成后须调用 discard 删除暂存文件
+     *
+     * @param session 上传会话
+     * @param index 分片序号
+     * @param content 分片内容
+     * @return 暂存的分片
+     * @throws IOException IO异常
+     */
+    public StagedChunk stageChunk(BizUploadSession session, int index, InputStream content) throws IOException {
+        long offset = index * session.getChunkSize();
+        long length = Math.min(session.getChunkSize(), session.getFileSize() - offset);
+        MessageDigest digest = md5();
+        byte[] bytes = new byte[WRITE_BUFFER_SIZE];
+        InputStream source = content;
+        if (index == 0) {
+            FileFormatType type = FileFormatType.getByExtension(FileUtil.extName(session.getOriginalFilename()));
+            source = new ValidatingInputStream(content, type, Long.MAX_VALUE);
+        }
+
+        Path dir = Paths.get(fileStorageProperties.getChunkPath());
+        Files.createDirectories(dir);
+        Path file = Files.createTempFile(dir, STAGE_FILE_PREFIX, STAGE_FILE_SUFFIX);
+        try (OutputStream out = Files.newOutputStream(file, StandardOpenOption.WRITE)) {
+            long written = 0;
+            while (written < length) {
+                int read = source.read(bytes, 0, (int) Math.min(bytes.length, length - written));
+                if (read < 0) {
+                    break;
+                }
+                digest.update(bytes, 0, read);
+                out.write(bytes, 0, read);
+                written += read;
+            }
+            if (written < length) {
+                throw new BusinessException(ResponseCode.PARAM_ERROR.getCode(),
+                        String.format("分片数据不完整，应为%d字节，实际%d字节", length, written));
+            }
+            if (source.read() >= 0) {
+                throw new BusinessException(ResponseCode.PARAM_ERROR.getCode(), "分片数据超出分片大小");
+            }
+        } catch (IllegalArgumentException e) {
+            deleteQuietly(file);
+            throw new BusinessException(ResponseCode.PARAM_ERROR.getCode(), e.getMessage());
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(file);
+            throw e;
+        }
+        return new StagedChunk(index, file, length, HexFormat.of().formatHex(digest.digest()));
+    }
+
+    /**
+     * 接收已通过校验的分片（行锁内复核位图，并发上传的分片不会互相覆盖）
+     * 分片未接收时才写入临时文件的对应位置，写入后强制刷盘再更新位图，
+     * 保证标记为已接收的分片在服务重启后仍然有效；已接收的分片直接返回当前会话
+     *
+     * @param uploadId 上传会话ID
+     * @param userId 用户ID
+     * @param chunk 暂存的分片
+     * @return 更新后的上传会话
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public BizUploadSession commitChunk(Long uploadId, Long userId, StagedChunk chunk) {
+        BizUploadSession session = load(uploadId, userId, true);
+        if (!UploadSessionStatus.UPLOADING.getValue().equals(session.getStatus())) {
+            throw new BusinessException(ResponseCode.PARAM_ERROR.getCode(), "上传已完成");
+        }
+        if (session.hasChunk(chunk.index())) {
+            return session;
+        }
+
+        long offset = chunk.index() * session.getChunkSize();
+        try (FileChannel source = FileChannel.open(chunk.file(), StandardOpenOption.READ);
+             FileChannel target = FileChannel.open(resolve(session.getTempPath()), StandardOpenOption.WRITE)) {
+            long transferred = 0;
+            while (transferred < chunk.length()) {
+                long count = target.transferFrom(source, offset + transferred, chunk.length() - transferred);
+                if (count <= 0) {
+                    throw new IOException("暂存分片长度不足: " + chunk.file());
+                }
+                transferred += count;
+            }
+            target.force(false);
+        } catch (IOException e) {
+            log.error("分片写入失败，会话: {}，分片: {}", uploadId, chunk.index(), e);
+            throw new BusinessException(ResponseCode.ERROR.getCode(), "分片写入失败");
+        }
+
+        session.markChunk(chunk.index());
+        bizUploadSessionMapper.update(new LambdaUpdateWrapper<BizUploadSession>()
+                .eq(BizUploadSession::getId, uploadId)
+                .set(BizUploadSession::getChunkBitmap, session.getChunkBitmap())
+                .set(BizUploadSession::getReceivedChunks, session.getReceivedChunks()));
+        return session;
+    }
+
+    /**
+     * 删除分片暂存文件
+     *
+     * @param chunk 暂存的分片
+     */
+    public void discard(StagedChunk chunk) {
+        deleteQuietly(chunk.file());
+    }
+
+    /**
+     * 标记会话已完成
+     *
+     * @param uploadId 上传会话ID
+     * @param documentId 合并生成的文档ID
+     */
+    public void markCompleted(Long uploadId, Long documentId) {
+        bizUploadSessionMapper.update(new LambdaUpdateWrapper<BizUploadSession>()
+                .eq(BizUploadSession::getId, uploadId)
+                .set(BizUploadSession::getStatus, UploadSessionStatus.COMPLETED.getValue())
+                .set(BizUploadSession::getDocumentId, documentId));
+    }
+
+    /**
+     * 获取会话的临时文件
+     *
+     * @param session 上传会话
+     * @return 临时文件路径
+     */
+    public Path tempFile(BizUploadSession session) {
+        return resolve(session.getTempPath());
+    }
+
+    /**
+     * 缺失的分片序号
+     *
+     * @param session 上传会话
+     * @return 缺失的分片序号（升序）
+     */
+    public List<Integer> missingChunks(BizUploadSession session) {
+        List<Integer> missing = new ArrayList<>(session.getTotalChunks() - session.getReceivedChunks());
+        for (int i = 0; i < session.getTotalChunks(); i++) {
+            if (!session.hasChunk(i)) {
+                missing.add(i);
+            }
+        }
+        return missing;
+    }
+
+    private Path resolve(String tempPath) {
+        return Paths.get(fileStorageProperties.getChunkPath(), tempPath);
+    }
+
+    private static MessageDigest md5() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("删除分片上传临时文件失败: {}", file, e);
+        }
+    }
+
+    /**
+     * 暂存的分片
+     *
+     * @param index 分片序号
+     * @param file 暂存文件
+     * @param length 分片长度
+     * @param checksum 分片MD5（小写十六进制）
+     */
+    public record StagedChunk(int index, Path file, long length, String checksum) {
+    }
+}
@@ -0,0 +1,195 @@
+package com.lw.graduation.document.service.internal;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.lw.graduation.common.enums.FileFormatType;
+import com.lw.graduation.domain.entity.document.BizDocument;
+import com.lw.graduation.domain.entity.topic.BizTopic;
+import com.lw.graduation.domain.entity.user.SysUser;
+import com.lw.graduation.domain.enums.document.DocumentFileType;
+import com.lw.graduation.infrastructure.mapper.document.BizDocumentMapper;
+import com.lw.graduation.infrastructure.mapper.topic.BizTopicMapper;
+import com.lw.graduation.infrastructure.mapper.user.SysUserMapper;
+import com.lw.graduation.infrastructure.storage.FileStorageService;
+import com.lw.graduation.infrastructure.storage.StoredFile;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * 文档归档导出
+ * 按主键顺序分批读取文档元信息（每批只查询一次关联的学生与题目），逐个从存储顺序读取文件内容，
+ * 经 ZipOutputStream 直接写入输出流：文件内容不在内存或临时文件中缓存，数据库连接也不在写出期间占用。
+ * ZIP 容器格式（docx/xlsx/pptx）、压缩包、图片与 PDF 以不压缩级别写入，只做 CRC 计算，
+ * 其余格式（doc/xls/ppt/txt）正常压缩。条目路径为：题目/文件类型/学生姓名_原始文件名。
+ *
+ * @author lw
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DocumentArchiveExporter {
+
+    /** 每批读取的文档数 */
+    private static final int BATCH_SIZE = 200;
+    /** 输出缓冲区大小（Deflater 按小块输出，合并后再写入响应） */
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
+    /** 缺失文件清单条目名 */
+    private static final String MISSING_LIST_ENTRY = "缺失文件清单.txt";
+
+    private final BizDocumentMapper bizDocumentMapper;
+    private final BizTopicMapper bizTopicMapper;
+    private final SysUserMapper sysUserMapper;
+    private final FileStorageService fileStorageService;
+
+    /**
+     * 导出文档归档
+     * 存储中缺失的文件跳过，并在归档末尾写入缺失文件清单
+     *
+     * @param filter 过滤条件（每批调用一次，返回新的查询构造器，不含排序）
+     * @param out 输出流（写完后不关闭）
+     * @return 写入的文档数
+     * @throws IOException 读取文件或写出失败
+     */
+    public int export(Supplier<LambdaQueryWrapper<BizDocument>> filter, OutputStream out) throws IOException {
+        long startTime = System.currentTimeMillis();
+        ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(out, OUTPUT_BUFFER_SIZE), StandardCharsets.UTF_8);
+        Set<String> usedNames = new HashSet<>();
+        List<String> missing = new ArrayList<>();
+        int exported = 0;
+
+        Long lastId = null;
+        while (true) {
+            // 1. 按主键分批读取元信息
+            LambdaQueryWrapper<BizDocument> wrapper = filter.get()
+                    .select(BizDocument::getId, BizDocument::getUserId, BizDocument::getTopicId,
+                            BizDocument::getFileType, BizDocument::getOriginalFilename, BizDocument::getStoredPath)
+                    .gt(lastId != null, BizDocument::getId, lastId)
+                    .orderByAsc(BizDocument::getId)
+                    .last("LIMIT " + BATCH_SIZE);
+            List<BizDocument> batch = bizDocumentMapper.selectList(wrapper);
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            // 2. 批量查询学生姓名与题目标题
+            Map<Long, String> userNames = lookup(batch, BizDocument::getUserId,
+                    ids -> sysUserMapper.selectByIds(ids).stream()
+                            .collect(Collectors.toMap(SysUser::getId, user -> nameOf(user.getRealName(), user.getUsername()))));
+            Map<Long, String> topicTitles = lookup(batch, BizDocument::getTopicId,
+                    ids -> bizTopicMapper.selectByIds(ids).stream()
+                            .collect(Collectors.toMap(BizTopic::getId, topic -> nameOf(topic.getTitle(), "题目" + topic.getId()))));
+
+            // 3. 逐个写入归档
+            for (BizDocument document : batch) {
+                String name = entryName(document, userNames, topicTitles, usedNames);
+                if (writeEntry(zip, name, document)) {
+                    exported++;
+                } else {
+                    missing.add(name + "（文档ID: " + document.getId() + "，存储路径: " + document.getStoredPath() + "）");
+                }
+            }
+
+            lastId = batch.getLast().getId();
+            if (batch.size() < BATCH_SIZE) {
+                break;
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            zip.setLevel(Deflater.DEFAULT_COMPRESSION);
+            zip.putNextEntry(new ZipEntry(MISSING_LIST_ENTRY));
+            zip.write(String.join("\r\n", missing).getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+        zip.finish();
+        zip.flush();
+
+        log.info("文档归档导出完成，共 {} 个文件，缺失 {} 个，耗时 {} ms",
+                exported, missing.size(), System.currentTimeMillis() - startTime);
+        return exported;
+    }
+
+    /**
+     * 写入一个文档条目
+     *
+     * @return 文件缺失时返回false
+     */
+    private boolean writeEntry(ZipOutputStream zip, String name, BizDocument document) throws IOException {
+        StoredFile file;
+        try {
+            file = fileStorageService.download(document.getStoredPath());
+        } catch (NoSuchFileException e) {
+            log.warn("归档导出跳过缺失文件: {} -> {}", document.getId(), document.getStoredPath());
+            return false;
+        }
+
+        FileFormatType format = FileFormatType.getByExtension(document.getFileExtension());
+        zip.setLevel(format != null && format.isCompressed() ? Deflater.NO_COMPRESSION : Deflater.DEFAULT_COMPRESSION);
+        ZipEntry entry = new ZipEntry(name);
+        entry.setTime(file.lastModified());
+        zip.putNextEntry(entry);
+        try (InputStream in = file.openStream(0)) {
+            in.transferTo(zip);
+        }
+        zip.closeEntry();
+        return true;
+    }
+
+    /**
+     * 生成条目路径，重名时在文件名前加文档ID
+     */
+    private static String entryName(BizDocument document, Map<Long, String> userNames, Map<Long, String> topicTitles,
+                                    Set<String> usedNames) {
+        DocumentFileType fileType = DocumentFileType.getByValue(document.getFileType());
+        String directory = sanitize(topicTitles.getOrDefault(document.getTopicId(), "题目" + document.getTopicId()))
+                + "/" + (fileType != null ? fileType.getDescription() : "其他文档") + "/";
+        String filename = sanitize(userNames.getOrDefault(document.getUserId(), String.valueOf(document.getUserId())))
+                + "_" + sanitize(document.getOriginalFilename());
+
+        String name = directory + filename;
+        if (!usedNames.add(name)) {
+            name = directory + document.getId() + "_" + filename;
+            usedNames.add(name);
+        }
+        return name;
+    }
+
+    /**
+     * 替换路径分隔符与非法字符，避免解压时产生额外目录
+     */
+    private static String sanitize(String value) {
+        String cleaned = value == null ? "" : value.replaceAll("[\\\\/:*?\"<>|\\p{Cntrl}]", "_").trim();
+        while (cleaned.startsWith(".")) {
+            cleaned = cleaned.substring(1);
+        }
+        return cleaned.isEmpty() ? "_" : cleaned;
+    }
+
+    private static String nameOf(String preferred, String fallback) {
+        return preferred != null && !preferred.isBlank() ? preferred : String.valueOf(fallback);
+    }
+
+    private static Map<Long, String> lookup(List<BizDocument> batch, Function<BizDocument, Long> idGetter,
+                                            Function<Set<Long>, Map<Long, String>> loader) {
+        Set<Long> ids = batch.stream().map(idGetter).filter(id -> id != null).collect(Collectors.toSet());
+        return ids.isEmpty() ? Map.of() : loader.apply(ids);
+    }
+}
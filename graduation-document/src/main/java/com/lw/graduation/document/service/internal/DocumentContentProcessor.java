@@ -0,0 +1,371 @@
+package com.lw.graduation.document.service.internal;
+
+import com.lw.graduation.common.config.DocumentProcessProperties;
+import com.lw.graduation.common.enums.FileFormatType;
+import com.lw.graduation.domain.entity.document.BizDocument;
+import com.lw.graduation.infrastructure.storage.FileStorageService;
+import com.lw.graduation.infrastructure.storage.StoredFile;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.SequenceInputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipInputStream;
+
+/**
+ * 文档内容处理器
+ * 从存储顺序读取一遍文件，在同一遍读取中计算 SHA-256 摘要，并按格式提取正文文本、页数与缩略图：
+ * <ul>
+ *     <li>docx/pptx/xlsx：按 ZIP 条目顺序流式解析正文 XML、docProps/app.xml（页数/幻灯片数）与内嵌缩略图</li>
+ *     <li>pdf：扫描页对象计数（压缩对象流中的页对象无法识别，此时页数为空）</li>
+ *     <li>txt：按 BOM 识别编码读取文本</li>
+ *     <li>图片：生成缩略图</li>
+ * </ul>
+ * 旧版 Office 二进制格式与压缩包只核对摘要。
+ *
+ * @author lw
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DocumentContentProcessor {
+
+    /** 读取缓冲区大小 */
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    /** PDF 页对象：/Type /Page（排除页树节点 /Pages） */
+    private static final Pattern PDF_PAGE = Pattern.compile("/Type\\s{0,8}/Page(?![A-Za-z])");
+    /** PDF 扫描窗口保留的上一块尾部长度（不小于页对象标记的最大长度） */
+    private static final int PDF_CARRY_LENGTH = 32;
+    private static final XMLInputFactory XML_INPUT_FACTORY = createXmlInputFactory();
+
+    private final DocumentProcessProperties properties;
+    private final FileStorageService fileStorageService;
+
+    /**
+     * 处理结果
+     *
+     * @param sha256    文件内容摘要（小写十六进制）
+     * @param pageCount 页数，无法识别时为空
+     * @param text      提取的正文文本，无法提取时为空
+     * @param thumbnail 缩略图，无法生成时为空
+     */
+    public record Result(String sha256, Integer pageCount, String text, BufferedImage thumbnail) {
+    }
+
+    /**
+     * 读取并处理文档内容
+     *
+     * @param document 文档（使用存储路径与原始文件名）
+     * @return 处理结果
+     * @throws IOException 文件不存在或读取失败
+     */
+    public Result process(BizDocument document) throws IOException {
+        StoredFile file = fileStorageService.download(document.getStoredPath());
+        MessageDigest digest = sha256();
+        FileFormatType format = FileFormatType.getByExtension(document.getFileExtension());
+
+        try (DigestInputStream in = new DigestInputStream(
+                new BufferedInputStream(file.openStream(0), READ_BUFFER_SIZE), digest)) {
+            Extraction extraction = new Extraction(properties.getMaxTextLength());
+            InputStream content = new NonClosingInputStream(in);
+            try {
+                if (format != null) {
+                    extract(format, content, extraction);
+                }
+            } catch (IOException | XMLStreamException | RuntimeException e) {
+                // 内容解析失败不影响摘要核对，按无法提取处理
+                log.warn("文档内容解析失败，仅核对摘要: {} ({})", document.getId(), e.getMessage());
+                extraction = new Extraction(properties.getMaxTextLength());
+            }
+            // 读完剩余内容，保证摘要覆盖整个文件
+            in.transferTo(OutputStream.nullOutputStream());
+
+            return new Result(HexFormat.of().formatHex(digest.digest()), extraction.pageCount,
+                    extraction.text(), scale(extraction.image));
+        }
+    }
+
+    /**
+     * 将缩略图写入临时 PNG 文件（由调用方保存到存储）
+     *
+     * @param thumbnail 缩略图
+     * @return 临时文件路径
+     * @throws IOException 写入失败
+     */
+    public Path writeThumbnail(BufferedImage thumbnail) throws IOException {
+        Path temp = Files.createTempFile("thumbnail-", ".png");
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            ImageIO.write(thumbnail, "png", out);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        return temp;
+    }
+
+    private void extract(FileFormatType format, InputStream in, Extraction extraction)
+            throws IOException, XMLStreamException {
+        switch (format) {
+            case DOCX, PPTX, XLSX -> extractOoxml(in, extraction);
+            case PDF -> extraction.pageCount = countPdfPages(in);
+            case TXT -> extractPlainText(in, extraction);
+            case JPG, JPEG, PNG, GIF -> extraction.image = ImageIO.read(in);
+            default -> {
+                // 旧版二进制格式与压缩包：只核对摘要
+            }
+        }
+    }
+
+    /**
+     * 按条目顺序解析 OOXML 包
+     */
+    private void extractOoxml(InputStream in, Extraction extraction) throws IOException, XMLStreamException {
+        ZipInputStream zip = new ZipInputStream(in, StandardCharsets.UTF_8);
+        ZipEntry entry;
+        try {
+            while ((entry = zip.getNextEntry()) != null) {
+                String name = entry.getName();
+                if (name.equals("word/document.xml")) {
+                    readText(zip, "t", "p", extraction);
+                } else if (name.startsWith("ppt/slides/slide") && name.endsWith(".xml")) {
+                    readText(zip, "t", "p", extraction);
+                } else if (name.equals("xl/sharedStrings.xml")) {
+                    readText(zip, "t", "si", extraction);
+                } else if (name.equals("docProps/app.xml")) {
+                    extraction.pageCount = readPageCount(zip);
+                } else if (name.startsWith("docProps/thumbnail.")) {
+                    extraction.image = readImageQuietly(zip);
+                }
+            }
+        } catch (ZipException e) {
+            // 条目使用数据描述符等 ZipInputStream 无法顺序读取的结构，保留已提取的部分
+            log.debug("OOXML 包无法继续顺序读取: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 读取内嵌缩略图（wmf/emf 等 ImageIO 不支持的格式返回空，不影响正文提取）
+     */
+    private static BufferedImage readImageQuietly(InputStream in) {
+        try {
+            return ImageIO.read(new NonClosingInputStream(in));
+        } catch (IOException | RuntimeException e) {
+            log.debug("内嵌缩略图读取失败: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 读取 XML 中指定元素的文本，块元素结束时换行
+     */
+    private static void readText(InputStream in, String textElement, String blockElement, Extraction extraction)
+            throws XMLStreamException {
+        // 解析器读到文档末尾时会关闭输入流，ZIP 条目流须保持打开以读取后续条目
+        XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(new NonClosingInputStream(in));
+        try {
+            boolean inText = false;
+            while (reader.hasNext() && !extraction.isFull()) {
+                switch (reader.next()) {
+                    case XMLStreamConstants.START_ELEMENT -> inText = textElement.equals(reader.getLocalName());
+                    case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA -> {
+                        if (inText) {
+                            extraction.append(reader.getText());
+                        }
+                    }
+                    case XMLStreamConstants.END_ELEMENT -> {
+                        inText = false;
+                        if (blockElement.equals(reader.getLocalName())) {
+                            extraction.append("\n");
+                        }
+                    }
+                    default -> {
+                    }
+                }
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * 读取 docProps/app.xml 中的页数（Word）或幻灯片数（PowerPoint）
+     */
+    private static Integer readPageCount(InputStream in) throws XMLStreamException {
+        XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(new NonClosingInputStream(in));
+        try {
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT
+                        && ("Pages".equals(reader.getLocalName()) || "Slides".equals(reader.getLocalName()))) {
+                    String value = reader.getElementText().trim();
+                    return value.matches("\\d{1,9}") ? Integer.valueOf(value) : null;
+                }
+            }
+            return null;
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * 扫描 PDF 页对象数量
+     * 逐块扫描，每块前拼接上一块的尾部；只统计结束位置落在本块的匹配，跨块的标记不重复计数
+     */
+    private static Integer countPdfPages(InputStream in) throws IOException {
+        byte[] buffer = new byte[READ_BUFFER_SIZE];
+        String carry = "";
+        int pages = 0;
+        int read;
+        while ((read = in.read(buffer)) > 0) {
+            String window = carry + new String(buffer, 0, read, StandardCharsets.ISO_8859_1);
+            Matcher matcher = PDF_PAGE.matcher(window);
+            // 结束于窗口末尾的匹配可能是 /Pages 的前缀，留到下一块判断
+            while (matcher.find()) {
+                if (matcher.end() >= carry.length() && matcher.end() < window.length()) {
+                    pages++;
+                }
+            }
+            carry = window.substring(Math.max(0, window.length() - PDF_CARRY_LENGTH));
+        }
+        return pages > 0 ? pages : null;
+    }
+
+    /**
+     * 按 BOM 识别编码读取文本（无 BOM 按 UTF-8）
+     */
+    private static void extractPlainText(InputStream in, Extraction extraction) throws IOException {
+        // 不能 mark/reset：摘要流会重复计算回退后再次读取的字节，读出的前缀拼回流头部
+        byte[] bom = in.readNBytes(3);
+        Charset charset = StandardCharsets.UTF_8;
+        int skip = 0;
+        if (bom.length >= 3 && (bom[0] & 0xFF) == 0xEF && (bom[1] & 0xFF) == 0xBB && (bom[2] & 0xFF) == 0xBF) {
+            skip = 3;
+        } else if (bom.length >= 2 && (bom[0] & 0xFF) == 0xFF && (bom[1] & 0xFF) == 0xFE) {
+            charset = StandardCharsets.UTF_16LE;
+            skip = 2;
+        } else if (bom.length >= 2 && (bom[0] & 0xFF) == 0xFE && (bom[1] & 0xFF) == 0xFF) {
+            charset = StandardCharsets.UTF_16BE;
+            skip = 2;
+        }
+        InputStream body = new SequenceInputStream(new ByteArrayInputStream(bom, skip, bom.length - skip), in);
+
+        Reader reader = new InputStreamReader(body, charset);
+        char[] chars = new char[8192];
+        int read;
+        while (!extraction.isFull() && (read = reader.read(chars)) > 0) {
+            extraction.append(new String(chars, 0, read));
+        }
+    }
+
+    /**
+     * 按最大边长等比缩放（不放大）
+     */
+    private BufferedImage scale(BufferedImage image) {
+        if (image == null || image.getWidth() <= 0 || image.getHeight() <= 0) {
+            return null;
+        }
+        int size = properties.getThumbnailSize();
+        double ratio = Math.min(1.0, (double) size / Math.max(image.getWidth(), image.getHeight()));
+        int width = Math.max(1, (int) Math.round(image.getWidth() * ratio));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * ratio));
+
+        BufferedImage thumbnail = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = thumbnail.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return thumbnail;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
+    }
+
+    /**
+     * 禁用 DTD 与外部实体，防止 XXE
+     */
+    private static XMLInputFactory createXmlInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+
+    /**
+     * 提取过程中的中间结果，文本按字符数上限截断
+     */
+    private static final class Extraction {
+
+        private final int maxLength;
+        private final StringBuilder text = new StringBuilder();
+        private Integer pageCount;
+        private BufferedImage image;
+
+        private Extraction(int maxLength) {
+            this.maxLength = maxLength;
+        }
+
+        private boolean isFull() {
+            return text.length() >= maxLength;
+        }
+
+        private void append(String value) {
+            text.append(value, 0, Math.min(value.length(), maxLength - text.length()));
+        }
+
+        private String text() {
+            String value = text.toString().strip();
+            return value.isEmpty() ? null : value;
+        }
+    }
+
+    /**
+     * 忽略 close 的输入流：解析器关闭时不关闭底层流，剩余内容仍需读完以计算摘要
+     */
+    private static final class NonClosingInputStream extends FilterInputStream {
+
+        private NonClosingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public void close() {
+            // 由外层负责关闭
+        }
+    }
+}
@@ -0,0 +1,515 @@
+package com.lw.graduation.document.service.internal;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.lw.graduation.common.config.DocumentProcessProperties;
+import com.lw.graduation.common.constant.CacheConstants;
+import com.lw.graduation.common.enums.ResponseCode;
+import com.lw.graduation.common.exception.BusinessException;
+import com.lw.graduation.common.util.CacheHelper;
+import com.lw.graduation.domain.entity.document.BizDocument;
+import com.lw.graduation.domain.entity.document.BizDocumentProcessJob;
+import com.lw.graduation.domain.enums.status.DocumentProcessStatus;
+import com.lw.graduation.infrastructure.mapper.document.BizDocumentMapper;
+import com.lw.graduation.infrastructure.mapper.document.BizDocumentProcessJobMapper;
+import com.lw.graduation.infrastructure.search.SearchIndexService;
+import com.lw.graduation.infrastructure.similarity.SimilarityIndexService;
+import com.lw.graduation.infrastructure.storage.FileStorageService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 文档后台处理流水线
+ * 上传事务内写入处理任务，提交后尝试直接投递给工作线程池；线程池前的内存队列有界，队列已满时任务留在数据库中，
+ * 由调度线程按空闲容量分批取出（拉取式背压），上传请求不会因处理积压而变慢。
+ * 工作线程以条件更新认领任务（待处理 -> 处理中）并递增执行次数；失败按指数退避重试，超过最大次数后标记失败。
+ * 调度线程每个周期为本实例正在处理的任务续约心跳，处理耗时再长也不会被放回；心跳超时（实例中断）的任务放回待处理。
+ * 任务结束时按认领时的执行次数条件更新，心跳超时后被重新认领的任务，原工作线程的结果不会覆盖新的执行。
+ * 待处理任务积压超过上限时拒绝新的上传。
+ *
+ * @author lw
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DocumentProcessPipeline {
+
+    /** 失败原因最大长度 */
+    private static final int MAX_ERROR_LENGTH = 500;
+    /** 缩略图存储分类 */
+    private static final String THUMBNAIL_CATEGORY = "thumbnail";
+
+    private final DocumentProcessProperties properties;
+    private final BizDocumentProcessJobMapper bizDocumentProcessJobMapper;
+    private final BizDocumentMapper bizDocumentMapper;
+    private final DocumentContentProcessor documentContentProcessor;
+    private final FileStorageService fileStorageService;
+    private final SearchIndexService searchIndexService;
+    private final SimilarityIndexService similarityIndexService;
+    private final CacheHelper cacheHelper;
+
+    /** 已投递到线程池、尚未结束的任务ID（避免调度线程重复投递） */
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    /** 本实例已认领、正在处理的任务（任务ID -> 认领时的执行次数），调度时续约心跳 */
+    private final Map<Long, Integer> running = new ConcurrentHashMap<>();
+    /** 数据库中的待处理任务数（调度时刷新，入队事务提交后递增） */
+    private final AtomicInteger backlog = new AtomicInteger();
+    private final AtomicLong completedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong retriedCount = new AtomicLong();
+    private final AtomicLong deferredCount = new AtomicLong();
+    /** 排队耗时：入队到开始处理 */
+    private final LatencyWindow waitLatency = new LatencyWindow();
+    /** 处理耗时：开始处理到结束 */
+    private final LatencyWindow processLatency = new LatencyWindow();
+
+    private ThreadPoolExecutor workers;
+    private ScheduledExecutorService dispatcher;
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadIndex = new AtomicInteger();
+        workers = new ThreadPoolExecutor(properties.getWorkers(), properties.getWorkers(), 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()), r -> {
+                    Thread thread = new Thread(r, "document-process-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+
+        dispatcher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "document-process-dispatch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        int interval = properties.getPollIntervalSeconds();
+        dispatcher.scheduleWithFixedDelay(this::dispatch, interval, interval, TimeUnit.SECONDS);
+        log.info("文档处理流水线已启动: 工作线程={}, 队列容量={}", properties.getWorkers(), properties.getQueueCapacity());
+    }
+
+    /**
+     * 停止调度；已认领未完成的任务在超时后由下次启动的调度放回待处理
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (dispatcher != null) {
+            dispatcher.shutdownNow();
+        }
+        if (workers != null) {
+            workers.shutdown();
+            try {
+                if (!workers.awaitTermination(10, TimeUnit.SECONDS)) {
+                    workers.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                workers.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * 检查处理积压，积压超过上限时拒绝新的上传
+     */
+    public void checkCapacity() {
+        if (backlog.get() >= properties.getMaxBacklog()) {
+            throw new BusinessException(ResponseCode.ERROR.getCode(), "文档处理任务积压过多，请稍后再试");
+        }
+    }
+
+    /**
+     * 为文档创建处理任务（在上传事务内调用），事务提交后计入积压并投递给工作线程
+     *
+     * @param documentId 文档ID
+     */
+    public void enqueue(Long documentId) {
+        BizDocumentProcessJob job = new BizDocumentProcessJob();
+        job.setDocumentId(documentId);
+        job.setStatus(DocumentProcessStatus.PENDING.getValue());
+        job.setAttempts(0);
+        job.setNextRunAt(LocalDateTime.now());
+        bizDocumentProcessJobMapper.insert(job);
+
+        Long jobId = job.getId();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            backlog.incrementAndGet();
+            submit(jobId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                backlog.incrementAndGet();
+                submit(jobId);
+            }
+        });
+    }
+
+    /**
+     * 工作线程池队列中等待的任务数
+     *
+     * @return 队列深度
+     */
+    public int getQueueDepth() {
+        return workers.getQueue().size();
+    }
+
+    /**
+     * 正在处理的工作线程数
+     *
+     * @return 活动线程数
+     */
+    public int getActiveWorkers() {
+        return workers.getActiveCount();
+    }
+
+    /**
+     * 数据库中的待处理任务数（最近一次调度时统计）
+     *
+     * @return 积压任务数
+     */
+    public int getBacklog() {
+        return backlog.get();
+    }
+
+    /**
+     * 处理失败（已达最大次数）的任务数
+     *
+     * @return 失败任务数
+     */
+    public long countFailed() {
+        return bizDocumentProcessJobMapper.selectCount(new LambdaQueryWrapper<BizDocumentProcessJob>()
+                .eq(BizDocumentProcessJob::getStatus, DocumentProcessStatus.FAILED.getValue()));
+    }
+
+    /**
+     * 本实例启动以来完成的任务数
+     */
+    public long getCompletedCount() {
+        return completedCount.get();
+    }
+
+    /**
+     * 本实例启动以来最终失败的任务数
+     */
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    /**
+     * 本实例启动以来安排重试的次数
+     */
+    public long getRetriedCount() {
+        return retriedCount.get();
+    }
+
+    /**
+     * 本实例启动以来因队列已满暂留数据库的任务数
+     */
+    public long getDeferredCount() {
+        return deferredCount.get();
+    }
+
+    /**
+     * 最近任务的排队耗时统计（毫秒）
+     */
+    public LatencyWindow.Summary getWaitLatency() {
+        return waitLatency.summary();
+    }
+
+    /**
+     * 最近任务的处理耗时统计（毫秒）
+     */
+    public LatencyWindow.Summary getProcessLatency() {
+        return processLatency.summary();
+    }
+
+    /**
+     * 投递任务；队列已满时任务保持待处理，由调度线程稍后取出
+     */
+    private void submit(Long jobId) {
+        if (!inFlight.add(jobId)) {
+            return;
+        }
+        try {
+            workers.execute(() -> run(jobId));
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(jobId);
+            deferredCount.incrementAndGet();
+            log.debug("文档处理队列已满，任务 {} 留待调度", jobId);
+        }
+    }
+
+    /**
+     * 调度：续约本实例任务的心跳，放回心跳超时的任务，按线程池空闲容量取出到期的待处理任务
+     */
+    private void dispatch() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            running.forEach((jobId, attempt) -> bizDocumentProcessJobMapper.update(
+                    new LambdaUpdateWrapper<BizDocumentProcessJob>()
+                            .eq(BizDocumentProcessJob::getId, jobId)
+                            .eq(BizDocumentProcessJob::getStatus, DocumentProcessStatus.RUNNING.getValue())
+                            .eq(BizDocumentProcessJob::getAttempts, attempt)
+                            .set(BizDocumentProcessJob::getHeartbeatAt, now)));
+
+            LocalDateTime staleBefore = now.minusSeconds(properties.getStaleTimeoutSeconds());
+            int recovered = bizDocumentProcessJobMapper.update(new LambdaUpdateWrapper<BizDocumentProcessJob>()
+                    .eq(BizDocumentProcessJob::getStatus, DocumentProcessStatus.RUNNING.getValue())
+                    .and(w -> w.lt(BizDocumentProcessJob::getHeartbeatAt, staleBefore)
+                            .or(o -> o.isNull(BizDocumentProcessJob::getHeartbeatAt)
+                                    .lt(BizDocumentProcessJob::getStartedAt, staleBefore)))
+                    .set(BizDocumentProcessJob::getStatus, DocumentProcessStatus.PENDING.getValue()));
+            if (recovered > 0) {
+                log.warn("{} 个文档处理任务心跳超时，已放回待处理", recovered);
+            }
+
+            backlog.set(Math.toIntExact(bizDocumentProcessJobMapper.selectCount(
+                    new LambdaQueryWrapper<BizDocumentProcessJob>()
+                            .eq(BizDocumentProcessJob::getStatus, DocumentProcessStatus.PENDING.getValue()))));
+
+            int free = workers.getQueue().remainingCapacity();
+            if (free == 0 || backlog.get() == 0) {
+                return;
+            }
+            bizDocumentProcessJobMapper.selectList(new LambdaQueryWrapper<BizDocumentProcessJob>()
+                            .select(BizDocumentProcessJob::getId)
+                            .eq(BizDocumentProcessJob::getStatus, DocumentProcessStatus.PENDING.getValue())
+                            .le(BizDocumentProcessJob::getNextRunAt, now)
+                            .orderByAsc(BizDocumentProcessJob::getNextRunAt, BizDocumentProcessJob::getId)
+                            .last("LIMIT " + (free + inFlight.size())))
+                    .forEach(job -> submit(job.getId()));
+        } catch (Exception e) {
+            log.warn("文档处理任务调度失败: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 认领并执行任务
+     */
+    private void run(Long jobId) {
+        try {
+            LocalDateTime startedAt = LocalDateTime.now();
+            int claimed = bizDocumentProcessJobMapper.update(new LambdaUpdateWrapper<BizDocumentProcessJob>()
+                    .eq(BizDocumentProcessJob::getId, jobId)
+                    .eq(BizDocumentProcessJob::getStatus, DocumentProcessStatus.PENDING.getValue())
+                    .set(BizDocumentProcessJob::getStatus, DocumentProcessStatus.RUNNING.getValue())
+                    .set(BizDocumentProcessJob::getStartedAt, startedAt)
+                    .set(BizDocumentProcessJob::getHeartbeatAt, startedAt)
+                    .setSql("attempts = attempts + 1"));
+            if (claimed == 0) {
+                return;
+            }
+            backlog.updateAndGet(count -> Math.max(0, count - 1));
+
+            BizDocumentProcessJob job = bizDocumentProcessJobMapper.selectById(jobId);
+            running.put(jobId, job.getAttempts());
+            waitLatency.record(Duration.between(job.getCreatedAt(), startedAt).toMillis());
+            try {
+                process(job.getDocumentId());
+                if (finish(job, DocumentProcessStatus.COMPLETED, null, null)) {
+                    completedCount.incrementAndGet();
+                }
+            } catch (Exception e) {
+                fail(job, e);
+            } finally {
+                processLatency.record(Duration.between(startedAt, LocalDateTime.now()).toMillis());
+            }
+        } catch (Exception e) {
+            log.error("文档处理任务 {} 状态更新失败", jobId, e);
+        } finally {
+            running.remove(jobId);
+            inFlight.remove(jobId);
+        }
+    }
+
+    /**
+     * 处理文档并写回元信息
+     * 按存储路径条件更新：处理期间文档被重新提交时放弃本次结果（新文件有新的任务）
+     */
+    private void process(Long documentId) throws IOException {
+        BizDocument document = bizDocumentMapper.selectById(documentId);
+        if (document == null) {
+            log.debug("文档 {} 已删除，跳过处理", documentId);
+            return;
+        }
+
+        DocumentContentProcessor.Result result = documentContentProcessor.process(document);
+        if (document.getContentHash() != null && !document.getContentHash().equals(result.sha256())) {
+            throw new IllegalStateException("文件内容与上传时的摘要不一致，存储中的文件可能已损坏");
+        }
+
+        String thumbnailPath = result.thumbnail() != null ? storeThumbnail(result) : null;
+        int updated = bizDocumentMapper.update(new LambdaUpdateWrapper<BizDocument>()
+                .eq(BizDocument::getId, documentId)
+                .eq(BizDocument::getStoredPath, document.getStoredPath())
+                .set(BizDocument::getContentHash, result.sha256())
+                .set(BizDocument::getPageCount, result.pageCount())
+                .set(BizDocument::getThumbnailPath, thumbnailPath)
+                .set(BizDocument::getExtractedText, result.text())
+                .set(BizDocument::getProcessStatus, DocumentProcessStatus.COMPLETED.getValue())
+                .set(BizDocument::getProcessedAt, LocalDateTime.now()));
+        if (updated == 0) {
+            deleteQuietly(thumbnailPath);
+            return;
+        }
+        if (document.getThumbnailPath() != null && !document.getThumbnailPath().equals(thumbnailPath)) {
+            deleteQuietly(document.getThumbnailPath());
+        }
+
+        document.setExtractedText(result.text());
+        searchIndexService.indexDocument(document);
+        similarityIndexService.index(document);
+        cacheHelper.evictCache(CacheConstants.KeyPrefix.DOCUMENT_INFO + documentId);
+        log.debug("文档 {} 处理完成: 页数={}, 文本长度={}, 缩略图={}", documentId, result.pageCount(),
+                result.text() != null ? result.text().length() : 0, thumbnailPath);
+    }
+
+    private String storeThumbnail(DocumentContentProcessor.Result result) throws IOException {
+        Path temp = documentContentProcessor.writeThumbnail(result.thumbnail());
+        try {
+            return fileStorageService.store(temp, THUMBNAIL_CATEGORY, "thumbnail.png").getPath();
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * 处理失败：未达最大次数时按指数退避放回待处理，否则标记任务与文档失败
+     */
+    private void fail(BizDocumentProcessJob job, Exception e) {
+        int attempts = job.getAttempts() != null ? job.getAttempts() : 1;
+        String message = truncate(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        if (attempts < properties.getMaxAttempts()) {
+            long delay = (long) properties.getRetryDelaySeconds() << Math.min(attempts - 1, 20);
+            if (!finish(job, DocumentProcessStatus.PENDING, message, LocalDateTime.now().plusSeconds(delay))) {
+                return;
+            }
+            backlog.incrementAndGet();
+            retriedCount.incrementAndGet();
+            log.warn("文档 {} 处理失败（第 {} 次），{} 秒后重试: {}", job.getDocumentId(), attempts, delay, message);
+            return;
+        }
+
+        if (!finish(job, DocumentProcessStatus.FAILED, message, null)) {
+            return;
+        }
+        bizDocumentMapper.update(new LambdaUpdateWrapper<BizDocument>()
+                .eq(BizDocument::getId, job.getDocumentId())
+                .set(BizDocument::getProcessStatus, DocumentProcessStatus.FAILED.getValue()));
+        cacheHelper.evictCache(CacheConstants.KeyPrefix.DOCUMENT_INFO + job.getDocumentId());
+        failedCount.incrementAndGet();
+        log.error("文档 {} 处理失败，已达最大次数 {}", job.getDocumentId(), attempts, e);
+    }
+
+    /**
+     * 结束本次执行：仅当任务仍处于本次认领（处理中且执行次数未变）时更新
+     *
+     * @return 更新成功返回true；心跳超时后已被放回或重新认领时返回false
+     */
+    private boolean finish(BizDocumentProcessJob job, DocumentProcessStatus status, String errorMessage,
+                           LocalDateTime nextRunAt) {
+        LambdaUpdateWrapper<BizDocumentProcessJob> wrapper = new LambdaUpdateWrapper<BizDocumentProcessJob>()
+                .eq(BizDocumentProcessJob::getId, job.getId())
+                .eq(BizDocumentProcessJob::getStatus, DocumentProcessStatus.RUNNING.getValue())
+                .eq(BizDocumentProcessJob::getAttempts, job.getAttempts())
+                .set(BizDocumentProcessJob::getStatus, status.getValue())
+                .set(BizDocumentProcessJob::getErrorMessage, errorMessage);
+        if (nextRunAt != null) {
+            wrapper.set(BizDocumentProcessJob::getNextRunAt, nextRunAt);
+        } else {
+            wrapper.set(BizDocumentProcessJob::getFinishedAt, LocalDateTime.now());
+        }
+        if (bizDocumentProcessJobMapper.update(wrapper) == 0) {
+            log.warn("文档处理任务 {} 第 {} 次执行的认领已失效（心跳超时后被放回），放弃本次结果", job.getId(), job.getAttempts());
+            return false;
+        }
+        return true;
+    }
+
+    private void deleteQuietly(String filePath) {
+        if (filePath == null) {
+            return;
+        }
+        try {
+            fileStorageService.delete(filePath);
+        } catch (IOException e) {
+            log.warn("缩略图删除失败: {}", filePath, e);
+        }
+    }
+
+    private static String truncate(String message) {
+        if (message.length() <= MAX_ERROR_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    /**
+     * 最近若干次耗时的滑动窗口
+     */
+    public static final class LatencyWindow {
+
+        private static final int CAPACITY = 512;
+
+        private final long[] samples = new long[CAPACITY];
+        private int count;
+        private int next;
+
+        /**
+         * 耗时统计（毫秒）
+         *
+         * @param samples 样本数
+         * @param avg     平均值
+         * @param p95     95分位
+         * @param max     最大值
+         */
+        public record Summary(int samples, long avg, long p95, long max) {
+        }
+
+        private synchronized void record(long millis) {
+            samples[next] = Math.max(0, millis);
+            next = (next + 1) % CAPACITY;
+            count = Math.min(count + 1, CAPACITY);
+        }
+
+        private Summary summary() {
+            long[] sorted;
+            synchronized (this) {
+                sorted = Arrays.copyOf(samples, count);
+            }
+            if (sorted.length == 0) {
+                return new Summary(0, 0, 0, 0);
+            }
+            Arrays.sort(sorted);
+            long sum = 0;
+            for (long sample : sorted) {
+                sum += sample;
+            }
+            int p95Index = (int) Math.ceil(sorted.length * 0.95) - 1;
+            return new Summary(sorted.length, sum / sorted.length, sorted[p95Index], sorted[sorted.length - 1]);
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.lw.graduation.document.service.internal;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.lw.graduation.common.config.FileStorageProperties;
+import com.lw.graduation.common.enums.ResponseCode;
+import com.lw.graduation.common.exception.BusinessException;
+import com.lw.graduation.domain.entity.file.SysStorageUsage;
+import com.lw.graduation.domain.entity.topic.BizTopic;
+import com.lw.graduation.domain.enums.document.StorageUsageScope;
+import com.lw.graduation.infrastructure.mapper.file.SysStorageUsageMapper;
+import com.lw.graduation.infrastructure.mapper.topic.BizTopicMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 文档存储配额管理
+ * 用量按用户、题目、院系三个范围增量累计在 sys_storage_usage 中：
+ * 院系取上传时题目所属院系并记录在文档的 department_id 上，之后的重新提交与删除按文档记录的院系增减，
+ * 题目调整院系后退还的用量仍回到原先计入的院系。
+ * 上传与重新提交在写入文件之前预占用量：在独立的短事务内对每个范围执行一条条件累加
+ * （used_bytes + 本次字节数 <= 配额），任一范围不满足时整体回滚并拒绝上传，同时进行的上传不会合计超出配额；
+ * 预占在业务事务回滚或提交失败后退还。删除及实际大小与预占不一致的差额在业务事务内以单条原子语句累加。
+ * 上传路径上没有汇总查询。累加总按 用户 -> 题目 -> 院系 的顺序执行，并发事务按相同顺序加行锁。
+ * 退还失败等造成的累计偏差可由管理员按文档表重新汇总修正。
+ *
+ * @author lw
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StorageQuotaManager {
+
+    private final SysStorageUsageMapper sysStorageUsageMapper;
+    private final BizTopicMapper bizTopicMapper;
+    private final FileStorageProperties fileStorageProperties;
+    private final PlatformTransactionManager transactionManager;
+
+    /**
+     * 预检本次上传是否超出配额（只读，不预占；用于分片上传初始化时提前拒绝，实际写入前仍须 reserve）
+     *
+     * @param userId 上传人ID
+     * @param topicId 题目ID
+     * @param departmentId 计入用量的院系ID（新上传为 departmentOf(topicId)，重新提交为文档记录的院系），可为空
+     * @param incomingBytes 新增占用的字节数（重新提交时为新旧文件大小之差）
+     */
+    public void checkQuota(Long userId, Long topicId, Long departmentId, long incomingBytes) {
+        FileStorageProperties.QuotaConfig quota = fileStorageProperties.getQuota();
+        if (!quota.isEnabled() || incomingBytes <= 0) {
+            return;
+        }
+
+        Map<StorageUsageScope, Long> owners = owners(userId, topicId, departmentId);
+        LambdaQueryWrapper<SysStorageUsage> wrapper = new LambdaQueryWrapper<>();
+        owners.forEach((scope, ownerId) -> {
+            if (!wrapper.isEmptyOfWhere()) {
+                wrapper.or();
+            }
+            wrapper.nested(w -> w.eq(SysStorageUsage::getScope, scope.getValue())
+                    .eq(SysStorageUsage::getOwnerId, ownerId));
+        });
+        Map<StorageUsageScope, Long> used = new EnumMap<>(StorageUsageScope.class);
+        for (SysStorageUsage usage : sysStorageUsageMapper.selectList(wrapper)) {
+            used.put(StorageUsageScope.getByValue(usage.getScope()), usage.getUsedBytes());
+        }
+
+        for (StorageUsageScope scope : owners.keySet()) {
+            long limit = getQuotaBytes(scope);
+            long current = used.getOrDefault(scope, 0L);
+            if (limit > 0 && current + incomingBytes > limit) {
+                throw new BusinessException(ResponseCode.PARAM_ERROR.getCode(), String.format(
+                        "存储空间不足：%s配额%s，已使用%s，本次需要%s", scope.getDescription(),
+                        FileStorageProperties.formatFileSize(limit), FileStorageProperties.formatFileSize(current),
+                        FileStorageProperties.formatFileSize(incomingBytes)));
+            }
+        }
+    }
+
+    /**
+     * 预占用量（须在业务事务内、写入文件之前调用）
+     * 在独立事务内按 用户 -> 题目 -> 院系 的顺序逐行条件累加并立即提交，任一范围超出配额时全部回滚并抛出异常；
+     * 预占成功后在业务事务回滚或提交失败时退还。配额未启用时不校验，只累加
+     *
+     * @param userId 上传人ID
+     * @param topicId 题目ID
+     * @param departmentId 计入用量的院系ID（新上传为 departmentOf(topicId)，重新提交为文档记录的院系），可为空
+     * @param bytes 预占字节数（重新提交时为新旧文件大小之差，不大于0时不预占）
+     * @param files 预占文件数
+     */
+    public void reserve(Long userId, Long topicId, Long departmentId, long bytes, int files) {
+        if (bytes <= 0 && files <= 0) {
+            return;
+        }
+        long reservedBytes = Math.max(bytes, 0);
+        Map<StorageUsageScope, Long> owners = owners(userId, topicId, departmentId);
+        boolean enabled = fileStorageProperties.getQuota().isEnabled();
+
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        template.executeWithoutResult(status -> owners.forEach((scope, ownerId) -> {
+            long limit = enabled && reservedBytes > 0 ? getQuotaBytes(scope) : 0L;
+            sysStorageUsageMapper.add(scope.getValue(), ownerId, 0L, 0);
+            if (sysStorageUsageMapper.reserve(scope.getValue(), ownerId, reservedBytes, files, limit) == 0) {
+                long current = getUsage(scope, ownerId).getUsedBytes();
+                throw new BusinessException(ResponseCode.PARAM_ERROR.getCode(), String.format(
+                        "存储空间不足：%s配额%s，已使用%s，本次需要%s", scope.getDescription(),
+                        FileStorageProperties.formatFileSize(limit), FileStorageProperties.formatFileSize(current),
+                        FileStorageProperties.formatFileSize(reservedBytes)));
+            }
+        }));
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        refund(owners, reservedBytes, files);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * 累加用量（须在保存文档的同一事务内调用）
+     *
+     * @param userId 上传人ID
+     * @param topicId 题目ID
+     * @param departmentId 计入用量的院系ID（文档记录的院系），可为空
+     * @param deltaBytes 空间变化量(字节)
+     * @param deltaFiles 文件数变化量
+     */
+    public void charge(Long userId, Long topicId, Long departmentId, long deltaBytes, int deltaFiles) {
+        if (deltaBytes == 0 && deltaFiles == 0) {
+            return;
+        }
+        owners(userId, topicId, departmentId).forEach((scope, ownerId) ->
+                sysStorageUsageMapper.add(scope.getValue(), ownerId, deltaBytes, deltaFiles));
+    }
+
+    /**
+     * 新上传文档计入用量的院系：题目当前所属院系
+     *
+     * @param topicId 题目ID
+     * @return 院系ID，题目不存在或未设置院系时为null
+     */
+    public Long departmentOf(Long topicId) {
+        if (topicId == null) {
+            return null;
+        }
+        BizTopic topic = bizTopicMapper.selectById(topicId);
+        return topic != null ? topic.getDepartmentId() : null;
+    }
+
+    /**
+     * 查询单个对象的用量（按唯一键读取一行）
+     *
+     * @param scope 统计范围
+     * @param ownerId 用户ID/题目ID/院系ID
+     * @return 用量，无记录时返回用量为0的对象
+     */
+    public SysStorageUsage getUsage(StorageUsageScope scope, Long ownerId) {
+        SysStorageUsage usage = sysStorageUsageMapper.selectOne(new LambdaQueryWrapper<SysStorageUsage>()
+                .eq(SysStorageUsage::getScope, scope.getValue())
+                .eq(SysStorageUsage::getOwnerId, ownerId));
+        if (usage == null) {
+            usage = new SysStorageUsage();
+            usage.setScope(scope.getValue());
+            usage.setOwnerId(ownerId);
+            usage.setUsedBytes(0L);
+            usage.setFileCount(0);
+        }
+        return usage;
+    }
+
+    /**
+     * 查询用量最多的对象
+     *
+     * @param scope 统计范围
+     * @param limit 数量
+     * @return 按已用空间降序的用量
+     */
+    public List<SysStorageUsage> getTopUsages(StorageUsageScope scope, int limit) {
+        return sysStorageUsageMapper.selectList(new LambdaQueryWrapper<SysStorageUsage>()
+                .eq(SysStorageUsage::getScope, scope.getValue())
+                .orderByDesc(SysStorageUsage::getUsedBytes)
+                .last("LIMIT " + limit));
+    }
+
+    /**
+     * 获取范围对应的配额
+     *
+     * @param scope 统计范围
+     * @return 配额（字节），小于等于0表示不限制
+     */
+    public long getQuotaBytes(StorageUsageScope scope) {
+        FileStorageProperties.QuotaConfig quota = fileStorageProperties.getQuota();
+        return switch (scope) {
+            case USER -> quota.getUserBytes();
+            case TOPIC -> quota.getTopicBytes();
+            case DEPARTMENT -> quota.getDepartmentBytes();
+        };
+    }
+
+    /**
+     * 按未删除的文档重新汇总全部用量
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        sysStorageUsageMapper.deleteAll();
+        int rows = sysStorageUsageMapper.rebuildFromDocuments();
+        log.info("存储用量重新汇总完成: 记录={}, 耗时={}ms", rows, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 退还预占的用量（业务事务已结束，每行单条语句自动提交）
+     */
+    private void refund(Map<StorageUsageScope, Long> owners, long bytes, int files) {
+        owners.forEach((scope, ownerId) -> {
+            try {
+                sysStorageUsageMapper.add(scope.getValue(), ownerId, -bytes, -files);
+            } catch (Exception e) {
+                log.error("退还存储用量失败: {}:{}，字节: {}，文件: {}，请重新汇总用量", scope, ownerId, bytes, files, e);
+            }
+        });
+        log.debug("业务事务未提交，已退还预占用量: {}，字节: {}，文件: {}", owners, bytes, files);
+    }
+
+    /**
+     * 上传涉及的统计对象（按加锁顺序）：用户、题目、院系
+     */
+    private static Map<StorageUsageScope, Long> owners(Long userId, Long topicId, Long departmentId) {
+        Map<StorageUsageScope, Long> owners = new EnumMap<>(StorageUsageScope.class);
+        owners.put(StorageUsageScope.USER, userId);
+        if (topicId != null) {
+            owners.put(StorageUsageScope.TOPIC, topicId);
+        }
+        if (departmentId != null) {
+            owners.put(StorageUsageScope.DEPARTMENT, departmentId);
+        }
+        return owners;
+    }
+}
@@ -0,0 +1,357 @@
+package com.lw.graduation.document.service.internal;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.lw.graduation.common.config.FileStorageProperties;
+import com.lw.graduation.common.enums.ResponseCode;
+import com.lw.graduation.common.exception.BusinessException;
+import com.lw.graduation.domain.entity.document.BizDocument;
+import com.lw.graduation.domain.entity.document.BizUploadSession;
+import com.lw.graduation.domain.enums.status.UploadSessionStatus;
+import com.lw.graduation.infrastructure.mapper.document.BizDocumentMapper;
+import com.lw.graduation.infrastructure.mapper.document.BizUploadSessionMapper;
+import com.lw.graduation.infrastructure.storage.FileStorageService;
+import com.lw.graduation.infrastructure.storage.StorageEntry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 存储孤儿文件对账
+ * 一次读出全部文档引用的存储路径（文件与缩略图）放入哈希集合，再并行遍历文档所属的存储目录求差集，
+ * 不按文件逐条查询数据库。未被引用且超过保留天数的文件（保留期覆盖上传写盘与事务提交之间的窗口）
+ * 先记为待删除孤儿，下一轮对账仍未被引用、且删除前按路径回查数据库确认无引用时才删除，
+ * 同时回收存储内部的无引用内容与过期的分片上传临时文件，并汇报回收的字节数。
+ * 存储不支持遍历（supportsListing 为false）时跳过文档文件对账。
+ * 定时执行（file.storage.enable-cleanup），管理员也可手动触发；同一时刻只运行一次。
+ *
+ * @author lw
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StorageReconciler {
+
+    /** 文档所属的存储目录（上传、重新提交与缩略图），其他目录的文件不由文档表引用，不参与对账 */
+    private static final List<String> DOCUMENT_ROOTS = List.of("documents", "document", "thumbnail");
+    /** 分批读取引用路径的批大小 */
+    private static final int BATCH_SIZE = 1000;
+    /** 分片上传临时文件后缀 */
+    private static final String TEMP_FILE_GLOB = "*.part";
+
+    private final FileStorageService fileStorageService;
+    private final FileStorageProperties fileStorageProperties;
+    private final BizDocumentMapper bizDocumentMapper;
+    private final BizUploadSessionMapper bizUploadSessionMapper;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    /** 上一轮对账发现的待删除孤儿文件路径（只在对账线程内读写） */
+    private volatile Set<String> pendingOrphans = Set.of();
+    private volatile Report lastReport;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * 对账结果
+     *
+     * @param scannedFiles 扫描的文件数
+     * @param referencedPaths 文档引用的路径数
+     * @param orphanFiles 删除的孤儿文件数
+     * @param orphanBytes 孤儿文件字节数
+     * @param recentOrphans 未超过保留期而保留的未引用文件数
+     * @param pendingOrphans 首次发现、待下一轮确认后删除的孤儿文件数
+     * @param tempFiles 删除的分片上传临时文件数
+     * @param tempBytes 分片上传临时文件字节数
+     * @param garbageBytes 存储内部回收的字节数
+     * @param failures 删除失败数
+     * @param durationMillis 耗时（毫秒）
+     * @param finishedAt 完成时间
+     */
+    public record Report(int scannedFiles, int referencedPaths, int orphanFiles, long orphanBytes, int recentOrphans,
+                         int pendingOrphans, int tempFiles, long tempBytes, long garbageBytes, int failures, long durationMillis,
+                         LocalDateTime finishedAt) {
+
+        /**
+         * 回收的总字节数
+         *
+         * @return 字节数
+         */
+        public long reclaimedBytes() {
+            return orphanBytes + tempBytes + garbageBytes;
+        }
+    }
+
+    /**
+     * 启用清理时启动定时对账
+     */
+    @PostConstruct
+    public void start() {
+        if (!fileStorageProperties.isEnableCleanup()) {
+            log.info("存储孤儿文件清理未启用");
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "storage-reconcile");
+            thread.setDaemon(true);
+            return thread;
+        });
+        int interval = fileStorageProperties.getCleanupIntervalHours();
+        scheduler.scheduleWithFixedDelay(this::runScheduled, interval, interval, TimeUnit.HOURS);
+    }
+
+    /**
+     * 停止定时对账
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * 立即执行一次对账
+     *
+     * @return 对账结果
+     */
+    public Report reconcile() {
+        if (!running.compareAndSet(false, true)) {
+            throw new BusinessException(ResponseCode.PARAM_ERROR.getCode(), "存储对账正在进行中，请稍后再试");
+        }
+        try {
+            Report report = doReconcile();
+            lastReport = report;
+            log.info("存储对账完成: 扫描={}, 引用={}, 孤儿文件={}({}字节), 保留期内={}, 待确认={}, 临时文件={}({}字节), "
+                            + "内容回收={}字节, 失败={}, 共回收={}字节, 耗时={}ms",
+                    report.scannedFiles(), report.referencedPaths(), report.orphanFiles(), report.orphanBytes(),
+                    report.recentOrphans(), report.pendingOrphans(), report.tempFiles(), report.tempBytes(), report.garbageBytes(),
+                    report.failures(), report.reclaimedBytes(), report.durationMillis());
+            return report;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * 最近一次对账结果
+     *
+     * @return 对账结果，尚未执行时为null
+     */
+    public Report getLastReport() {
+        return lastReport;
+    }
+
+    private void runScheduled() {
+        try {
+            reconcile();
+        } catch (Exception e) {
+            log.error("存储对账失败: {}", e.getMessage(), e);
+        }
+    }
+
+    private Report doReconcile() {
+        long start = System.currentTimeMillis();
+        Instant cutoff = Instant.now().minus(Duration.ofDays(fileStorageProperties.getTempFileRetentionDays()));
+        Tally tally = new Tally();
+
+        // 1. 先读引用再遍历：此后新写入的文件都在保留期内，不会被误删
+        Set<String> referenced = loadReferencedPaths();
+
+        // 2. 文档目录求差集，超过保留期的未引用文件先记为待删除，连续两轮未被引用才删除
+        if (fileStorageService.supportsListing()) {
+            Map<String, StorageEntry> candidates = new LinkedHashMap<>();
+            for (String root : DOCUMENT_ROOTS) {
+                List<StorageEntry> entries;
+                try {
+                    entries = fileStorageService.list(root);
+                } catch (IOException e) {
+                    tally.failures++;
+                    log.warn("遍历存储目录失败: {}", root, e);
+                    continue;
+                }
+                for (StorageEntry entry : entries) {
+                    tally.scanned++;
+                    if (referenced.contains(entry.getPath())) {
+                        continue;
+                    }
+                    if (entry.getLastModified() >= cutoff.toEpochMilli()) {
+                        tally.recent++;
+                        continue;
+                    }
+                    candidates.put(entry.getPath(), entry);
+                }
+            }
+            deleteConfirmedOrphans(candidates, tally);
+        } else {
+            log.info("当前存储不支持遍历，跳过文档文件对账");
+        }
+
+        // 3. 存储内部无引用的内容
+        try {
+            tally.garbageBytes = fileStorageService.collectGarbage(cutoff);
+        } catch (IOException e) {
+            tally.failures++;
+            log.warn("存储内容回收失败", e);
+        }
+
+        // 4. 过期的分片上传临时文件
+        sweepUploadTempFiles(tally);
+
+        return new Report(tally.scanned, referenced.size(), tally.orphans, tally.orphanBytes, tally.recent,
+                tally.pending, tally.tempFiles, tally.tempBytes, tally.garbageBytes, tally.failures,
+                System.currentTimeMillis() - start, LocalDateTime.now());
+    }
+
+    /**
+     * 删除上一轮已记为待删除、本轮仍未被引用的孤儿文件，其余候选记为待删除留到下一轮
+     * 删除前按路径回查数据库，排除遍历之后新产生的引用
+     */
+    private void deleteConfirmedOrphans(Map<String, StorageEntry> candidates, Tally tally) {
+        Set<String> previous = pendingOrphans;
+        List<String> confirmed = candidates.keySet().stream().filter(previous::contains).toList();
+        Set<String> nextPending = new HashSet<>(candidates.keySet());
+
+        for (int from = 0; from < confirmed.size(); from += BATCH_SIZE) {
+            List<String> chunk = confirmed.subList(from, Math.min(from + BATCH_SIZE, confirmed.size()));
+            Set<String> stillReferenced = loadReferencedPaths(chunk);
+            for (String path : chunk) {
+                if (stillReferenced.contains(path)) {
+                    nextPending.remove(path);
+                    continue;
+                }
+                try {
+                    if (fileStorageService.delete(path)) {
+                        tally.orphans++;
+                        tally.orphanBytes += candidates.get(path).getSize();
+                        log.debug("删除孤儿文件: {}", path);
+                    }
+                    nextPending.remove(path);
+                } catch (IOException e) {
+                    tally.failures++;
+                    log.warn("孤儿文件删除失败: {}", path, e);
+                }
+            }
+        }
+        pendingOrphans = nextPending;
+        tally.pending = (int) nextPending.stream().filter(path -> !previous.contains(path)).count();
+    }
+
+    /**
+     * 查询指定路径中仍被未删除文档引用的路径（文件或缩略图）
+     */
+    private Set<String> loadReferencedPaths(List<String> paths) {
+        Set<String> referenced = new HashSet<>();
+        bizDocumentMapper.selectList(new LambdaQueryWrapper<BizDocument>()
+                        .select(BizDocument::getStoredPath, BizDocument::getThumbnailPath)
+                        .and(w -> w.in(BizDocument::getStoredPath, paths).or().in(BizDocument::getThumbnailPath, paths)))
+                .forEach(document -> {
+                    referenced.add(document.getStoredPath());
+                    referenced.add(document.getThumbnailPath());
+                });
+        return referenced;
+    }
+
+    /**
+     * 按主键分批读取未删除文档的文件与缩略图路径
+     */
+    private Set<String> loadReferencedPaths() {
+        Set<String> paths = new HashSet<>();
+        Long lastId = null;
+        while (true) {
+            List<BizDocument> batch = bizDocumentMapper.selectList(new LambdaQueryWrapper<BizDocument>()
+                    .select(BizDocument::getId, BizDocument::getStoredPath, BizDocument::getThumbnailPath)
+                    .gt(lastId != null, BizDocument::getId, lastId)
+                    .orderByAsc(BizDocument::getId)
+                    .last("LIMIT " + BATCH_SIZE));
+            for (BizDocument document : batch) {
+                if (document.getStoredPath() != null) {
+                    paths.add(document.getStoredPath());
+                }
+                if (document.getThumbnailPath() != null) {
+                    paths.add(document.getThumbnailPath());
+                }
+            }
+            if (batch.size() < BATCH_SIZE) {
+                return paths;
+            }
+            lastId = batch.get(batch.size() - 1).getId();
+        }
+    }
+
+    /**
+     * 删除不属于未过期上传会话、且超过会话有效期未再写入的临时文件
+     */
+    private void sweepUploadTempFiles(Tally tally) {
+        Path chunkDir = Paths.get(fileStorageProperties.getChunkPath());
+        if (!Files.isDirectory(chunkDir)) {
+            return;
+        }
+
+        Set<String> live = new HashSet<>();
+        bizUploadSessionMapper.selectList(new LambdaQueryWrapper<BizUploadSession>()
+                        .select(BizUploadSession::getTempPath)
+                        .eq(BizUploadSession::getStatus, UploadSessionStatus.UPLOADING.getValue())
+                        .gt(BizUploadSession::getExpiresAt, LocalDateTime.now()))
+                .forEach(session -> live.add(session.getTempPath()));
+
+        long cutoff = Instant.now().minus(Duration.ofHours(fileStorageProperties.getUploadSessionExpireHours()))
+                .toEpochMilli();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(chunkDir, TEMP_FILE_GLOB)) {
+            for (Path file : files) {
+                if (live.contains(file.getFileName().toString())) {
+                    continue;
+                }
+                try {
+                    BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+                    if (attrs.lastModifiedTime().toMillis() >= cutoff) {
+                        continue;
+                    }
+                    if (Files.deleteIfExists(file)) {
+                        tally.tempFiles++;
+                        tally.tempBytes += attrs.size();
+                    }
+                } catch (IOException e) {
+                    tally.failures++;
+                    log.warn("分片上传临时文件删除失败: {}", file, e);
+                }
+            }
+        } catch (IOException e) {
+            tally.failures++;
+            log.warn("遍历分片上传临时目录失败: {}", chunkDir, e);
+        }
+    }
+
+    /**
+     * 单次对账的计数
+     */
+    private static class Tally {
+        int scanned;
+        int orphans;
+        long orphanBytes;
+        int recent;
+        int pending;
+        int tempFiles;
+        long tempBytes;
+        long garbageBytes;
+        int failures;
+    }
+}
@@ -41,6 +41,12 @@ public class BizDocument implements Serializable {
     @TableField("topic_id")
     private Long topicId;
 
+    /**
+     * 计入存储用量的院系ID（上传时题目所属院系，重新提交与删除按此增减用量）
+     */
+    @TableField("department_id")
+    private Long departmentId;
+
     /**
      * 文件类型: 0-开题报告, 1-中期报告, 2-毕业论文
      */
@@ -65,6 +71,43 @@ public class BizDocument implements Serializable {
     @TableField("file_size")
     private Long fileSize;
 
+    /**
+     * 文件内容SHA-256摘要（上传时与写入同步计算）
+     */
+    @TableField("content_hash")
+    private String contentHash;
+
+    /**
+     * 后台处理状态: 0-待处理, 1-处理中, 2-已完成, 3-失败
+     */
+    @TableField("process_status")
+    private Integer processStatus;
+
+    /**
+     * 页数（后台处理提取，无法识别时为空）
+     */
+    @TableField("page_count")
+    private Integer pageCount;
+
+    /**
+     * 缩略图存储路径（后台处理生成）
+     */
+    @TableField("thumbnail_path")
+    private String thumbnailPath;
+
+    /**
+     * 提取的正文文本（用于全文检索，内容较大，默认查询不返回）
+     */
+    @TableField(value = "extracted_text", select = false)
+    private String extractedText;
+
+    /**
+     * 后台处理完成时间
+     */
+    @TableField("processed_at")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime processedAt;
+
     /**
      * 审核状态: 0-待审, 1-通过, 2-驳回
      */
@@ -0,0 +1,96 @@
+package com.lw.graduation.domain.entity.document;
+
+import com.baomidou.mybatisplus.annotation.FieldFill;
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 文档处理任务表
+ * 上传后入队的后台处理任务（文本提取、页数、缩略图、校验和核对），记录重试次数与下次执行时间，服务重启后继续处理。
+ *
+ * @author lw
+ */
+@Data
+@TableName("biz_document_process_job")
+public class BizDocumentProcessJob implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    @TableId(value = "id", type = IdType.ASSIGN_ID)
+    private Long id;
+
+    /**
+     * 文档ID(biz_document.id)
+     */
+    @TableField("document_id")
+    private Long documentId;
+
+    /**
+     * 状态: 0-待处理, 1-处理中, 2-已完成, 3-失败
+     */
+    @TableField("status")
+    private Integer status;
+
+    /**
+     * 已执行次数
+     */
+    @TableField("attempts")
+    private Integer attempts;
+
+    /**
+     * 下次可执行时间（失败重试时按退避时间推后）
+     */
+    @TableField("next_run_at")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime nextRunAt;
+
+    /**
+     * 最近一次失败原因
+     */
+    @TableField("error_message")
+    private String errorMessage;
+
+    /**
+     * 最近一次开始处理时间
+     */
+    @TableField("started_at")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime startedAt;
+
+    /**
+     * 处理中任务的最近心跳时间（处理实例定期续约）
+     */
+    @TableField("heartbeat_at")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime heartbeatAt;
+
+    /**
+     * 结束时间
+     */
+    @TableField("finished_at")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime finishedAt;
+
+    /**
+     * 创建时间（入队时间）
+     */
+    @TableField(value = "created_at", fill = FieldFill.INSERT)
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime createdAt;
+
+    /**
+     * 更新时间
+     */
+    @TableField(value = "updated_at", fill = FieldFill.INSERT_UPDATE)
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,167 @@
+package com.lw.graduation.domain.entity.document;
+
+import com.baomidou.mybatisplus.annotation.FieldFill;
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 分片上传会话表
+ * 记录大文件分片上传的目标文档信息、分片规格与已接收分片位图，
+ * 分片直接写入预分配的临时文件，全部接收后合并为文档记录。
+ *
+ * @author lw
+ */
+@Data
+@TableName("biz_upload_session")
+public class BizUploadSession implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    @TableId(value = "id", type = IdType.ASSIGN_ID)
+    private Long id;
+
+    /**
+     * 上传人ID(sys_user.id)
+     */
+    @TableField("user_id")
+    private Long userId;
+
+    /**
+     * 关联题目ID
+     */
+    @TableField("topic_id")
+    private Long topicId;
+
+    /**
+     * 文件类型: 0-开题报告, 1-中期报告, 2-毕业论文, 3-外文翻译, 4-其他文档
+     */
+    @TableField("file_type")
+    private Integer fileType;
+
+    /**
+     * 原始文件名
+     */
+    @TableField("original_filename")
+    private String originalFilename;
+
+    /**
+     * 文件大小(字节)
+     */
+    @TableField("file_size")
+    private Long fileSize;
+
+    /**
+     * 分片大小(字节)，最后一个分片可能较小
+     */
+    @TableField("chunk_size")
+    private Long chunkSize;
+
+    /**
+     * 分片总数
+     */
+    @TableField("total_chunks")
+    private Integer totalChunks;
+
+    /**
+     * 已接收分片数
+     */
+    @TableField("received_chunks")
+    private Integer receivedChunks;
+
+    /**
+     * 已接收分片位图（第 i 个分片对应第 i / 8 字节的第 i % 8 位）
+     */
+    @TableField("chunk_bitmap")
+    private byte[] chunkBitmap;
+
+    /**
+     * 临时文件路径（相对分片上传临时目录）
+     */
+    @TableField("temp_path")
+    private String tempPath;
+
+    /**
+     * 状态: 0-上传中, 1-已完成
+     */
+    @TableField("status")
+    private Integer status;
+
+    /**
+     * 合并生成的文档ID(biz_document.id)
+     */
+    @TableField("document_id")
+    private Long documentId;
+
+    /**
+     * 过期时间
+     */
+    @TableField("expires_at")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime expiresAt;
+
+    /**
+     * 创建时间
+     */
+    @TableField(value = "created_at", fill = FieldFill.INSERT)
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime createdAt;
+
+    /**
+     * 更新时间
+     */
+    @TableField(value = "updated_at", fill = FieldFill.INSERT_UPDATE)
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime updatedAt;
+
+    /**
+     * 检查分片是否已接收
+     *
+     * @param index 分片序号（从0开始）
+     * @return 已接收返回true
+     */
+    public boolean hasChunk(int index) {
+        return chunkBitmap != null && (chunkBitmap[index >> 3] & (1 << (index & 7))) != 0;
+    }
+
+    /**
+     * 标记分片已接收（重复标记不重复计数）
+     *
+     * @param index 分片序号（从0开始）
+     * @return 首次标记返回true
+     */
+    public boolean markChunk(int index) {
+        if (hasChunk(index)) {
+            return false;
+        }
+        chunkBitmap[index >> 3] |= (byte) (1 << (index & 7));
+        receivedChunks = (receivedChunks != null ? receivedChunks : 0) + 1;
+        return true;
+    }
+
+    /**
+     * 检查全部分片是否已接收
+     *
+     * @return 全部接收返回true
+     */
+    public boolean isAllChunksReceived() {
+        return receivedChunks != null && receivedChunks.equals(totalChunks);
+    }
+
+    /**
+     * 检查会话是否已过期
+     *
+     * @return 已过期返回true
+     */
+    public boolean isExpired() {
+        return expiresAt != null && expiresAt.isBefore(LocalDateTime.now());
+    }
+}
@@ -0,0 +1,46 @@
+package com.lw.graduation.domain.entity.file;
+
+import com.baomidou.mybatisplus.annotation.FieldFill;
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 文件引用表（内容寻址存储）
+ * 业务记录中保存的存储路径（逻辑路径）到文件内容摘要的映射，多个逻辑路径可指向同一内容。
+ *
+ * @author lw
+ */
+@Data
+@TableName("sys_file_ref")
+public class SysFileRef implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 逻辑存储路径
+     */
+    @TableId(value = "path", type = IdType.INPUT)
+    private String path;
+
+    /**
+     * 内容SHA-256摘要(sys_file_blob.hash)
+     */
+    @TableField("hash")
+    private String hash;
+
+    /**
+     * 创建时间
+     */
+    @TableField(value = "created_at", fill = FieldFill.INSERT)
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime createdAt;
+}
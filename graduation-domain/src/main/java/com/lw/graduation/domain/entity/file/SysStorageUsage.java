@@ -0,0 +1,68 @@
+package com.lw.graduation.domain.entity.file;
+
+import com.baomidou.mybatisplus.annotation.FieldFill;
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 存储用量表
+ * 按用户、题目、院系增量累计文档占用的空间，上传、重新提交与删除时在同一事务内更新。
+ *
+ * @author lw
+ */
+@Data
+@TableName("sys_storage_usage")
+public class SysStorageUsage implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    @TableId(value = "id", type = IdType.ASSIGN_ID)
+    private Long id;
+
+    /**
+     * 统计范围: 0-用户, 1-题目, 2-院系
+     */
+    @TableField("scope")
+    private Integer scope;
+
+    /**
+     * 用户ID/题目ID/院系ID
+     */
+    @TableField("owner_id")
+    private Long ownerId;
+
+    /**
+     * 已用空间(字节)
+     */
+    @TableField("used_bytes")
+    private Long usedBytes;
+
+    /**
+     * 文件数
+     */
+    @TableField("file_count")
+    private Integer fileCount;
+
+    /**
+     * 创建时间
+     */
+    @TableField(value = "created_at", fill = FieldFill.INSERT)
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime createdAt;
+
+    /**
+     * 更新时间
+     */
+    @TableField(value = "updated_at", fill = FieldFill.INSERT_UPDATE)
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime updatedAt;
+}
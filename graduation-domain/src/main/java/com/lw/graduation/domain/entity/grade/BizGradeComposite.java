@@ -0,0 +1,62 @@
+package com.lw.graduation.domain.entity.grade;
+
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 综合成绩表
+ * 每个学生题目一行，由综合成绩重算任务按指导教师评分与答辩评分加权写入。
+ *
+ * @author lw
+ */
+@Data
+@TableName("biz_grade_composite")
+public class BizGradeComposite implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 学生ID(biz_student.id)
+     */
+    @TableField("student_id")
+    private Long studentId;
+
+    /**
+     * 题目ID(biz_topic.id)
+     */
+    @TableField("topic_id")
+    private Long topicId;
+
+    /**
+     * 综合成绩
+     */
+    @TableField("composite_score")
+    private BigDecimal compositeScore;
+
+    /**
+     * 参与计算的成绩数
+     */
+    @TableField("grade_count")
+    private Integer gradeCount;
+
+    /**
+     * 最近一次计算的任务ID
+     */
+    @TableField("job_id")
+    private Long jobId;
+
+    /**
+     * 计算时间
+     */
+    @TableField("computed_at")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime computedAt;
+}
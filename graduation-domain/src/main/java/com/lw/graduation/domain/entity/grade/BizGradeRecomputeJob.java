@@ -0,0 +1,100 @@
+package com.lw.graduation.domain.entity.grade;
+
+import com.baomidou.mybatisplus.annotation.FieldFill;
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 综合成绩重算任务表
+ * 记录任务进度与断点（最后完成的学生、题目），任务中断后从断点续跑。
+ *
+ * @author lw
+ */
+@Data
+@TableName("biz_grade_recompute_job")
+public class BizGradeRecomputeJob implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    @TableId(value = "id", type = IdType.ASSIGN_ID)
+    private Long id;
+
+    /**
+     * 状态: 0-运行中, 1-已完成, 2-失败
+     */
+    @TableField("status")
+    private Integer status;
+
+    /**
+     * 待计算的学生题目数
+     */
+    @TableField("total_count")
+    private Integer totalCount;
+
+    /**
+     * 已计算的学生题目数
+     */
+    @TableField("processed_count")
+    private Integer processedCount;
+
+    /**
+     * 断点: 最后完成的学生ID
+     */
+    @TableField("last_student_id")
+    private Long lastStudentId;
+
+    /**
+     * 断点: 最后完成的题目ID
+     */
+    @TableField("last_topic_id")
+    private Long lastTopicId;
+
+    /**
+     * 失败原因
+     */
+    @TableField("error_message")
+    private String errorMessage;
+
+    /**
+     * 发起人(sys_user.id)
+     */
+    @TableField("created_by")
+    private Long createdBy;
+
+    /**
+     * 最近一次开始运行时间
+     */
+    @TableField("started_at")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime startedAt;
+
+    /**
+     * 结束时间
+     */
+    @TableField("finished_at")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime finishedAt;
+
+    /**
+     * 创建时间
+     */
+    @TableField(value = "created_at", fill = FieldFill.INSERT)
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime createdAt;
+
+    /**
+     * 更新时间
+     */
+    @TableField(value = "updated_at", fill = FieldFill.INSERT_UPDATE)
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,111 @@
+package com.lw.graduation.domain.entity.grade;
+
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 成绩统计汇总表
+ * 按范围（题目、院系、全校、评分教师）保存成绩的计数、总和、平方和、最值及各等级人数，
+ * 随成绩录入和删除增量更新，统计查询直接读取单行。
+ *
+ * @author lw
+ */
+@Data
+@TableName("biz_grade_summary")
+public class BizGradeSummary implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 统计范围: 1-题目, 2-院系, 3-全校, 4-评分教师
+     */
+    @TableField("scope_type")
+    private Integer scopeType;
+
+    /**
+     * 范围ID(题目/院系/教师ID，全校为0)
+     */
+    @TableField("scope_id")
+    private Long scopeId;
+
+    /**
+     * 成绩数量
+     */
+    @TableField("total_count")
+    private Integer totalCount;
+
+    /**
+     * 成绩总和
+     */
+    @TableField("sum_score")
+    private BigDecimal sumScore;
+
+    /**
+     * 成绩平方和
+     */
+    @TableField("sum_square")
+    private BigDecimal sumSquare;
+
+    /**
+     * 绩点总和
+     */
+    @TableField("sum_gpa")
+    private BigDecimal sumGpa;
+
+    /**
+     * 最低分
+     */
+    @TableField("min_score")
+    private BigDecimal minScore;
+
+    /**
+     * 最高分
+     */
+    @TableField("max_score")
+    private BigDecimal maxScore;
+
+    /**
+     * 优秀人数
+     */
+    @TableField("excellent_count")
+    private Integer excellentCount;
+
+    /**
+     * 良好人数
+     */
+    @TableField("good_count")
+    private Integer goodCount;
+
+    /**
+     * 中等人数
+     */
+    @TableField("fair_count")
+    private Integer fairCount;
+
+    /**
+     * 及格人数
+     */
+    @TableField("pass_count")
+    private Integer passCount;
+
+    /**
+     * 不及格人数
+     */
+    @TableField("fail_count")
+    private Integer failCount;
+
+    /**
+     * 更新时间
+     */
+    @TableField("updated_at")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime updatedAt;
+}
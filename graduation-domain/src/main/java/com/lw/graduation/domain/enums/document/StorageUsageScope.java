@@ -0,0 +1,57 @@
+package com.lw.graduation.domain.enums.document;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 存储用量统计范围枚举
+ *
+ * @author lw
+ */
+@Getter
+@AllArgsConstructor
+public enum StorageUsageScope {
+
+    /**
+     * 用户（上传人）
+     */
+    USER(0, "用户"),
+
+    /**
+     * 题目
+     */
+    TOPIC(1, "题目"),
+
+    /**
+     * 院系（题目所属院系）
+     */
+    DEPARTMENT(2, "院系");
+
+    /**
+     * 值
+     */
+    private final Integer value;
+    /**
+     * 描述
+     */
+    private final String description;
+
+    /**
+     * 根据值获取统计范围枚举
+     *
+     * @param value 统计范围值
+     * @return 对应的枚举，未找到返回null
+     */
+    public static StorageUsageScope getByValue(Integer value) {
+        if (value == null) {
+            return null;
+        }
+
+        for (StorageUsageScope scope : values()) {
+            if (scope.value.equals(value)) {
+                return scope;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,64 @@
+package com.lw.graduation.domain.enums.grade;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 成绩排名范围枚举
+ * 定义排名、百分位、分位数与汇总统计所依据的成绩集合
+ *
+ * @author lw
+ */
+@Getter
+@AllArgsConstructor
+public enum RankingScope {
+
+    /**
+     * 同一题目
+     */
+    TOPIC(1, "题目"),
+
+    /**
+     * 同一院系（按题目所属院系）
+     */
+    DEPARTMENT(2, "院系"),
+
+    /**
+     * 全校
+     */
+    ALL(3, "全校"),
+
+    /**
+     * 同一评分教师
+     */
+    TEACHER(4, "评分教师");
+
+    /**
+     * 值
+     */
+    private final Integer value;
+
+    /**
+     * 描述
+     */
+    private final String description;
+
+    /**
+     * 根据值获取排名范围枚举
+     *
+     * @param value 范围值
+     * @return 对应的枚举，未找到返回null
+     */
+    public static RankingScope getByValue(Integer value) {
+        if (value == null) {
+            return null;
+        }
+
+        for (RankingScope scope : values()) {
+            if (scope.value.equals(value)) {
+                return scope;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,64 @@
+package com.lw.graduation.domain.enums.status;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 文档后台处理状态枚举
+ * 同时用于处理任务与文档记录：处理失败且未超过最大重试次数时任务回到待处理状态
+ *
+ * @author lw
+ */
+@Getter
+@AllArgsConstructor
+public enum DocumentProcessStatus {
+
+    /**
+     * 待处理
+     */
+    PENDING(0, "待处理"),
+
+    /**
+     * 处理中
+     */
+    RUNNING(1, "处理中"),
+
+    /**
+     * 已完成
+     */
+    COMPLETED(2, "已完成"),
+
+    /**
+     * 失败 - 已达最大重试次数
+     */
+    FAILED(3, "失败");
+
+    /**
+     * 值
+     */
+    private final Integer value;
+
+    /**
+     * 描述
+     */
+    private final String description;
+
+    /**
+     * 根据值获取处理状态枚举
+     *
+     * @param value 状态值
+     * @return 对应的枚举，未找到返回null
+     */
+    public static DocumentProcessStatus getByValue(Integer value) {
+        if (value == null) {
+            return null;
+        }
+
+        for (DocumentProcessStatus status : values()) {
+            if (status.value.equals(value)) {
+                return status;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,59 @@
+package com.lw.graduation.domain.enums.status;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 重算任务状态枚举
+ * 运行中的任务异常中断（如服务重启）后保持运行中状态，可从断点续跑
+ *
+ * @author lw
+ */
+@Getter
+@AllArgsConstructor
+public enum RecomputeJobStatus {
+
+    /**
+     * 运行中
+     */
+    RUNNING(0, "运行中"),
+
+    /**
+     * 已完成
+     */
+    COMPLETED(1, "已完成"),
+
+    /**
+     * 失败 - 可从断点续跑
+     */
+    FAILED(2, "失败");
+
+    /**
+     * 值
+     */
+    private final Integer value;
+
+    /**
+     * 描述
+     */
+    private final String description;
+
+    /**
+     * 根据值获取任务状态枚举
+     *
+     * @param value 状态值
+     * @return 对应的枚举，未找到返回null
+     */
+    public static RecomputeJobStatus getByValue(Integer value) {
+        if (value == null) {
+            return null;
+        }
+
+        for (RecomputeJobStatus status : values()) {
+            if (status.value.equals(value)) {
+                return status;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,54 @@
+package com.lw.graduation.domain.enums.status;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 分片上传会话状态枚举
+ * 上传中的会话超过有效期后不再接受分片，由清理任务回收临时文件
+ *
+ * @author lw
+ */
+@Getter
+@AllArgsConstructor
+public enum UploadSessionStatus {
+
+    /**
+     * 上传中
+     */
+    UPLOADING(0, "上传中"),
+
+    /**
+     * 已完成 - 已合并为文档
+     */
+    COMPLETED(1, "已完成");
+
+    /**
+     * 值
+     */
+    private final Integer value;
+
+    /**
+     * 描述
+     */
+    private final String description;
+
+    /**
+     * 根据值获取会话状态枚举
+     *
+     * @param value 状态值
+     * @return 对应的枚举，未找到返回null
+     */
+    public static UploadSessionStatus getByValue(Integer value) {
+        if (value == null) {
+            return null;
+        }
+
+        for (UploadSessionStatus status : values()) {
+            if (status.value.equals(value)) {
+                return status;
+            }
+        }
+        return null;
+    }
+}
@@ -4,6 +4,7 @@ import com.lw.graduation.domain.enums.grade.GradeLevel;
 import lombok.Data;
 
 import java.math.BigDecimal;
+import java.math.MathContext;
 import java.math.RoundingMode;
 
 /**
@@ -65,6 +66,58 @@ public class GradeDistribution {
      */
     private BigDecimal lowestScore = BigDecimal.ZERO;
 
+    /**
+     * 标准差（总体标准差）
+     */
+    private BigDecimal standardDeviation = BigDecimal.ZERO;
+
+    /**
+     * 由数据库聚合结果构建分布（不逐条加载成绩）
+     * 平均分与 calculateAverage 一致：总分除以人数，保留2位小数，四舍五入
+     *
+     * @param counts 各等级人数，顺序为优秀、良好、中等、及格、不及格
+     * @param sumScore 总分
+     * @param highestScore 最高分（无数据时为null）
+     * @param lowestScore 最低分（无数据时为null）
+     * @return 成绩分布
+     */
+    public static GradeDistribution fromAggregate(int[] counts, BigDecimal sumScore,
+                                                  BigDecimal highestScore, BigDecimal lowestScore) {
+        GradeDistribution distribution = new GradeDistribution();
+        distribution.excellentCount = counts[0];
+        distribution.goodCount = counts[1];
+        distribution.fairCount = counts[2];
+        distribution.passCount = counts[3];
+        distribution.failCount = counts[4];
+        distribution.totalCount = counts[0] + counts[1] + counts[2] + counts[3] + counts[4];
+        if (distribution.totalCount > 0) {
+            distribution.averageScore = sumScore.divide(new BigDecimal(distribution.totalCount), 2, RoundingMode.HALF_UP);
+            distribution.highestScore = highestScore;
+            distribution.lowestScore = lowestScore;
+        }
+        distribution.calculatePassRate();
+        return distribution;
+    }
+
+    /**
+     * 由总分与平方和计算总体标准差：sqrt((n·Σx² - (Σx)²) / n²)，保留2位小数
+     *
+     * @param sumScore 总分
+     * @param sumSquare 平方和
+     */
+    public void calculateStandardDeviation(BigDecimal sumScore, BigDecimal sumSquare) {
+        if (totalCount == 0 || sumScore == null || sumSquare == null) {
+            standardDeviation = BigDecimal.ZERO;
+            return;
+        }
+        BigDecimal n = new BigDecimal(totalCount);
+        BigDecimal variance = n.multiply(sumSquare).subtract(sumScore.multiply(sumScore))
+                .divide(n.multiply(n), MathContext.DECIMAL64);
+        standardDeviation = variance.signum() <= 0
+                ? BigDecimal.ZERO.setScale(2)
+                : variance.sqrt(MathContext.DECIMAL64).setScale(2, RoundingMode.HALF_UP);
+    }
+
     /**
      * 添加成绩到统计中
      *
@@ -77,16 +130,16 @@ public class GradeDistribution {
         
         totalCount++;
         
-        // 使用GradeLevel枚举的containsScore方法进行等级判断
-        if (GradeLevel.EXCELLENT.containsScore(score)) {
+        // 按GradeLevel各等级下限划分左闭区间（与 ScoreKernel、SQL 聚合一致）
+        if (score.compareTo(GradeLevel.EXCELLENT.getMinScore()) >= 0) {
             excellentCount++;
-        } else if (GradeLevel.GOOD.containsScore(score)) {
+        } else if (score.compareTo(GradeLevel.GOOD.getMinScore()) >= 0) {
             goodCount++;
-        } else if (GradeLevel.FAIR.containsScore(score)) {
+        } else if (score.compareTo(GradeLevel.FAIR.getMinScore()) >= 0) {
             fairCount++;
-        } else if (GradeLevel.PASS.containsScore(score)) {
+        } else if (score.compareTo(GradeLevel.PASS.getMinScore()) >= 0) {
             passCount++;
-        } else if (GradeLevel.FAIL.containsScore(score)) {
+        } else {
             failCount++;
         }
         
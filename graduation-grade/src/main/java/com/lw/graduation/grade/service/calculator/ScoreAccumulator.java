@@ -0,0 +1,168 @@
+package com.lw.graduation.grade.service.calculator;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * 可合并的成绩分布累加器
+ * GradeDistribution 的定点数版本：人数、各等级人数、总分、平方和与最值均为原生类型，
+ * 两个部分结果可按 merge 无损合并，因此可以按数据块并行累加后归并，也可以缓存分组（如院系）的部分结果按需合并。
+ * 非线程安全，并行计算时每个子任务使用独立实例。
+ *
+ * @author lw
+ */
+public final class ScoreAccumulator {
+
+    /** 超过该数量的成绩数组使用 fork/join 并行累加 */
+    public static final int PARALLEL_THRESHOLD = 1 << 15;
+
+    /** fork/join 子任务的最小数据块 */
+    private static final int CHUNK_SIZE = 1 << 13;
+
+    private final long[] levelCounts = new long[ScoreKernel.LEVEL_COUNT];
+    private long count;
+    private long sum;
+    private long sumSquare;
+    private int highest = Integer.MIN_VALUE;
+    private int lowest = Integer.MAX_VALUE;
+
+    /**
+     * 顺序累加成绩数组
+     *
+     * @param scores 定点成绩
+     * @return 累加结果
+     */
+    public static ScoreAccumulator of(int[] scores) {
+        return new ScoreAccumulator().addAll(scores, 0, scores.length);
+    }
+
+    /**
+     * 累加成绩数组，数量超过阈值时在公共 ForkJoinPool 上分块并行累加后合并
+     *
+     * @param scores 定点成绩
+     * @return 累加结果
+     */
+    public static ScoreAccumulator parallelOf(int[] scores) {
+        if (scores.length < PARALLEL_THRESHOLD) {
+            return of(scores);
+        }
+        return ForkJoinPool.commonPool().invoke(new AccumulateTask(scores, 0, scores.length));
+    }
+
+    /**
+     * 累加单个成绩
+     *
+     * @param score 定点成绩
+     * @return 当前累加器
+     */
+    public ScoreAccumulator add(int score) {
+        levelCounts[ScoreKernel.levelIndex(score)]++;
+        count++;
+        sum += score;
+        sumSquare += (long) score * score;
+        highest = Math.max(highest, score);
+        lowest = Math.min(lowest, score);
+        return this;
+    }
+
+    /**
+     * 累加数组区间 [from, to)
+     *
+     * @param scores 定点成绩
+     * @param from 起始下标（含）
+     * @param to 结束下标（不含）
+     * @return 当前累加器
+     */
+    public ScoreAccumulator addAll(int[] scores, int from, int to) {
+        for (int i = from; i < to; i++) {
+            add(scores[i]);
+        }
+        return this;
+    }
+
+    /**
+     * 合并另一个部分结果（不修改参数）
+     *
+     * @param other 部分结果
+     * @return 当前累加器
+     */
+    public ScoreAccumulator merge(ScoreAccumulator other) {
+        for (int i = 0; i < levelCounts.length; i++) {
+            levelCounts[i] += other.levelCounts[i];
+        }
+        count += other.count;
+        sum += other.sum;
+        sumSquare += other.sumSquare;
+        highest = Math.max(highest, other.highest);
+        lowest = Math.min(lowest, other.lowest);
+        return this;
+    }
+
+    /**
+     * 复制当前结果，用于在缓存的部分结果之上合并而不修改缓存
+     *
+     * @return 副本
+     */
+    public ScoreAccumulator copy() {
+        return new ScoreAccumulator().merge(this);
+    }
+
+    /**
+     * 成绩数量
+     *
+     * @return 数量
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * 转换为成绩分布（含平均分、及格率与标准差）
+     *
+     * @return 成绩分布
+     */
+    public GradeDistribution toDistribution() {
+        int[] counts = new int[ScoreKernel.LEVEL_COUNT];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = Math.toIntExact(levelCounts[i]);
+        }
+        if (count == 0) {
+            return GradeDistribution.fromAggregate(counts, null, null, null);
+        }
+        BigDecimal total = ScoreKernel.toDecimal(sum);
+        GradeDistribution distribution = GradeDistribution.fromAggregate(counts, total,
+                ScoreKernel.toDecimal(highest), ScoreKernel.toDecimal(lowest));
+        // 定点数平方和以万分之一为单位
+        distribution.calculateStandardDeviation(total, BigDecimal.valueOf(sumSquare, ScoreKernel.SCALE * 2));
+        return distribution;
+    }
+
+    /**
+     * 分块累加任务：区间不大于 CHUNK_SIZE 时顺序累加，否则二分后合并
+     */
+    private static final class AccumulateTask extends RecursiveTask<ScoreAccumulator> {
+
+        private final int[] scores;
+        private final int from;
+        private final int to;
+
+        AccumulateTask(int[] scores, int from, int to) {
+            this.scores = scores;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected ScoreAccumulator compute() {
+            if (to - from <= CHUNK_SIZE) {
+                return new ScoreAccumulator().addAll(scores, from, to);
+            }
+            int mid = (from + to) >>> 1;
+            AccumulateTask left = new AccumulateTask(scores, from, mid);
+            left.fork();
+            ScoreAccumulator right = new AccumulateTask(scores, mid, to).compute();
+            return left.join().merge(right);
+        }
+    }
+}
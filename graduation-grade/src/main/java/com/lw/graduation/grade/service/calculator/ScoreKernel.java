@@ -0,0 +1,333 @@
+package com.lw.graduation.grade.service.calculator;
+
+import com.lw.graduation.domain.enums.grade.GradeLevel;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 定点数成绩计算内核
+ * 成绩以"百分之一分"为单位存放在 int 中（85.50 -> 8550），求和、平均、加权、绩点、等级与百分位
+ * 均在原生数组上循环完成，不产生中间对象。所有除法按四舍五入（HALF_UP）保留2位小数，
+ * 结果与 BigDecimal 在 scale=2、HALF_UP 下的计算结果完全一致。
+ *
+ * @author lw
+ */
+public final class ScoreKernel {
+
+    /** 结果精度（小数位数） */
+    public static final int SCALE = 2;
+    /** 1分对应的定点数值 */
+    public static final int ONE = 100;
+    /** 查表覆盖的最高分（100.00分） */
+    public static final int MAX_TABLE_SCORE = 100 * ONE;
+
+    /** 等级下标：优秀、良好、中等、及格、不及格（与 GradeDistribution 字段顺序一致） */
+    public static final int LEVEL_EXCELLENT = 0;
+    public static final int LEVEL_GOOD = 1;
+    public static final int LEVEL_FAIR = 2;
+    public static final int LEVEL_PASS = 3;
+    public static final int LEVEL_FAIL = 4;
+    public static final int LEVEL_COUNT = 5;
+
+    /** 各等级下限（定点数） */
+    private static final int EXCELLENT_MIN = GradeLevel.EXCELLENT.getMinScore().intValue() * ONE;
+    private static final int GOOD_MIN = GradeLevel.GOOD.getMinScore().intValue() * ONE;
+    private static final int FAIR_MIN = GradeLevel.FAIR.getMinScore().intValue() * ONE;
+    private static final int PASS_MIN = GradeLevel.PASS.getMinScore().intValue() * ONE;
+
+    /** 0.00 ~ 100.00 分对应的绩点（BigDecimal 常量，按值共享） */
+    private static final BigDecimal[] GPA_TABLE = new BigDecimal[MAX_TABLE_SCORE + 1];
+    /** 0.00 ~ 100.00 分对应的绩点（定点数） */
+    private static final int[] GPA_HUNDREDTHS = new int[MAX_TABLE_SCORE + 1];
+    /** 绩点非零的连续分数段（minScore、maxScore 均含，gpa），由查表结果合并得到 */
+    private static final List<Map<String, BigDecimal>> GPA_BANDS;
+
+    static {
+        Map<BigDecimal, BigDecimal> constants = new HashMap<>();
+        for (int score = 0; score <= MAX_TABLE_SCORE; score++) {
+            BigDecimal gpa = constants.computeIfAbsent(referenceGpa(BigDecimal.valueOf(score, SCALE)), g -> g);
+            GPA_TABLE[score] = gpa;
+            GPA_HUNDREDTHS[score] = gpa.movePointRight(SCALE).intValueExact();
+        }
+
+        List<Map<String, BigDecimal>> bands = new ArrayList<>();
+        int start = 0;
+        for (int score = 1; score <= MAX_TABLE_SCORE + 1; score++) {
+            if (score <= MAX_TABLE_SCORE && GPA_HUNDREDTHS[score] == GPA_HUNDREDTHS[start]) {
+                continue;
+            }
+            if (GPA_HUNDREDTHS[start] != 0) {
+                bands.add(Map.of("minScore", BigDecimal.valueOf(start, SCALE),
+                        "maxScore", BigDecimal.valueOf(score - 1, SCALE),
+                        "gpa", GPA_TABLE[start]));
+            }
+            start = score;
+        }
+        GPA_BANDS = List.copyOf(bands);
+    }
+
+    private ScoreKernel() {
+    }
+
+    /**
+     * 判断成绩能否无损转换为定点数（小数不超过2位且在 int 范围内）
+     *
+     * @param score 成绩
+     * @return 可无损转换返回true
+     */
+    public static boolean isRepresentable(BigDecimal score) {
+        if (score == null) {
+            return false;
+        }
+        if (score.scale() > SCALE && score.stripTrailingZeros().scale() > SCALE) {
+            return false;
+        }
+        return score.abs().compareTo(BigDecimal.valueOf(Integer.MAX_VALUE / ONE)) <= 0;
+    }
+
+    /**
+     * 成绩转定点数（调用方保证可无损转换）
+     *
+     * @param score 成绩
+     * @return 定点数
+     */
+    public static int toHundredths(BigDecimal score) {
+        return score.movePointRight(SCALE).intValueExact();
+    }
+
+    /**
+     * 成绩列表转定点数组，跳过空值
+     *
+     * @param scores 成绩列表
+     * @return 定点数组；存在无法无损转换的成绩时返回null
+     */
+    public static int[] toHundredths(List<BigDecimal> scores) {
+        int size = 0;
+        for (BigDecimal score : scores) {
+            if (score != null) {
+                if (!isRepresentable(score)) {
+                    return null;
+                }
+                size++;
+            }
+        }
+        int[] values = new int[size];
+        int i = 0;
+        for (BigDecimal score : scores) {
+            if (score != null) {
+                values[i++] = toHundredths(score);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * 定点数转 BigDecimal（scale=2）
+     *
+     * @param hundredths 定点数
+     * @return 成绩
+     */
+    public static BigDecimal toDecimal(long hundredths) {
+        return BigDecimal.valueOf(hundredths, SCALE);
+    }
+
+    /**
+     * 求和
+     *
+     * @param scores 定点成绩
+     * @return 总分（定点数）
+     */
+    public static long sum(int[] scores) {
+        long sum = 0;
+        for (int score : scores) {
+            sum += score;
+        }
+        return sum;
+    }
+
+    /**
+     * 平均分
+     *
+     * @param scores 定点成绩
+     * @return 平均分（定点数），空数组返回0
+     */
+    public static long average(int[] scores) {
+        return scores.length == 0 ? 0 : divideHalfUp(sum(scores), scores.length);
+    }
+
+    /**
+     * 加权平均分
+     * 成绩与权重均为定点数：Σ(s·w) 以万分之一为单位，Σw 以百分之一为单位，相除正好得到百分之一单位的结果
+     *
+     * @param scores 定点成绩
+     * @param weights 定点权重（与scores一一对应）
+     * @return 加权平均分（定点数），权重和为0时返回0
+     */
+    public static long weightedAverage(int[] scores, int[] weights) {
+        long weightedSum = 0;
+        long weightSum = 0;
+        for (int i = 0; i < scores.length; i++) {
+            weightedSum += (long) scores[i] * weights[i];
+            weightSum += weights[i];
+        }
+        return weightSum == 0 ? 0 : divideHalfUp(weightedSum, weightSum);
+    }
+
+    /**
+     * 单个成绩的绩点（定点数），0~100分查表
+     *
+     * @param score 定点成绩
+     * @return 绩点（定点数）
+     */
+    public static int gpa(int score) {
+        if (score >= 0 && score <= MAX_TABLE_SCORE) {
+            return GPA_HUNDREDTHS[score];
+        }
+        return referenceGpa(toDecimal(score)).movePointRight(SCALE).intValueExact();
+    }
+
+    /**
+     * 单个成绩的绩点（BigDecimal），0~100分返回共享常量
+     *
+     * @param score 定点成绩
+     * @return 绩点
+     */
+    public static BigDecimal gpaDecimal(int score) {
+        if (score >= 0 && score <= MAX_TABLE_SCORE) {
+            return GPA_TABLE[score];
+        }
+        return referenceGpa(toDecimal(score));
+    }
+
+    /**
+     * 绩点分段，供SQL按 CASE 分段对0.00~100.00分（DECIMAL(5,2)）逐条求绩点和，与 gpa(int) 查表结果一致
+     *
+     * @return 绩点非零的分数段（minScore、maxScore 均含，gpa）
+     */
+    public static List<Map<String, BigDecimal>> gpaBands() {
+        return GPA_BANDS;
+    }
+
+    /**
+     * 平均绩点
+     *
+     * @param scores 定点成绩
+     * @return 平均绩点（定点数），空数组返回0
+     */
+    public static long averageGpa(int[] scores) {
+        if (scores.length == 0) {
+            return 0;
+        }
+        long gpaSum = 0;
+        for (int score : scores) {
+            gpaSum += gpa(score);
+        }
+        return divideHalfUp(gpaSum, scores.length);
+    }
+
+    /**
+     * 成绩所属等级下标（按各等级下限划分左闭区间）
+     *
+     * @param score 定点成绩
+     * @return 等级下标
+     */
+    public static int levelIndex(int score) {
+        if (score >= EXCELLENT_MIN) {
+            return LEVEL_EXCELLENT;
+        } else if (score >= GOOD_MIN) {
+            return LEVEL_GOOD;
+        } else if (score >= FAIR_MIN) {
+            return LEVEL_FAIR;
+        } else if (score >= PASS_MIN) {
+            return LEVEL_PASS;
+        }
+        return LEVEL_FAIL;
+    }
+
+    /**
+     * 统计各等级人数
+     *
+     * @param scores 定点成绩
+     * @return 各等级人数，下标见 LEVEL_* 常量
+     */
+    public static int[] levelCounts(int[] scores) {
+        int[] counts = new int[LEVEL_COUNT];
+        for (int score : scores) {
+            counts[levelIndex(score)]++;
+        }
+        return counts;
+    }
+
+    /**
+     * 统计低于指定成绩的人数
+     *
+     * @param scores 定点成绩
+     * @param score 定点成绩
+     * @return 人数
+     */
+    public static int countBelow(int[] scores, int score) {
+        int count = 0;
+        for (int value : scores) {
+            if (value < score) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 百分位排名：lowerCount / total × 100
+     *
+     * @param lowerCount 低于该成绩的人数
+     * @param total 总人数
+     * @return 百分位排名（定点数），总人数为0时返回0
+     */
+    public static long percentileRank(long lowerCount, long total) {
+        return total == 0 ? 0 : divideHalfUp(lowerCount * 100 * ONE, total);
+    }
+
+    /**
+     * 整数除法，按 HALF_UP 取整（恰好一半时远离零）
+     *
+     * @param numerator 被除数
+     * @param denominator 除数（非0）
+     * @return 商
+     */
+    public static long divideHalfUp(long numerator, long denominator) {
+        long a = Math.abs(numerator);
+        long b = Math.abs(denominator);
+        long quotient = (2 * a + b) / (2 * b);
+        return (numerator < 0) != (denominator < 0) ? -quotient : quotient;
+    }
+
+    /**
+     * 绩点换算规则（BigDecimal 参考实现，用于建表和查表范围之外的成绩）
+     * 优先使用 GradeLevel 的等级平均绩点，等级区间之间的分数按分段规则换算
+     *
+     * @param score 成绩
+     * @return 绩点
+     */
+    public static BigDecimal referenceGpa(BigDecimal score) {
+        GradeLevel level = GradeLevel.getByScore(score);
+        if (level != null) {
+            return level.getAverageGPA();
+        }
+
+        return switch (score.intValue() / 10) {
+            case 10, 9 -> new BigDecimal("4.0"); // 90-100
+            case 8 -> score.compareTo(new BigDecimal("85")) >= 0 ?
+                     new BigDecimal("3.7") : new BigDecimal("3.3"); // 85-89 vs 80-84
+            case 7 -> score.compareTo(new BigDecimal("75")) >= 0 ?
+                     (score.compareTo(new BigDecimal("78")) >= 0 ? new BigDecimal("3.0") : new BigDecimal("2.7")) :
+                     (score.compareTo(new BigDecimal("72")) >= 0 ? new BigDecimal("2.3") : new BigDecimal("2.0"));
+            case 6 -> score.compareTo(new BigDecimal("60")) >= 0 ?
+                     (score.compareTo(new BigDecimal("64")) >= 0 ? new BigDecimal("1.5") : new BigDecimal("1.0")) :
+                     BigDecimal.ZERO;
+            default -> BigDecimal.ZERO; // 0-59
+        };
+    }
+}
@@ -0,0 +1,267 @@
+package com.lw.graduation.grade.service.calculator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 成绩排行榜（顺序统计结构）
+ * 成绩为 0~100.00 的定点数，取值域固定为 10001 个，因此以成绩为下标维护一棵树状数组记录各分数的人数：
+ * 增删一条成绩、查询名次与按名次定位均为 O(log D)（D 为取值域大小），与范围内的成绩数量无关。
+ * 同一分数的成绩按成绩ID升序存放，排行榜顺序为成绩降序、成绩ID升序，名次按同分并列计算。
+ * 与 ScoreRanking 不同，实例可原地增删，读写之间通过读写锁隔离，可被多线程共享；
+ * 树状数组固定占用约 40KB，适合成绩较多的范围（院系、评分教师、全校）。
+ *
+ * @author lw
+ */
+public final class ScoreLeaderboard {
+
+    /** 分数取值域大小（0 ~ MAX_TABLE_SCORE） */
+    private static final int DOMAIN = ScoreKernel.MAX_TABLE_SCORE + 1;
+
+    private static final Comparator<Entry> BY_GRADE_ID = Comparator.comparingLong(Entry::gradeId);
+
+    /** 树状数组（下标从1开始，下标 i 对应分数 i - 1） */
+    private final int[] tree = new int[DOMAIN + 1];
+    /** 分数 -> 该分数下的成绩（按成绩ID升序），只保存非空分数 */
+    private final Map<Integer, List<Entry>> buckets = new HashMap<>();
+    /** 成绩ID -> 条目，用于幂等增删 */
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * 排行榜条目
+     *
+     * @param gradeId 成绩ID
+     * @param studentId 学生ID
+     * @param topicId 题目ID
+     * @param score 定点成绩
+     */
+    public record Entry(long gradeId, long studentId, long topicId, int score) {
+    }
+
+    /**
+     * 排行榜中的一行
+     *
+     * @param rank 名次（同分并列）
+     * @param entry 条目
+     */
+    public record Ranked(int rank, Entry entry) {
+    }
+
+    private ScoreLeaderboard() {
+    }
+
+    /**
+     * 构建排行榜
+     *
+     * @param initial 初始条目
+     * @return 排行榜
+     */
+    public static ScoreLeaderboard of(List<Entry> initial) {
+        ScoreLeaderboard leaderboard = new ScoreLeaderboard();
+        for (Entry entry : initial) {
+            leaderboard.insert(entry);
+        }
+        return leaderboard;
+    }
+
+    /**
+     * 加入或更新一条成绩（同一成绩ID重复加入时以最新分数为准）
+     *
+     * @param entry 条目
+     */
+    public void add(Entry entry) {
+        checkScore(entry.score());
+        lock.writeLock().lock();
+        try {
+            Entry existing = entries.get(entry.gradeId());
+            if (existing != null) {
+                if (existing.equals(entry)) {
+                    return;
+                }
+                delete(existing);
+            }
+            insert(entry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 移除一条成绩（不存在时忽略）
+     *
+     * @param gradeId 成绩ID
+     */
+    public void remove(long gradeId) {
+        lock.writeLock().lock();
+        try {
+            Entry existing = entries.get(gradeId);
+            if (existing != null) {
+                delete(existing);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 成绩总数
+     *
+     * @return 总数
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 名次（从1开始，同分并列），与 ScoreRanking.rank 口径一致
+     *
+     * @param score 定点成绩
+     * @return 名次
+     */
+    public int rank(int score) {
+        lock.readLock().lock();
+        try {
+            return countAbove(score) + 1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 百分位排名（超越的人数占比），与 ScoreRanking.percentileRank 口径一致
+     *
+     * @param score 定点成绩
+     * @return 百分位排名（定点数）
+     */
+    public long percentileRank(int score) {
+        lock.readLock().lock();
+        try {
+            return ScoreKernel.percentileRank(countAtOrBelow(score - 1), entries.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 按排行榜顺序读取一页
+     * 通过树状数组直接定位起始位置所在的分数，逐个分数向下读取，不扫描起始位置之前的成绩
+     *
+     * @param offset 起始位置（从0开始）
+     * @param limit 最多返回条数
+     * @return 排行榜行
+     */
+    public List<Ranked> page(int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            int total = entries.size();
+            if (offset < 0 || limit <= 0 || offset >= total) {
+                return Collections.emptyList();
+            }
+            int end = Math.min(total, offset + limit);
+            List<Ranked> result = new ArrayList<>(end - offset);
+            int position = offset;
+            while (position < end) {
+                // 降序第 position 个 = 升序第 (total - 1 - position) 个
+                int score = selectScore(total - 1 - position);
+                int above = total - countAtOrBelow(score);
+                List<Entry> bucket = buckets.get(score);
+                for (int i = position - above; i < bucket.size() && position < end; i++, position++) {
+                    result.add(new Ranked(above + 1, bucket.get(i)));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 加入条目（调用方持有写锁或处于构建阶段）
+     */
+    private void insert(Entry entry) {
+        checkScore(entry.score());
+        List<Entry> bucket = buckets.computeIfAbsent(entry.score(), k -> new ArrayList<>(2));
+        int index = Collections.binarySearch(bucket, entry, BY_GRADE_ID);
+        bucket.add(-index - 1, entry);
+        entries.put(entry.gradeId(), entry);
+        update(entry.score(), 1);
+    }
+
+    /**
+     * 移除条目（调用方持有写锁）
+     */
+    private void delete(Entry entry) {
+        List<Entry> bucket = buckets.get(entry.score());
+        bucket.remove(Collections.binarySearch(bucket, entry, BY_GRADE_ID));
+        if (bucket.isEmpty()) {
+            buckets.remove(entry.score());
+        }
+        entries.remove(entry.gradeId());
+        update(entry.score(), -1);
+    }
+
+    /**
+     * 高于指定成绩的人数
+     */
+    private int countAbove(int score) {
+        return entries.size() - countAtOrBelow(score);
+    }
+
+    /**
+     * 不高于指定成绩的人数（前缀和）
+     */
+    private int countAtOrBelow(int score) {
+        if (score < 0) {
+            return 0;
+        }
+        int sum = 0;
+        for (int i = Math.min(score, DOMAIN - 1) + 1; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    /**
+     * 树状数组单点更新
+     */
+    private void update(int score, int delta) {
+        for (int i = score + 1; i <= DOMAIN; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /**
+     * 升序第 k 个成绩（从0开始）所在的分数：前缀和大于 k 的最小分数，二进制倍增定位
+     */
+    private int selectScore(int k) {
+        int index = 0;
+        int remaining = k;
+        for (int step = Integer.highestOneBit(DOMAIN); step > 0; step >>= 1) {
+            int next = index + step;
+            if (next <= DOMAIN && tree[next] <= remaining) {
+                index = next;
+                remaining -= tree[next];
+            }
+        }
+        // index 为前缀和不超过 k 的最大下标，所求为下一个下标 index + 1，对应分数 index
+        return index;
+    }
+
+    private static void checkScore(int score) {
+        if (score < 0 || score >= DOMAIN) {
+            throw new IllegalArgumentException("成绩超出范围: " + score);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.lw.graduation.grade.service.calculator;
+
+import java.util.Arrays;
+
+/**
+ * 成绩排名索引
+ * 将某一范围内的成绩以定点数升序存放在原生数组中：
+ * 百分位与名次通过二分查找 O(log n) 得到，任意分位数按下标 O(1) 读取。
+ * 实例不可变，可被多线程共享。
+ *
+ * @author lw
+ */
+public final class ScoreRanking {
+
+    private final int[] sorted;
+
+    private ScoreRanking(int[] sorted) {
+        this.sorted = sorted;
+    }
+
+    /**
+     * 构建排名索引（会对传入数组排序，调用方不应再使用该数组）
+     *
+     * @param scores 定点成绩
+     * @return 排名索引
+     */
+    public static ScoreRanking of(int[] scores) {
+        Arrays.sort(scores);
+        return new ScoreRanking(scores);
+    }
+
+    /**
+     * 成绩总数
+     *
+     * @return 总数
+     */
+    public int size() {
+        return sorted.length;
+    }
+
+    /**
+     * 最低分（定点数），无数据时返回0
+     *
+     * @return 最低分
+     */
+    public int min() {
+        return sorted.length == 0 ? 0 : sorted[0];
+    }
+
+    /**
+     * 最高分（定点数），无数据时返回0
+     *
+     * @return 最高分
+     */
+    public int max() {
+        return sorted.length == 0 ? 0 : sorted[sorted.length - 1];
+    }
+
+    /**
+     * 低于指定成绩的人数
+     *
+     * @param score 定点成绩
+     * @return 人数
+     */
+    public int countBelow(int score) {
+        return lowerBound(score);
+    }
+
+    /**
+     * 高于指定成绩的人数
+     *
+     * @param score 定点成绩
+     * @return 人数
+     */
+    public int countAbove(int score) {
+        return sorted.length - upperBound(score);
+    }
+
+    /**
+     * 名次（从1开始，同分并列）
+     *
+     * @param score 定点成绩
+     * @return 名次
+     */
+    public int rank(int score) {
+        return countAbove(score) + 1;
+    }
+
+    /**
+     * 百分位排名（超越的人数占比），与 GradeCalculatorService.calculatePercentileRank 口径一致
+     *
+     * @param score 定点成绩
+     * @return 百分位排名（定点数）
+     */
+    public long percentileRank(int score) {
+        return ScoreKernel.percentileRank(countBelow(score), sorted.length);
+    }
+
+    /**
+     * 分位数（线性插值，结果按 HALF_UP 保留2位小数）
+     *
+     * @param percent 百分位（0~100，如50为中位数）
+     * @return 分位数（定点数），无数据时返回0
+     */
+    public long quantile(int percent) {
+        if (percent < 0 || percent > 100) {
+            throw new IllegalArgumentException("百分位必须在0到100之间");
+        }
+        if (sorted.length == 0) {
+            return 0;
+        }
+        long position = (long) (sorted.length - 1) * percent;
+        int lower = (int) (position / 100);
+        long fraction = position % 100;
+        if (fraction == 0) {
+            return sorted[lower];
+        }
+        long delta = (long) sorted[lower + 1] - sorted[lower];
+        return sorted[lower] + ScoreKernel.divideHalfUp(delta * fraction, 100);
+    }
+
+    /**
+     * 第一个不小于 score 的下标
+     */
+    private int lowerBound(int score) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] < score) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 第一个大于 score 的下标
+     */
+    private int upperBound(int score) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] <= score) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -3,16 +3,20 @@ package com.lw.graduation.grade.service.calculator.impl;
 import com.lw.graduation.domain.enums.grade.GradeLevel;
 import com.lw.graduation.grade.service.calculator.GradeCalculatorService;
 import com.lw.graduation.grade.service.calculator.GradeDistribution;
+import com.lw.graduation.grade.service.calculator.ScoreAccumulator;
+import com.lw.graduation.grade.service.calculator.ScoreKernel;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * 成绩计算服务实现类
- * 实现各种成绩计算和统计分析算法
+ * 实现各种成绩计算和统计分析算法。
+ * 成绩均不超过2位小数时委托 ScoreKernel 在定点数组上计算，否则按 BigDecimal 逐项计算，两者结果一致。
  *
  * @author lw
  */
@@ -22,6 +26,7 @@ public class GradeCalculatorServiceImpl implements GradeCalculatorService {
 
     private static final int SCALE = 2; // 计算精度
     private static final RoundingMode ROUNDING_MODE = RoundingMode.HALF_UP; // 四舍五入
+    private static final BigDecimal PASSING_SCORE = GradeLevel.PASS.getMinScore(); // 及格线
 
     @Override
     public BigDecimal calculateWeightedAverage(List<BigDecimal> scores, List<BigDecimal> weights) {
@@ -29,24 +34,33 @@ public class GradeCalculatorServiceImpl implements GradeCalculatorService {
             throw new IllegalArgumentException("成绩和权重列表不能为空且长度必须相等");
         }
 
-        BigDecimal weightedSum = BigDecimal.ZERO;
-        BigDecimal weightSum = BigDecimal.ZERO;
-
+        // 1. 成绩与权重成对转换为定点数（跳过任一为空的项）
+        int[] fixedScores = new int[scores.size()];
+        int[] fixedWeights = new int[scores.size()];
+        int size = 0;
         for (int i = 0; i < scores.size(); i++) {
             BigDecimal score = scores.get(i);
             BigDecimal weight = weights.get(i);
-
-            if (score != null && weight != null) {
-                weightedSum = weightedSum.add(score.multiply(weight));
-                weightSum = weightSum.add(weight);
+            if (score == null || weight == null) {
+                continue;
             }
+            if (!ScoreKernel.isRepresentable(score) || !ScoreKernel.isRepresentable(weight)) {
+                return weightedAverageDecimal(scores, weights);
+            }
+            fixedScores[size] = ScoreKernel.toHundredths(score);
+            fixedWeights[size] = ScoreKernel.toHundredths(weight);
+            size++;
         }
 
-        if (weightSum.compareTo(BigDecimal.ZERO) == 0) {
+        // 2. 定点数加权平均（权重和为0时与 BigDecimal 实现一致返回 ZERO）
+        if (Arrays.stream(fixedWeights, 0, size).asLongStream().sum() == 0) {
             return BigDecimal.ZERO;
         }
-
-        return weightedSum.divide(weightSum, SCALE, ROUNDING_MODE);
+        if (size < fixedScores.length) {
+            fixedScores = Arrays.copyOf(fixedScores, size);
+            fixedWeights = Arrays.copyOf(fixedWeights, size);
+        }
+        return ScoreKernel.toDecimal(ScoreKernel.weightedAverage(fixedScores, fixedWeights));
     }
 
     @Override
@@ -55,21 +69,14 @@ public class GradeCalculatorServiceImpl implements GradeCalculatorService {
             return BigDecimal.ZERO;
         }
 
-        BigDecimal sum = BigDecimal.ZERO;
-        int validCount = 0;
-
-        for (BigDecimal score : scores) {
-            if (score != null) {
-                sum = sum.add(score);
-                validCount++;
-            }
+        int[] values = ScoreKernel.toHundredths(scores);
+        if (values == null) {
+            return averageDecimal(scores);
         }
-
-        if (validCount == 0) {
+        if (values.length == 0) {
             return BigDecimal.ZERO;
         }
-
-        return sum.divide(new BigDecimal(validCount), SCALE, ROUNDING_MODE);
+        return ScoreKernel.toDecimal(ScoreKernel.average(values));
     }
 
     @Override
@@ -78,14 +85,12 @@ public class GradeCalculatorServiceImpl implements GradeCalculatorService {
             return BigDecimal.ZERO;
         }
 
-        BigDecimal sum = BigDecimal.ZERO;
-        for (BigDecimal score : scores) {
-            if (score != null) {
-                sum = sum.add(score);
-            }
+        int[] values = ScoreKernel.toHundredths(scores);
+        if (values == null) {
+            return totalDecimal(scores);
         }
-
-        return sum;
+        // 与 BigDecimal 逐项相加一致：结果精度取各成绩精度的最大值（整数成绩相加仍为整数）
+        return ScoreKernel.toDecimal(ScoreKernel.sum(values)).setScale(maxScale(scores), RoundingMode.UNNECESSARY);
     }
 
     @Override
@@ -93,40 +98,126 @@ public class GradeCalculatorServiceImpl implements GradeCalculatorService {
         if (score == null) {
             return BigDecimal.ZERO;
         }
+        if (ScoreKernel.isRepresentable(score)) {
+            return ScoreKernel.gpaDecimal(ScoreKernel.toHundredths(score));
+        }
+        // 超过2位小数的成绩不在查表范围内，按换算规则直接计算
+        return ScoreKernel.referenceGpa(score);
+    }
 
-        // 优先使用GradeLevel枚举的getAverageGPA方法
+    @Override
+    public BigDecimal calculateAverageGPA(List<BigDecimal> scores) {
+        if (scores == null || scores.isEmpty()) {
+            return BigDecimal.ZERO;
+        }
+
+        int[] values = ScoreKernel.toHundredths(scores);
+        if (values == null) {
+            return averageGpaDecimal(scores);
+        }
+        if (values.length == 0) {
+            return BigDecimal.ZERO;
+        }
+        return ScoreKernel.toDecimal(ScoreKernel.averageGpa(values));
+    }
+
+    @Override
+    public boolean isPassing(BigDecimal score) {
+        return score != null && score.compareTo(PASSING_SCORE) >= 0;
+    }
+
+    @Override
+    public String getGradeLevel(BigDecimal score) {
         GradeLevel level = GradeLevel.getByScore(score);
-        if (level != null) {
-            return level.getAverageGPA();
+        return level != null ? level.getDescription() : "未知";
+    }
+
+    @Override
+    public BigDecimal calculatePercentileRank(BigDecimal score, List<BigDecimal> allScores) {
+        if (score == null || allScores == null || allScores.isEmpty()) {
+            return BigDecimal.ZERO;
+        }
+
+        int[] values = ScoreKernel.toHundredths(allScores);
+        if (values == null || !ScoreKernel.isRepresentable(score)) {
+            return percentileRankDecimal(score, allScores);
         }
 
-        // 如果枚举方法不可用，则使用传统区间判断
-        return switch (score.intValue() / 10) {
-            case 10, 9 -> new BigDecimal("4.0"); // 90-100
-            case 8 -> score.compareTo(new BigDecimal("85")) >= 0 ?
-                     new BigDecimal("3.7") : new BigDecimal("3.3"); // 85-89 vs 80-84
-            case 7 -> score.compareTo(new BigDecimal("75")) >= 0 ?
-                     (score.compareTo(new BigDecimal("78")) >= 0 ? new BigDecimal("3.0") : new BigDecimal("2.7")) :
-                     (score.compareTo(new BigDecimal("72")) >= 0 ? new BigDecimal("2.3") : new BigDecimal("2.0"));
-            case 6 -> score.compareTo(new BigDecimal("60")) >= 0 ?
-                     (score.compareTo(new BigDecimal("64")) >= 0 ? new BigDecimal("1.5") : new BigDecimal("1.0")) :
-                     BigDecimal.ZERO;
-            default -> BigDecimal.ZERO; // 0-59
-        };
+        // 分母沿用列表长度（包含空值）
+        int lowerCount = ScoreKernel.countBelow(values, ScoreKernel.toHundredths(score));
+        return ScoreKernel.toDecimal(ScoreKernel.percentileRank(lowerCount, allScores.size()));
     }
 
     @Override
-    public BigDecimal calculateAverageGPA(List<BigDecimal> scores) {
+    public GradeDistribution calculateDistribution(List<BigDecimal> scores) {
         if (scores == null || scores.isEmpty()) {
+            return new GradeDistribution();
+        }
+
+        int[] values = ScoreKernel.toHundredths(scores);
+        GradeDistribution distribution;
+        if (values == null) {
+            distribution = distributionDecimal(scores);
+        } else if (values.length == 0) {
+            distribution = new GradeDistribution();
+        } else {
+            // 单次遍历得到等级人数、总分、平方和与最值，数据量大时分块并行累加后合并
+            distribution = ScoreAccumulator.parallelOf(values).toDistribution();
+        }
+
+        log.info("成绩分布统计完成: 总人数={}, 及格率={}%",
+                distribution.getTotalCount(), distribution.getPassRate());
+
+        return distribution;
+    }
+
+    /**
+     * 非空成绩的最大精度（不小于0）
+     */
+    private static int maxScale(List<BigDecimal> scores) {
+        int scale = 0;
+        for (BigDecimal score : scores) {
+            if (score != null) {
+                scale = Math.max(scale, score.scale());
+            }
+        }
+        return scale;
+    }
+
+    /**
+     * 加权平均（BigDecimal 逐项计算，用于超过2位小数的输入）
+     */
+    private BigDecimal weightedAverageDecimal(List<BigDecimal> scores, List<BigDecimal> weights) {
+        BigDecimal weightedSum = BigDecimal.ZERO;
+        BigDecimal weightSum = BigDecimal.ZERO;
+
+        for (int i = 0; i < scores.size(); i++) {
+            BigDecimal score = scores.get(i);
+            BigDecimal weight = weights.get(i);
+
+            if (score != null && weight != null) {
+                weightedSum = weightedSum.add(score.multiply(weight));
+                weightSum = weightSum.add(weight);
+            }
+        }
+
+        if (weightSum.compareTo(BigDecimal.ZERO) == 0) {
             return BigDecimal.ZERO;
         }
 
-        BigDecimal gpaSum = BigDecimal.ZERO;
+        return weightedSum.divide(weightSum, SCALE, ROUNDING_MODE);
+    }
+
+    /**
+     * 平均分（BigDecimal 逐项计算，用于超过2位小数的输入）
+     */
+    private BigDecimal averageDecimal(List<BigDecimal> scores) {
+        BigDecimal sum = BigDecimal.ZERO;
         int validCount = 0;
 
         for (BigDecimal score : scores) {
             if (score != null) {
-                gpaSum = gpaSum.add(calculateGPA(score));
+                sum = sum.add(score);
                 validCount++;
             }
         }
@@ -135,59 +226,66 @@ public class GradeCalculatorServiceImpl implements GradeCalculatorService {
             return BigDecimal.ZERO;
         }
 
-        return gpaSum.divide(new BigDecimal(validCount), SCALE, ROUNDING_MODE);
+        return sum.divide(new BigDecimal(validCount), SCALE, ROUNDING_MODE);
     }
 
-    @Override
-    public boolean isPassing(BigDecimal score) {
-        return score != null && score.compareTo(new BigDecimal("60")) >= 0;
+    /**
+     * 总分（BigDecimal 逐项计算，用于超过2位小数的输入）
+     */
+    private BigDecimal totalDecimal(List<BigDecimal> scores) {
+        BigDecimal sum = BigDecimal.ZERO;
+        for (BigDecimal score : scores) {
+            if (score != null) {
+                sum = sum.add(score);
+            }
+        }
+        return sum;
     }
 
-    @Override
-    public String getGradeLevel(BigDecimal score) {
-        GradeLevel level = GradeLevel.getByScore(score);
-        return level != null ? level.getDescription() : "未知";
-    }
+    /**
+     * 平均绩点（BigDecimal 逐项计算，用于超过2位小数的输入）
+     */
+    private BigDecimal averageGpaDecimal(List<BigDecimal> scores) {
+        BigDecimal gpaSum = BigDecimal.ZERO;
+        int validCount = 0;
 
-    @Override
-    public BigDecimal calculatePercentileRank(BigDecimal score, List<BigDecimal> allScores) {
-        if (score == null || allScores == null || allScores.isEmpty()) {
+        for (BigDecimal score : scores) {
+            if (score != null) {
+                gpaSum = gpaSum.add(calculateGPA(score));
+                validCount++;
+            }
+        }
+
+        if (validCount == 0) {
             return BigDecimal.ZERO;
         }
 
-        // 统计低于当前成绩的人数
+        return gpaSum.divide(new BigDecimal(validCount), SCALE, ROUNDING_MODE);
+    }
+
+    /**
+     * 百分位排名（BigDecimal 逐项比较，用于超过2位小数的输入）
+     */
+    private BigDecimal percentileRankDecimal(BigDecimal score, List<BigDecimal> allScores) {
         long lowerCount = allScores.stream()
                 .filter(s -> s != null && s.compareTo(score) < 0)
                 .count();
 
-        // 计算百分位排名并直接返回
         return new BigDecimal(lowerCount)
                 .multiply(new BigDecimal("100"))
                 .divide(new BigDecimal(allScores.size()), SCALE, ROUNDING_MODE);
     }
 
-    @Override
-    public GradeDistribution calculateDistribution(List<BigDecimal> scores) {
+    /**
+     * 成绩分布（逐项累加，用于超过2位小数的输入）
+     */
+    private GradeDistribution distributionDecimal(List<BigDecimal> scores) {
         GradeDistribution distribution = new GradeDistribution();
-
-        if (scores == null || scores.isEmpty()) {
-            return distribution;
-        }
-
-        // 添加所有成绩到统计中
         for (BigDecimal score : scores) {
             distribution.addScore(score);
         }
-
-        // 计算平均分
-        distribution.setAverageScore(calculateAverage(scores));
-
-        // 计算及格率
+        distribution.setAverageScore(averageDecimal(scores));
         distribution.calculatePassRate();
-
-        log.info("成绩分布统计完成: 总人数={}, 及格率={}%",
-                distribution.getTotalCount(), distribution.getPassRate());
-
         return distribution;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,471 @@
+package com.lw.graduation.grade.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.lw.graduation.api.dto.grade.GradeInputDTO;
+import com.lw.graduation.api.service.grade.GradeImportService;
+import com.lw.graduation.api.vo.grade.GradeImportResultVO;
+import com.lw.graduation.api.vo.grade.GradeImportRowVO;
+import com.lw.graduation.common.enums.ResponseCode;
+import com.lw.graduation.common.exception.BusinessException;
+import com.lw.graduation.domain.entity.grade.BizGrade;
+import com.lw.graduation.domain.entity.selection.BizSelection;
+import com.lw.graduation.domain.entity.student.BizStudent;
+import com.lw.graduation.domain.entity.topic.BizTopic;
+import com.lw.graduation.domain.enums.status.SelectionStatus;
+import com.lw.graduation.grade.service.internal.GradeDistributionPartials;
+import com.lw.graduation.grade.service.internal.GradeEntryRules;
+import com.lw.graduation.grade.service.internal.GradeLeaderboard;
+import com.lw.graduation.grade.service.internal.GradeRankingIndex;
+import com.lw.graduation.grade.service.internal.GradeSummaryStore;
+import com.lw.graduation.infrastructure.mapper.grade.BizGradeMapper;
+import com.lw.graduation.infrastructure.mapper.selection.BizSelectionMapper;
+import com.lw.graduation.infrastructure.mapper.student.BizStudentMapper;
+import com.lw.graduation.infrastructure.mapper.topic.BizTopicMapper;
+import com.lw.graduation.infrastructure.tabular.TabularRowReader;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 成绩批量录入服务实现类
+ * 整批所需的题目、已确认选题和已有成绩各用一次查询预加载，权限、重复与综合成绩均在内存中判断和计算，
+ * 通过JDBC批处理分块写入，统计汇总在同一事务内按范围合并累加，排名与分布缓存在全部写入后统一失效。
+ * 某块写入失败（如并发录入触发唯一键冲突）时该块改为逐行写入，只有冲突的行标记为失败。
+ *
+ * @author lw
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class GradeImportServiceImpl implements GradeImportService {
+
+    /** 单次录入最大条数 */
+    private static final int MAX_IMPORT_ROWS = 1000;
+    /** 每个批处理事务写入的行数 */
+    private static final int INSERT_CHUNK_SIZE = 500;
+    /** 综合成绩类型 */
+    private static final int COMPOSITE_GRADE_TYPE = 3;
+
+    /** 表头别名（中文或英文列名） -> 字段名 */
+    private static final Map<String, String> HEADER_ALIASES = Map.ofEntries(
+            Map.entry("学号", "studentNo"), Map.entry("studentno", "studentNo"),
+            Map.entry("学生id", "studentId"), Map.entry("studentid", "studentId"),
+            Map.entry("题目id", "topicId"), Map.entry("topicid", "topicId"),
+            Map.entry("成绩", "score"), Map.entry("分数", "score"), Map.entry("score", "score"),
+            Map.entry("评语", "comment"), Map.entry("comment", "comment"),
+            Map.entry("成绩类型", "gradeType"), Map.entry("gradetype", "gradeType"));
+
+    private static final BigDecimal MIN_SCORE = BigDecimal.ZERO;
+    private static final BigDecimal MAX_SCORE = new BigDecimal("100");
+
+    private final BizGradeMapper bizGradeMapper;
+    private final BizTopicMapper bizTopicMapper;
+    private final BizSelectionMapper bizSelectionMapper;
+    private final BizStudentMapper bizStudentMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final GradeEntryRules gradeEntryRules;
+    private final GradeSummaryStore gradeSummaryStore;
+    private final GradeRankingIndex gradeRankingIndex;
+    private final GradeLeaderboard gradeLeaderboard;
+    private final GradeDistributionPartials gradeDistributionPartials;
+
+    @Override
+    public GradeImportResultVO inputGrades(List<GradeInputDTO> inputs, Long graderId) {
+        if (inputs == null || inputs.isEmpty()) {
+            throw new BusinessException(ResponseCode.PARAM_ERROR.getCode(), "成绩列表不能为空");
+        }
+        if (inputs.size() > MAX_IMPORT_ROWS) {
+            throw new BusinessException(ResponseCode.PARAM_ERROR.getCode(), "单次最多录入" + MAX_IMPORT_ROWS + "条成绩");
+        }
+        log.info("教师 {} 批量录入成绩，条数: {}", graderId, inputs.size());
+
+        List<EntryRow> rows = new ArrayList<>(inputs.size());
+        for (int i = 0; i < inputs.size(); i++) {
+            GradeInputDTO input = inputs.get(i);
+            EntryRow row = new EntryRow(i + 1);
+            row.studentId = input.getStudentId();
+            row.topicId = input.getTopicId();
+            row.score = input.getScore();
+            row.comment = input.getComment();
+            row.gradeType = input.getGradeType();
+            rows.add(row);
+        }
+        rows.forEach(EntryRow::checkFields);
+        return process(rows, graderId);
+    }
+
+    @Override
+    public GradeImportResultVO importGrades(MultipartFile file, Long graderId) {
+        if (file == null || file.isEmpty()) {
+            throw new BusinessException(ResponseCode.PARAM_ERROR.getCode(), "导入文件不能为空");
+        }
+        if (!TabularRowReader.isSupported(file.getOriginalFilename())) {
+            throw new BusinessException(ResponseCode.PARAM_ERROR.getCode(), "仅支持CSV或XLSX格式的文件");
+        }
+        log.info("教师 {} 开始导入成绩，文件: {}", graderId, file.getOriginalFilename());
+
+        // 1. 流式读取并解析数据行
+        List<EntryRow> rows = readRows(file);
+
+        // 2. 学号一次查询换算为学生ID
+        resolveStudentNumbers(rows);
+        rows.forEach(EntryRow::checkFields);
+        return process(rows, graderId);
+    }
+
+    /**
+     * 预加载、内存校验、计算综合成绩、分块写入并统一失效缓存
+     */
+    private GradeImportResultVO process(List<EntryRow> rows, Long graderId) {
+        // 1. 一次性预加载题目、已确认选题和已有成绩，在内存中校验
+        Map<Long, BizTopic> topics = checkReferences(rows, graderId);
+
+        // 2. 分块批量写入
+        List<EntryRow> valid = rows.stream().filter(EntryRow::isValid).toList();
+        LocalDateTime gradedAt = LocalDateTime.now();
+        Map<Long, Long> topicDepartments = new HashMap<>();
+        topics.values().forEach(topic -> topicDepartments.put(topic.getId(), topic.getDepartmentId()));
+        for (int from = 0; from < valid.size(); from += INSERT_CHUNK_SIZE) {
+            insertChunk(valid.subList(from, Math.min(from + INSERT_CHUNK_SIZE, valid.size())),
+                    graderId, gradedAt, topicDepartments);
+        }
+
+        // 3. 统一失效排名索引与院系分布部分结果（排行榜已随各块提交增量更新）
+        List<EntryRow> saved = rows.stream().filter(row -> row.saved).toList();
+        if (!saved.isEmpty()) {
+            gradeRankingIndex.invalidateAll();
+            saved.stream().map(row -> topicDepartments.get(row.topicId)).distinct()
+                    .forEach(gradeDistributionPartials::invalidateDepartment);
+        }
+
+        GradeImportResultVO result = buildResult(rows);
+        log.info("成绩批量录入完成，总行数: {}，成功: {}，失败: {}",
+                result.getTotalRows(), result.getSuccessCount(), result.getFailureCount());
+        return result;
+    }
+
+    /**
+     * 读取表头与数据行，跳过空行
+     */
+    private List<EntryRow> readRows(MultipartFile file) {
+        List<EntryRow> rows = new ArrayList<>();
+        Map<Integer, String> columns = new HashMap<>();
+        try (InputStream in = file.getInputStream()) {
+            TabularRowReader.read(file.getOriginalFilename(), in, (rowNumber, cells) -> {
+                if (cells.stream().allMatch(String::isEmpty)) {
+                    return;
+                }
+                if (columns.isEmpty()) {
+                    resolveHeader(cells, columns);
+                    return;
+                }
+                if (rows.size() >= MAX_IMPORT_ROWS) {
+                    throw new BusinessException(ResponseCode.PARAM_ERROR.getCode(),
+                            "单次最多导入" + MAX_IMPORT_ROWS + "行数据");
+                }
+                Map<String, String> values = new HashMap<>();
+                columns.forEach((index, field) -> values.put(field, index < cells.size() ? cells.get(index) : ""));
+                rows.add(parseRow(rowNumber, values));
+            });
+        } catch (IOException e) {
+            throw new BusinessException(ResponseCode.PARAM_ERROR.getCode(), "导入文件读取失败: " + e.getMessage());
+        }
+        if (rows.isEmpty()) {
+            throw new BusinessException(ResponseCode.PARAM_ERROR.getCode(), "导入文件中没有数据行");
+        }
+        return rows;
+    }
+
+    /**
+     * 解析表头，建立列下标到字段名的映射
+     */
+    private void resolveHeader(List<String> cells, Map<Integer, String> columns) {
+        for (int i = 0; i < cells.size(); i++) {
+            String field = HEADER_ALIASES.get(cells.get(i).replace(" ", "").toLowerCase(Locale.ROOT));
+            if (field != null) {
+                columns.putIfAbsent(i, field);
+            }
+        }
+        if (!columns.containsValue("studentNo") && !columns.containsValue("studentId")) {
+            throw new BusinessException(ResponseCode.PARAM_ERROR.getCode(), "导入文件缺少必需列: 学号或学生ID");
+        }
+        for (String required : List.of("topicId", "score", "gradeType")) {
+            if (!columns.containsValue(required)) {
+                throw new BusinessException(ResponseCode.PARAM_ERROR.getCode(), "导入文件缺少必需列: " + required);
+            }
+        }
+    }
+
+    /**
+     * 解析单行字段，格式错误时记录原因
+     */
+    private EntryRow parseRow(int rowNumber, Map<String, String> values) {
+        EntryRow row = new EntryRow(rowNumber);
+        try {
+            row.studentNo = emptyToNull(values.get("studentNo"));
+            row.studentId = parseLong(values.get("studentId"), "学生ID");
+            row.topicId = parseLong(values.get("topicId"), "题目ID");
+            String score = emptyToNull(values.get("score"));
+            if (score != null) {
+                try {
+                    row.score = new BigDecimal(score);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("成绩格式不正确: " + score);
+                }
+            }
+            row.comment = emptyToNull(values.get("comment"));
+            Long gradeType = parseLong(values.get("gradeType"), "成绩类型");
+            row.gradeType = gradeType != null ? gradeType.intValue() : null;
+        } catch (IllegalArgumentException e) {
+            row.reject(e.getMessage());
+        }
+        return row;
+    }
+
+    /**
+     * 一次查询将学号换算为学生ID（已填写学生ID的行不换算）
+     */
+    private void resolveStudentNumbers(List<EntryRow> rows) {
+        Set<String> studentNos = rows.stream()
+                .filter(row -> row.error == null && row.studentId == null && row.studentNo != null)
+                .map(row -> row.studentNo)
+                .collect(Collectors.toSet());
+        if (studentNos.isEmpty()) {
+            return;
+        }
+        Map<String, Long> studentIds = bizStudentMapper.selectList(new LambdaQueryWrapper<BizStudent>()
+                        .select(BizStudent::getId, BizStudent::getStudentId)
+                        .in(BizStudent::getStudentId, studentNos))
+                .stream().collect(Collectors.toMap(BizStudent::getStudentId, BizStudent::getId, (a, b) -> a));
+        for (EntryRow row : rows) {
+            if (row.error == null && row.studentId == null && row.studentNo != null) {
+                row.studentId = studentIds.get(row.studentNo);
+                if (row.studentId == null) {
+                    row.reject("学号不存在: " + row.studentNo);
+                }
+            }
+        }
+    }
+
+    /**
+     * 题目、已确认选题、已有成绩各一次查询，在内存中完成权限、重复检查并计算综合成绩
+     *
+     * @return 涉及的题目
+     */
+    private Map<Long, BizTopic> checkReferences(List<EntryRow> rows, Long graderId) {
+        List<EntryRow> parsed = rows.stream().filter(EntryRow::isValid).toList();
+        if (parsed.isEmpty()) {
+            return Map.of();
+        }
+        Set<Long> studentIds = parsed.stream().map(row -> row.studentId).collect(Collectors.toSet());
+        Set<Long> topicIds = parsed.stream().map(row -> row.topicId).collect(Collectors.toSet());
+
+        Map<Long, BizTopic> topics = bizTopicMapper.selectByIds(topicIds).stream()
+                .collect(Collectors.toMap(BizTopic::getId, topic -> topic));
+
+        Set<String> confirmedSelections = bizSelectionMapper.selectList(new LambdaQueryWrapper<BizSelection>()
+                        .select(BizSelection::getStudentId, BizSelection::getTopicId)
+                        .in(BizSelection::getStudentId, studentIds)
+                        .in(BizSelection::getTopicId, topicIds)
+                        .eq(BizSelection::getStatus, SelectionStatus.CONFIRMED.getValue()))
+                .stream().map(selection -> pairKey(selection.getStudentId(), selection.getTopicId()))
+                .collect(Collectors.toCollection(HashSet::new));
+
+        Map<String, List<BizGrade>> existingGrades = bizGradeMapper.selectList(new LambdaQueryWrapper<BizGrade>()
+                        .in(BizGrade::getStudentId, studentIds)
+                        .in(BizGrade::getTopicId, topicIds)
+                        .eq(BizGrade::getIsDeleted, 0))
+                .stream().collect(Collectors.groupingBy(grade -> pairKey(grade.getStudentId(), grade.getTopicId())));
+
+        // 按行顺序检查，同一批次内重复时保留首次出现的行
+        Map<String, Integer> firstRowByKey = new HashMap<>();
+        for (EntryRow row : parsed) {
+            String key = pairKey(row.studentId, row.topicId);
+            BizTopic topic = topics.get(row.topicId);
+            List<BizGrade> existing = existingGrades.getOrDefault(key, List.of());
+            if (topic == null) {
+                row.reject("题目不存在");
+            } else if (!confirmedSelections.contains(key)) {
+                row.reject("该学生未选择此题目");
+            } else if (!gradeEntryRules.canGrade(graderId, topic, row.studentId)) {
+                row.reject(String.format("教师 %d 无权对题目 %d 进行成绩录入", graderId, row.topicId));
+            } else if (existing.stream().anyMatch(grade -> graderId.equals(grade.getGraderId()))) {
+                row.reject("该类型成绩已存在");
+            } else if (!existing.isEmpty()) {
+                row.reject("该学生该题目已有其他教师录入的成绩");
+            } else if (firstRowByKey.containsKey(key)) {
+                row.reject("与第" + firstRowByKey.get(key) + "行重复");
+            } else {
+                // 已有成绩的学生题目在上面已拒绝（成绩表按学生、题目唯一），综合成绩即本次录入的成绩，无需加权计算
+                firstRowByKey.put(key, row.rowNumber);
+            }
+        }
+        return topics;
+    }
+
+    /**
+     * 在独立事务中批量写入一块数据并累加统计汇总
+     * 失败时整块回滚并改为逐行写入，只有写入失败的行（如唯一键冲突）标记为失败
+     */
+    private void insertChunk(List<EntryRow> chunk, Long graderId, LocalDateTime gradedAt,
+                             Map<Long, Long> topicDepartments) {
+        List<BizGrade> grades = new ArrayList<>(chunk.size());
+        for (EntryRow row : chunk) {
+            BizGrade grade = new BizGrade();
+            grade.setStudentId(row.studentId);
+            grade.setTopicId(row.topicId);
+            grade.setScore(row.score);
+            grade.setGraderId(graderId);
+            grade.setComment(row.comment);
+            grade.setGradedAt(gradedAt);
+            grades.add(grade);
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                bizGradeMapper.insert(grades, grades.size());
+                gradeSummaryStore.applyAdded(grades, topicDepartments);
+                gradeLeaderboard.applyAdded(grades, topicDepartments);
+            });
+            for (int i = 0; i < chunk.size(); i++) {
+                chunk.get(i).gradeId = grades.get(i).getId();
+                chunk.get(i).saved = true;
+            }
+        } catch (Exception e) {
+            if (chunk.size() > 1) {
+                log.warn("成绩批量写入失败，改为逐行写入，起始行: {}，行数: {}，原因: {}",
+                        chunk.getFirst().rowNumber, chunk.size(), e.getMessage());
+                chunk.forEach(row -> insertChunk(List.of(row), graderId, gradedAt, topicDepartments));
+            } else if (e instanceof DuplicateKeyException) {
+                chunk.getFirst().reject("该学生该题目已有成绩");
+            } else {
+                log.error("成绩写入失败，行: {}", chunk.getFirst().rowNumber, e);
+                chunk.getFirst().reject("数据库写入失败");
+            }
+        }
+    }
+
+    /**
+     * 汇总逐行结果
+     */
+    private GradeImportResultVO buildResult(List<EntryRow> rows) {
+        List<GradeImportRowVO> rowResults = new ArrayList<>(rows.size());
+        int successCount = 0;
+        for (EntryRow row : rows) {
+            GradeImportRowVO vo = new GradeImportRowVO();
+            vo.setRowNumber(row.rowNumber);
+            vo.setStudentId(row.studentId);
+            vo.setTopicId(row.topicId);
+            vo.setScore(row.score);
+            vo.setSuccess(row.saved);
+            if (row.saved) {
+                vo.setGradeId(row.gradeId);
+                successCount++;
+            } else {
+                vo.setMessage(row.error);
+            }
+            rowResults.add(vo);
+        }
+
+        GradeImportResultVO result = new GradeImportResultVO();
+        result.setTotalRows(rows.size());
+        result.setSuccessCount(successCount);
+        result.setFailureCount(rows.size() - successCount);
+        result.setRows(rowResults);
+        return result;
+    }
+
+    /**
+     * 解析整数
+     */
+    private Long parseLong(String value, String label) {
+        String text = emptyToNull(value);
+        if (text == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(text);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(label + "格式不正确: " + text);
+        }
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    /**
+     * 学生与题目组合键
+     */
+    private static String pairKey(Long studentId, Long topicId) {
+        return studentId + "|" + topicId;
+    }
+
+    /**
+     * 录入行状态
+     */
+    private static final class EntryRow {
+
+        private final int rowNumber;
+        private String studentNo;
+        private Long studentId;
+        private Long topicId;
+        private BigDecimal score;
+        private String comment;
+        private Integer gradeType;
+        private Long gradeId;
+        private String error;
+        private boolean saved;
+
+        private EntryRow(int rowNumber) {
+            this.rowNumber = rowNumber;
+        }
+
+        /**
+         * 检查必填项、成绩范围与成绩类型
+         */
+        private void checkFields() {
+            if (error != null) {
+                return;
+            }
+            if (studentId == null) {
+                reject("学生ID不能为空");
+            } else if (topicId == null) {
+                reject("题目ID不能为空");
+            } else if (score == null) {
+                reject("成绩不能为空");
+            } else if (score.compareTo(MIN_SCORE) < 0 || score.compareTo(MAX_SCORE) > 0) {
+                reject("成绩必须在0到100之间");
+            } else if (score.stripTrailingZeros().scale() > 2) {
+                reject("成绩最多保留两位小数");
+            } else if (gradeType == null) {
+                reject("成绩类型不能为空");
+            } else if (gradeType < 1 || gradeType > COMPOSITE_GRADE_TYPE) {
+                reject("成绩类型不正确: " + gradeType);
+            }
+        }
+
+        private boolean isValid() {
+            return error == null;
+        }
+
+        private void reject(String message) {
+            this.error = message;
+        }
+    }
+}
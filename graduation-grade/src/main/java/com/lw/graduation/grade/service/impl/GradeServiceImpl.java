@@ -9,36 +9,65 @@ import com.lw.graduation.api.dto.grade.GradeInputDTO;
 import com.lw.graduation.api.dto.grade.GradePageQueryDTO;
 import com.lw.graduation.api.dto.grade.GradeStatisticsQueryDTO;
 import com.lw.graduation.api.service.grade.GradeService;
+import com.lw.graduation.api.vo.grade.GradeLeaderboardEntryVO;
+import com.lw.graduation.api.vo.grade.GradeQuantileVO;
+import com.lw.graduation.api.vo.grade.GradeRankVO;
+import com.lw.graduation.api.vo.grade.GradeRecomputeJobVO;
 import com.lw.graduation.api.vo.grade.GradeVO;
+import com.lw.graduation.common.base.CursorPage;
 import com.lw.graduation.common.constant.CacheConstants;
+import com.lw.graduation.common.constant.CommonConstants;
 import com.lw.graduation.common.enums.ResponseCode;
 import com.lw.graduation.common.exception.BusinessException;
 import com.lw.graduation.common.util.BeanMapperUtil;
 import com.lw.graduation.common.util.CacheHelper;
+import com.lw.graduation.domain.entity.department.SysDepartment;
 import com.lw.graduation.domain.entity.grade.BizGrade;
+import com.lw.graduation.domain.entity.grade.BizGradeRecomputeJob;
+import com.lw.graduation.domain.entity.grade.BizGradeSummary;
 import com.lw.graduation.domain.entity.selection.BizSelection;
 import com.lw.graduation.domain.entity.student.BizStudent;
 import com.lw.graduation.domain.entity.topic.BizTopic;
-import com.lw.graduation.domain.entity.user.SysUser;
+import com.lw.graduation.domain.enums.grade.GradeLevel;
+import com.lw.graduation.domain.enums.grade.RankingScope;
+import com.lw.graduation.domain.enums.status.RecomputeJobStatus;
 import com.lw.graduation.domain.enums.status.SelectionStatus;
 import com.lw.graduation.grade.service.calculator.GradeCalculatorService;
 import com.lw.graduation.grade.service.calculator.GradeDistribution;
+import com.lw.graduation.grade.service.calculator.ScoreAccumulator;
+import com.lw.graduation.grade.service.calculator.ScoreKernel;
+import com.lw.graduation.grade.service.calculator.ScoreLeaderboard;
+import com.lw.graduation.grade.service.calculator.ScoreRanking;
+import com.lw.graduation.grade.service.internal.CompositeRecomputeJob;
+import com.lw.graduation.grade.service.internal.GradeDistributionPartials;
+import com.lw.graduation.grade.service.internal.GradeEntryRules;
+import com.lw.graduation.grade.service.internal.GradeLeaderboard;
+import com.lw.graduation.grade.service.internal.GradeRankingIndex;
+import com.lw.graduation.grade.service.internal.GradeSummaryStore;
+import com.lw.graduation.infrastructure.mapper.department.SysDepartmentMapper;
 import com.lw.graduation.infrastructure.mapper.grade.BizGradeMapper;
+import com.lw.graduation.infrastructure.mapper.grade.BizGradeRecomputeJobMapper;
 import com.lw.graduation.infrastructure.mapper.selection.BizSelectionMapper;
 import com.lw.graduation.infrastructure.mapper.student.BizStudentMapper;
 import com.lw.graduation.infrastructure.mapper.topic.BizTopicMapper;
 import com.lw.graduation.infrastructure.mapper.user.SysUserMapper;
+import com.lw.graduation.infrastructure.page.KeysetPageHelper;
+import com.lw.graduation.infrastructure.tabular.TabularRowWriter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.stream.Collectors;
 
 /**
@@ -57,9 +86,25 @@ public class GradeServiceImpl extends ServiceImpl<BizGradeMapper, BizGrade> impl
     private final BizTopicMapper bizTopicMapper;
     private final BizSelectionMapper bizSelectionMapper;
     private final SysUserMapper sysUserMapper;
+    private final SysDepartmentMapper sysDepartmentMapper;
     private final CacheHelper cacheHelper;
     private final GradeCalculatorService gradeCalculatorService;
     private final ObjectMapper objectMapper;
+    private final GradeRankingIndex gradeRankingIndex;
+    private final GradeLeaderboard gradeLeaderboard;
+    private final GradeSummaryStore gradeSummaryStore;
+    private final GradeDistributionPartials gradeDistributionPartials;
+    private final GradeEntryRules gradeEntryRules;
+    private final BizGradeRecomputeJobMapper bizGradeRecomputeJobMapper;
+    private final CompositeRecomputeJob compositeRecomputeJob;
+
+    /** 默认输出的分位数：四分位与P90 */
+    private static final List<Integer> DEFAULT_QUANTILES = List.of(25, 50, 75, 90);
+
+    /** 成绩导出表头 */
+    private static final List<String> GRADE_EXPORT_HEADERS = List.of(
+            "成绩ID", "学号", "学生姓名", "班级", "题目ID", "题目标题", "院系", "指导教师",
+            "成绩", "等级", "评分教师", "评语", "评分时间");
 
     @Override
     public IPage<GradeVO> getGradePage(GradePageQueryDTO queryDTO) {
@@ -69,17 +114,11 @@ public class GradeServiceImpl extends ServiceImpl<BizGradeMapper, BizGrade> impl
                 queryDTO.getMinScore(), queryDTO.getMaxScore());
         
         // 1. 构建查询条件
-        LambdaQueryWrapper<BizGrade> wrapper = new LambdaQueryWrapper<>();
-        wrapper.eq(queryDTO.getStudentId() != null, BizGrade::getStudentId, queryDTO.getStudentId())
-                .eq(queryDTO.getTopicId() != null, BizGrade::getTopicId, queryDTO.getTopicId())
-                .eq(queryDTO.getGraderId() != null, BizGrade::getGraderId, queryDTO.getGraderId())
-                .ge(queryDTO.getMinScore() != null, BizGrade::getScore, queryDTO.getMinScore())
-                .le(queryDTO.getMaxScore() != null, BizGrade::getScore, queryDTO.getMaxScore())
-                .eq(BizGrade::getIsDeleted, 0)
-                .orderByDesc(BizGrade::getGradedAt);
+        LambdaQueryWrapper<BizGrade> wrapper = buildGradeQueryWrapper(queryDTO);
+        wrapper.orderByDesc(BizGrade::getGradedAt);
 
         // 2. 执行分页查询
-        IPage<BizGrade> page = new Page<>(queryDTO.getCurrent(), queryDTO.getSize());
+        IPage<BizGrade> page = new Page<>(queryDTO.getCurrent(), queryDTO.getSize(), queryDTO.isCountRequired());
         IPage<BizGrade> gradePage = bizGradeMapper.selectPage(page, wrapper);
 
         // 3. 转换为VO并批量填充关联信息（优化N+1查询）
@@ -91,6 +130,30 @@ public class GradeServiceImpl extends ServiceImpl<BizGradeMapper, BizGrade> impl
         return voPage;
     }
 
+    @Override
+    public CursorPage<GradeVO> getGradeCursorPage(GradePageQueryDTO queryDTO) {
+        LambdaQueryWrapper<BizGrade> wrapper = buildGradeQueryWrapper(queryDTO);
+        return KeysetPageHelper.selectPage(bizGradeMapper, wrapper, BizGrade::getGradedAt, BizGrade::getId,
+                queryDTO, this::convertToGradeVOListOptimized);
+    }
+
+    /**
+     * 构建成绩分页过滤条件（不含排序）
+     *
+     * @param queryDTO 查询条件
+     * @return 查询构造器
+     */
+    private LambdaQueryWrapper<BizGrade> buildGradeQueryWrapper(GradePageQueryDTO queryDTO) {
+        LambdaQueryWrapper<BizGrade> wrapper = new LambdaQueryWrapper<>();
+        wrapper.eq(queryDTO.getStudentId() != null, BizGrade::getStudentId, queryDTO.getStudentId())
+                .eq(queryDTO.getTopicId() != null, BizGrade::getTopicId, queryDTO.getTopicId())
+                .eq(queryDTO.getGraderId() != null, BizGrade::getGraderId, queryDTO.getGraderId())
+                .ge(queryDTO.getMinScore() != null, BizGrade::getScore, queryDTO.getMinScore())
+                .le(queryDTO.getMaxScore() != null, BizGrade::getScore, queryDTO.getMaxScore())
+                .eq(BizGrade::getIsDeleted, 0);
+        return wrapper;
+    }
+
     @Override
     public GradeVO getGradeById(Long id) {
         if (id == null) {
@@ -115,7 +178,7 @@ public class GradeServiceImpl extends ServiceImpl<BizGradeMapper, BizGrade> impl
                 graderId, inputDTO.getStudentId(), inputDTO.getTopicId(), inputDTO.getScore());
         
         // 1. 验证录入权限
-        validateGradeInputPermission(inputDTO.getStudentId(), inputDTO.getTopicId(), graderId);
+        BizTopic topic = validateGradeInputPermission(inputDTO.getStudentId(), inputDTO.getTopicId(), graderId);
         
         // 2. 检查是否已存在相同类型的成绩
         LambdaQueryWrapper<BizGrade> existWrapper = new LambdaQueryWrapper<>();
@@ -128,10 +191,15 @@ public class GradeServiceImpl extends ServiceImpl<BizGradeMapper, BizGrade> impl
             throw new BusinessException(ResponseCode.PARAM_ERROR.getCode(), "该类型成绩已存在");
         }
         
-        // 3. 如果是综合成绩，先尝试自动计算
+        // 3. 综合成绩按已有成绩连同本次录入的成绩加权计算（与批量录入同一规则）
         BigDecimal finalScore = inputDTO.getScore();
         if (inputDTO.getGradeType() == 3) { // 综合成绩
-            finalScore = calculateCompositeGrade(inputDTO.getStudentId(), inputDTO.getTopicId());
+            LambdaQueryWrapper<BizGrade> gradesWrapper = new LambdaQueryWrapper<>();
+            gradesWrapper.eq(BizGrade::getStudentId, inputDTO.getStudentId())
+                    .eq(BizGrade::getTopicId, inputDTO.getTopicId())
+                    .eq(BizGrade::getIsDeleted, 0);
+            finalScore = gradeEntryRules.compositeScoreWithEntry(list(gradesWrapper), inputDTO.getScore(),
+                    graderId, topic.getTeacherId());
         }
         
         // 使用计算器服务验证成绩
@@ -158,8 +226,12 @@ public class GradeServiceImpl extends ServiceImpl<BizGradeMapper, BizGrade> impl
             throw new BusinessException(ResponseCode.ERROR.getCode(), "成绩录入失败");
         }
         
-        // 5. 清除相关缓存
+        // 5. 同一事务内累加统计汇总，清除相关缓存，排名索引在提交后失效、排行榜在提交后加入
+        gradeSummaryStore.applyAdded(grade, topic.getDepartmentId());
         clearGradeCache(grade.getId());
+        gradeRankingIndex.invalidateGrade(grade.getTopicId(), grade.getGraderId());
+        gradeLeaderboard.applyAdded(grade, topic.getDepartmentId());
+        gradeDistributionPartials.invalidateDepartment(topic.getDepartmentId());
         
         log.info("成绩录入成功，ID: {}", grade.getId());
         return convertToGradeVO(grade);
@@ -180,60 +252,9 @@ public class GradeServiceImpl extends ServiceImpl<BizGradeMapper, BizGrade> impl
             return BigDecimal.ZERO;
         }
         
-        // 2. 如果只有一个成绩，直接返回
-        if (grades.size() == 1) {
-            return grades.getFirst().getScore();
-        }
-        
-        // 3. 按照不同类型的成绩进行加权计算
-        List<BigDecimal> scores = new ArrayList<>();
-        List<BigDecimal> weights = new ArrayList<>();
-        
-        // 指导教师评分权重 0.4
-        grades.stream()
-                .filter(g -> g.getGraderId() != null && isAdvisorGrade(g.getGraderId(), topicId))
-                .findFirst()
-                .ifPresent(advisorGrade -> {
-                    scores.add(advisorGrade.getScore());
-                    weights.add(new BigDecimal("0.4"));
-                });
-        
-        // 答辩评分权重 0.6
-        grades.stream()
-                .filter(g -> g.getGraderId() != null && !isAdvisorGrade(g.getGraderId(), topicId))
-                .findFirst()
-                .ifPresent(defenseGrade -> {
-                    scores.add(defenseGrade.getScore());
-                    weights.add(new BigDecimal("0.6"));
-                });
-        
-        // 4. 计算加权平均成绩
-        if (!scores.isEmpty() && scores.size() == weights.size()) {
-            BigDecimal compositeScore = gradeCalculatorService.calculateWeightedAverage(scores, weights);
-            
-            // 同时计算总成绩和平均绩点
-            BigDecimal totalScore = gradeCalculatorService.calculateTotal(scores);
-            BigDecimal averageGPA = gradeCalculatorService.calculateAverageGPA(scores);
-            
-            log.info("综合成绩计算完成 - 加权平均: {}, 总成绩: {}, 平均绩点: {}", 
-                    compositeScore, totalScore, averageGPA);
-            return compositeScore;
-        }
-        
-        // 5. 如果无法按权重计算，则返回简单平均
-        List<BigDecimal> allScores = grades.stream()
-                .map(BizGrade::getScore)
-                .toList();
-        
-        BigDecimal averageScore = gradeCalculatorService.calculateAverage(allScores);
-        
-        // 计算额外的统计指标
-        BigDecimal totalScore = gradeCalculatorService.calculateTotal(allScores);
-        BigDecimal averageGPA = gradeCalculatorService.calculateAverageGPA(allScores);
-        
-        log.info("简单平均成绩计算 - 平均分: {}, 总分: {}, 平均绩点: {}", 
-                averageScore, totalScore, averageGPA);
-        return averageScore;
+        // 2. 按指导教师评分与答辩评分加权
+        BizTopic topic = bizTopicMapper.selectById(topicId);
+        return gradeEntryRules.compositeScore(grades, topic != null ? topic.getTeacherId() : null);
     }
 
     @Override
@@ -243,9 +264,7 @@ public class GradeServiceImpl extends ServiceImpl<BizGradeMapper, BizGrade> impl
                .eq(BizGrade::getIsDeleted, 0)
                .orderByDesc(BizGrade::getGradedAt);
         
-        return list(wrapper).stream()
-                .map(this::convertToGradeVO)
-                .toList();
+        return convertToGradeVOListOptimized(list(wrapper));
     }
 
     @Override
@@ -255,88 +274,412 @@ public class GradeServiceImpl extends ServiceImpl<BizGradeMapper, BizGrade> impl
                .eq(BizGrade::getIsDeleted, 0)
                .orderByDesc(BizGrade::getGradedAt);
         
-        return list(wrapper).stream()
-                .map(this::convertToGradeVO)
-                .toList();
+        return convertToGradeVOListOptimized(list(wrapper));
     }
 
     @Override
     public String getGradeStatistics(GradeStatisticsQueryDTO queryDTO) {
         try {
-            // 1. 构建查询条件
-            LambdaQueryWrapper<BizGrade> wrapper = new LambdaQueryWrapper<>();
-            wrapper.eq(BizGrade::getIsDeleted, 0);
-            
-            // 按教师筛选
-            if (queryDTO.getTeacherId() != null) {
-                wrapper.eq(BizGrade::getGraderId, queryDTO.getTeacherId());
-            }
-            
-            // 按院系筛选（需要关联查询）
-            if (queryDTO.getDepartmentId() != null) {
-                // 这里需要复杂的关联查询，简化处理
-                wrapper.apply("EXISTS (SELECT 1 FROM biz_topic t WHERE t.id = biz_grade.topic_id AND t.department_id = {0})", 
-                             queryDTO.getDepartmentId());
+            // 1. 单一范围且不限及格时直接读取汇总行，否则实时聚合
+            int[] counts;
+            BigDecimal totalScore;
+            BigDecimal sumSquare;
+            BigDecimal sumGpa;
+            BigDecimal highest;
+            BigDecimal lowest;
+            RankingScope summaryScope = resolveSummaryScope(queryDTO);
+            if (summaryScope != null && gradeSummaryStore.isReady()) {
+                Long scopeId = switch (summaryScope) {
+                    case TOPIC -> queryDTO.getTopicId();
+                    case TEACHER -> queryDTO.getTeacherId();
+                    case DEPARTMENT -> queryDTO.getDepartmentId();
+                    case ALL -> null;
+                };
+                BizGradeSummary summary = gradeSummaryStore.get(summaryScope, scopeId);
+                if (summary == null) {
+                    summary = new BizGradeSummary();
+                }
+                counts = new int[]{
+                        toInt(summary.getExcellentCount()),
+                        toInt(summary.getGoodCount()),
+                        toInt(summary.getFairCount()),
+                        toInt(summary.getPassCount()),
+                        toInt(summary.getFailCount())
+                };
+                totalScore = summary.getSumScore();
+                sumSquare = summary.getSumSquare();
+                sumGpa = summary.getSumGpa();
+                highest = summary.getMaxScore();
+                lowest = summary.getMinScore();
+            } else {
+                // 过滤与等级划分均下推到SQL
+                Map<String, Object> condition = new HashMap<>(GradeSummaryStore.levelBounds());
+                condition.put("topicId", queryDTO.getTopicId());
+                condition.put("teacherId", queryDTO.getTeacherId());
+                condition.put("departmentId", queryDTO.getDepartmentId());
+                condition.put("passingOnly", Boolean.TRUE.equals(queryDTO.getPassingOnly()));
+                condition.put("gpaBands", ScoreKernel.gpaBands());
+
+                Map<String, Object> aggregate = bizGradeMapper.selectStatistics(condition);
+                counts = new int[]{
+                        toInt(aggregate.get("excellent_count")),
+                        toInt(aggregate.get("good_count")),
+                        toInt(aggregate.get("fair_count")),
+                        toInt(aggregate.get("pass_count")),
+                        toInt(aggregate.get("fail_count"))
+                };
+                totalScore = toDecimal(aggregate.get("sum_score"));
+                sumSquare = toDecimal(aggregate.get("sum_square"));
+                sumGpa = toDecimal(aggregate.get("sum_gpa"));
+                highest = toDecimal(aggregate.get("max_score"));
+                lowest = toDecimal(aggregate.get("min_score"));
             }
-            
-            // 只统计及格成绩
-            if (Boolean.TRUE.equals(queryDTO.getPassingOnly())) {
-                wrapper.ge(BizGrade::getScore, new BigDecimal("60"));
+
+            // 2. 构建成绩分布，标准差由平方和推导
+            GradeDistribution distribution = GradeDistribution.fromAggregate(counts, totalScore, highest, lowest);
+            distribution.calculateStandardDeviation(totalScore, sumSquare);
+
+            // 3. 平均绩点由逐条换算的绩点和得到（与 GradeCalculatorService.calculateAverageGPA 一致）
+            BigDecimal averageGPA = BigDecimal.ZERO;
+            if (distribution.getTotalCount() > 0 && sumGpa != null) {
+                averageGPA = sumGpa.divide(BigDecimal.valueOf(distribution.getTotalCount()), 2, RoundingMode.HALF_UP);
             }
-            
-            // 2. 查询成绩数据
-            List<BizGrade> grades = list(wrapper);
-            List<BigDecimal> scores = grades.stream()
-                    .map(BizGrade::getScore)
-                    .toList();
-            
-            // 3. 计算统计信息
-            GradeDistribution distribution = gradeCalculatorService.calculateDistribution(scores);
-            
-            // 4. 计算额外统计指标
-            BigDecimal totalScore = gradeCalculatorService.calculateTotal(scores);
-            BigDecimal averageGPA = gradeCalculatorService.calculateAverageGPA(scores);
-            
-            // 5. 添加各等级比例信息和计算统计指标
-            BigDecimal excellentPercentage = distribution.getLevelPercentage("excellent");
-            BigDecimal goodPercentage = distribution.getLevelPercentage("good");
-            BigDecimal fairPercentage = distribution.getLevelPercentage("fair");
-            BigDecimal passPercentage = distribution.getLevelPercentage("pass");
-            BigDecimal failPercentage = distribution.getLevelPercentage("fail");
-                    
-            // 计算排名百分比
-            BigDecimal averageScore = gradeCalculatorService.calculateAverage(scores);
-            BigDecimal percentileRank = gradeCalculatorService.calculatePercentileRank(averageScore, scores);
-                    
-            log.info("成绩分布统计 - 总数: {}, 总分: {}, 平均绩点: {}, 及格率: {}%, 平均分排名: {}%", 
-                    distribution.getTotalCount(), totalScore, averageGPA, distribution.getPassRate(), percentileRank);
-                    
+
+            log.info("成绩分布统计 - 总数: {}, 总分: {}, 平均分: {}, 标准差: {}, 平均绩点: {}, 及格率: {}%, 最高分: {}, 最低分: {}",
+                    distribution.getTotalCount(), totalScore, distribution.getAverageScore(),
+                    distribution.getStandardDeviation(), averageGPA,
+                    distribution.getPassRate(), distribution.getHighestScore(), distribution.getLowestScore());
+
             log.info("等级分布详情 - 优秀: {}%({}), 良好: {}%({}), 中等: {}%({}), 及格: {}%({}), 不及格: {}%({})",
-                    excellentPercentage, distribution.getExcellentCount(),
-                    goodPercentage, distribution.getGoodCount(),
-                    fairPercentage, distribution.getFairCount(),
-                    passPercentage, distribution.getPassCount(),
-                    failPercentage, distribution.getFailCount());
-            
-            // 计算排名百分比（以最高分为例进行分析）
-            if (!scores.isEmpty()) {
-                BigDecimal highestInBatch = scores.stream()
-                        .filter(Objects::nonNull)
-                        .max(BigDecimal::compareTo)
-                        .orElse(BigDecimal.ZERO);
-                BigDecimal batchPercentileRank = gradeCalculatorService.calculatePercentileRank(highestInBatch, scores);
-                log.info("排名分析 - 批次最高分: {}, 超越百分比: {}%", highestInBatch, batchPercentileRank);
-            }
-            
-            // 5. 转换为JSON字符串
+                    distribution.getLevelPercentage("excellent"), distribution.getExcellentCount(),
+                    distribution.getLevelPercentage("good"), distribution.getGoodCount(),
+                    distribution.getLevelPercentage("fair"), distribution.getFairCount(),
+                    distribution.getLevelPercentage("pass"), distribution.getPassCount(),
+                    distribution.getLevelPercentage("fail"), distribution.getFailCount());
+
+            // 4. 转换为JSON字符串
             return objectMapper.writeValueAsString(distribution);
-            
+
         } catch (Exception e) {
             log.error("成绩统计失败", e);
             throw new BusinessException(ResponseCode.ERROR.getCode(), "成绩统计失败");
         }
     }
 
+    @Override
+    public String getDepartmentGradeComparison(List<Long> departmentIds) {
+        // 1. 确定院系及名称（未指定时为全部院系）
+        LambdaQueryWrapper<SysDepartment> wrapper = new LambdaQueryWrapper<>();
+        wrapper.in(departmentIds != null && !departmentIds.isEmpty(), SysDepartment::getId, departmentIds)
+               .eq(SysDepartment::getIsDeleted, 0)
+               .orderByAsc(SysDepartment::getId);
+        Map<Long, String> departmentNames = sysDepartmentMapper.selectList(wrapper).stream()
+                .collect(Collectors.toMap(SysDepartment::getId, SysDepartment::getName, (a, b) -> a, LinkedHashMap::new));
+
+        // 2. 各院系部分结果（缺失的并行加载，已缓存的复用），合并得到整体分布
+        Map<Long, ScoreAccumulator> partials = gradeDistributionPartials.get(departmentNames.keySet());
+        ScoreAccumulator overall = new ScoreAccumulator();
+        List<Map<String, Object>> departments = new ArrayList<>();
+        partials.forEach((departmentId, partial) -> {
+            overall.merge(partial);
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("departmentId", departmentId);
+            item.put("departmentName", departmentNames.get(departmentId));
+            item.put("distribution", partial.toDistribution());
+            departments.add(item);
+        });
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("departments", departments);
+        result.put("overall", overall.toDistribution());
+        log.info("院系成绩分布对比 - 院系数: {}, 成绩总数: {}", departments.size(), overall.count());
+
+        try {
+            return objectMapper.writeValueAsString(result);
+        } catch (Exception e) {
+            log.error("院系成绩分布对比失败", e);
+            throw new BusinessException(ResponseCode.ERROR.getCode(), "成绩统计失败");
+        }
+    }
+
+    /**
+     * 确定可直接读取汇总行的统计范围
+     * 仅限及格成绩或同时指定多个过滤条件时无法使用汇总，返回null
+     */
+    private static RankingScope resolveSummaryScope(GradeStatisticsQueryDTO queryDTO) {
+        if (Boolean.TRUE.equals(queryDTO.getPassingOnly())) {
+            return null;
+        }
+        RankingScope scope = RankingScope.ALL;
+        int filters = 0;
+        if (queryDTO.getTopicId() != null) {
+            scope = RankingScope.TOPIC;
+            filters++;
+        }
+        if (queryDTO.getTeacherId() != null) {
+            scope = RankingScope.TEACHER;
+            filters++;
+        }
+        if (queryDTO.getDepartmentId() != null) {
+            scope = RankingScope.DEPARTMENT;
+            filters++;
+        }
+        return filters > 1 ? null : scope;
+    }
+
+    /**
+     * 聚合结果数值转int（空值按0处理）
+     */
+    private static int toInt(Object value) {
+        return value instanceof Number number ? number.intValue() : 0;
+    }
+
+    /**
+     * 聚合结果数值转BigDecimal（空值返回null）
+     */
+    private static BigDecimal toDecimal(Object value) {
+        if (value == null) {
+            return null;
+        }
+        return value instanceof BigDecimal decimal ? decimal : new BigDecimal(value.toString());
+    }
+
+    @Override
+    public GradeRankVO getStudentRank(Long studentId, Long topicId, Integer scope) {
+        RankingScope rankingScope = scope != null ? RankingScope.getByValue(scope) : RankingScope.TOPIC;
+        if (rankingScope == null) {
+            throw new BusinessException(ResponseCode.PARAM_ERROR.getCode(), "排名范围不正确");
+        }
+
+        // 1. 查询学生成绩（未指定题目时取最近一次）
+        LambdaQueryWrapper<BizGrade> wrapper = new LambdaQueryWrapper<>();
+        wrapper.eq(BizGrade::getStudentId, studentId)
+               .eq(topicId != null, BizGrade::getTopicId, topicId)
+               .eq(BizGrade::getIsDeleted, 0)
+               .orderByDesc(BizGrade::getGradedAt)
+               .last("LIMIT 1");
+        BizGrade grade = bizGradeMapper.selectOne(wrapper);
+        if (grade == null) {
+            throw new BusinessException(ResponseCode.NOT_FOUND.getCode(), "该学生暂无成绩");
+        }
+
+        // 2. 确定范围并在排行榜中定位
+        Long scopeId = resolveScopeId(rankingScope, grade);
+        ScoreLeaderboard ranking = gradeLeaderboard.get(rankingScope, scopeId);
+        int score = ScoreKernel.toHundredths(grade.getScore());
+
+        GradeRankVO vo = new GradeRankVO();
+        vo.setStudentId(studentId);
+        vo.setTopicId(grade.getTopicId());
+        vo.setScope(rankingScope.getValue());
+        vo.setScopeId(scopeId);
+        vo.setScore(grade.getScore());
+        vo.setRank(ranking.rank(score));
+        vo.setTotal(ranking.size());
+        vo.setPercentileRank(ScoreKernel.toDecimal(ranking.percentileRank(score)));
+        return vo;
+    }
+
+    @Override
+    public IPage<GradeLeaderboardEntryVO> getLeaderboard(Integer scope, Long scopeId, long current, long size) {
+        RankingScope rankingScope = RankingScope.getByValue(scope);
+        if (rankingScope == null) {
+            throw new BusinessException(ResponseCode.PARAM_ERROR.getCode(), "排名范围不正确");
+        }
+        if (rankingScope != RankingScope.ALL && scopeId == null) {
+            throw new BusinessException(ResponseCode.PARAM_ERROR.getCode(), "范围ID不能为空");
+        }
+        if (current < 1 || size < 1 || size > CommonConstants.Numbers.MAX_SIZE) {
+            throw new BusinessException(ResponseCode.PARAM_ERROR.getCode(), "分页参数不正确");
+        }
+
+        // 1. 在排行榜中按名次定位当前页
+        Long effectiveScopeId = rankingScope == RankingScope.ALL ? null : scopeId;
+        ScoreLeaderboard leaderboard = gradeLeaderboard.get(rankingScope, effectiveScopeId);
+        long offset = (current - 1) * size;
+        List<ScoreLeaderboard.Ranked> rows = offset > Integer.MAX_VALUE
+                ? List.of() : leaderboard.page((int) offset, (int) size);
+
+        // 2. 批量查询当前页的学生、用户与题目信息
+        Map<Long, BizStudent> students = new HashMap<>();
+        Map<Long, String> userNames = new HashMap<>();
+        Map<Long, String> topicTitles = new HashMap<>();
+        if (!rows.isEmpty()) {
+            List<Long> studentIds = rows.stream().map(row -> row.entry().studentId()).distinct().toList();
+            bizStudentMapper.selectByIds(studentIds).forEach(student -> students.put(student.getId(), student));
+            List<Long> userIds = students.values().stream().map(BizStudent::getUserId).distinct().toList();
+            if (!userIds.isEmpty()) {
+                sysUserMapper.selectByIds(userIds).forEach(user -> userNames.put(user.getId(), user.getRealName()));
+            }
+            List<Long> topicIds = rows.stream().map(row -> row.entry().topicId()).distinct().toList();
+            bizTopicMapper.selectByIds(topicIds).forEach(topic -> topicTitles.put(topic.getId(), topic.getTitle()));
+        }
+
+        // 3. 组装当前页
+        List<GradeLeaderboardEntryVO> records = new ArrayList<>(rows.size());
+        for (ScoreLeaderboard.Ranked row : rows) {
+            ScoreLeaderboard.Entry entry = row.entry();
+            GradeLeaderboardEntryVO vo = new GradeLeaderboardEntryVO();
+            vo.setRank(row.rank());
+            vo.setGradeId(entry.gradeId());
+            vo.setStudentId(entry.studentId());
+            BizStudent student = students.get(entry.studentId());
+            if (student != null) {
+                vo.setStudentNumber(student.getStudentId());
+                vo.setStudentName(userNames.get(student.getUserId()));
+            }
+            vo.setTopicId(entry.topicId());
+            vo.setTopicTitle(topicTitles.get(entry.topicId()));
+            vo.setScore(ScoreKernel.toDecimal(entry.score()));
+            records.add(vo);
+        }
+        IPage<GradeLeaderboardEntryVO> page = new Page<>(current, size, leaderboard.size());
+        page.setRecords(records);
+        return page;
+    }
+
+    @Override
+    public GradeQuantileVO getGradeQuantiles(Integer scope, Long scopeId, List<Integer> percents) {
+        RankingScope rankingScope = RankingScope.getByValue(scope);
+        if (rankingScope == null) {
+            throw new BusinessException(ResponseCode.PARAM_ERROR.getCode(), "统计范围不正确");
+        }
+        if (rankingScope != RankingScope.ALL && scopeId == null) {
+            throw new BusinessException(ResponseCode.PARAM_ERROR.getCode(), "范围ID不能为空");
+        }
+        List<Integer> requested = percents == null || percents.isEmpty() ? DEFAULT_QUANTILES : percents;
+        if (requested.stream().anyMatch(p -> p == null || p < 0 || p > 100)) {
+            throw new BusinessException(ResponseCode.PARAM_ERROR.getCode(), "百分位必须在0到100之间");
+        }
+
+        Long effectiveScopeId = rankingScope == RankingScope.ALL ? null : scopeId;
+        ScoreRanking ranking = gradeRankingIndex.get(rankingScope, effectiveScopeId);
+
+        GradeQuantileVO vo = new GradeQuantileVO();
+        vo.setScope(rankingScope.getValue());
+        vo.setScopeId(effectiveScopeId);
+        vo.setTotal(ranking.size());
+        Map<Integer, BigDecimal> quantiles = new LinkedHashMap<>();
+        if (ranking.size() > 0) {
+            vo.setMinScore(ScoreKernel.toDecimal(ranking.min()));
+            vo.setMaxScore(ScoreKernel.toDecimal(ranking.max()));
+            requested.forEach(p -> quantiles.put(p, ScoreKernel.toDecimal(ranking.quantile(p))));
+        }
+        vo.setQuantiles(quantiles);
+        return vo;
+    }
+
+    @Override
+    public void rebuildGradeStatistics() {
+        log.info("重建成绩统计汇总");
+        gradeSummaryStore.rebuild();
+    }
+
+    @Override
+    public Long startCompositeRecompute(Long userId) {
+        if (!compositeRecomputeJob.tryAcquire()) {
+            throw new BusinessException(ResponseCode.PARAM_ERROR.getCode(), "已有综合成绩重算任务正在运行");
+        }
+        try {
+            BizGradeRecomputeJob job = new BizGradeRecomputeJob();
+            job.setStatus(RecomputeJobStatus.RUNNING.getValue());
+            job.setTotalCount(0);
+            job.setProcessedCount(0);
+            job.setCreatedBy(userId);
+            bizGradeRecomputeJobMapper.insert(job);
+            log.info("用户 {} 启动综合成绩重算任务 {}", userId, job.getId());
+            compositeRecomputeJob.run(job.getId());
+            return job.getId();
+        } catch (RuntimeException e) {
+            compositeRecomputeJob.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public void resumeCompositeRecompute(Long jobId) {
+        BizGradeRecomputeJob job = bizGradeRecomputeJobMapper.selectById(jobId);
+        if (job == null) {
+            throw new BusinessException(ResponseCode.NOT_FOUND.getCode(), "重算任务不存在");
+        }
+        if (RecomputeJobStatus.COMPLETED.getValue().equals(job.getStatus())) {
+            throw new BusinessException(ResponseCode.PARAM_ERROR.getCode(), "重算任务已完成，无需续跑");
+        }
+        if (!compositeRecomputeJob.tryAcquire()) {
+            throw new BusinessException(ResponseCode.PARAM_ERROR.getCode(), "已有综合成绩重算任务正在运行");
+        }
+        try {
+            log.info("从断点 ({}, {}) 续跑综合成绩重算任务 {}", job.getLastStudentId(), job.getLastTopicId(), jobId);
+            compositeRecomputeJob.run(jobId);
+        } catch (RuntimeException e) {
+            compositeRecomputeJob.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public void exportGrades(GradePageQueryDTO queryDTO, String format, OutputStream out) throws IOException {
+        log.info("导出成绩，格式: {}，条件: {}", format, queryDTO);
+        long startTime = System.currentTimeMillis();
+        long[] rowCount = {0};
+        try (TabularRowWriter writer = TabularRowWriter.open(format, out, GRADE_EXPORT_HEADERS)) {
+            bizGradeMapper.exportGrades(queryDTO.getStudentId(), queryDTO.getTopicId(), queryDTO.getGraderId(),
+                    queryDTO.getMinScore(), queryDTO.getMaxScore(), context -> {
+                        Map<String, Object> row = context.getResultObject();
+                        BigDecimal score = (BigDecimal) row.get("score");
+                        GradeLevel level = GradeLevel.getByScore(score);
+                        writer.writeRow(row.get("id"), row.get("student_number"), row.get("student_name"),
+                                row.get("class_name"), row.get("topic_id"), row.get("topic_title"),
+                                row.get("department_name"), row.get("advisor_name"), score,
+                                level != null ? level.getDescription() : null, row.get("grader_name"),
+                                row.get("comment"), row.get("graded_at"));
+                        rowCount[0]++;
+                    });
+        }
+        log.info("成绩导出完成，共 {} 行，耗时 {} ms", rowCount[0], System.currentTimeMillis() - startTime);
+    }
+
+    @Override
+    public GradeRecomputeJobVO getCompositeRecomputeJob(Long jobId) {
+        BizGradeRecomputeJob job = bizGradeRecomputeJobMapper.selectById(jobId);
+        if (job == null) {
+            throw new BusinessException(ResponseCode.NOT_FOUND.getCode(), "重算任务不存在");
+        }
+        GradeRecomputeJobVO vo = BeanMapperUtil.copyProperties(job, GradeRecomputeJobVO.class);
+        vo.setJobId(job.getId());
+        RecomputeJobStatus status = RecomputeJobStatus.getByValue(job.getStatus());
+        vo.setStatusDesc(status != null ? status.getDescription() : null);
+        vo.setActive(status == RecomputeJobStatus.RUNNING && compositeRecomputeJob.isRunning());
+        int total = job.getTotalCount() != null ? job.getTotalCount() : 0;
+        int processed = job.getProcessedCount() != null ? job.getProcessedCount() : 0;
+        vo.setProgress(total == 0
+                ? (status == RecomputeJobStatus.COMPLETED ? new BigDecimal("100.00") : BigDecimal.ZERO)
+                : BigDecimal.valueOf(processed * 100L).divide(BigDecimal.valueOf(total), 2, RoundingMode.HALF_UP));
+        return vo;
+    }
+
+    /**
+     * 根据排名范围确定范围ID
+     *
+     * @param scope 排名范围
+     * @param grade 成绩
+     * @return 题目ID、院系ID、评分教师ID或null（全校）
+     */
+    private Long resolveScopeId(RankingScope scope, BizGrade grade) {
+        return switch (scope) {
+            case TOPIC -> grade.getTopicId();
+            case DEPARTMENT -> {
+                BizTopic topic = bizTopicMapper.selectById(grade.getTopicId());
+                if (topic == null) {
+                    throw new BusinessException(ResponseCode.NOT_FOUND.getCode(), "题目不存在");
+                }
+                yield topic.getDepartmentId();
+            }
+            case TEACHER -> grade.getGraderId();
+            case ALL -> null;
+        };
+    }
+
     @Override
     @Transactional(rollbackFor = Exception.class)
     public void deleteGrade(Long id, Long graderId) {
@@ -359,8 +702,14 @@ public class GradeServiceImpl extends ServiceImpl<BizGradeMapper, BizGrade> impl
             throw new BusinessException(ResponseCode.ERROR.getCode(), "成绩删除失败");
         }
         
-        // 4. 清除缓存
+        // 4. 同一事务内扣减统计汇总，清除缓存，排名索引在提交后失效、排行榜在提交后移除
+        BizTopic topic = bizTopicMapper.selectById(grade.getTopicId());
+        Long departmentId = topic != null ? topic.getDepartmentId() : null;
+        gradeSummaryStore.applyRemoved(grade, departmentId);
         clearGradeCache(id);
+        gradeRankingIndex.invalidateGrade(grade.getTopicId(), grade.getGraderId());
+        gradeLeaderboard.applyRemoved(grade, departmentId);
+        gradeDistributionPartials.invalidateDepartment(departmentId);
         
         log.info("成绩删除成功，ID: {}", id);
     }
@@ -372,9 +721,10 @@ public class GradeServiceImpl extends ServiceImpl<BizGradeMapper, BizGrade> impl
      * @param studentId 学生ID
      * @param topicId 题目ID  
      * @param graderId 评分教师ID
+     * @return 题目信息
      * @throws BusinessException 权限不足时抛出异常
      */
-    private void validateGradeInputPermission(Long studentId, Long topicId, Long graderId) {
+    private BizTopic validateGradeInputPermission(Long studentId, Long topicId, Long graderId) {
         // 1. 检查学生是否选择了该题目
         LambdaQueryWrapper<BizSelection> selectionWrapper = new LambdaQueryWrapper<>();
         selectionWrapper.eq(BizSelection::getStudentId, studentId)
@@ -391,137 +741,27 @@ public class GradeServiceImpl extends ServiceImpl<BizGradeMapper, BizGrade> impl
             throw new BusinessException(ResponseCode.NOT_FOUND.getCode(), "题目不存在");
         }
         
-        // 3. 指导教师可以直接评分
-        if (topic.getTeacherId().equals(graderId)) {
-            log.debug("指导教师 {} 对学生 {} 的题目 {} 进行评分", graderId, studentId, topicId);
-            return;  // 早期返回，避免执行后续复杂验证
-        }
-        
-        // 4. 检查是否为答辩教师
-        if (isDefenseTeacher(graderId, topicId)) {
-            log.debug("答辩教师 {} 对学生 {} 的题目 {} 进行评分", graderId, studentId, topicId);
-            return;
+        // 3. 指导教师、答辩教师、院系管理员或系统管理员可以评分
+        if (gradeEntryRules.canGrade(graderId, topic, studentId)) {
+            return topic;
         }
         
-        // 5. 检查是否为院系管理员
-        if (isDepartmentAdmin(graderId, topic.getDepartmentId())) {
-            log.debug("院系管理员 {} 对学生 {} 的题目 {} 进行评分", graderId, studentId, topicId);
-            return;
-        }
-        
-        // 6. 检查是否为系统管理员
-        if (isSystemAdmin(graderId)) {
-            log.debug("系统管理员 {} 对学生 {} 的题目 {} 进行评分", graderId, studentId, topicId);
-            return;
-        }
-        
-        // 7. 如果以上权限都不满足，抛出权限异常
+        // 4. 如果以上权限都不满足，抛出权限异常
         throw new BusinessException(ResponseCode.FORBIDDEN.getCode(), 
                 String.format("教师 %d 无权对题目 %d 进行成绩录入", graderId, topicId));
     }
 
-    /**
-     * 判断是否为指导教师评分
-     */
-    private boolean isAdvisorGrade(Long graderId, Long topicId) {
-        BizTopic topic = bizTopicMapper.selectById(topicId);
-        return topic != null && topic.getTeacherId().equals(graderId);
-    }
-    
-    /**
-     * 判断是否为答辩教师
-     * 通过检查教师是否在该题目的答辩小组中
-     * 
-     * @param graderId 评分教师ID
-     * @param topicId 题目ID
-     * @return 是否为答辩教师
-     */
-    @SuppressWarnings("unused")
-    private boolean isDefenseTeacher(Long graderId, Long topicId) {
-        // 这里可以实现具体的答辩教师检查逻辑
-        // 比如查询答辩安排表、答辩小组成员等
-        // 简化处理：暂时返回false，实际项目中需要实现具体逻辑
-        return false;
-    }
-    
-    /**
-     * 判断是否为院系管理员
-     * 检查教师是否具有指定院系的管理权限
-     * 
-     * @param graderId 评分教师ID
-     * @param departmentId 院系ID
-     * @return 是否为院系管理员
-     */
-    @SuppressWarnings("unused")
-    private boolean isDepartmentAdmin(Long graderId, Long departmentId) {
-        // 这里可以实现院系管理员检查逻辑
-        // 比如查询用户角色、权限表等
-        // 简化处理：暂时返回false，实际项目中需要实现具体逻辑
-        return false;
-    }
-    
-    /**
-     * 判断是否为系统管理员
-     * 检查教师是否具有系统级别的管理权限
-     * 
-     * @param graderId 评分教师ID
-     * @return 是否为系统管理员
-     */
-    @SuppressWarnings("unused")
-    private boolean isSystemAdmin(Long graderId) {
-        // 这里可以实现系统管理员检查逻辑
-        // 比如查询用户角色、权限表等
-        // 简化处理：暂时返回false，实际项目中需要实现具体逻辑
-        return false;
-    }
-
     /**
      * 转换成绩实体为VO
+     * 与列表共用批量转换，关联信息一次联表查询得到
      */
     private GradeVO convertToGradeVO(BizGrade grade) {
-        GradeVO vo = BeanMapperUtil.copyProperties(grade, GradeVO.class);
-        
-        // 填充扩展信息
-        vo.setGradeLevel(grade.getGradeLevel());
-        vo.setGpa(grade.getGPA());
-        vo.setPassing(grade.isPass());
-        vo.setExcellent(grade.isExcellent());
-        
-        // 填充学生信息
-        if (grade.getStudentId() != null) {
-            BizStudent student = bizStudentMapper.selectById(grade.getStudentId());
-            if (student != null) {
-                // 通过用户ID获取学生姓名
-                SysUser studentUser = sysUserMapper.selectById(student.getUserId());
-                if (studentUser != null) {
-                    vo.setStudentName(studentUser.getRealName());
-                }
-                vo.setStudentNumber(student.getStudentId());
-            }
-        }
-        
-        // 填充题目信息
-        if (grade.getTopicId() != null) {
-            BizTopic topic = bizTopicMapper.selectById(grade.getTopicId());
-            if (topic != null) {
-                vo.setTopicTitle(topic.getTitle());
-            }
-        }
-        
-        // 填充评分教师信息
-        if (grade.getGraderId() != null) {
-            SysUser grader = sysUserMapper.selectById(grade.getGraderId());
-            if (grader != null) {
-                vo.setGraderName(grader.getRealName());
-            }
-        }
-        
-        return vo;
+        return convertToGradeVOListOptimized(List.of(grade)).getFirst();
     }
 
     /**
      * 批量转换成绩实体为VO（优化N+1查询）
-     * 通过批量查询减少数据库访问次数
+     * 学生、学号、题目与评分教师信息通过一次联表查询批量获取，所有成绩列表与单条成绩的转换均走此方法
      */
     private List<GradeVO> convertToGradeVOListOptimized(List<BizGrade> grades) {
         if (grades == null || grades.isEmpty()) {
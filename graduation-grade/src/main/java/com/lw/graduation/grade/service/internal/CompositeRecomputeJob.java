@@ -0,0 +1,304 @@
+package com.lw.graduation.grade.service.internal;
+
+import cn.hutool.core.util.IdUtil;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.lw.graduation.common.constant.CacheConstants;
+import com.lw.graduation.common.util.CacheHelper;
+import com.lw.graduation.domain.entity.grade.BizGrade;
+import com.lw.graduation.domain.entity.grade.BizGradeComposite;
+import com.lw.graduation.domain.entity.grade.BizGradeRecomputeJob;
+import com.lw.graduation.domain.entity.topic.BizTopic;
+import com.lw.graduation.domain.enums.status.RecomputeJobStatus;
+import com.lw.graduation.grade.service.calculator.ScoreKernel;
+import com.lw.graduation.infrastructure.mapper.grade.BizGradeCompositeMapper;
+import com.lw.graduation.infrastructure.mapper.grade.BizGradeMapper;
+import com.lw.graduation.infrastructure.mapper.grade.BizGradeRecomputeJobMapper;
+import com.lw.graduation.infrastructure.mapper.topic.BizTopicMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 综合成绩批量重算任务
+ * 以服务端游标按（学生, 题目）顺序流式读取全部成绩，相邻行归并为一个学生题目；指导教师从预加载的
+ * 题目-教师映射中查找，每攒满一块即并行计算综合成绩，与断点一起在独立事务中批量写回。
+ * 计算结果只写入综合成绩表，不回写成绩表：成绩表按（学生, 题目）唯一（uk_student_topic），每个学生题目只有一条成绩，
+ * 综合成绩恒等于该条成绩，回写不会改变任何分数。在表结构允许同一学生题目保存多条成绩之前，本任务对成绩表、
+ * 统计汇总与排名缓存没有影响，只用于生成综合成绩表。
+ * 任务中断后从最后提交的断点续跑，已写入的结果不会重复计算。
+ * 运行权为 Redis 分布式锁，集群内同一时刻只运行一个任务；每写回一块续期一次，续期失败（锁已丢失）时任务中止。
+ *
+ * @author lw
+ */
+@Component
+@Slf4j
+public class CompositeRecomputeJob {
+
+    /** 每块包含的学生题目数（一次计算、一次写回、一次断点） */
+    private static final int CHUNK_SIZE = 2000;
+    /** 单条多值插入语句的行数 */
+    private static final int UPSERT_BATCH_SIZE = 500;
+    /** 失败原因最大长度 */
+    private static final int MAX_ERROR_LENGTH = 500;
+    /** 运行权锁键 */
+    private static final String LOCK_KEY = CacheConstants.KeyPrefix.LOCK + "grade:composite-recompute";
+    /** 运行权锁过期时间（秒），每写回一块续期 */
+    private static final int LOCK_EXPIRE_SECONDS = 300;
+
+    private final BizGradeMapper bizGradeMapper;
+    private final BizTopicMapper bizTopicMapper;
+    private final BizGradeCompositeMapper bizGradeCompositeMapper;
+    private final BizGradeRecomputeJobMapper bizGradeRecomputeJobMapper;
+    private final CacheHelper cacheHelper;
+    /** 只读事务：保持游标所在连接 */
+    private final TransactionTemplate streamTemplate;
+    /** 独立事务：游标占用连接期间，写回使用另一条连接 */
+    private final TransactionTemplate writeTemplate;
+
+    /** 本实例持有的运行权锁标识，未持有时为null */
+    private final AtomicReference<String> lockOwner = new AtomicReference<>();
+
+    public CompositeRecomputeJob(BizGradeMapper bizGradeMapper, BizTopicMapper bizTopicMapper,
+                                 BizGradeCompositeMapper bizGradeCompositeMapper,
+                                 BizGradeRecomputeJobMapper bizGradeRecomputeJobMapper,
+                                 CacheHelper cacheHelper, PlatformTransactionManager transactionManager) {
+        this.bizGradeMapper = bizGradeMapper;
+        this.bizTopicMapper = bizTopicMapper;
+        this.bizGradeCompositeMapper = bizGradeCompositeMapper;
+        this.bizGradeRecomputeJobMapper = bizGradeRecomputeJobMapper;
+        this.cacheHelper = cacheHelper;
+        this.streamTemplate = new TransactionTemplate(transactionManager);
+        this.streamTemplate.setReadOnly(true);
+        this.writeTemplate = new TransactionTemplate(transactionManager);
+        this.writeTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * 占用运行权（集群内同一时刻只允许一个任务运行）
+     *
+     * @return 占用成功返回true
+     */
+    public boolean tryAcquire() {
+        String owner = IdUtil.fastSimpleUUID();
+        if (!lockOwner.compareAndSet(null, owner)) {
+            return false;
+        }
+        if (!cacheHelper.tryLock(LOCK_KEY, owner, LOCK_EXPIRE_SECONDS)) {
+            lockOwner.set(null);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 释放运行权（任务未能提交执行时由调用方释放）
+     */
+    public void release() {
+        String owner = lockOwner.getAndSet(null);
+        if (owner != null) {
+            cacheHelper.unlock(LOCK_KEY, owner);
+        }
+    }
+
+    /**
+     * 集群内是否有任务正在运行
+     *
+     * @return 运行中返回true
+     */
+    public boolean isRunning() {
+        return cacheHelper.hasKey(LOCK_KEY);
+    }
+
+    /**
+     * 异步执行任务（调用前须已通过 tryAcquire 占用运行权），从任务记录中的断点开始
+     *
+     * @param jobId 任务ID
+     */
+    @Async
+    public void run(Long jobId) {
+        try {
+            execute(jobId);
+        } catch (Exception e) {
+            log.error("综合成绩重算任务 {} 失败", jobId, e);
+            BizGradeRecomputeJob failed = new BizGradeRecomputeJob();
+            failed.setId(jobId);
+            failed.setStatus(RecomputeJobStatus.FAILED.getValue());
+            failed.setErrorMessage(truncate(e.getMessage()));
+            failed.setFinishedAt(LocalDateTime.now());
+            bizGradeRecomputeJobMapper.updateById(failed);
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * 执行重算
+     */
+    private void execute(Long jobId) {
+        BizGradeRecomputeJob job = bizGradeRecomputeJobMapper.selectById(jobId);
+        long startTime = System.currentTimeMillis();
+
+        // 1. 记录开始时间与剩余总数（续跑时总数 = 已完成 + 断点之后）
+        int processed = job.getProcessedCount() != null ? job.getProcessedCount() : 0;
+        int remaining = bizGradeMapper.countGradePairsAfter(job.getLastStudentId(), job.getLastTopicId());
+        bizGradeRecomputeJobMapper.update(new LambdaUpdateWrapper<BizGradeRecomputeJob>()
+                .eq(BizGradeRecomputeJob::getId, jobId)
+                .set(BizGradeRecomputeJob::getStatus, RecomputeJobStatus.RUNNING.getValue())
+                .set(BizGradeRecomputeJob::getTotalCount, processed + remaining)
+                .set(BizGradeRecomputeJob::getStartedAt, LocalDateTime.now())
+                .set(BizGradeRecomputeJob::getErrorMessage, null)
+                .set(BizGradeRecomputeJob::getFinishedAt, null));
+        log.info("综合成绩重算任务 {} 开始，断点: ({}, {})，已完成: {}，待计算: {}",
+                jobId, job.getLastStudentId(), job.getLastTopicId(), processed, remaining);
+
+        // 2. 预加载题目的指导教师
+        Map<Long, Long> advisors = new HashMap<>();
+        bizTopicMapper.selectList(new LambdaQueryWrapper<BizTopic>()
+                        .select(BizTopic::getId, BizTopic::getTeacherId))
+                .forEach(topic -> advisors.put(topic.getId(), topic.getTeacherId()));
+
+        // 3. 流式读取，按学生题目归并并分块处理
+        Progress progress = new Progress(jobId, processed, processed + remaining);
+        streamTemplate.executeWithoutResult(status -> {
+            try (Cursor<BizGrade> cursor = bizGradeMapper.streamGradesAfter(job.getLastStudentId(), job.getLastTopicId())) {
+                List<GradePair> chunk = new ArrayList<>(CHUNK_SIZE);
+                GradePair current = null;
+                for (BizGrade grade : cursor) {
+                    if (current == null || !current.matches(grade)) {
+                        if (current != null && chunk.size() == CHUNK_SIZE) {
+                            flush(chunk, advisors, progress);
+                            chunk = new ArrayList<>(CHUNK_SIZE);
+                        }
+                        current = new GradePair(grade.getStudentId(), grade.getTopicId());
+                        chunk.add(current);
+                    }
+                    current.add(ScoreKernel.toHundredths(grade.getScore()), grade.getGraderId());
+                }
+                if (!chunk.isEmpty()) {
+                    flush(chunk, advisors, progress);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        // 4. 标记完成
+        BizGradeRecomputeJob completed = new BizGradeRecomputeJob();
+        completed.setId(jobId);
+        completed.setStatus(RecomputeJobStatus.COMPLETED.getValue());
+        completed.setFinishedAt(LocalDateTime.now());
+        bizGradeRecomputeJobMapper.updateById(completed);
+        log.info("综合成绩重算任务 {} 完成，共 {} 个学生题目，耗时 {} ms",
+                jobId, progress.processed, System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * 并行计算一块学生题目的综合成绩，与断点在同一独立事务中写回
+     * 块内最后一个学生题目的成绩已全部读入（游标已读到下一个学生题目）才会调用
+     */
+    private void flush(List<GradePair> chunk, Map<Long, Long> advisors, Progress progress) {
+        if (!cacheHelper.renewLock(LOCK_KEY, lockOwner.get(), LOCK_EXPIRE_SECONDS)) {
+            throw new IllegalStateException("综合成绩重算任务运行权已丢失");
+        }
+        List<BizGradeComposite> composites = chunk.parallelStream()
+                .map(pair -> pair.toComposite(advisors.get(pair.topicId), progress.jobId))
+                .toList();
+        GradePair last = chunk.getLast();
+
+        writeTemplate.executeWithoutResult(status -> {
+            for (int from = 0; from < composites.size(); from += UPSERT_BATCH_SIZE) {
+                bizGradeCompositeMapper.upsertBatch(
+                        composites.subList(from, Math.min(from + UPSERT_BATCH_SIZE, composites.size())));
+            }
+            BizGradeRecomputeJob checkpoint = new BizGradeRecomputeJob();
+            checkpoint.setId(progress.jobId);
+            checkpoint.setProcessedCount(progress.processed + chunk.size());
+            checkpoint.setLastStudentId(last.studentId);
+            checkpoint.setLastTopicId(last.topicId);
+            bizGradeRecomputeJobMapper.updateById(checkpoint);
+        });
+
+        progress.processed += chunk.size();
+        log.info("综合成绩重算任务 {} 进度: {}/{}", progress.jobId, progress.processed, progress.total);
+    }
+
+    private static String truncate(String message) {
+        if (message == null || message.length() <= MAX_ERROR_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    /**
+     * 任务进度
+     */
+    private static final class Progress {
+
+        private final Long jobId;
+        private final int total;
+        private int processed;
+
+        private Progress(Long jobId, int processed, int total) {
+            this.jobId = jobId;
+            this.processed = processed;
+            this.total = total;
+        }
+    }
+
+    /**
+     * 同一学生题目的成绩（定点数与评分教师ID，按读取顺序）
+     */
+    private static final class GradePair {
+
+        private final long studentId;
+        private final long topicId;
+        private int[] scores = new int[2];
+        private long[] graderIds = new long[2];
+        private int count;
+
+        private GradePair(long studentId, long topicId) {
+            this.studentId = studentId;
+            this.topicId = topicId;
+        }
+
+        private boolean matches(BizGrade grade) {
+            return grade.getStudentId() == studentId && grade.getTopicId() == topicId;
+        }
+
+        private void add(int score, long graderId) {
+            if (count == scores.length) {
+                scores = Arrays.copyOf(scores, count * 2);
+                graderIds = Arrays.copyOf(graderIds, count * 2);
+            }
+            scores[count] = score;
+            graderIds[count] = graderId;
+            count++;
+        }
+
+        private BizGradeComposite toComposite(Long advisorId, Long jobId) {
+            BizGradeComposite composite = new BizGradeComposite();
+            composite.setStudentId(studentId);
+            composite.setTopicId(topicId);
+            composite.setCompositeScore(ScoreKernel.toDecimal(
+                    GradeEntryRules.compositeHundredths(scores, graderIds, count, advisorId)));
+            composite.setGradeCount(count);
+            composite.setJobId(jobId);
+            return composite;
+        }
+    }
+}
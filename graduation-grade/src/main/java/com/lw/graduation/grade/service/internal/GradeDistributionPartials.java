@@ -0,0 +1,171 @@
+package com.lw.graduation.grade.service.internal;
+
+import com.lw.graduation.common.constant.CacheConstants;
+import com.lw.graduation.grade.service.calculator.ScoreAccumulator;
+import com.lw.graduation.infrastructure.cache.CacheGenerations;
+import com.lw.graduation.infrastructure.cache.CacheInvalidationBus;
+import com.lw.graduation.infrastructure.mapper.grade.BizGradeMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 院系成绩分布部分结果缓存
+ * 每个院系缓存一个可合并的 ScoreAccumulator，跨院系对比或全校报表按需并行加载缺失的院系后合并，
+ * 已缓存的院系直接复用；院系内成绩变更后在事务提交时移除对应部分结果。
+ * 移除前递增院系的代数，加载期间院系被失效时丢弃加载结果，不会缓存缺少已提交变更的部分结果。
+ * 移除经 CacheInvalidationBus 通知其他实例，部分结果另有过期时间，通知丢失时过期后重新加载。
+ *
+ * @author lw
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class GradeDistributionPartials {
+
+    /** 部分结果过期时间（毫秒） */
+    private static final long PARTIAL_TTL_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    /** 跨实例通知：移除院系、清空 */
+    private static final String MESSAGE_EVICT = "evict:";
+    private static final String MESSAGE_EVICT_ALL = "all";
+
+    private final BizGradeMapper bizGradeMapper;
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    private final Map<Long, Cached> partials = new ConcurrentHashMap<>();
+
+    private final CacheGenerations<Long> generations = new CacheGenerations<>();
+
+    @PostConstruct
+    public void subscribe() {
+        cacheInvalidationBus.subscribe(CacheConstants.Channel.GRADE_PARTIALS, this::onRemoteChange);
+    }
+
+    /**
+     * 获取多个院系的部分结果，缺失的院系并行加载
+     * 返回的累加器为缓存实例，调用方只可读取或合并到新的累加器中
+     *
+     * @param departmentIds 院系ID
+     * @return 院系ID到部分结果的映射（保持参数顺序）
+     */
+    public Map<Long, ScoreAccumulator> get(Collection<Long> departmentIds) {
+        List<Long> ids = departmentIds.stream().distinct().toList();
+        List<ScoreAccumulator> loaded = ids.parallelStream()
+                .map(this::getOrLoad)
+                .toList();
+        Map<Long, ScoreAccumulator> result = new LinkedHashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            result.put(ids.get(i), loaded.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * 院系内成绩发生变更，移除该院系的部分结果
+     * 事务内调用时延迟到提交后执行
+     *
+     * @param departmentId 院系ID
+     */
+    public void invalidateDepartment(Long departmentId) {
+        if (departmentId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictAndNotify(departmentId);
+                }
+            });
+        } else {
+            evictAndNotify(departmentId);
+        }
+    }
+
+    /**
+     * 清空全部部分结果
+     */
+    public void invalidateAll() {
+        clear();
+        cacheInvalidationBus.publish(CacheConstants.Channel.GRADE_PARTIALS, MESSAGE_EVICT_ALL);
+    }
+
+    private void evictAndNotify(Long departmentId) {
+        evict(departmentId);
+        cacheInvalidationBus.publish(CacheConstants.Channel.GRADE_PARTIALS, MESSAGE_EVICT + departmentId);
+    }
+
+    /**
+     * 处理其他实例的通知：移除部分结果，不再转发
+     */
+    private void onRemoteChange(String message) {
+        if (message.startsWith(MESSAGE_EVICT)) {
+            evict(Long.valueOf(message.substring(MESSAGE_EVICT.length())));
+        } else {
+            clear();
+        }
+    }
+
+    private void clear() {
+        generations.bumpAll();
+        partials.clear();
+    }
+
+    /**
+     * 递增院系代数后移除部分结果
+     */
+    private void evict(Long departmentId) {
+        generations.bump(departmentId);
+        partials.remove(departmentId);
+    }
+
+    /**
+     * 读取缓存，未命中时加载
+     * 加载过程本身会在 ForkJoinPool 上并行累加，不能放在 computeIfAbsent 的映射函数内执行
+     */
+    private ScoreAccumulator getOrLoad(Long departmentId) {
+        Cached cached = partials.get(departmentId);
+        if (cached != null) {
+            if (System.currentTimeMillis() - cached.loadedAt() < PARTIAL_TTL_MILLIS) {
+                return cached.partial();
+            }
+            partials.remove(departmentId, cached);
+        }
+        long generation = generations.current(departmentId);
+        long loadedAt = System.currentTimeMillis();
+        return generations.publish(partials, departmentId, generation, new Cached(load(departmentId), loadedAt))
+                .partial();
+    }
+
+    /**
+     * 查询院系成绩并累加
+     */
+    private ScoreAccumulator load(Long departmentId) {
+        List<Integer> scores = bizGradeMapper.selectScoreHundredths(null, departmentId, null);
+        int[] values = new int[scores.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = scores.get(i);
+        }
+        log.debug("构建院系成绩分布部分结果，院系: {}，成绩数: {}", departmentId, values.length);
+        return ScoreAccumulator.parallelOf(values);
+    }
+
+    /**
+     * 缓存的部分结果
+     *
+     * @param partial 院系部分结果
+     * @param loadedAt 开始从数据库加载的时间（毫秒）
+     */
+    private record Cached(ScoreAccumulator partial, long loadedAt) {
+    }
+}
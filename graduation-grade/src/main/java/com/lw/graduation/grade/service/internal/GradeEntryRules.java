@@ -0,0 +1,242 @@
+package com.lw.graduation.grade.service.internal;
+
+import com.lw.graduation.domain.entity.grade.BizGrade;
+import com.lw.graduation.domain.entity.topic.BizTopic;
+import com.lw.graduation.grade.service.calculator.GradeCalculatorService;
+import com.lw.graduation.grade.service.calculator.ScoreKernel;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 成绩录入规则
+ * 评分权限判断与综合成绩加权计算，参数均为已加载的实体，不访问数据库，
+ * 单条录入与批量录入共用同一套规则。
+ *
+ * @author lw
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class GradeEntryRules {
+
+    /** 指导教师评分权重 */
+    private static final BigDecimal ADVISOR_WEIGHT = new BigDecimal("0.4");
+    /** 答辩评分权重 */
+    private static final BigDecimal DEFENSE_WEIGHT = new BigDecimal("0.6");
+    /** 指导教师与答辩评分权重（定点数，与上面的权重一致） */
+    private static final int[] ADVISOR_DEFENSE_WEIGHTS = {
+            ScoreKernel.toHundredths(ADVISOR_WEIGHT), ScoreKernel.toHundredths(DEFENSE_WEIGHT)};
+
+    private final GradeCalculatorService gradeCalculatorService;
+
+    /**
+     * 判断教师是否可以对题目评分（指导教师、答辩教师、院系管理员或系统管理员）
+     *
+     * @param graderId 评分教师ID
+     * @param topic 题目
+     * @param studentId 学生ID（用于日志）
+     * @return 有权评分返回true
+     */
+    public boolean canGrade(Long graderId, BizTopic topic, Long studentId) {
+        // 1. 指导教师可以直接评分
+        if (topic.getTeacherId().equals(graderId)) {
+            log.debug("指导教师 {} 对学生 {} 的题目 {} 进行评分", graderId, studentId, topic.getId());
+            return true;
+        }
+
+        // 2. 检查是否为答辩教师
+        if (isDefenseTeacher(graderId, topic.getId())) {
+            log.debug("答辩教师 {} 对学生 {} 的题目 {} 进行评分", graderId, studentId, topic.getId());
+            return true;
+        }
+
+        // 3. 检查是否为院系管理员
+        if (isDepartmentAdmin(graderId, topic.getDepartmentId())) {
+            log.debug("院系管理员 {} 对学生 {} 的题目 {} 进行评分", graderId, studentId, topic.getId());
+            return true;
+        }
+
+        // 4. 检查是否为系统管理员
+        if (isSystemAdmin(graderId)) {
+            log.debug("系统管理员 {} 对学生 {} 的题目 {} 进行评分", graderId, studentId, topic.getId());
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 计算综合成绩
+     * 指导教师评分占40%，答辩评分占60%；无法按权重计算时取简单平均
+     *
+     * @param grades 该学生该题目的全部成绩
+     * @param advisorId 题目指导教师ID
+     * @return 综合成绩，无成绩时返回0
+     */
+    public BigDecimal compositeScore(List<BizGrade> grades, Long advisorId) {
+        if (grades.isEmpty()) {
+            return BigDecimal.ZERO;
+        }
+
+        // 1. 如果只有一个成绩，直接返回
+        if (grades.size() == 1) {
+            return grades.getFirst().getScore();
+        }
+
+        // 2. 按照不同类型的成绩进行加权计算
+        List<BigDecimal> scores = new ArrayList<>();
+        List<BigDecimal> weights = new ArrayList<>();
+
+        // 指导教师评分权重 0.4
+        grades.stream()
+                .filter(g -> g.getGraderId() != null && g.getGraderId().equals(advisorId))
+                .findFirst()
+                .ifPresent(advisorGrade -> {
+                    scores.add(advisorGrade.getScore());
+                    weights.add(ADVISOR_WEIGHT);
+                });
+
+        // 答辩评分权重 0.6
+        grades.stream()
+                .filter(g -> g.getGraderId() != null && !g.getGraderId().equals(advisorId))
+                .findFirst()
+                .ifPresent(defenseGrade -> {
+                    scores.add(defenseGrade.getScore());
+                    weights.add(DEFENSE_WEIGHT);
+                });
+
+        // 3. 计算加权平均成绩
+        if (!scores.isEmpty() && scores.size() == weights.size()) {
+            BigDecimal compositeScore = gradeCalculatorService.calculateWeightedAverage(scores, weights);
+
+            // 同时计算总成绩和平均绩点
+            BigDecimal totalScore = gradeCalculatorService.calculateTotal(scores);
+            BigDecimal averageGPA = gradeCalculatorService.calculateAverageGPA(scores);
+
+            log.info("综合成绩计算完成 - 加权平均: {}, 总成绩: {}, 平均绩点: {}",
+                    compositeScore, totalScore, averageGPA);
+            return compositeScore;
+        }
+
+        // 4. 如果无法按权重计算，则返回简单平均
+        List<BigDecimal> allScores = grades.stream()
+                .map(BizGrade::getScore)
+                .toList();
+
+        BigDecimal averageScore = gradeCalculatorService.calculateAverage(allScores);
+
+        // 计算额外的统计指标
+        BigDecimal totalScore = gradeCalculatorService.calculateTotal(allScores);
+        BigDecimal averageGPA = gradeCalculatorService.calculateAverageGPA(allScores);
+
+        log.info("简单平均成绩计算 - 平均分: {}, 总分: {}, 平均绩点: {}",
+                averageScore, totalScore, averageGPA);
+        return averageScore;
+    }
+
+    /**
+     * 计算录入综合成绩时保存的分数：该学生该题目的已有成绩连同本次录入的成绩加权计算
+     * 无已有成绩时即为本次录入的成绩（成绩表按学生、题目唯一，批量录入已拒绝有已有成绩的行，不调用本方法）
+     *
+     * @param existing 该学生该题目的已有成绩
+     * @param enteredScore 本次录入的成绩
+     * @param graderId 评分教师ID
+     * @param advisorId 题目指导教师ID
+     * @return 综合成绩
+     */
+    public BigDecimal compositeScoreWithEntry(List<BizGrade> existing, BigDecimal enteredScore,
+                                              Long graderId, Long advisorId) {
+        BizGrade entered = new BizGrade();
+        entered.setScore(enteredScore);
+        entered.setGraderId(graderId);
+        List<BizGrade> grades = new ArrayList<>(existing);
+        grades.add(entered);
+        return compositeScore(grades, advisorId);
+    }
+
+    /**
+     * 计算综合成绩（定点数版本，供批量重算使用，规则与 compositeScore 一致）
+     *
+     * @param scores 该学生该题目的成绩（定点数，前 count 个有效）
+     * @param graderIds 对应的评分教师ID
+     * @param count 成绩数
+     * @param advisorId 题目指导教师ID（题目不存在时为null）
+     * @return 综合成绩（定点数），无成绩时返回0
+     */
+    public static long compositeHundredths(int[] scores, long[] graderIds, int count, Long advisorId) {
+        if (count == 0) {
+            return 0;
+        }
+        if (count == 1) {
+            return scores[0];
+        }
+
+        // 第一条指导教师评分与第一条答辩评分
+        int advisor = -1;
+        int defense = -1;
+        for (int i = 0; i < count && (advisor < 0 || defense < 0); i++) {
+            boolean isAdvisor = advisorId != null && graderIds[i] == advisorId;
+            if (isAdvisor && advisor < 0) {
+                advisor = i;
+            } else if (!isAdvisor && defense < 0) {
+                defense = i;
+            }
+        }
+        if (advisor >= 0 && defense >= 0) {
+            return ScoreKernel.weightedAverage(new int[]{scores[advisor], scores[defense]}, ADVISOR_DEFENSE_WEIGHTS);
+        }
+        // 只有一类评分时，加权平均即为该成绩
+        return scores[advisor >= 0 ? advisor : defense];
+    }
+
+    /**
+     * 判断是否为答辩教师
+     * 通过检查教师是否在该题目的答辩小组中
+     *
+     * @param graderId 评分教师ID
+     * @param topicId 题目ID
+     * @return 是否为答辩教师
+     */
+    @SuppressWarnings("unused")
+    private boolean isDefenseTeacher(Long graderId, Long topicId) {
+        // 这里可以实现具体的答辩教师检查逻辑
+        // 比如查询答辩安排表、答辩小组成员等
+        // 简化处理：暂时返回false，实际项目中需要实现具体逻辑
+        return false;
+    }
+
+    /**
+     * 判断是否为院系管理员
+     * 检查教师是否具有指定院系的管理权限
+     *
+     * @param graderId 评分教师ID
+     * @param departmentId 院系ID
+     * @return 是否为院系管理员
+     */
+    @SuppressWarnings("unused")
+    private boolean isDepartmentAdmin(Long graderId, Long departmentId) {
+        // 这里可以实现院系管理员检查逻辑
+        // 比如查询用户角色、权限表等
+        // 简化处理：暂时返回false，实际项目中需要实现具体逻辑
+        return false;
+    }
+
+    /**
+     * 判断是否为系统管理员
+     * 检查教师是否具有系统级别的管理权限
+     *
+     * @param graderId 评分教师ID
+     * @return 是否为系统管理员
+     */
+    @SuppressWarnings("unused")
+    private boolean isSystemAdmin(Long graderId) {
+        // 这里可以实现系统管理员检查逻辑
+        // 比如查询用户角色、权限表等
+        // 简化处理：暂时返回false，实际项目中需要实现具体逻辑
+        return false;
+    }
+}
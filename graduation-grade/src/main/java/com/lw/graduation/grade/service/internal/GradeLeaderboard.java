@@ -0,0 +1,245 @@
+package com.lw.graduation.grade.service.internal;
+
+import com.lw.graduation.common.constant.CacheConstants;
+import com.lw.graduation.domain.entity.grade.BizGrade;
+import com.lw.graduation.domain.enums.grade.RankingScope;
+import com.lw.graduation.grade.service.calculator.ScoreKernel;
+import com.lw.graduation.grade.service.calculator.ScoreLeaderboard;
+import com.lw.graduation.infrastructure.cache.CacheGenerations;
+import com.lw.graduation.infrastructure.cache.CacheInvalidationBus;
+import com.lw.graduation.infrastructure.mapper.grade.BizGradeMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * 成绩排行榜缓存
+ * 院系、评分教师和全校范围各缓存一个 ScoreLeaderboard，首次访问时加载；成绩录入和删除在事务提交后
+ * 直接增删对应排行榜中的条目，不再整体失效重建，名次与分页查询都不扫描范围内的成绩。
+ * 题目范围内成绩很少（受选题人数限制），按需从数据库构建而不缓存。
+ * 排行榜在映射锁外加载，加载期间有变更提交到该范围时丢弃加载结果，避免缓存缺少该变更的排行榜。
+ * 增删只修补写入实例上的排行榜，其他实例经 CacheInvalidationBus 收到通知后移除受影响范围的排行榜，
+ * 排行榜另有过期时间，通知丢失时过期后重新加载。
+ *
+ * @author lw
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class GradeLeaderboard {
+
+    /** 排行榜过期时间（毫秒） */
+    private static final long LEADERBOARD_TTL_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    /** 跨实例通知：移除范围、清空 */
+    private static final String MESSAGE_EVICT = "evict:";
+    private static final String MESSAGE_EVICT_ALL = "all";
+
+    private final BizGradeMapper bizGradeMapper;
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    private final Map<String, Cached> leaderboards = new ConcurrentHashMap<>();
+
+    private final CacheGenerations<String> generations = new CacheGenerations<>();
+
+    @PostConstruct
+    public void subscribe() {
+        cacheInvalidationBus.subscribe(CacheConstants.Channel.GRADE_LEADERBOARD, this::onRemoteChange);
+    }
+
+    /**
+     * 获取范围内的排行榜
+     *
+     * @param scope 排名范围
+     * @param scopeId 范围ID（题目、院系或教师ID，全校范围忽略）
+     * @return 排行榜
+     */
+    public ScoreLeaderboard get(RankingScope scope, Long scopeId) {
+        if (scope == RankingScope.TOPIC) {
+            return load(scope, scopeId);
+        }
+        String key = key(scope, scopeId);
+        Cached cached = leaderboards.get(key);
+        if (cached != null) {
+            if (System.currentTimeMillis() - cached.loadedAt() < LEADERBOARD_TTL_MILLIS) {
+                return cached.board();
+            }
+            leaderboards.remove(key, cached);
+        }
+        long generation = generations.current(key);
+        long loadedAt = System.currentTimeMillis();
+        return generations.publish(leaderboards, key, generation, new Cached(load(scope, scopeId), loadedAt)).board();
+    }
+
+    /**
+     * 成绩录入后加入相关范围的排行榜（事务内调用时延迟到提交后执行）
+     *
+     * @param grade 成绩
+     * @param departmentId 题目所属院系ID
+     */
+    public void applyAdded(BizGrade grade, Long departmentId) {
+        afterCommit(() -> notifyEvicted(apply(grade, departmentId, (board, entry) -> board.add(entry))));
+    }
+
+    /**
+     * 批量录入后加入相关范围的排行榜（事务内调用时延迟到提交后执行）
+     *
+     * @param grades 成绩
+     * @param topicDepartments 题目ID到所属院系ID的映射
+     */
+    public void applyAdded(Collection<BizGrade> grades, Map<Long, Long> topicDepartments) {
+        List<BizGrade> snapshot = new ArrayList<>(grades);
+        afterCommit(() -> {
+            Set<String> keys = new LinkedHashSet<>();
+            snapshot.forEach(grade -> keys.addAll(
+                    apply(grade, topicDepartments.get(grade.getTopicId()), (board, entry) -> board.add(entry))));
+            notifyEvicted(keys);
+        });
+    }
+
+    /**
+     * 成绩删除后从相关范围的排行榜中移除（事务内调用时延迟到提交后执行）
+     *
+     * @param grade 成绩
+     * @param departmentId 题目所属院系ID
+     */
+    public void applyRemoved(BizGrade grade, Long departmentId) {
+        afterCommit(() -> notifyEvicted(
+                apply(grade, departmentId, (board, entry) -> board.remove(entry.gradeId()))));
+    }
+
+    /**
+     * 清空全部排行榜
+     */
+    public void invalidateAll() {
+        clear();
+        cacheInvalidationBus.publish(CacheConstants.Channel.GRADE_LEADERBOARD, MESSAGE_EVICT_ALL);
+    }
+
+    /**
+     * 对已加载的院系、评分教师和全校排行榜执行变更
+     * 先递增范围的代数，正在加载的排行榜发布时发现代数变化即被丢弃；已发布的排行榜直接应用变更。
+     * 增删均为幂等操作，加载时已读到的成绩不会重复计入
+     *
+     * @return 受影响范围的缓存键
+     */
+    private List<String> apply(BizGrade grade, Long departmentId,
+                               BiConsumer<ScoreLeaderboard, ScoreLeaderboard.Entry> change) {
+        if (grade.getId() == null || grade.getScore() == null) {
+            return List.of();
+        }
+        ScoreLeaderboard.Entry entry = toEntry(grade);
+        List<String> keys = new ArrayList<>(3);
+        keys.add(key(RankingScope.ALL, null));
+        if (departmentId != null) {
+            keys.add(key(RankingScope.DEPARTMENT, departmentId));
+        }
+        if (grade.getGraderId() != null) {
+            keys.add(key(RankingScope.TEACHER, grade.getGraderId()));
+        }
+        for (String key : keys) {
+            generations.bump(key);
+            leaderboards.computeIfPresent(key, (k, cached) -> {
+                change.accept(cached.board(), entry);
+                return cached;
+            });
+        }
+        return keys;
+    }
+
+    /**
+     * 通知其他实例移除受影响范围的排行榜
+     */
+    private void notifyEvicted(Collection<String> keys) {
+        if (!keys.isEmpty()) {
+            cacheInvalidationBus.publish(CacheConstants.Channel.GRADE_LEADERBOARD,
+                    MESSAGE_EVICT + String.join(",", keys));
+        }
+    }
+
+    /**
+     * 处理其他实例的通知：移除排行榜，下次访问重新加载，不再转发
+     */
+    private void onRemoteChange(String message) {
+        if (message.startsWith(MESSAGE_EVICT)) {
+            for (String key : message.substring(MESSAGE_EVICT.length()).split(",")) {
+                generations.bump(key);
+                leaderboards.remove(key);
+            }
+        } else {
+            clear();
+        }
+    }
+
+    private void clear() {
+        generations.bumpAll();
+        leaderboards.clear();
+    }
+
+    /**
+     * 查询范围内成绩并构建排行榜
+     */
+    private ScoreLeaderboard load(RankingScope scope, Long scopeId) {
+        List<BizGrade> grades = switch (scope) {
+            case TOPIC -> bizGradeMapper.selectRankingEntries(scopeId, null, null);
+            case DEPARTMENT -> bizGradeMapper.selectRankingEntries(null, scopeId, null);
+            case TEACHER -> bizGradeMapper.selectRankingEntries(null, null, scopeId);
+            case ALL -> bizGradeMapper.selectRankingEntries(null, null, null);
+        };
+        List<ScoreLeaderboard.Entry> entries = new ArrayList<>(grades.size());
+        for (BizGrade grade : grades) {
+            entries.add(toEntry(grade));
+        }
+        log.debug("构建成绩排行榜，范围: {}:{}，成绩数: {}", scope, scopeId, entries.size());
+        return ScoreLeaderboard.of(entries);
+    }
+
+    private static ScoreLeaderboard.Entry toEntry(BizGrade grade) {
+        return new ScoreLeaderboard.Entry(grade.getId(), grade.getStudentId(), grade.getTopicId(),
+                ScoreKernel.toHundredths(grade.getScore()));
+    }
+
+    /**
+     * 事务内调用时注册到提交后执行，否则立即执行
+     */
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * 缓存的排行榜
+     *
+     * @param board 排行榜（增删在原实例上修补）
+     * @param loadedAt 开始从数据库加载的时间（毫秒，修补不改变）
+     */
+    private record Cached(ScoreLeaderboard board, long loadedAt) {
+    }
+
+    /**
+     * 缓存键
+     */
+    private static String key(RankingScope scope, Long scopeId) {
+        return scope == RankingScope.ALL ? scope.name() : scope.name() + ":" + scopeId;
+    }
+}
@@ -0,0 +1,184 @@
+package com.lw.graduation.grade.service.internal;
+
+import com.lw.graduation.common.constant.CacheConstants;
+import com.lw.graduation.domain.entity.topic.BizTopic;
+import com.lw.graduation.domain.enums.grade.RankingScope;
+import com.lw.graduation.grade.service.calculator.ScoreRanking;
+import com.lw.graduation.infrastructure.cache.CacheGenerations;
+import com.lw.graduation.infrastructure.cache.CacheInvalidationBus;
+import com.lw.graduation.infrastructure.mapper.grade.BizGradeMapper;
+import com.lw.graduation.infrastructure.mapper.topic.BizTopicMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 成绩排名索引缓存
+ * 按范围（题目、院系、评分教师、全校）缓存已排序的成绩数组，首次访问时加载；
+ * 范围内成绩变更后在事务提交时移除对应索引，下次访问重新构建。
+ * 索引在映射锁外加载，移除前递增范围的代数，加载期间范围被失效时丢弃加载结果而不缓存。
+ * 移除经 CacheInvalidationBus 通知其他实例，索引另有过期时间，通知丢失时过期后重新构建。
+ *
+ * @author lw
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class GradeRankingIndex {
+
+    /** 索引过期时间（毫秒） */
+    private static final long INDEX_TTL_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    /** 跨实例通知：移除范围、清空 */
+    private static final String MESSAGE_EVICT = "evict:";
+    private static final String MESSAGE_EVICT_ALL = "all";
+
+    private final BizGradeMapper bizGradeMapper;
+    private final BizTopicMapper bizTopicMapper;
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    private final Map<String, Cached> rankings = new ConcurrentHashMap<>();
+
+    private final CacheGenerations<String> generations = new CacheGenerations<>();
+
+    @PostConstruct
+    public void subscribe() {
+        cacheInvalidationBus.subscribe(CacheConstants.Channel.GRADE_RANKING, this::onRemoteChange);
+    }
+
+    /**
+     * 获取范围内的排名索引
+     *
+     * @param scope 排名范围
+     * @param scopeId 范围ID（题目、院系或教师ID，全校范围忽略）
+     * @return 排名索引
+     */
+    public ScoreRanking get(RankingScope scope, Long scopeId) {
+        String key = key(scope, scopeId);
+        Cached cached = rankings.get(key);
+        if (cached != null) {
+            if (System.currentTimeMillis() - cached.loadedAt() < INDEX_TTL_MILLIS) {
+                return cached.ranking();
+            }
+            rankings.remove(key, cached);
+        }
+        long generation = generations.current(key);
+        long loadedAt = System.currentTimeMillis();
+        return generations.publish(rankings, key, generation, new Cached(load(scope, scopeId), loadedAt)).ranking();
+    }
+
+    /**
+     * 成绩发生变更，移除题目、所属院系、评分教师和全校范围的索引
+     * 事务内调用时延迟到提交后执行
+     *
+     * @param topicId 题目ID
+     * @param graderId 评分教师ID
+     */
+    public void invalidateGrade(Long topicId, Long graderId) {
+        if (topicId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(topicId, graderId);
+                }
+            });
+        } else {
+            evict(topicId, graderId);
+        }
+    }
+
+    /**
+     * 清空全部索引
+     */
+    public void invalidateAll() {
+        clear();
+        cacheInvalidationBus.publish(CacheConstants.Channel.GRADE_RANKING, MESSAGE_EVICT_ALL);
+    }
+
+    /**
+     * 移除成绩相关的索引并通知其他实例
+     */
+    private void evict(Long topicId, Long graderId) {
+        List<String> keys = new ArrayList<>(4);
+        keys.add(key(RankingScope.TOPIC, topicId));
+        keys.add(key(RankingScope.TEACHER, graderId));
+        keys.add(key(RankingScope.ALL, null));
+        BizTopic topic = bizTopicMapper.selectById(topicId);
+        if (topic != null && topic.getDepartmentId() != null) {
+            keys.add(key(RankingScope.DEPARTMENT, topic.getDepartmentId()));
+        }
+        keys.forEach(this::remove);
+        cacheInvalidationBus.publish(CacheConstants.Channel.GRADE_RANKING, MESSAGE_EVICT + String.join(",", keys));
+    }
+
+    /**
+     * 处理其他实例的通知：移除索引，不再转发
+     */
+    private void onRemoteChange(String message) {
+        if (message.startsWith(MESSAGE_EVICT)) {
+            for (String key : message.substring(MESSAGE_EVICT.length()).split(",")) {
+                remove(key);
+            }
+        } else {
+            clear();
+        }
+    }
+
+    private void clear() {
+        generations.bumpAll();
+        rankings.clear();
+    }
+
+    /**
+     * 递增范围代数后移除索引
+     */
+    private void remove(String key) {
+        generations.bump(key);
+        rankings.remove(key);
+    }
+
+    /**
+     * 查询范围内成绩并构建索引
+     */
+    private ScoreRanking load(RankingScope scope, Long scopeId) {
+        List<Integer> scores = switch (scope) {
+            case TOPIC -> bizGradeMapper.selectScoreHundredths(scopeId, null, null);
+            case DEPARTMENT -> bizGradeMapper.selectScoreHundredths(null, scopeId, null);
+            case TEACHER -> bizGradeMapper.selectScoreHundredths(null, null, scopeId);
+            case ALL -> bizGradeMapper.selectScoreHundredths(null, null, null);
+        };
+        int[] values = new int[scores.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = scores.get(i);
+        }
+        log.debug("构建成绩排名索引，范围: {}:{}，成绩数: {}", scope, scopeId, values.length);
+        return ScoreRanking.of(values);
+    }
+
+    /**
+     * 缓存的索引
+     *
+     * @param ranking 排名索引
+     * @param loadedAt 开始从数据库加载的时间（毫秒）
+     */
+    private record Cached(ScoreRanking ranking, long loadedAt) {
+    }
+
+    /**
+     * 缓存键
+     */
+    private static String key(RankingScope scope, Long scopeId) {
+        return scope == RankingScope.ALL ? scope.name() : scope.name() + ":" + scopeId;
+    }
+}
@@ -0,0 +1,246 @@
+package com.lw.graduation.grade.service.internal;
+
+import cn.hutool.core.util.IdUtil;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.lw.graduation.common.constant.CacheConstants;
+import com.lw.graduation.common.enums.ResponseCode;
+import com.lw.graduation.common.exception.BusinessException;
+import com.lw.graduation.common.util.CacheHelper;
+import com.lw.graduation.domain.entity.grade.BizGrade;
+import com.lw.graduation.domain.entity.grade.BizGradeSummary;
+import com.lw.graduation.domain.enums.grade.GradeLevel;
+import com.lw.graduation.domain.enums.grade.RankingScope;
+import com.lw.graduation.grade.service.calculator.ScoreKernel;
+import com.lw.graduation.infrastructure.mapper.grade.BizGradeSummaryMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 成绩统计汇总维护
+ * 在成绩录入、删除的同一事务内原子更新题目、院系、评分教师和全校四个范围的汇总行，
+ * 统计查询直接读取单行；全校范围按学生ID分为多个条带行，读取时合并，避免所有成绩写入争用同一行。
+ * 题目变更院系时在同一事务内把题目汇总从原院系行迁移到新院系行。
+ * 汇总表为空时（首次部署）启动即从成绩表重建，也可按需全量重建；重建持有集群锁，同一时刻只有一个节点执行。
+ *
+ * @author lw
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class GradeSummaryStore {
+
+    /** 全校范围的条带数，条带行的范围ID为 学生ID mod 条带数 */
+    private static final int ALL_STRIPES = 16;
+    /** 重建锁 */
+    private static final String REBUILD_LOCK_KEY = CacheConstants.KeyPrefix.LOCK + "grade:summary-rebuild";
+    /** 重建锁过期时间（秒），持有节点异常退出时自动释放 */
+    private static final int REBUILD_LOCK_EXPIRE_SECONDS = 600;
+
+    private final BizGradeSummaryMapper bizGradeSummaryMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheHelper cacheHelper;
+
+    /** 汇总表是否可用（初始化或重建成功后置位） */
+    private final AtomicBoolean ready = new AtomicBoolean(false);
+
+    /**
+     * 启动时汇总表为空则从成绩表重建；其他节点正在重建时跳过，由 isReady 在重建完成后置位
+     */
+    @PostConstruct
+    public void init() {
+        try {
+            if (bizGradeSummaryMapper.selectCount(null) == 0) {
+                rebuild();
+            }
+            ready.set(true);
+        } catch (BusinessException e) {
+            log.info("成绩统计汇总正在其他节点重建，完成前统计查询回退为实时聚合");
+        } catch (Exception e) {
+            log.error("成绩统计汇总初始化失败，统计查询将回退为实时聚合直至重建: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 汇总表是否可用于统计查询
+     * 启动时未就绪（其他节点正在重建）的节点在重建锁释放且汇总表非空后置位
+     *
+     * @return 可用返回true
+     */
+    public boolean isReady() {
+        if (!ready.get() && !cacheHelper.hasKey(REBUILD_LOCK_KEY)
+                && bizGradeSummaryMapper.selectCount(null) > 0) {
+            ready.set(true);
+        }
+        return ready.get();
+    }
+
+    /**
+     * 累加一条新录入的成绩（须在成绩写入的同一事务内调用）
+     *
+     * @param grade 成绩
+     * @param departmentId 题目所属院系ID
+     */
+    public void applyAdded(BizGrade grade, Long departmentId) {
+        for (BizGradeSummary delta : deltas(grade, departmentId)) {
+            bizGradeSummaryMapper.addGrade(delta);
+        }
+    }
+
+    /**
+     * 累加一批新录入的成绩（须在成绩写入的同一事务内调用）
+     * 先在内存中按范围合并增量，每个范围只执行一次累加
+     *
+     * @param grades 成绩
+     * @param topicDepartments 题目ID到所属院系ID的映射
+     */
+    public void applyAdded(Collection<BizGrade> grades, Map<Long, Long> topicDepartments) {
+        Map<String, BizGradeSummary> merged = new LinkedHashMap<>();
+        for (BizGrade grade : grades) {
+            for (BizGradeSummary delta : deltas(grade, topicDepartments.get(grade.getTopicId()))) {
+                merged.merge(delta.getScopeType() + ":" + delta.getScopeId(), delta, GradeSummaryStore::combine);
+            }
+        }
+        merged.values().forEach(bizGradeSummaryMapper::addGrade);
+    }
+
+    /**
+     * 扣减一条已删除的成绩（须在成绩逻辑删除之后、同一事务内调用）
+     *
+     * @param grade 成绩
+     * @param departmentId 题目所属院系ID
+     */
+    public void applyRemoved(BizGrade grade, Long departmentId) {
+        for (BizGradeSummary delta : deltas(grade, departmentId)) {
+            bizGradeSummaryMapper.subtractGrade(delta, ALL_STRIPES);
+        }
+    }
+
+    /**
+     * 读取范围汇总行
+     *
+     * @param scope 统计范围
+     * @param scopeId 范围ID（全校范围忽略）
+     * @return 汇总行，范围内无成绩时返回null
+     */
+    public BizGradeSummary get(RankingScope scope, Long scopeId) {
+        LambdaQueryWrapper<BizGradeSummary> wrapper = new LambdaQueryWrapper<>();
+        wrapper.eq(BizGradeSummary::getScopeType, scope.getValue());
+        if (scope != RankingScope.ALL) {
+            wrapper.eq(BizGradeSummary::getScopeId, scopeId);
+            return bizGradeSummaryMapper.selectOne(wrapper);
+        }
+        // 全校范围合并各条带行
+        List<BizGradeSummary> stripes = bizGradeSummaryMapper.selectList(wrapper);
+        return stripes.stream()
+                .filter(stripe -> stripe.getTotalCount() != null && stripe.getTotalCount() > 0)
+                .reduce(GradeSummaryStore::combine)
+                .orElse(null);
+    }
+
+    /**
+     * 从成绩表全量重建汇总（单事务：清空后按范围分组插入）
+     * 持有集群重建锁，其他节点正在重建时抛出业务异常
+     */
+    public void rebuild() {
+        String owner = IdUtil.fastSimpleUUID();
+        if (!cacheHelper.tryLock(REBUILD_LOCK_KEY, owner, REBUILD_LOCK_EXPIRE_SECONDS)) {
+            throw new BusinessException(ResponseCode.PARAM_ERROR.getCode(), "成绩统计汇总正在重建，请稍后再试");
+        }
+        try {
+            Map<String, BigDecimal> bounds = levelBounds();
+            transactionTemplate.executeWithoutResult(status -> {
+                bizGradeSummaryMapper.deleteAllSummaries();
+                for (RankingScope scope : RankingScope.values()) {
+                    bizGradeSummaryMapper.rebuildScope(scope.getValue(), bounds, ALL_STRIPES, ScoreKernel.gpaBands());
+                }
+            });
+        } finally {
+            cacheHelper.unlock(REBUILD_LOCK_KEY, owner);
+        }
+        ready.set(true);
+        log.info("成绩统计汇总重建完成");
+    }
+
+    /**
+     * 各等级下限，供SQL按等级分桶
+     *
+     * @return 等级下限参数
+     */
+    public static Map<String, BigDecimal> levelBounds() {
+        return Map.of(
+                "excellentMin", GradeLevel.EXCELLENT.getMinScore(),
+                "goodMin", GradeLevel.GOOD.getMinScore(),
+                "fairMin", GradeLevel.FAIR.getMinScore(),
+                "passMin", GradeLevel.PASS.getMinScore());
+    }
+
+    /**
+     * 构造一条成绩在四个范围上的增量
+     */
+    private BizGradeSummary[] deltas(BizGrade grade, Long departmentId) {
+        BizGradeSummary topic = delta(grade, RankingScope.TOPIC, grade.getTopicId());
+        BizGradeSummary teacher = delta(grade, RankingScope.TEACHER, grade.getGraderId());
+        BizGradeSummary all = delta(grade, RankingScope.ALL, (long) Math.floorMod(grade.getStudentId(), ALL_STRIPES));
+        if (departmentId == null) {
+            return new BizGradeSummary[]{topic, teacher, all};
+        }
+        return new BizGradeSummary[]{topic, delta(grade, RankingScope.DEPARTMENT, departmentId), teacher, all};
+    }
+
+    /**
+     * 合并同一范围的两条增量（或全校范围的两个条带行）
+     */
+    private static BizGradeSummary combine(BizGradeSummary a, BizGradeSummary b) {
+        a.setTotalCount(a.getTotalCount() + b.getTotalCount());
+        a.setSumScore(a.getSumScore().add(b.getSumScore()));
+        a.setSumSquare(a.getSumSquare().add(b.getSumSquare()));
+        a.setSumGpa(a.getSumGpa().add(b.getSumGpa()));
+        a.setMinScore(a.getMinScore() == null ? b.getMinScore()
+                : b.getMinScore() == null ? a.getMinScore() : a.getMinScore().min(b.getMinScore()));
+        a.setMaxScore(a.getMaxScore() == null ? b.getMaxScore()
+                : b.getMaxScore() == null ? a.getMaxScore() : a.getMaxScore().max(b.getMaxScore()));
+        a.setExcellentCount(a.getExcellentCount() + b.getExcellentCount());
+        a.setGoodCount(a.getGoodCount() + b.getGoodCount());
+        a.setFairCount(a.getFairCount() + b.getFairCount());
+        a.setPassCount(a.getPassCount() + b.getPassCount());
+        a.setFailCount(a.getFailCount() + b.getFailCount());
+        return a;
+    }
+
+    /**
+     * 构造单个范围的增量行
+     */
+    private BizGradeSummary delta(BizGrade grade, RankingScope scope, Long scopeId) {
+        // 与数据库 DECIMAL(5,2) 的存储精度一致
+        BigDecimal score = grade.getScore().setScale(ScoreKernel.SCALE, RoundingMode.HALF_UP);
+        int hundredths = ScoreKernel.toHundredths(score);
+        int level = ScoreKernel.levelIndex(hundredths);
+
+        BizGradeSummary delta = new BizGradeSummary();
+        delta.setScopeType(scope.getValue());
+        delta.setScopeId(scopeId);
+        delta.setTotalCount(1);
+        delta.setSumScore(score);
+        delta.setSumSquare(score.multiply(score));
+        delta.setSumGpa(ScoreKernel.gpaDecimal(hundredths));
+        delta.setMinScore(score);
+        delta.setMaxScore(score);
+        delta.setExcellentCount(level == ScoreKernel.LEVEL_EXCELLENT ? 1 : 0);
+        delta.setGoodCount(level == ScoreKernel.LEVEL_GOOD ? 1 : 0);
+        delta.setFairCount(level == ScoreKernel.LEVEL_FAIR ? 1 : 0);
+        delta.setPassCount(level == ScoreKernel.LEVEL_PASS ? 1 : 0);
+        delta.setFailCount(level == ScoreKernel.LEVEL_FAIL ? 1 : 0);
+        return delta;
+    }
+}
@@ -0,0 +1,204 @@
+package com.lw.graduation.grade.service.calculator.impl;
+
+import com.lw.graduation.domain.enums.grade.GradeLevel;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * GradeCalculatorServiceImpl 与 BigDecimal 逐项计算的等价性测试
+ * Reference 为定点数内核引入前的 BigDecimal 实现；比较使用 BigDecimal.equals，数值与精度都必须一致。
+ * 随机数据共20万个成绩（固定种子），覆盖0~2位小数、末尾补零、空值、超出0~100的成绩与零权重。
+ *
+ * @author lw
+ */
+class GradeCalculatorServiceImplTest {
+
+    private static final int LISTS = 2000;
+    private static final int LIST_SIZE = 100;
+
+    private final GradeCalculatorServiceImpl calculator = new GradeCalculatorServiceImpl();
+
+    @Test
+    void matchesReferenceOnRandomLists() {
+        Random random = new Random(20240601L);
+        for (int i = 0; i < LISTS; i++) {
+            List<BigDecimal> scores = randomScores(random, LIST_SIZE);
+            List<BigDecimal> weights = randomWeights(random, LIST_SIZE);
+            BigDecimal target = randomScore(random);
+
+            assertEquals(Reference.total(scores), calculator.calculateTotal(scores), "total " + scores);
+            assertEquals(Reference.average(scores), calculator.calculateAverage(scores), "average " + scores);
+            assertEquals(Reference.averageGpa(scores), calculator.calculateAverageGPA(scores), "averageGPA " + scores);
+            assertEquals(Reference.weightedAverage(scores, weights), calculator.calculateWeightedAverage(scores, weights),
+                    "weightedAverage " + scores + " " + weights);
+            assertEquals(Reference.percentileRank(target, scores), calculator.calculatePercentileRank(target, scores),
+                    "percentileRank " + target + " " + scores);
+            for (BigDecimal score : scores) {
+                assertEquals(Reference.gpa(score), calculator.calculateGPA(score), "GPA " + score);
+            }
+        }
+    }
+
+    @Test
+    void matchesReferenceOnEveryTableScore() {
+        for (int hundredths = -100; hundredths <= 10100; hundredths++) {
+            BigDecimal score = BigDecimal.valueOf(hundredths, 2);
+            assertEquals(Reference.gpa(score), calculator.calculateGPA(score), "GPA " + score);
+        }
+    }
+
+    @Test
+    void keepsInputScaleForTotals() {
+        assertEquals(new BigDecimal("175"), calculator.calculateTotal(List.of(new BigDecimal("85"), new BigDecimal("90"))));
+        assertEquals(new BigDecimal("175.5"), calculator.calculateTotal(List.of(new BigDecimal("85.5"), new BigDecimal("90"))));
+        assertEquals(new BigDecimal("171.000"),
+                calculator.calculateTotal(List.of(new BigDecimal("85.500"), new BigDecimal("85.5"))));
+        assertEquals(BigDecimal.ZERO, calculator.calculateTotal(Arrays.asList(null, null)));
+    }
+
+    @Test
+    void returnsZeroForZeroWeights() {
+        List<BigDecimal> scores = List.of(new BigDecimal("85"), new BigDecimal("90"));
+        List<BigDecimal> weights = List.of(BigDecimal.ZERO, new BigDecimal("0.00"));
+        assertEquals(BigDecimal.ZERO, calculator.calculateWeightedAverage(scores, weights));
+    }
+
+    private static List<BigDecimal> randomScores(Random random, int size) {
+        List<BigDecimal> scores = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            scores.add(random.nextInt(50) == 0 ? null : randomScore(random));
+        }
+        return scores;
+    }
+
+    private static BigDecimal randomScore(Random random) {
+        // 少量超出0~100的成绩走查表范围外的换算
+        int hundredths = random.nextInt(20) == 0 ? random.nextInt(12000) - 1000 : random.nextInt(10001);
+        return switch (random.nextInt(4)) {
+            case 0 -> BigDecimal.valueOf(hundredths / 100);
+            case 1 -> BigDecimal.valueOf(hundredths / 10, 1);
+            case 2 -> BigDecimal.valueOf(hundredths, 2);
+            default -> BigDecimal.valueOf(hundredths, 2).setScale(3, RoundingMode.UNNECESSARY);
+        };
+    }
+
+    private static List<BigDecimal> randomWeights(Random random, int size) {
+        List<BigDecimal> weights = new ArrayList<>(size);
+        boolean allZero = random.nextInt(100) == 0;
+        for (int i = 0; i < size; i++) {
+            if (random.nextInt(50) == 0) {
+                weights.add(null);
+            } else if (allZero) {
+                weights.add(BigDecimal.ZERO);
+            } else {
+                weights.add(BigDecimal.valueOf(random.nextInt(101), random.nextBoolean() ? 1 : 2));
+            }
+        }
+        return weights;
+    }
+
+    /**
+     * 引入定点数内核之前的 BigDecimal 实现
+     */
+    private static final class Reference {
+
+        private static final int SCALE = 2;
+        private static final RoundingMode ROUNDING_MODE = RoundingMode.HALF_UP;
+
+        static BigDecimal weightedAverage(List<BigDecimal> scores, List<BigDecimal> weights) {
+            BigDecimal weightedSum = BigDecimal.ZERO;
+            BigDecimal weightSum = BigDecimal.ZERO;
+            for (int i = 0; i < scores.size(); i++) {
+                BigDecimal score = scores.get(i);
+                BigDecimal weight = weights.get(i);
+                if (score != null && weight != null) {
+                    weightedSum = weightedSum.add(score.multiply(weight));
+                    weightSum = weightSum.add(weight);
+                }
+            }
+            if (weightSum.compareTo(BigDecimal.ZERO) == 0) {
+                return BigDecimal.ZERO;
+            }
+            return weightedSum.divide(weightSum, SCALE, ROUNDING_MODE);
+        }
+
+        static BigDecimal average(List<BigDecimal> scores) {
+            BigDecimal sum = BigDecimal.ZERO;
+            int validCount = 0;
+            for (BigDecimal score : scores) {
+                if (score != null) {
+                    sum = sum.add(score);
+                    validCount++;
+                }
+            }
+            if (validCount == 0) {
+                return BigDecimal.ZERO;
+            }
+            return sum.divide(new BigDecimal(validCount), SCALE, ROUNDING_MODE);
+        }
+
+        static BigDecimal total(List<BigDecimal> scores) {
+            BigDecimal sum = BigDecimal.ZERO;
+            for (BigDecimal score : scores) {
+                if (score != null) {
+                    sum = sum.add(score);
+                }
+            }
+            return sum;
+        }
+
+        static BigDecimal gpa(BigDecimal score) {
+            if (score == null) {
+                return BigDecimal.ZERO;
+            }
+            GradeLevel level = GradeLevel.getByScore(score);
+            if (level != null) {
+                return level.getAverageGPA();
+            }
+            return switch (score.intValue() / 10) {
+                case 10, 9 -> new BigDecimal("4.0");
+                case 8 -> score.compareTo(new BigDecimal("85")) >= 0 ?
+                         new BigDecimal("3.7") : new BigDecimal("3.3");
+                case 7 -> score.compareTo(new BigDecimal("75")) >= 0 ?
+                         (score.compareTo(new BigDecimal("78")) >= 0 ? new BigDecimal("3.0") : new BigDecimal("2.7")) :
+                         (score.compareTo(new BigDecimal("72")) >= 0 ? new BigDecimal("2.3") : new BigDecimal("2.0"));
+                case 6 -> score.compareTo(new BigDecimal("60")) >= 0 ?
+                         (score.compareTo(new BigDecimal("64")) >= 0 ? new BigDecimal("1.5") : new BigDecimal("1.0")) :
+                         BigDecimal.ZERO;
+                default -> BigDecimal.ZERO;
+            };
+        }
+
+        static BigDecimal averageGpa(List<BigDecimal> scores) {
+            BigDecimal gpaSum = BigDecimal.ZERO;
+            int validCount = 0;
+            for (BigDecimal score : scores) {
+                if (score != null) {
+                    gpaSum = gpaSum.add(gpa(score));
+                    validCount++;
+                }
+            }
+            if (validCount == 0) {
+                return BigDecimal.ZERO;
+            }
+            return gpaSum.divide(new BigDecimal(validCount), SCALE, ROUNDING_MODE);
+        }
+
+        static BigDecimal percentileRank(BigDecimal score, List<BigDecimal> allScores) {
+            long lowerCount = allScores.stream()
+                    .filter(s -> s != null && s.compareTo(score) < 0)
+                    .count();
+            return new BigDecimal(lowerCount)
+                    .multiply(new BigDecimal("100"))
+                    .divide(new BigDecimal(allScores.size()), SCALE, ROUNDING_MODE);
+        }
+    }
+}
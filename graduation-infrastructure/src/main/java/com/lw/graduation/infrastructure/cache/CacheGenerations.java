@@ -0,0 +1,58 @@
+package com.lw.graduation.infrastructure.cache;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 按缓存键记录的代数
+ * 缓存在映射锁外加载：加载前记录键的代数，失效或变更时先递增代数再修改缓存；
+ * 发布加载结果时代数已变化说明加载期间有变更提交，加载结果可能缺少该变更，只返回给本次调用而不写入缓存。
+ *
+ * @param <K> 缓存键类型
+ * @author lw
+ */
+public final class CacheGenerations<K> {
+
+    private final Map<K, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    /**
+     * 读取键的当前代数（开始加载前调用）
+     */
+    public long current(K key) {
+        return generations.computeIfAbsent(key, k -> new AtomicLong()).get();
+    }
+
+    /**
+     * 递增键的代数（修改或移除缓存前调用）
+     */
+    public void bump(K key) {
+        generations.computeIfAbsent(key, k -> new AtomicLong()).incrementAndGet();
+    }
+
+    /**
+     * 递增全部键的代数（清空缓存前调用）
+     */
+    public void bumpAll() {
+        generations.values().forEach(AtomicLong::incrementAndGet);
+    }
+
+    /**
+     * 发布加载结果：已有缓存时返回缓存值；代数未变化时写入缓存，否则丢弃
+     *
+     * @param cache 缓存映射
+     * @param key 缓存键
+     * @param generation 加载前读取的代数
+     * @param loaded 加载结果
+     * @return 缓存值或本次加载结果
+     */
+    public <V> V publish(Map<K, V> cache, K key, long generation, V loaded) {
+        V published = cache.compute(key, (k, cached) -> {
+            if (cached != null) {
+                return cached;
+            }
+            return current(k) == generation ? loaded : null;
+        });
+        return published != null ? published : loaded;
+    }
+}
@@ -0,0 +1,70 @@
+package com.lw.graduation.infrastructure.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * 跨实例缓存失效通知
+ * 本地内存缓存（题目目录快照、排行榜、排名索引等）只在发生写入的实例上修补，
+ * 其他实例经 Redis 发布订阅收到通知后各自失效或修补。消息带发送实例标识，发送实例忽略自己的消息。
+ * Redis 不可用时通知丢失，由各本地缓存的过期时间兜底。
+ *
+ * @author lw
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CacheInvalidationBus {
+
+    /** 实例标识与消息内容的分隔符 */
+    private static final char SEPARATOR = '|';
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer cacheInvalidationListenerContainer;
+
+    /** 本实例标识 */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    /**
+     * 订阅频道上其他实例发布的通知
+     *
+     * @param channel 频道
+     * @param listener 通知处理（参数为消息内容）
+     */
+    public void subscribe(String channel, Consumer<String> listener) {
+        cacheInvalidationListenerContainer.addMessageListener((message, pattern) -> {
+            String body = new String(message.getBody(), StandardCharsets.UTF_8);
+            int index = body.indexOf(SEPARATOR);
+            if (index < 0 || nodeId.equals(body.substring(0, index))) {
+                return;
+            }
+            try {
+                listener.accept(body.substring(index + 1));
+            } catch (Exception e) {
+                log.warn("处理缓存失效通知失败: {} -> {}", channel, body, e);
+            }
+        }, new ChannelTopic(channel));
+    }
+
+    /**
+     * 向其他实例发布通知（须在事务提交后调用），发布失败时只记录日志
+     *
+     * @param channel 频道
+     * @param payload 消息内容
+     */
+    public void publish(String channel, String payload) {
+        try {
+            stringRedisTemplate.convertAndSend(channel, nodeId + SEPARATOR + payload);
+        } catch (Exception e) {
+            log.warn("发布缓存失效通知失败: {}, error: {}", channel, e.getMessage());
+        }
+    }
+}
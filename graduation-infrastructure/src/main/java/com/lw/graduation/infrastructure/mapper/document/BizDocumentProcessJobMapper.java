@@ -0,0 +1,14 @@
+package com.lw.graduation.infrastructure.mapper.document;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.lw.graduation.domain.entity.document.BizDocumentProcessJob;
+
+/**
+ * <p>
+ * 文档处理任务表 Mapper 接口
+ * </p>
+ *
+ * @author lw
+ */
+public interface BizDocumentProcessJobMapper extends BaseMapper<BizDocumentProcessJob> {
+}
@@ -0,0 +1,14 @@
+package com.lw.graduation.infrastructure.mapper.document;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.lw.graduation.domain.entity.document.BizUploadSession;
+
+/**
+ * <p>
+ * 分片上传会话表 Mapper 接口
+ * </p>
+ *
+ * @author lw
+ */
+public interface BizUploadSessionMapper extends BaseMapper<BizUploadSession> {
+}
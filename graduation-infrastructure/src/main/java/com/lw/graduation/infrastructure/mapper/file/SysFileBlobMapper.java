@@ -0,0 +1,41 @@
+package com.lw.graduation.infrastructure.mapper.file;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.lw.graduation.domain.entity.file.SysFileBlob;
+import org.apache.ibatis.annotations.Param;
+
+/**
+ * <p>
+ * 文件内容表 Mapper 接口
+ * </p>
+ *
+ * @author lw
+ */
+public interface SysFileBlobMapper extends BaseMapper<SysFileBlob> {
+
+    /**
+     * 增加一次引用（内容不存在时以引用数1插入），单条原子语句
+     *
+     * @param hash 内容摘要
+     * @param fileSize 文件大小
+     * @return 影响行数
+     */
+    int acquire(@Param("hash") String hash, @Param("fileSize") long fileSize);
+
+    /**
+     * 减少一次引用
+     *
+     * @param hash 内容摘要
+     * @return 影响行数
+     */
+    int release(@Param("hash") String hash);
+
+    /**
+     * 删除引用数为0的内容记录
+     *
+     * @param hash 内容摘要
+     * @return 删除行数（1表示内容已无引用，可回收文件）
+     */
+    int deleteUnreferenced(@Param("hash") String hash);
+
+}
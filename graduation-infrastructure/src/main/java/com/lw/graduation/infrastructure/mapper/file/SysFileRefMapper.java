@@ -0,0 +1,14 @@
+package com.lw.graduation.infrastructure.mapper.file;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.lw.graduation.domain.entity.file.SysFileRef;
+
+/**
+ * <p>
+ * 文件引用表 Mapper 接口
+ * </p>
+ *
+ * @author lw
+ */
+public interface SysFileRefMapper extends BaseMapper<SysFileRef> {
+}
@@ -0,0 +1,55 @@
+package com.lw.graduation.infrastructure.mapper.file;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.lw.graduation.domain.entity.file.SysStorageUsage;
+import org.apache.ibatis.annotations.Param;
+
+/**
+ * <p>
+ * 存储用量表 Mapper 接口
+ * </p>
+ *
+ * @author lw
+ */
+public interface SysStorageUsageMapper extends BaseMapper<SysStorageUsage> {
+
+    /**
+     * 累加用量（记录不存在时插入），单条原子语句，结果不小于0
+     *
+     * @param scope 统计范围
+     * @param ownerId 用户ID/题目ID/院系ID
+     * @param deltaBytes 空间变化量(字节)
+     * @param deltaFiles 文件数变化量
+     * @return 影响行数
+     */
+    int add(@Param("scope") int scope, @Param("ownerId") Long ownerId,
+            @Param("deltaBytes") long deltaBytes, @Param("deltaFiles") int deltaFiles);
+
+    /**
+     * 条件预占用量：累加后不超过配额时才更新（记录须已存在），单条原子语句
+     *
+     * @param scope 统计范围
+     * @param ownerId 用户ID/题目ID/院系ID
+     * @param bytes 预占字节数
+     * @param files 预占文件数
+     * @param limit 配额（字节），小于等于0表示不限制
+     * @return 影响行数，超出配额时为0
+     */
+    int reserve(@Param("scope") int scope, @Param("ownerId") Long ownerId, @Param("bytes") long bytes,
+                @Param("files") int files, @Param("limit") long limit);
+
+    /**
+     * 清空全部用量记录
+     *
+     * @return 删除行数
+     */
+    int deleteAll();
+
+    /**
+     * 按未删除的文档重新汇总全部用量（先清空再插入，用于修正累计偏差）
+     *
+     * @return 插入行数
+     */
+    int rebuildFromDocuments();
+
+}
@@ -0,0 +1,25 @@
+package com.lw.graduation.infrastructure.mapper.grade;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.lw.graduation.domain.entity.grade.BizGradeComposite;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * <p>
+ * 综合成绩表 Mapper 接口
+ * </p>
+ *
+ * @author lw
+ */
+public interface BizGradeCompositeMapper extends BaseMapper<BizGradeComposite> {
+
+    /**
+     * 批量写入综合成绩（已存在的学生题目覆盖更新），单条多值语句
+     *
+     * @param composites 综合成绩
+     * @return 影响行数
+     */
+    int upsertBatch(@Param("list") List<BizGradeComposite> composites);
+}
@@ -2,6 +2,13 @@ package com.lw.graduation.infrastructure.mapper.grade;
 
 import com.lw.graduation.domain.entity.grade.BizGrade;
 import com.lw.graduation.infrastructure.mapper.MyBaseMapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
 
 /**
  * <p>
@@ -15,7 +22,63 @@ public interface BizGradeMapper extends MyBaseMapper<BizGrade> {
     // 继承MyBaseMapper的通用方法
     // selectDetailsWithRelations - 批量查询成绩详情及关联信息
     // selectBatchWithOrder - 增强版批量查询
-    // selectStatistics - 通用统计方法
+    // selectStatistics - 成绩聚合统计（计数、总分、最值、绩点和及各等级人数，支持题目/教师/院系/及格过滤）
+
+    /**
+     * 查询范围内全部成绩（以百分之一分为单位的整数，85.50 -> 8550）
+     * 只返回分数列，供排名索引构建使用
+     *
+     * @param topicId 题目ID（为空不限）
+     * @param departmentId 题目所属院系ID（为空不限）
+     * @param graderId 评分教师ID（为空不限）
+     * @return 定点成绩列表
+     */
+    List<Integer> selectScoreHundredths(@Param("topicId") Long topicId, @Param("departmentId") Long departmentId,
+                                        @Param("graderId") Long graderId);
+
+    /**
+     * 查询范围内全部成绩，只填充成绩ID、学生ID、题目ID和成绩，供排行榜构建使用
+     *
+     * @param topicId 题目ID（为空不限）
+     * @param departmentId 题目所属院系ID（为空不限）
+     * @param graderId 评分教师ID（为空不限）
+     * @return 成绩列表
+     */
+    List<BizGrade> selectRankingEntries(@Param("topicId") Long topicId, @Param("departmentId") Long departmentId,
+                                        @Param("graderId") Long graderId);
+
+    /**
+     * 按（学生ID, 题目ID）顺序流式读取断点之后的全部有效成绩
+     * 使用服务端游标逐行返回，须在事务内消费；只填充学生ID、题目ID、成绩和评分教师ID
+     *
+     * @param lastStudentId 断点学生ID（为空时从头读取）
+     * @param lastTopicId 断点题目ID
+     * @return 成绩游标
+     */
+    Cursor<BizGrade> streamGradesAfter(@Param("lastStudentId") Long lastStudentId,
+                                       @Param("lastTopicId") Long lastTopicId);
+
+    /**
+     * 统计断点之后的学生题目组合数
+     *
+     * @param lastStudentId 断点学生ID（为空时统计全部）
+     * @param lastTopicId 断点题目ID
+     * @return 组合数
+     */
+    int countGradePairsAfter(@Param("lastStudentId") Long lastStudentId, @Param("lastTopicId") Long lastTopicId);
 
-    // 特定业务方法可在此添加
+    /**
+     * 流式导出成绩（关联学生、题目、院系、指导教师与评分教师信息）
+     * 结果逐行回调，不在内存中缓存整个结果集；回调结束前占用数据库连接
+     *
+     * @param studentId 学生ID（为空不限）
+     * @param topicId 题目ID（为空不限）
+     * @param graderId 评分教师ID（为空不限）
+     * @param minScore 最低成绩（为空不限）
+     * @param maxScore 最高成绩（为空不限）
+     * @param handler 行回调
+     */
+    void exportGrades(@Param("studentId") Long studentId, @Param("topicId") Long topicId,
+                      @Param("graderId") Long graderId, @Param("minScore") BigDecimal minScore,
+                      @Param("maxScore") BigDecimal maxScore, ResultHandler<Map<String, Object>> handler);
 }
@@ -0,0 +1,14 @@
+package com.lw.graduation.infrastructure.mapper.grade;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.lw.graduation.domain.entity.grade.BizGradeRecomputeJob;
+
+/**
+ * <p>
+ * 综合成绩重算任务表 Mapper 接口
+ * </p>
+ *
+ * @author lw
+ */
+public interface BizGradeRecomputeJobMapper extends BaseMapper<BizGradeRecomputeJob> {
+}
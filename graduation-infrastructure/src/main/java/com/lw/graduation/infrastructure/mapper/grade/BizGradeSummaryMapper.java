@@ -0,0 +1,56 @@
+package com.lw.graduation.infrastructure.mapper.grade;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.lw.graduation.domain.entity.grade.BizGradeSummary;
+import org.apache.ibatis.annotations.Param;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ * 成绩统计汇总表 Mapper 接口
+ * </p>
+ *
+ * @author lw
+ */
+public interface BizGradeSummaryMapper extends BaseMapper<BizGradeSummary> {
+
+    /**
+     * 累加一条成绩（汇总行不存在时插入）
+     *
+     * @param delta 单条成绩的增量（totalCount=1，等级人数中对应等级为1）
+     * @return 影响行数
+     */
+    int addGrade(@Param("delta") BizGradeSummary delta);
+
+    /**
+     * 扣减一条成绩；被删除的成绩等于最低分或最高分时，从成绩表重新取最值
+     * 须在成绩逻辑删除之后、同一事务内调用
+     *
+     * @param delta 单条成绩的增量
+     * @param stripes 全校范围的条带数
+     * @return 影响行数
+     */
+    int subtractGrade(@Param("delta") BizGradeSummary delta, @Param("stripes") int stripes);
+
+    /**
+     * 删除全部汇总行
+     *
+     * @return 删除行数
+     */
+    int deleteAllSummaries();
+
+    /**
+     * 从成绩表按范围重建汇总行
+     *
+     * @param scopeType 统计范围
+     * @param bounds 等级下限（excellentMin、goodMin、fairMin、passMin）
+     * @param stripes 全校范围的条带数（按 学生ID mod 条带数 分组）
+     * @param gpaBands 绩点分段（minScore、maxScore 均含，gpa）
+     * @return 插入行数
+     */
+    int rebuildScope(@Param("scopeType") int scopeType, @Param("bounds") Map<String, BigDecimal> bounds,
+                     @Param("stripes") int stripes, @Param("gpaBands") List<Map<String, BigDecimal>> gpaBands);
+}
@@ -2,6 +2,10 @@ package com.lw.graduation.infrastructure.mapper.selection;
 
 import com.lw.graduation.domain.entity.selection.BizSelection;
 import com.lw.graduation.infrastructure.mapper.MyBaseMapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.util.Map;
 
 /**
  * <p>
@@ -18,4 +22,16 @@ public interface BizSelectionMapper extends MyBaseMapper<BizSelection> {
     // selectStatistics - 通用统计方法
 
     // 特定业务方法可在此添加
+
+    /**
+     * 流式导出选题记录（关联学生、题目、院系、指导教师与审核人信息）
+     * 结果逐行回调，不在内存中缓存整个结果集；回调结束前占用数据库连接
+     *
+     * @param studentId 学生ID（为空不限）
+     * @param topicId 题目ID（为空不限）
+     * @param status 选题状态（为空不限）
+     * @param handler 行回调
+     */
+    void exportSelections(@Param("studentId") Long studentId, @Param("topicId") Long topicId,
+                          @Param("status") Integer status, ResultHandler<Map<String, Object>> handler);
 }
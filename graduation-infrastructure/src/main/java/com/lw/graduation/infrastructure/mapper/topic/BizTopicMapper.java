@@ -17,5 +17,30 @@ public interface BizTopicMapper extends MyBaseMapper<BizTopic> {
     // selectBatchWithOrder - 增强版批量查询
     // selectStatistics - 通用统计方法
 
-    // 特定业务方法可在此添加
+    /**
+     * 条件转换题目状态（当前状态在 fromStatuses 中才更新）
+     * 设置了 blockingSelectionStatuses 时，仅在题目下不存在这些状态的选题时更新
+     *
+     * @param transition 转换参数
+     * @return 影响行数（0 表示条件不满足）
+     */
+    int transitStatus(TopicTransition transition);
+
+    /**
+     * 确认选题：已选人数加一，按容量置为已选或满员状态，单条语句完成
+     * 回填 packedState
+     *
+     * @param transition 转换参数（fromStatuses、targetStatus、fullStatus）
+     * @return 影响行数（0 表示状态不允许或名额已满）
+     */
+    int confirmSelection(TopicTransition transition);
+
+    /**
+     * 释放选题名额：已选人数减一（不低于0），状态不变
+     * 回填 packedState
+     *
+     * @param transition 转换参数
+     * @return 影响行数（0 表示已选人数已为0）
+     */
+    int releaseSelection(TopicTransition transition);
 }
@@ -0,0 +1,69 @@
+package com.lw.graduation.infrastructure.mapper.topic;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 题目状态转换参数
+ * 用于 BizTopicMapper 中的条件更新（CAS）语句，
+ * 语句执行后通过 LAST_INSERT_ID 回填转换后的状态，调用方无需再次查询。
+ *
+ * @author lw
+ */
+@Data
+public class TopicTransition {
+
+    /**
+     * 状态打包基数：packedState = selectedCount * STATE_RADIX + status
+     */
+    public static final long STATE_RADIX = 10;
+
+    /**
+     * 题目ID
+     */
+    private Long topicId;
+
+    /**
+     * 允许转换的当前状态
+     */
+    private List<Integer> fromStatuses;
+
+    /**
+     * 目标状态
+     */
+    private Integer targetStatus;
+
+    /**
+     * 满员时的目标状态（仅确认选题使用）
+     */
+    private Integer fullStatus;
+
+    /**
+     * 阻止转换的选题状态：存在这些状态的选题时不转换（仅恢复开放使用）
+     */
+    private List<Integer> blockingSelectionStatuses;
+
+    /**
+     * 回填：转换后打包的状态（selectedCount * 10 + status）
+     */
+    private Long packedState;
+
+    /**
+     * 转换后的已选人数
+     *
+     * @return 已选人数，未回填时为null
+     */
+    public Integer getResultSelectedCount() {
+        return packedState != null ? (int) (packedState / STATE_RADIX) : null;
+    }
+
+    /**
+     * 转换后的状态
+     *
+     * @return 状态值，未回填时为null
+     */
+    public Integer getResultStatus() {
+        return packedState != null ? (int) (packedState % STATE_RADIX) : null;
+    }
+}
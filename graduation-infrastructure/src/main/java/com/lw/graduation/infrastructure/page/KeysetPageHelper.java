@@ -0,0 +1,131 @@
+package com.lw.graduation.infrastructure.page;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
+import com.lw.graduation.common.base.BasePageQueryDTO;
+import com.lw.graduation.common.base.CursorPage;
+import com.lw.graduation.common.constant.CommonConstants;
+import com.lw.graduation.common.enums.ResponseCode;
+import com.lw.graduation.common.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 键集分页（seek）工具
+ * 按 (时间列, 主键) 倒序排列，下一页条件为
+ * {@code time < t OR (time = t AND id < id)}，每次只读取 size + 1 行判断是否有下一页，
+ * 不产生 OFFSET 扫描。游标对调用方不透明，内容为上一页最后一行的排序键。
+ *
+ * @author lw
+ */
+public final class KeysetPageHelper {
+
+    private static final String SEPARATOR = "|";
+
+    private KeysetPageHelper() {
+    }
+
+    /**
+     * 执行键集分页查询
+     *
+     * @param mapper 实体Mapper
+     * @param wrapper 仅包含过滤条件的查询构造器（不要预先设置排序）
+     * @param timeColumn 时间排序列（非空列）
+     * @param idColumn 主键列
+     * @param query 分页参数（cursor、size、searchCount）
+     * @param converter 实体列表转VO列表
+     * @param <T> 实体类型
+     * @param <V> VO类型
+     * @return 游标分页结果
+     */
+    public static <T, V> CursorPage<V> selectPage(BaseMapper<T> mapper,
+                                                  LambdaQueryWrapper<T> wrapper,
+                                                  SFunction<T, LocalDateTime> timeColumn,
+                                                  SFunction<T, Long> idColumn,
+                                                  BasePageQueryDTO query,
+                                                  Function<List<T>, List<V>> converter) {
+        int size = resolveSize(query.getSize());
+
+        // 1. 按需统计总数（在追加游标条件之前）
+        Long total = query.isCountRequired() ? mapper.selectCount(wrapper) : null;
+
+        // 2. 追加游标条件和排序，多取一行用于判断是否有下一页
+        Cursor cursor = decode(query.getCursor());
+        if (cursor != null) {
+            wrapper.and(w -> w.lt(timeColumn, cursor.time())
+                    .or(o -> o.eq(timeColumn, cursor.time()).lt(idColumn, cursor.id())));
+        }
+        wrapper.orderByDesc(timeColumn).orderByDesc(idColumn);
+        wrapper.last("LIMIT " + (size + 1));
+
+        List<T> rows = mapper.selectList(wrapper);
+        boolean hasMore = rows.size() > size;
+        if (hasMore) {
+            rows = rows.subList(0, size);
+        }
+
+        // 3. 组装结果
+        CursorPage<V> page = new CursorPage<>();
+        page.setRecords(converter.apply(rows));
+        page.setSize(size);
+        page.setHasMore(hasMore);
+        page.setTotal(total);
+        if (hasMore) {
+            T last = rows.getLast();
+            page.setNextCursor(encode(timeColumn.apply(last), idColumn.apply(last)));
+        }
+        return page;
+    }
+
+    /**
+     * 编码游标
+     *
+     * @param time 排序时间
+     * @param id 主键
+     * @return 游标字符串
+     */
+    public static String encode(LocalDateTime time, Long id) {
+        String raw = time + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解码游标
+     *
+     * @param cursor 游标字符串
+     * @return 游标，空字符串返回null
+     */
+    private static Cursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int index = raw.lastIndexOf(SEPARATOR);
+            return new Cursor(LocalDateTime.parse(raw.substring(0, index)), Long.parseLong(raw.substring(index + 1)));
+        } catch (RuntimeException e) {
+            throw new BusinessException(ResponseCode.PARAM_ERROR.getCode(), "无效的分页游标");
+        }
+    }
+
+    /**
+     * 规范每页大小
+     */
+    private static int resolveSize(Integer size) {
+        if (size == null || size < CommonConstants.Numbers.MIN_SIZE) {
+            return CommonConstants.Numbers.DEFAULT_SIZE;
+        }
+        return Math.min(size, CommonConstants.Numbers.MAX_SIZE);
+    }
+
+    /**
+     * 游标内容：上一页最后一行的排序键
+     */
+    private record Cursor(LocalDateTime time, Long id) {
+    }
+}
@@ -0,0 +1,167 @@
+package com.lw.graduation.infrastructure.search;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * CJK二元分词器
+ * 拉丁字母和数字按连续片段切分为小写词，中日韩文字按相邻两字切分为二元词，
+ * 单独出现的汉字作为一元词保留。索引和查询使用同一套规则，保证命中一致。
+ * 索引时拉丁词额外输出驼峰、字母数字边界拆出的子词以及词和子词的前缀，查询词只需是其中之一即可命中，
+ * 如 "spring"、"boot"、"springb" 都能命中 "SpringBoot"。
+ *
+ * @author lw
+ */
+public final class CjkBigramTokenizer {
+
+    /** 拉丁词前缀最小长度（更短的关键词由调用方回退为模糊查询） */
+    private static final int MIN_PREFIX_LENGTH = 3;
+    /** 拉丁词前缀最大长度（更长的关键词需完整匹配词或子词） */
+    private static final int MAX_PREFIX_LENGTH = 16;
+
+    private CjkBigramTokenizer() {
+    }
+
+    /**
+     * 对查询文本进行分词
+     *
+     * @param text 待分词文本
+     * @return 词项列表（保留重复项）
+     */
+    public static List<String> tokenize(String text) {
+        return tokenize(text, false);
+    }
+
+    /**
+     * 对待索引文本进行分词，拉丁词额外输出子词与前缀
+     *
+     * @param text 待分词文本
+     * @return 词项列表（保留重复项，用于统计词频）
+     */
+    public static List<String> tokenizeForIndex(String text) {
+        return tokenize(text, true);
+    }
+
+    private static List<String> tokenize(String text, boolean expand) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+
+        StringBuilder word = new StringBuilder();
+        StringBuilder cjkRun = new StringBuilder();
+
+        int i = 0;
+        while (i < text.length()) {
+            int codePoint = text.codePointAt(i);
+            i += Character.charCount(codePoint);
+
+            if (isCjk(codePoint)) {
+                flushWord(word, tokens, expand);
+                cjkRun.appendCodePoint(codePoint);
+            } else if (Character.isLetterOrDigit(codePoint)) {
+                flushCjkRun(cjkRun, tokens);
+                word.appendCodePoint(codePoint);
+            } else {
+                flushWord(word, tokens, expand);
+                flushCjkRun(cjkRun, tokens);
+            }
+        }
+        flushWord(word, tokens, expand);
+        flushCjkRun(cjkRun, tokens);
+        return tokens;
+    }
+
+    /**
+     * 输出当前拉丁词（小写），索引时追加子词与前缀（同一个词内去重）
+     */
+    private static void flushWord(StringBuilder word, List<String> tokens, boolean expand) {
+        if (word.isEmpty()) {
+            return;
+        }
+        String original = word.toString();
+        String lower = original.toLowerCase();
+        tokens.add(lower);
+        word.setLength(0);
+        if (!expand) {
+            return;
+        }
+
+        Set<String> extra = new LinkedHashSet<>();
+        addPrefixes(lower, extra);
+        List<String> parts = splitWord(original);
+        if (parts.size() > 1) {
+            for (String part : parts) {
+                String lowerPart = part.toLowerCase();
+                extra.add(lowerPart);
+                addPrefixes(lowerPart, extra);
+            }
+        }
+        extra.remove(lower);
+        tokens.addAll(extra);
+    }
+
+    /**
+     * 按驼峰（fooBar、HTTPServer）和字母数字边界（vue3）拆分拉丁词
+     */
+    private static List<String> splitWord(String word) {
+        List<String> parts = new ArrayList<>();
+        int[] codePoints = word.codePoints().toArray();
+        int start = 0;
+        for (int i = 1; i < codePoints.length; i++) {
+            int prev = codePoints[i - 1];
+            int cur = codePoints[i];
+            boolean boundary = Character.isDigit(prev) != Character.isDigit(cur)
+                    || (Character.isLowerCase(prev) && Character.isUpperCase(cur))
+                    || (Character.isUpperCase(prev) && Character.isUpperCase(cur)
+                        && i + 1 < codePoints.length && Character.isLowerCase(codePoints[i + 1]));
+            if (boundary) {
+                parts.add(new String(codePoints, start, i - start));
+                start = i;
+            }
+        }
+        parts.add(new String(codePoints, start, codePoints.length - start));
+        return parts;
+    }
+
+    /**
+     * 追加词的前缀（长度 MIN_PREFIX_LENGTH ~ MAX_PREFIX_LENGTH，不含词本身）
+     */
+    private static void addPrefixes(String word, Set<String> out) {
+        int length = word.codePointCount(0, word.length());
+        for (int n = MIN_PREFIX_LENGTH; n < length && n <= MAX_PREFIX_LENGTH; n++) {
+            out.add(word.substring(0, word.offsetByCodePoints(0, n)));
+        }
+    }
+
+    /**
+     * 将连续的CJK字符切分为二元词
+     */
+    private static void flushCjkRun(StringBuilder run, List<String> tokens) {
+        if (run.isEmpty()) {
+            return;
+        }
+        int[] codePoints = run.codePoints().toArray();
+        if (codePoints.length == 1) {
+            tokens.add(new String(codePoints, 0, 1));
+        } else {
+            for (int i = 0; i < codePoints.length - 1; i++) {
+                tokens.add(new String(codePoints, i, 2));
+            }
+        }
+        run.setLength(0);
+    }
+
+    /**
+     * 判断是否为中日韩文字
+     */
+    static boolean isCjk(int codePoint) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+        return script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA
+                || script == Character.UnicodeScript.HANGUL;
+    }
+}
@@ -0,0 +1,268 @@
+package com.lw.graduation.infrastructure.search;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 内存倒排索引
+ * 词项 -> (文档ID -> 词频) 的倒排表，使用BM25进行相关度排序。
+ * 读写锁保护：查询并发执行，增量更新串行执行。
+ *
+ * @author lw
+ */
+public class InvertedIndex {
+
+    /** BM25 词频饱和参数 */
+    private static final double K1 = 1.2;
+    /** BM25 长度归一化参数 */
+    private static final double B = 0.75;
+    /** 显示标题最大长度（writeUTF 上限为 65535 字节） */
+    private static final int MAX_TITLE_LENGTH = 255;
+
+    private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+    private final Map<Long, IndexedDoc> docs = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private long totalLength = 0;
+
+    /**
+     * 新增或替换一条文档
+     *
+     * @param id 文档ID
+     * @param title 显示标题
+     * @param termFreqs 词项及词频
+     */
+    public void put(Long id, String title, Map<String, Integer> termFreqs) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+            int length = 0;
+            for (Map.Entry<String, Integer> entry : termFreqs.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), k -> new HashMap<>()).put(id, entry.getValue());
+                length += entry.getValue();
+            }
+            docs.put(id, new IndexedDoc(truncate(title), termFreqs, length));
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 删除文档
+     *
+     * @param id 文档ID
+     */
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 清空索引
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            docs.clear();
+            totalLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 检索（所有查询词项均需命中），按BM25得分降序返回
+     *
+     * @param queryTerms 查询词项（已去重）
+     * @param limit 最大返回条数
+     * @return 命中结果
+     */
+    public List<SearchHit> search(List<String> queryTerms, int limit) {
+        if (queryTerms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            // 1. 取出各词项倒排表，任一缺失即无结果
+            List<Map<Long, Integer>> lists = new ArrayList<>(queryTerms.size());
+            for (String term : queryTerms) {
+                Map<Long, Integer> list = postings.get(term);
+                if (list == null || list.isEmpty()) {
+                    return List.of();
+                }
+                lists.add(list);
+            }
+
+            // 2. 以最短倒排表为驱动求交集并打分
+            lists.sort((a, b) -> Integer.compare(a.size(), b.size()));
+            int docCount = docs.size();
+            double avgLength = docCount == 0 ? 1.0 : Math.max(1.0, (double) totalLength / docCount);
+            double[] idf = new double[lists.size()];
+            for (int i = 0; i < lists.size(); i++) {
+                int df = lists.get(i).size();
+                idf[i] = Math.log(1 + (docCount - df + 0.5) / (df + 0.5));
+            }
+
+            List<SearchHit> hits = new ArrayList<>();
+            outer:
+            for (Long docId : lists.getFirst().keySet()) {
+                IndexedDoc doc = docs.get(docId);
+                double norm = K1 * (1 - B + B * doc.length() / avgLength);
+                double score = 0;
+                for (int i = 0; i < lists.size(); i++) {
+                    Integer tf = lists.get(i).get(docId);
+                    if (tf == null) {
+                        continue outer;
+                    }
+                    score += idf[i] * tf * (K1 + 1) / (tf + norm);
+                }
+                hits.add(new SearchHit(docId, doc.title(), score));
+            }
+
+            // 3. 得分降序，同分按ID降序（新数据优先）
+            hits.sort((a, b) -> {
+                int cmp = Double.compare(b.getScore(), a.getScore());
+                return cmp != 0 ? cmp : Long.compare(b.getId(), a.getId());
+            });
+            return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 已索引文档数量
+     *
+     * @return 文档数量
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 已索引文档ID（副本）
+     *
+     * @return 文档ID
+     */
+    public List<Long> ids() {
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(docs.keySet());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 序列化索引（只写正排数据，倒排表加载时重建）
+     *
+     * @param out 输出流
+     * @throws IOException IO异常
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        lock.readLock().lock();
+        try {
+            out.writeInt(docs.size());
+            for (Map.Entry<Long, IndexedDoc> entry : docs.entrySet()) {
+                IndexedDoc doc = entry.getValue();
+                out.writeLong(entry.getKey());
+                out.writeUTF(doc.title());
+                out.writeInt(doc.termFreqs().size());
+                for (Map.Entry<String, Integer> term : doc.termFreqs().entrySet()) {
+                    out.writeUTF(term.getKey());
+                    out.writeInt(term.getValue());
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 从序列化数据加载索引（覆盖当前内容）
+     *
+     * @param in 输入流
+     * @throws IOException IO异常
+     */
+    public void readFrom(DataInput in) throws IOException {
+        int docCount = in.readInt();
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            docs.clear();
+            totalLength = 0;
+            for (int i = 0; i < docCount; i++) {
+                long id = in.readLong();
+                String title = in.readUTF();
+                int termCount = in.readInt();
+                Map<String, Integer> termFreqs = new LinkedHashMap<>(termCount * 2);
+                for (int j = 0; j < termCount; j++) {
+                    termFreqs.put(in.readUTF(), in.readInt());
+                }
+                int length = 0;
+                for (Map.Entry<String, Integer> entry : termFreqs.entrySet()) {
+                    postings.computeIfAbsent(entry.getKey(), k -> new HashMap<>()).put(id, entry.getValue());
+                    length += entry.getValue();
+                }
+                docs.put(id, new IndexedDoc(title, termFreqs, length));
+                totalLength += length;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 删除文档（调用方持有写锁）
+     */
+    private void removeInternal(Long id) {
+        IndexedDoc old = docs.remove(id);
+        if (old == null) {
+            return;
+        }
+        for (String term : old.termFreqs().keySet()) {
+            Map<Long, Integer> list = postings.get(term);
+            if (list != null) {
+                list.remove(id);
+                if (list.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        totalLength -= old.length();
+    }
+
+    /**
+     * 截断显示标题
+     */
+    private static String truncate(String title) {
+        if (title == null) {
+            return "";
+        }
+        return title.length() > MAX_TITLE_LENGTH ? title.substring(0, MAX_TITLE_LENGTH) : title;
+    }
+
+    /**
+     * 正排文档：显示标题、词频表、文档长度
+     */
+    private record IndexedDoc(String title, Map<String, Integer> termFreqs, int length) {
+    }
+}
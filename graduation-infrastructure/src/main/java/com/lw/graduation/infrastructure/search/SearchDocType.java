@@ -0,0 +1,58 @@
+package com.lw.graduation.infrastructure.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 全文检索文档类型枚举
+ * 每种类型对应一个独立的倒排索引
+ *
+ * @author lw
+ */
+@Getter
+@AllArgsConstructor
+public enum SearchDocType {
+
+    /**
+     * 题目 - 索引标题和描述
+     */
+    TOPIC("topic", "题目"),
+
+    /**
+     * 通知 - 索引标题和内容
+     */
+    NOTICE("notice", "通知"),
+
+    /**
+     * 文档 - 索引原始文件名
+     */
+    DOCUMENT("document", "文档");
+
+    /**
+     * 类型编码
+     */
+    private final String code;
+
+    /**
+     * 类型描述
+     */
+    private final String description;
+
+    /**
+     * 根据类型编码获取枚举
+     *
+     * @param code 类型编码
+     * @return 对应的枚举，未找到返回null
+     */
+    public static SearchDocType getByCode(String code) {
+        if (code == null) {
+            return null;
+        }
+        for (SearchDocType type : values()) {
+            if (type.code.equalsIgnoreCase(code)) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
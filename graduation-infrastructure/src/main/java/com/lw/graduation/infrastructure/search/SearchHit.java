@@ -0,0 +1,29 @@
+package com.lw.graduation.infrastructure.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 全文检索命中结果
+ *
+ * @author lw
+ */
+@Getter
+@AllArgsConstructor
+public class SearchHit {
+
+    /**
+     * 业务主键ID
+     */
+    private final Long id;
+
+    /**
+     * 显示标题（索引时保存，无需回表）
+     */
+    private final String title;
+
+    /**
+     * BM25相关度得分
+     */
+    private final double score;
+}
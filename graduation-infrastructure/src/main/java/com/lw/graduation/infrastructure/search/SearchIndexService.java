@@ -0,0 +1,537 @@
+package com.lw.graduation.infrastructure.search;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.lw.graduation.common.config.SearchIndexProperties;
+import com.lw.graduation.common.enums.ResponseCode;
+import com.lw.graduation.common.exception.BusinessException;
+import com.lw.graduation.domain.entity.document.BizDocument;
+import com.lw.graduation.domain.entity.notice.BizNotice;
+import com.lw.graduation.domain.entity.topic.BizTopic;
+import com.lw.graduation.infrastructure.mapper.document.BizDocumentMapper;
+import com.lw.graduation.infrastructure.mapper.notice.BizNoticeMapper;
+import com.lw.graduation.infrastructure.mapper.topic.BizTopicMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 全文检索索引服务
+ * 维护题目、通知、文档三类内嵌倒排索引：
+ * 业务写路径增量更新（事务内调用时在提交后生效），后台定时刷盘为快照文件，重启时加载快照，
+ * 并按 updated_at 对账快照之后的变更（含其他节点的写入与最后一次刷盘后未落盘的变更），快照缺失时从数据库重建。全量重建在旁路构建新索引，期间的增量变更同时记录，构建完成后重放并整体替换，
+ * 重建过程中检索仍使用旧索引。检索全程在内存中完成，不访问MySQL。
+ *
+ * @author lw
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SearchIndexService {
+
+    private static final String SNAPSHOT_FILE = "search-index.bin";
+    private static final int SNAPSHOT_MAGIC = 0x53494458; // "SIDX"
+    /** 版本3：头部记录快照写入时间 */
+    private static final int SNAPSHOT_VERSION = 3;
+    private static final int RECONCILE_BATCH_SIZE = 200;
+    /** 对账起点相对快照写入时间的提前量，覆盖刷盘期间的并发写入与应用、数据库间的时钟偏差 */
+    private static final long RECONCILE_MARGIN_MILLIS = 60_000L;
+    /** 标题词频权重：标题命中比正文命中更相关 */
+    private static final int TITLE_WEIGHT = 2;
+
+    private final SearchIndexProperties properties;
+    private final BizTopicMapper bizTopicMapper;
+    private final BizNoticeMapper bizNoticeMapper;
+    private final BizDocumentMapper bizDocumentMapper;
+
+    /** 当前索引（全量重建完成时整体替换） */
+    private volatile Map<SearchDocType, InvertedIndex> indexes = newIndexes();
+    /** 串行化增量变更与索引替换 */
+    private final Object changeLock = new Object();
+    /** 全量重建期间记录的增量变更，构建完成后重放到新索引；未在重建时为null */
+    private List<Consumer<Map<SearchDocType, InvertedIndex>>> pendingChanges;
+    private final AtomicBoolean rebuilding = new AtomicBoolean(false);
+    private final AtomicBoolean dirty = new AtomicBoolean(false);
+    private ScheduledExecutorService flushExecutor;
+
+    /**
+     * 启动时加载快照并与数据库对账，快照不可用时从数据库重建
+     */
+    @PostConstruct
+    public void init() {
+        Long snapshotTime = loadSnapshot();
+        try {
+            if (snapshotTime != null) {
+                reconcile(snapshotTime - RECONCILE_MARGIN_MILLIS);
+            } else {
+                rebuildAll();
+            }
+        } catch (Exception e) {
+            log.error("全文索引重建或对账失败，检索结果可能不完整直至下次重建: {}", e.getMessage(), e);
+        }
+
+        int interval = properties.getFlushIntervalSeconds();
+        flushExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "search-index-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flushExecutor.scheduleWithFixedDelay(this::flushIfDirty, interval, interval, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 关闭时强制刷盘
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (flushExecutor != null) {
+            flushExecutor.shutdown();
+        }
+        flushIfDirty();
+    }
+
+    /**
+     * 索引题目（标题 + 描述）
+     *
+     * @param topic 题目实体
+     */
+    public void indexTopic(BizTopic topic) {
+        if (topic == null || topic.getId() == null) {
+            return;
+        }
+        if (Integer.valueOf(1).equals(topic.getIsDeleted())) {
+            remove(SearchDocType.TOPIC, topic.getId());
+            return;
+        }
+        put(SearchDocType.TOPIC, topic.getId(), topic.getTitle(), termFreqs(topic.getTitle(), topic.getDescription()));
+    }
+
+    /**
+     * 索引通知（标题 + 内容）
+     *
+     * @param notice 通知实体
+     */
+    public void indexNotice(BizNotice notice) {
+        if (notice == null || notice.getId() == null) {
+            return;
+        }
+        if (Integer.valueOf(1).equals(notice.getIsDeleted())) {
+            remove(SearchDocType.NOTICE, notice.getId());
+            return;
+        }
+        put(SearchDocType.NOTICE, notice.getId(), notice.getTitle(), termFreqs(notice.getTitle(), notice.getContent()));
+    }
+
+    /**
+     * 索引文档（原始文件名 + 后台处理提取的正文）
+     *
+     * @param document 文档实体
+     */
+    public void indexDocument(BizDocument document) {
+        if (document == null || document.getId() == null) {
+            return;
+        }
+        if (Integer.valueOf(1).equals(document.getIsDeleted())) {
+            remove(SearchDocType.DOCUMENT, document.getId());
+            return;
+        }
+        put(SearchDocType.DOCUMENT, document.getId(), document.getOriginalFilename(),
+                termFreqs(document.getOriginalFilename(), document.getExtractedText()));
+    }
+
+    /**
+     * 从索引中删除（事务内调用时在提交后生效）
+     *
+     * @param type 文档类型
+     * @param id 业务主键ID
+     */
+    public void remove(SearchDocType type, Long id) {
+        if (id == null) {
+            return;
+        }
+        afterCommit(() -> apply(target -> target.get(type).remove(id)));
+    }
+
+    /**
+     * 判断关键词能否走索引检索
+     * 单个汉字无法匹配二元词项，此类关键词由调用方回退为模糊查询
+     *
+     * @param keyword 关键词
+     * @return 可检索返回true
+     */
+    public boolean isSearchable(String keyword) {
+        List<String> tokens = CjkBigramTokenizer.tokenize(keyword);
+        if (tokens.isEmpty()) {
+            return false;
+        }
+        for (String token : tokens) {
+            if (token.codePointCount(0, token.length()) == 1 && CjkBigramTokenizer.isCjk(token.codePointAt(0))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 关键词检索
+     *
+     * @param type 文档类型
+     * @param keyword 关键词
+     * @param limit 最大返回条数
+     * @return 按相关度降序的命中结果
+     */
+    public List<SearchHit> search(SearchDocType type, String keyword, int limit) {
+        List<String> queryTerms = new ArrayList<>(new LinkedHashSet<>(CjkBigramTokenizer.tokenize(keyword)));
+        return indexes.get(type).search(queryTerms, Math.min(limit, properties.getMaxCandidates()));
+    }
+
+    /**
+     * 关键词检索，仅返回按相关度排序的ID（用于分页查询回表）
+     * 最多返回 search.index.max-candidates 个：相关度更低的命中不参与回表，
+     * 分页总数以该上限为准，命中数超过上限时调用方应提示用户细化关键词
+     *
+     * @param type 文档类型
+     * @param keyword 关键词
+     * @return 命中ID列表
+     */
+    public List<Long> searchIds(SearchDocType type, String keyword) {
+        return search(type, keyword, properties.getMaxCandidates()).stream()
+                .map(SearchHit::getId)
+                .toList();
+    }
+
+    /**
+     * 按检索排名对回表结果排序并分页
+     * 总数为回表后的行数，不超过 search.index.max-candidates
+     *
+     * @param rows 回表得到的实体（已按其他条件过滤）
+     * @param idGetter ID提取函数
+     * @param rankedIds 按相关度排序的ID
+     * @param current 当前页
+     * @param size 每页大小
+     * @param <T> 实体类型
+     * @return 分页结果
+     */
+    public <T> IPage<T> toRankedPage(List<T> rows, Function<T, Long> idGetter, List<Long> rankedIds,
+                                     long current, long size) {
+        Map<Long, Integer> rank = new HashMap<>(rankedIds.size() * 2);
+        for (int i = 0; i < rankedIds.size(); i++) {
+            rank.put(rankedIds.get(i), i);
+        }
+        List<T> sorted = new ArrayList<>(rows);
+        sorted.sort(Comparator.comparingInt(row -> rank.getOrDefault(idGetter.apply(row), Integer.MAX_VALUE)));
+
+        long from = Math.max(0, (current - 1) * size);
+        long to = Math.min(sorted.size(), from + size);
+        IPage<T> page = new Page<>(current, size);
+        page.setRecords(from < to ? sorted.subList((int) from, (int) to) : List.of());
+        page.setTotal(sorted.size());
+        return page;
+    }
+
+    /**
+     * 从数据库全量重建所有索引
+     * 在旁路构建新索引，期间的增量变更同时记录，构建完成后重放到新索引再整体替换
+     */
+    public void rebuildAll() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            throw new BusinessException(ResponseCode.PARAM_ERROR.getCode(), "全文索引正在重建");
+        }
+        try {
+            long start = System.currentTimeMillis();
+            synchronized (changeLock) {
+                pendingChanges = new ArrayList<>();
+            }
+
+            Map<SearchDocType, InvertedIndex> rebuilt = newIndexes();
+            LambdaQueryWrapper<BizTopic> topicWrapper = new LambdaQueryWrapper<>();
+            topicWrapper.select(BizTopic::getId, BizTopic::getTitle, BizTopic::getDescription)
+                    .eq(BizTopic::getIsDeleted, 0);
+            bizTopicMapper.selectList(topicWrapper).forEach(topic -> rebuilt.get(SearchDocType.TOPIC)
+                    .put(topic.getId(), topic.getTitle(), termFreqs(topic.getTitle(), topic.getDescription())));
+
+            LambdaQueryWrapper<BizNotice> noticeWrapper = new LambdaQueryWrapper<>();
+            noticeWrapper.select(BizNotice::getId, BizNotice::getTitle, BizNotice::getContent)
+                    .eq(BizNotice::getIsDeleted, 0);
+            bizNoticeMapper.selectList(noticeWrapper).forEach(notice -> rebuilt.get(SearchDocType.NOTICE)
+                    .put(notice.getId(), notice.getTitle(), termFreqs(notice.getTitle(), notice.getContent())));
+
+            LambdaQueryWrapper<BizDocument> documentWrapper = new LambdaQueryWrapper<>();
+            documentWrapper.select(BizDocument::getId, BizDocument::getOriginalFilename, BizDocument::getExtractedText)
+                    .eq(BizDocument::getIsDeleted, 0);
+            bizDocumentMapper.selectList(documentWrapper).forEach(document -> rebuilt.get(SearchDocType.DOCUMENT)
+                    .put(document.getId(), document.getOriginalFilename(),
+                            termFreqs(document.getOriginalFilename(), document.getExtractedText())));
+
+            // 重放构建期间已生效的增量变更后替换（变更已按提交顺序记录，重放结果以最新提交为准）
+            int replayed;
+            synchronized (changeLock) {
+                replayed = pendingChanges.size();
+                pendingChanges.forEach(change -> change.accept(rebuilt));
+                pendingChanges = null;
+                indexes = rebuilt;
+            }
+
+            dirty.set(true);
+            flushIfDirty();
+            log.info("全文索引重建完成: 题目={}, 通知={}, 文档={}, 重放变更={}, 耗时={}ms",
+                    rebuilt.get(SearchDocType.TOPIC).size(), rebuilt.get(SearchDocType.NOTICE).size(),
+                    rebuilt.get(SearchDocType.DOCUMENT).size(), replayed, System.currentTimeMillis() - start);
+        } finally {
+            synchronized (changeLock) {
+                pendingChanges = null;
+            }
+            rebuilding.set(false);
+        }
+    }
+
+    /**
+     * 与数据库对账：重新索引指定时间之后更新过的题目、通知和文档，移除索引中已删除的记录
+     *
+     * @param sinceMillis 对账起点（毫秒时间戳）
+     */
+    private void reconcile(long sinceMillis) {
+        LocalDateTime since = LocalDateTime.ofInstant(Instant.ofEpochMilli(sinceMillis), ZoneId.systemDefault());
+        int reindexed = reindex(lastId -> bizTopicMapper.selectList(new LambdaQueryWrapper<BizTopic>()
+                        .select(BizTopic::getId, BizTopic::getTitle, BizTopic::getDescription)
+                        .eq(BizTopic::getIsDeleted, 0)
+                        .gt(BizTopic::getUpdatedAt, since)
+                        .gt(lastId != null, BizTopic::getId, lastId)
+                        .orderByAsc(BizTopic::getId)
+                        .last("LIMIT " + RECONCILE_BATCH_SIZE)),
+                BizTopic::getId, this::indexTopic);
+        reindexed += reindex(lastId -> bizNoticeMapper.selectList(new LambdaQueryWrapper<BizNotice>()
+                        .select(BizNotice::getId, BizNotice::getTitle, BizNotice::getContent)
+                        .eq(BizNotice::getIsDeleted, 0)
+                        .gt(BizNotice::getUpdatedAt, since)
+                        .gt(lastId != null, BizNotice::getId, lastId)
+                        .orderByAsc(BizNotice::getId)
+                        .last("LIMIT " + RECONCILE_BATCH_SIZE)),
+                BizNotice::getId, this::indexNotice);
+        reindexed += reindex(lastId -> bizDocumentMapper.selectList(new LambdaQueryWrapper<BizDocument>()
+                        .select(BizDocument::getId, BizDocument::getOriginalFilename, BizDocument::getExtractedText)
+                        .eq(BizDocument::getIsDeleted, 0)
+                        .and(w -> w.gt(BizDocument::getUpdatedAt, since).or().gt(BizDocument::getProcessedAt, since))
+                        .gt(lastId != null, BizDocument::getId, lastId)
+                        .orderByAsc(BizDocument::getId)
+                        .last("LIMIT " + RECONCILE_BATCH_SIZE)),
+                BizDocument::getId, this::indexDocument);
+
+        int removed = removeMissing(SearchDocType.TOPIC, ids -> bizTopicMapper.selectList(
+                new LambdaQueryWrapper<BizTopic>().select(BizTopic::getId).in(BizTopic::getId, ids)
+                        .eq(BizTopic::getIsDeleted, 0)).stream().map(BizTopic::getId).toList());
+        removed += removeMissing(SearchDocType.NOTICE, ids -> bizNoticeMapper.selectList(
+                new LambdaQueryWrapper<BizNotice>().select(BizNotice::getId).in(BizNotice::getId, ids)
+                        .eq(BizNotice::getIsDeleted, 0)).stream().map(BizNotice::getId).toList());
+        removed += removeMissing(SearchDocType.DOCUMENT, ids -> bizDocumentMapper.selectList(
+                new LambdaQueryWrapper<BizDocument>().select(BizDocument::getId).in(BizDocument::getId, ids)
+                        .eq(BizDocument::getIsDeleted, 0)).stream().map(BizDocument::getId).toList());
+        log.info("全文索引对账完成: 起点={}, 重新索引={}, 移除={}", since, reindexed, removed);
+    }
+
+    /**
+     * 按ID分批读取并重新索引
+     *
+     * @param batchAfter 读取ID大于给定值的下一批记录（首批传null）
+     * @return 重新索引的记录数
+     */
+    private static <T> int reindex(Function<Long, List<T>> batchAfter, Function<T, Long> idGetter, Consumer<T> indexer) {
+        int count = 0;
+        Long lastId = null;
+        while (true) {
+            List<T> batch = batchAfter.apply(lastId);
+            batch.forEach(indexer);
+            count += batch.size();
+            if (batch.size() < RECONCILE_BATCH_SIZE) {
+                return count;
+            }
+            lastId = idGetter.apply(batch.get(batch.size() - 1));
+        }
+    }
+
+    /**
+     * 分批核对索引中的ID，移除数据库中已不存在或已删除的记录
+     *
+     * @param liveIds 返回给定ID中仍有效的ID
+     * @return 移除的记录数
+     */
+    private int removeMissing(SearchDocType type, Function<List<Long>, List<Long>> liveIds) {
+        int removed = 0;
+        List<Long> indexedIds = indexes.get(type).ids();
+        for (int from = 0; from < indexedIds.size(); from += RECONCILE_BATCH_SIZE) {
+            List<Long> chunk = indexedIds.subList(from, Math.min(from + RECONCILE_BATCH_SIZE, indexedIds.size()));
+            Set<Long> live = new HashSet<>(liveIds.apply(chunk));
+            for (Long id : chunk) {
+                if (!live.contains(id)) {
+                    remove(type, id);
+                    removed++;
+                }
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * 各类型索引文档数量
+     *
+     * @return 类型 -> 数量
+     */
+    public Map<SearchDocType, Integer> getIndexSizes() {
+        Map<SearchDocType, Integer> sizes = new LinkedHashMap<>();
+        indexes.forEach((type, index) -> sizes.put(type, index.size()));
+        return sizes;
+    }
+
+    /**
+     * 写入索引（事务内调用时在提交后生效，词项在调用时计算）
+     */
+    private void put(SearchDocType type, Long id, String displayTitle, Map<String, Integer> termFreqs) {
+        afterCommit(() -> apply(target -> target.get(type).put(id, displayTitle, termFreqs)));
+    }
+
+    /**
+     * 对当前索引执行变更；全量重建期间同时记录，供构建完成后重放
+     */
+    private void apply(Consumer<Map<SearchDocType, InvertedIndex>> change) {
+        synchronized (changeLock) {
+            change.accept(indexes);
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+        }
+        dirty.set(true);
+    }
+
+    /**
+     * 计算标题与正文的词频（标题加权）
+     */
+    private static Map<String, Integer> termFreqs(String title, String body) {
+        Map<String, Integer> termFreqs = new HashMap<>();
+        for (String token : CjkBigramTokenizer.tokenizeForIndex(title)) {
+            termFreqs.merge(token, TITLE_WEIGHT, Integer::sum);
+        }
+        for (String token : CjkBigramTokenizer.tokenizeForIndex(body)) {
+            termFreqs.merge(token, 1, Integer::sum);
+        }
+        return termFreqs;
+    }
+
+    private static Map<SearchDocType, InvertedIndex> newIndexes() {
+        Map<SearchDocType, InvertedIndex> created = new EnumMap<>(SearchDocType.class);
+        for (SearchDocType type : SearchDocType.values()) {
+            created.put(type, new InvertedIndex());
+        }
+        return created;
+    }
+
+    /**
+     * 事务内调用时注册到提交后执行，否则立即执行
+     */
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * 有变更时写快照（先写临时文件再原子替换）
+     * 快照头部记录写入时间，加载后从该时间（减去提前量）起与数据库对账
+     */
+    private synchronized void flushIfDirty() {
+        if (!dirty.getAndSet(false)) {
+            return;
+        }
+        long snapshotTime = System.currentTimeMillis();
+        Path dir = Paths.get(properties.getDir());
+        Path target = dir.resolve(SNAPSHOT_FILE);
+        Path temp = dir.resolve(SNAPSHOT_FILE + ".tmp");
+        Map<SearchDocType, InvertedIndex> current = indexes;
+        try {
+            Files.createDirectories(dir);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(SNAPSHOT_VERSION);
+                out.writeLong(snapshotTime);
+                for (SearchDocType type : SearchDocType.values()) {
+                    current.get(type).writeTo(out);
+                }
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("全文索引快照已写入: {}", target);
+        } catch (IOException e) {
+            dirty.set(true);
+            log.error("全文索引快照写入失败: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 加载快照
+     *
+     * @return 加载成功返回快照写入时间（毫秒时间戳），否则返回null
+     */
+    private Long loadSnapshot() {
+        Path snapshot = Paths.get(properties.getDir(), SNAPSHOT_FILE);
+        if (!Files.exists(snapshot)) {
+            log.info("全文索引快照不存在，将从数据库重建: {}", snapshot);
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshot)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                log.warn("全文索引快照格式不匹配，将从数据库重建: {}", snapshot);
+                return null;
+            }
+            long snapshotTime = in.readLong();
+            Map<SearchDocType, InvertedIndex> loaded = newIndexes();
+            for (SearchDocType type : SearchDocType.values()) {
+                loaded.get(type).readFrom(in);
+            }
+            indexes = loaded;
+            log.info("全文索引快照加载完成: {}", getIndexSizes());
+            return snapshotTime;
+        } catch (IOException e) {
+            log.warn("全文索引快照读取失败，将从数据库重建: {}", e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.lw.graduation.infrastructure.similarity;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * MinHash 签名的 LSH（局部敏感哈希）索引
+ * 签名按行数切分为若干段，每段的取值组合作为桶键；至少有一段完全相同的文档成为候选，
+ * 只对候选计算估计相似度，查询代价与候选数而非语料规模成正比。
+ * 读写锁保护：查询并发执行，增量更新串行执行。
+ *
+ * @author lw
+ */
+public class LshIndex {
+
+    private final int bands;
+    private final int rows;
+    private final Map<Long, int[]> signatures = new HashMap<>();
+    /** 每段一个桶表：桶键 -> 文档ID */
+    private final List<Map<Long, Set<Long>>> buckets;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * @param bands 分段数
+     * @param rows 每段行数
+     */
+    public LshIndex(int bands, int rows) {
+        this.bands = bands;
+        this.rows = rows;
+        this.buckets = new ArrayList<>(bands);
+        for (int band = 0; band < bands; band++) {
+            buckets.add(new HashMap<>());
+        }
+    }
+
+    /**
+     * 签名长度
+     *
+     * @return 分段数 × 每段行数
+     */
+    public int signatureLength() {
+        return bands * rows;
+    }
+
+    /**
+     * 新增或替换文档签名
+     *
+     * @param id 文档ID
+     * @param signature 签名（长度须为 signatureLength）
+     */
+    public void put(Long id, int[] signature) {
+        if (signature.length != signatureLength()) {
+            throw new IllegalArgumentException("签名长度不匹配: " + signature.length);
+        }
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+            signatures.put(id, signature);
+            for (int band = 0; band < bands; band++) {
+                buckets.get(band).computeIfAbsent(bandKey(signature, band), k -> new HashSet<>()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 删除文档
+     *
+     * @param id 文档ID
+     */
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 文档是否已索引
+     *
+     * @param id 文档ID
+     * @return 已索引返回true
+     */
+    public boolean contains(Long id) {
+        lock.readLock().lock();
+        try {
+            return signatures.containsKey(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 查询与指定文档相似的文档
+     *
+     * @param id 文档ID（须已索引）
+     * @param limit 最多返回数量
+     * @param minScore 最低估计相似度
+     * @return 按相似度降序排列的结果（不含自身），文档未索引时返回null
+     */
+    public List<SimilarityHit> query(Long id, int limit, double minScore) {
+        lock.readLock().lock();
+        try {
+            int[] signature = signatures.get(id);
+            if (signature == null) {
+                return null;
+            }
+
+            Set<Long> candidates = new HashSet<>();
+            for (int band = 0; band < bands; band++) {
+                Set<Long> bucket = buckets.get(band).get(bandKey(signature, band));
+                if (bucket != null) {
+                    candidates.addAll(bucket);
+                }
+            }
+            candidates.remove(id);
+
+            List<SimilarityHit> hits = new ArrayList<>();
+            for (Long candidate : candidates) {
+                double score = MinHasher.estimate(signature, signatures.get(candidate));
+                if (score >= minScore) {
+                    hits.add(new SimilarityHit(candidate, score));
+                }
+            }
+            hits.sort(Comparator.comparingDouble(SimilarityHit::getScore).reversed()
+                    .thenComparing(SimilarityHit::getId));
+            return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 已索引文档数
+     *
+     * @return 文档数
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return signatures.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 已索引文档ID（副本）
+     *
+     * @return 文档ID
+     */
+    public List<Long> ids() {
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(signatures.keySet());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 清空索引
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            signatures.clear();
+            buckets.forEach(Map::clear);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 序列化签名（桶表在加载时由签名重建）
+     *
+     * @param out 输出
+     * @throws IOException 写入失败
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        lock.readLock().lock();
+        try {
+            out.writeInt(signatures.size());
+            for (Map.Entry<Long, int[]> entry : signatures.entrySet()) {
+                out.writeLong(entry.getKey());
+                for (int value : entry.getValue()) {
+                    out.writeInt(value);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 反序列化签名并重建桶表（覆盖当前内容）
+     *
+     * @param in 输入
+     * @throws IOException 读取失败
+     */
+    public void readFrom(DataInput in) throws IOException {
+        int count = in.readInt();
+        Map<Long, int[]> loaded = new HashMap<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            long id = in.readLong();
+            int[] signature = new int[signatureLength()];
+            for (int j = 0; j < signature.length; j++) {
+                signature[j] = in.readInt();
+            }
+            loaded.put(id, signature);
+        }
+
+        lock.writeLock().lock();
+        try {
+            signatures.clear();
+            buckets.forEach(Map::clear);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        loaded.forEach(this::put);
+    }
+
+    private void removeInternal(Long id) {
+        int[] old = signatures.remove(id);
+        if (old == null) {
+            return;
+        }
+        for (int band = 0; band < bands; band++) {
+            long key = bandKey(old, band);
+            Set<Long> bucket = buckets.get(band).get(key);
+            if (bucket != null) {
+                bucket.remove(id);
+                if (bucket.isEmpty()) {
+                    buckets.get(band).remove(key);
+                }
+            }
+        }
+    }
+
+    /**
+     * 段内各行取值的组合哈希
+     */
+    private long bandKey(int[] signature, int band) {
+        long key = band;
+        for (int i = band * rows; i < (band + 1) * rows; i++) {
+            key = key * 0x100000001b3L + signature[i];
+        }
+        return key;
+    }
+}
@@ -0,0 +1,130 @@
+package com.lw.graduation.infrastructure.similarity;
+
+import java.util.Arrays;
+
+/**
+ * MinHash 签名计算
+ * 文本规范化（只保留字母与数字并转小写，中文按字切分）后取长度为 k 的字符分片，
+ * 每个分片先计算一次 64 位哈希并去重，再用各自的种子混合出 n 个哈希函数的值并取最小值。
+ * 两个签名中取值相同的位置比例是分片集合 Jaccard 相似度的无偏估计。
+ * 种子固定，签名可以持久化后跨进程比较。
+ *
+ * @author lw
+ */
+public final class MinHasher {
+
+    private static final long SEED = 0x5DEECE66DL;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final int shingleSize;
+    private final long[] seeds;
+
+    /**
+     * @param shingleSize 分片长度（字符数）
+     * @param numHashes 签名长度
+     */
+    public MinHasher(int shingleSize, int numHashes) {
+        if (shingleSize <= 0 || numHashes <= 0) {
+            throw new IllegalArgumentException("分片长度与签名长度必须为正数");
+        }
+        this.shingleSize = shingleSize;
+        this.seeds = new long[numHashes];
+        long state = SEED;
+        for (int i = 0; i < numHashes; i++) {
+            state += 0x9E3779B97F4A7C15L;
+            seeds[i] = mix(state);
+        }
+    }
+
+    /**
+     * 计算文本的 MinHash 签名
+     *
+     * @param text 文本
+     * @return 签名，文本规范化后不足一个分片时返回null
+     */
+    public int[] signature(String text) {
+        long[] shingles = shingleHashes(text);
+        if (shingles.length == 0) {
+            return null;
+        }
+
+        int[] signature = new int[seeds.length];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (long shingle : shingles) {
+            for (int i = 0; i < seeds.length; i++) {
+                // 取混合结果的高 31 位，按有符号整数比较即可
+                int value = (int) (mix(shingle ^ seeds[i]) >>> 33);
+                if (value < signature[i]) {
+                    signature[i] = value;
+                }
+            }
+        }
+        return signature;
+    }
+
+    /**
+     * 估计两个签名的 Jaccard 相似度
+     *
+     * @param a 签名
+     * @param b 签名（长度须相同）
+     * @return 取值相同的位置比例
+     */
+    public static double estimate(int[] a, int[] b) {
+        int equal = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / a.length;
+    }
+
+    /**
+     * 规范化文本并计算去重后的分片哈希
+     */
+    private long[] shingleHashes(String text) {
+        if (text == null) {
+            return new long[0];
+        }
+        char[] chars = new char[text.length()];
+        int length = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                chars[length++] = Character.toLowerCase(c);
+            }
+        }
+        if (length < shingleSize) {
+            return new long[0];
+        }
+
+        long[] hashes = new long[length - shingleSize + 1];
+        for (int start = 0; start < hashes.length; start++) {
+            long hash = FNV_OFFSET;
+            for (int i = start; i < start + shingleSize; i++) {
+                hash = (hash ^ chars[i]) * FNV_PRIME;
+            }
+            hashes[start] = hash;
+        }
+
+        // 排序去重：重复分片不改变最小值，去重后每个分片只混合一次
+        Arrays.sort(hashes);
+        int unique = 0;
+        for (int i = 0; i < hashes.length; i++) {
+            if (i == 0 || hashes[i] != hashes[i - 1]) {
+                hashes[unique++] = hashes[i];
+            }
+        }
+        return Arrays.copyOf(hashes, unique);
+    }
+
+    /**
+     * 64 位混合函数（SplitMix64 终结步骤）
+     */
+    private static long mix(long x) {
+        x = (x ^ (x >>> 30)) * 0xBF58476D1CE4E5B9L;
+        x = (x ^ (x >>> 27)) * 0x94D049BB133111EBL;
+        return x ^ (x >>> 31);
+    }
+}
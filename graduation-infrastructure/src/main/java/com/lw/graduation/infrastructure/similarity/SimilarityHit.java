@@ -0,0 +1,24 @@
+package com.lw.graduation.infrastructure.similarity;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 相似文档命中结果
+ *
+ * @author lw
+ */
+@Getter
+@AllArgsConstructor
+public class SimilarityHit {
+
+    /**
+     * 文档ID
+     */
+    private final Long id;
+
+    /**
+     * 估计的 Jaccard 相似度（0~1）
+     */
+    private final double score;
+}
@@ -0,0 +1,341 @@
+package com.lw.graduation.infrastructure.similarity;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.lw.graduation.common.config.SimilarityIndexProperties;
+import com.lw.graduation.domain.entity.document.BizDocument;
+import com.lw.graduation.domain.enums.document.DocumentFileType;
+import com.lw.graduation.infrastructure.mapper.document.BizDocumentMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 论文相似度索引服务
+ * 对毕业论文与外文翻译的提取文本计算 MinHash 签名并维护 LSH 索引：
+ * 后台处理完成时增量写入，定时刷盘为快照文件，重启时加载快照，快照缺失或参数变更时从数据库重建。
+ * 快照记录写入时间，加载后按该时间与数据库对账：重新索引其后更新或处理过的文档，移除已删除的文档，
+ * 避免快照刷盘之后、进程退出之前的变更丢失。
+ * 相似度查询全程在内存中完成，只比较与目标文档至少有一个分段完全相同的候选。
+ *
+ * @author lw
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SimilarityIndexService {
+
+    private static final String SNAPSHOT_FILE = "similarity-index.bin";
+    private static final int SNAPSHOT_MAGIC = 0x4D484958; // "MHIX"
+    private static final int SNAPSHOT_VERSION = 2;
+    private static final int REBUILD_BATCH_SIZE = 200;
+    /** 对账起点相对快照写入时间的提前量，覆盖刷盘期间的并发写入与应用、数据库间的时钟偏差 */
+    private static final long RECONCILE_MARGIN_MILLIS = 60_000L;
+    /** 参与相似度检测的文件类型 */
+    private static final Set<Integer> INDEXED_FILE_TYPES = Set.of(
+            DocumentFileType.THESIS.getValue(), DocumentFileType.TRANSLATION.getValue());
+
+    private final SimilarityIndexProperties properties;
+    private final BizDocumentMapper bizDocumentMapper;
+
+    private final AtomicBoolean dirty = new AtomicBoolean(false);
+    private MinHasher minHasher;
+    private volatile LshIndex index;
+    private ScheduledExecutorService flushExecutor;
+
+    /**
+     * 启动时加载快照，快照不可用时从数据库重建
+     */
+    @PostConstruct
+    public void init() {
+        minHasher = new MinHasher(properties.getShingleSize(), properties.getBands() * properties.getRows());
+        index = new LshIndex(properties.getBands(), properties.getRows());
+
+        Long snapshotTime = loadSnapshot();
+        try {
+            if (snapshotTime != null) {
+                reconcile(snapshotTime - RECONCILE_MARGIN_MILLIS);
+            } else {
+                rebuildAll();
+            }
+        } catch (Exception e) {
+            log.error("相似度索引重建或对账失败，相似度结果可能不完整直至下次重建: {}", e.getMessage(), e);
+        }
+
+        int interval = properties.getFlushIntervalSeconds();
+        flushExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "similarity-index-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flushExecutor.scheduleWithFixedDelay(this::flushIfDirty, interval, interval, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 关闭时强制刷盘
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (flushExecutor != null) {
+            flushExecutor.shutdown();
+        }
+        flushIfDirty();
+    }
+
+    /**
+     * 索引文档（需携带提取文本）
+     * 非论文类文档、已删除文档或文本不足一个分片的文档从索引中移除
+     *
+     * @param document 文档实体
+     */
+    public void index(BizDocument document) {
+        if (document == null || document.getId() == null) {
+            return;
+        }
+        int[] signature = signature(document);
+        if (signature == null) {
+            remove(document.getId());
+            return;
+        }
+        index.put(document.getId(), signature);
+        dirty.set(true);
+    }
+
+    /**
+     * 从索引中删除
+     *
+     * @param id 文档ID
+     */
+    public void remove(Long id) {
+        if (id == null || !index.contains(id)) {
+            return;
+        }
+        index.remove(id);
+        dirty.set(true);
+    }
+
+    /**
+     * 文档类型是否参与相似度检测
+     *
+     * @param fileType 文件类型
+     * @return 参与返回true
+     */
+    public boolean supports(Integer fileType) {
+        return fileType != null && INDEXED_FILE_TYPES.contains(fileType);
+    }
+
+    /**
+     * 文档是否已索引
+     *
+     * @param id 文档ID
+     * @return 已索引返回true
+     */
+    public boolean isIndexed(Long id) {
+        return id != null && index.contains(id);
+    }
+
+    /**
+     * 查询相似文档
+     *
+     * @param id 文档ID
+     * @param limit 最多返回数量
+     * @return 按估计相似度降序的结果（不含自身，低于配置阈值的不返回），文档未索引时返回null
+     */
+    public List<SimilarityHit> findSimilar(Long id, int limit) {
+        if (id == null) {
+            return null;
+        }
+        return index.query(id, limit, properties.getMinScore());
+    }
+
+    /**
+     * 已索引文档数
+     *
+     * @return 文档数
+     */
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * 从数据库全量重建索引
+     * 在新索引上构建完成后整体替换，重建期间查询仍使用旧索引；替换后对账重建期间发生的变更。
+     * 提取文本较大，按主键分批读取
+     */
+    public synchronized void rebuildAll() {
+        long start = System.currentTimeMillis();
+        LshIndex rebuilt = new LshIndex(properties.getBands(), properties.getRows());
+
+        Long lastId = null;
+        while (true) {
+            LambdaQueryWrapper<BizDocument> wrapper = new LambdaQueryWrapper<>();
+            wrapper.select(BizDocument::getId, BizDocument::getFileType, BizDocument::getExtractedText)
+                    .in(BizDocument::getFileType, INDEXED_FILE_TYPES)
+                    .isNotNull(BizDocument::getExtractedText)
+                    .eq(BizDocument::getIsDeleted, 0)
+                    .gt(lastId != null, BizDocument::getId, lastId)
+                    .orderByAsc(BizDocument::getId)
+                    .last("LIMIT " + REBUILD_BATCH_SIZE);
+            List<BizDocument> batch = bizDocumentMapper.selectList(wrapper);
+            for (BizDocument document : batch) {
+                int[] signature = signature(document);
+                if (signature != null) {
+                    rebuilt.put(document.getId(), signature);
+                }
+            }
+            if (batch.size() < REBUILD_BATCH_SIZE) {
+                break;
+            }
+            lastId = batch.get(batch.size() - 1).getId();
+        }
+
+        index = rebuilt;
+        reconcile(start - RECONCILE_MARGIN_MILLIS);
+        dirty.set(true);
+        flushIfDirty();
+        log.info("相似度索引重建完成: 文档={}, 耗时={}ms", rebuilt.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 与数据库对账：重新索引指定时间之后更新或处理过的文档，移除索引中已删除或不再参与检测的文档
+     *
+     * @param sinceMillis 对账起点（毫秒时间戳）
+     */
+    private void reconcile(long sinceMillis) {
+        LocalDateTime since = LocalDateTime.ofInstant(Instant.ofEpochMilli(sinceMillis), ZoneId.systemDefault());
+        int reindexed = 0;
+        Long lastId = null;
+        while (true) {
+            LambdaQueryWrapper<BizDocument> wrapper = new LambdaQueryWrapper<>();
+            wrapper.select(BizDocument::getId, BizDocument::getFileType, BizDocument::getExtractedText)
+                    .in(BizDocument::getFileType, INDEXED_FILE_TYPES)
+                    .eq(BizDocument::getIsDeleted, 0)
+                    .and(w -> w.gt(BizDocument::getUpdatedAt, since).or().gt(BizDocument::getProcessedAt, since))
+                    .gt(lastId != null, BizDocument::getId, lastId)
+                    .orderByAsc(BizDocument::getId)
+                    .last("LIMIT " + REBUILD_BATCH_SIZE);
+            List<BizDocument> batch = bizDocumentMapper.selectList(wrapper);
+            batch.forEach(this::index);
+            reindexed += batch.size();
+            if (batch.size() < REBUILD_BATCH_SIZE) {
+                break;
+            }
+            lastId = batch.get(batch.size() - 1).getId();
+        }
+
+        int removed = 0;
+        List<Long> indexedIds = index.ids();
+        for (int from = 0; from < indexedIds.size(); from += REBUILD_BATCH_SIZE) {
+            List<Long> chunk = indexedIds.subList(from, Math.min(from + REBUILD_BATCH_SIZE, indexedIds.size()));
+            LambdaQueryWrapper<BizDocument> wrapper = new LambdaQueryWrapper<>();
+            wrapper.select(BizDocument::getId)
+                    .in(BizDocument::getId, chunk)
+                    .in(BizDocument::getFileType, INDEXED_FILE_TYPES)
+                    .isNotNull(BizDocument::getExtractedText)
+                    .eq(BizDocument::getIsDeleted, 0);
+            Set<Long> live = new HashSet<>();
+            bizDocumentMapper.selectList(wrapper).forEach(document -> live.add(document.getId()));
+            for (Long id : chunk) {
+                if (!live.contains(id)) {
+                    remove(id);
+                    removed++;
+                }
+            }
+        }
+        log.info("相似度索引对账完成: 起点={}, 重新索引={}, 移除={}", since, reindexed, removed);
+    }
+
+    /**
+     * 计算文档签名，已删除、非论文类或文本不足一个分片的文档返回null
+     */
+    private int[] signature(BizDocument document) {
+        if (Integer.valueOf(1).equals(document.getIsDeleted()) || !supports(document.getFileType())) {
+            return null;
+        }
+        return minHasher.signature(document.getExtractedText());
+    }
+
+    /**
+     * 有变更时写快照（先写临时文件再原子替换）
+     * 快照头部记录写入时间、分片长度与分段参数，参数变更后旧签名不可比较，加载时据此触发重建
+     */
+    private synchronized void flushIfDirty() {
+        if (!dirty.getAndSet(false)) {
+            return;
+        }
+        long snapshotTime = System.currentTimeMillis();
+        LshIndex current = index;
+        Path dir = Paths.get(properties.getDir());
+        Path target = dir.resolve(SNAPSHOT_FILE);
+        Path temp = dir.resolve(SNAPSHOT_FILE + ".tmp");
+        try {
+            Files.createDirectories(dir);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(SNAPSHOT_VERSION);
+                out.writeLong(snapshotTime);
+                out.writeInt(properties.getShingleSize());
+                out.writeInt(properties.getBands());
+                out.writeInt(properties.getRows());
+                current.writeTo(out);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("相似度索引快照已写入: {}", target);
+        } catch (IOException e) {
+            dirty.set(true);
+            log.error("相似度索引快照写入失败: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 加载快照
+     *
+     * @return 加载成功返回快照写入时间（毫秒时间戳），否则返回null
+     */
+    private Long loadSnapshot() {
+        Path snapshot = Paths.get(properties.getDir(), SNAPSHOT_FILE);
+        if (!Files.exists(snapshot)) {
+            log.info("相似度索引快照不存在，将从数据库重建: {}", snapshot);
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshot)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                log.warn("相似度索引快照格式不匹配，将从数据库重建: {}", snapshot);
+                return null;
+            }
+            long snapshotTime = in.readLong();
+            if (in.readInt() != properties.getShingleSize() || in.readInt() != properties.getBands()
+                    || in.readInt() != properties.getRows()) {
+                log.warn("相似度索引参数已变更，将从数据库重建: {}", snapshot);
+                return null;
+            }
+            index.readFrom(in);
+            log.info("相似度索引快照加载完成: 文档={}", index.size());
+            return snapshotTime;
+        } catch (IOException e) {
+            log.warn("相似度索引快照读取失败，将从数据库重建: {}", e.getMessage());
+            return null;
+        }
+    }
+}
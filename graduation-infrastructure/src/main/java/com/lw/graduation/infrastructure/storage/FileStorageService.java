@@ -3,11 +3,14 @@ package com.lw.graduation.infrastructure.storage;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
 
 /**
  * 统一文件存储服务接口（策略模式）
  * 支持本地存储、MinIO、OSS 等多种存储实现
+ * 保存文件时在写入的同一遍读取中校验真实格式与大小并计算内容摘要（见 ValidatingInputStream）
  *
  * @author lw
  */
@@ -17,31 +20,46 @@ public interface FileStorageService {
      * 保存文件
      * @param file 上传的文件
      * @param category 文件分类（如 "document/opening"）
-     * @return 文件存储路径
+     * @return 存储结果（存储路径、实际大小与内容摘要）
      * @throws IOException IO异常
+     * @throws IllegalArgumentException 文件类型不支持、内容与扩展名不符或大小超出限制
      */
-    String store(MultipartFile file, String category) throws IOException;
+    StoreResult store(MultipartFile file, String category) throws IOException;
 
     /**
      * 保存文件（指定文件名）
      * @param file 上传的文件
      * @param category 文件分类
      * @param filename 自定义文件名（不含扩展名）
-     * @return 文件存储路径
+     * @return 存储结果（存储路径、实际大小与内容摘要）
      * @throws IOException IO异常
+     * @throws IllegalArgumentException 文件类型不支持、内容与扩展名不符或大小超出限制
      */
-    String store(MultipartFile file, String category, String filename) throws IOException;
+    StoreResult store(MultipartFile file, String category, String filename) throws IOException;
+
+    /**
+     * 保存本地已落盘的文件（如分片上传合并后的临时文件），源文件在事务提交后删除（无事务时立即删除），回滚时保留以便重试
+     * 文件大小由调用方校验，内容格式在计算摘要的同一遍读取中校验
+     * @param source 本地源文件
+     * @param category 文件分类
+     * @param originalFilename 原始文件名（用于确定扩展名）
+     * @return 存储结果（存储路径、实际大小与内容摘要）
+     * @throws IOException IO异常
+     * @throws IllegalArgumentException 文件类型不支持或内容与扩展名不符
+     */
+    StoreResult store(Path source, String category, String originalFilename) throws IOException;
 
     /**
      * 下载文件
      * @param filePath 文件存储路径
-     * @return 文件输入流
-     * @throws IOException IO异常
+     * @return 文件句柄（内容在写出时流式读取）
+     * @throws IOException IO异常，文件不存在时为 NoSuchFileException
      */
-    InputStream download(String filePath) throws IOException;
+    StoredFile download(String filePath) throws IOException;
 
     /**
      * 删除文件
+     * 事务内调用时文件内容在事务提交后才物理删除，事务回滚时文件保留，避免记录指向已删除的文件
      * @param filePath 文件存储路径
      * @return 删除成功返回true
      * @throws IOException IO异常
@@ -61,4 +79,43 @@ public interface FileStorageService {
      * @return 完整访问URL
      */
     String getUrl(String filePath);
+
+    /**
+     * 获取客户端直接从存储下载的地址（如对象存储的预签名URL），下载流量不经过应用
+     * @param filePath 文件存储路径
+     * @param downloadFilename 下载时使用的文件名
+     * @return 直接下载地址；存储不支持时返回null，由应用通过 download 流式输出
+     */
+    default String getDownloadUrl(String filePath, String downloadFilename) {
+        return null;
+    }
+
+    /**
+     * 存储是否支持按目录前缀遍历文件（list）
+     * @return 支持返回true
+     */
+    default boolean supportsListing() {
+        return false;
+    }
+
+    /**
+     * 列出指定目录前缀下的全部文件（用于孤儿文件对账，仅在 supportsListing 为true时调用）
+     * @param prefix 目录前缀（如 "documents"）
+     * @return 文件条目，前缀不存在时为空
+     * @throws IOException IO异常
+     * @throws UnsupportedOperationException 存储不支持遍历
+     */
+    default List<StorageEntry> list(String prefix) throws IOException {
+        throw new UnsupportedOperationException("当前存储不支持遍历文件");
+    }
+
+    /**
+     * 回收存储内部已无引用的数据（如内容寻址存储中引用归零但未回收的内容、中断上传残留的临时文件）
+     * @param olderThan 只回收早于该时间的数据
+     * @return 回收的字节数
+     * @throws IOException IO异常
+     */
+    default long collectGarbage(Instant olderThan) throws IOException {
+        return 0L;
+    }
 }
@@ -0,0 +1,29 @@
+package com.lw.graduation.infrastructure.storage;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 存储中的文件条目（用于孤儿文件对账）
+ *
+ * @author lw
+ */
+@Getter
+@AllArgsConstructor
+public class StorageEntry {
+
+    /**
+     * 文件存储路径
+     */
+    private final String path;
+
+    /**
+     * 文件大小（字节）
+     */
+    private final long size;
+
+    /**
+     * 最后修改时间（毫秒时间戳）
+     */
+    private final long lastModified;
+}
@@ -0,0 +1,30 @@
+package com.lw.graduation.infrastructure.storage;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 文件存储结果
+ * 存储路径以及写入时校验得到的实际字节数与内容摘要
+ *
+ * @author lw
+ */
+@Getter
+@AllArgsConstructor
+public class StoreResult {
+
+    /**
+     * 文件存储路径
+     */
+    private final String path;
+
+    /**
+     * 实际写入的字节数
+     */
+    private final long size;
+
+    /**
+     * 内容 SHA-256 摘要（小写十六进制）
+     */
+    private final String sha256;
+}
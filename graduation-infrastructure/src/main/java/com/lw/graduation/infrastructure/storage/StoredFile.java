@@ -0,0 +1,88 @@
+package com.lw.graduation.infrastructure.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+
+/**
+ * 已存储文件的流式读取句柄
+ * 由 FileStorageService.download 返回，只携带文件元信息，内容在写出时按需读取，
+ * 支持从任意位置读取指定长度（用于 HTTP Range 分段下载），不会把整个文件读入内存。
+ *
+ * @author lw
+ */
+public interface StoredFile {
+
+    /** 通用实现中转缓冲区大小 */
+    int TRANSFER_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * 文件存储路径
+     *
+     * @return 存储路径
+     */
+    String getPath();
+
+    /**
+     * 文件大小（字节）
+     *
+     * @return 文件大小
+     */
+    long size();
+
+    /**
+     * 最后修改时间（毫秒时间戳）
+     *
+     * @return 最后修改时间
+     */
+    long lastModified();
+
+    /**
+     * 本地文件路径，可供容器直接发送（sendfile）；非本地存储返回 null
+     *
+     * @return 本地文件路径
+     */
+    default Path localPath() {
+        return null;
+    }
+
+    /**
+     * 打开从指定位置开始的输入流
+     *
+     * @param position 起始位置
+     * @return 文件输入流（由调用方关闭）
+     * @throws IOException IO异常
+     */
+    InputStream openStream(long position) throws IOException;
+
+    /**
+     * 将 [position, position + count) 区间的内容写入目标通道
+     * 默认实现经固定大小的缓冲区中转，本地存储可覆盖为 FileChannel.transferTo 零拷贝
+     *
+     * @param position 起始位置
+     * @param count 字节数
+     * @param target 目标通道（不关闭）
+     * @return 实际写入的字节数
+     * @throws IOException IO异常
+     */
+    default long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+        byte[] buffer = new byte[(int) Math.min(TRANSFER_BUFFER_SIZE, Math.max(count, 1))];
+        long written = 0;
+        try (InputStream in = openStream(position)) {
+            while (written < count) {
+                int read = in.read(buffer, 0, (int) Math.min(buffer.length, count - written));
+                if (read < 0) {
+                    break;
+                }
+                ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, read);
+                while (chunk.hasRemaining()) {
+                    target.write(chunk);
+                }
+                written += read;
+            }
+        }
+        return written;
+    }
+}
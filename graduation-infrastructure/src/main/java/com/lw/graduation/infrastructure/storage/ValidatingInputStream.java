@@ -0,0 +1,158 @@
+package com.lw.graduation.infrastructure.storage;
+
+import com.lw.graduation.common.config.FileStorageProperties;
+import com.lw.graduation.common.enums.FileFormatType;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * 上传内容校验输入流
+ * 包装上传内容，在写入存储的同一遍读取中完成：嗅探开头字节确认真实格式与扩展名一致、
+ * 累计字节数并在超出上限时立即中止、计算 SHA-256 摘要。
+ * 校验失败时从 read 抛出 IllegalArgumentException，调用方删除已写入的部分内容即可，
+ * 不合法的文件不会被完整读取，合法的文件也无需为校验再读一遍。
+ *
+ * @author lw
+ */
+public class ValidatingInputStream extends FilterInputStream {
+
+    private final FileFormatType expectedType;
+    private final long maxSize;
+    private final MessageDigest digest;
+    private final byte[] header = new byte[FileFormatType.SNIFF_LENGTH];
+
+    private int headerLength;
+    private boolean headerChecked;
+    private long size;
+    private String sha256;
+
+    /**
+     * @param in 上传内容
+     * @param expectedType 扩展名对应的文件类型
+     * @param maxSize 最大字节数
+     */
+    public ValidatingInputStream(InputStream in, FileFormatType expectedType, long maxSize) {
+        super(in);
+        this.expectedType = expectedType;
+        this.maxSize = maxSize;
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = in.read();
+        if (b < 0) {
+            finish();
+        } else {
+            update(new byte[]{(byte) b}, 0, 1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int read = in.read(b, off, len);
+        if (read < 0) {
+            finish();
+        } else if (read > 0) {
+            update(b, off, read);
+        }
+        return read;
+    }
+
+    /**
+     * 跳过的内容同样计入校验
+     */
+    @Override
+    public long skip(long n) throws IOException {
+        byte[] buffer = new byte[(int) Math.min(n, StoredFile.TRANSFER_BUFFER_SIZE)];
+        long skipped = 0;
+        while (skipped < n) {
+            int read = read(buffer, 0, (int) Math.min(buffer.length, n - skipped));
+            if (read < 0) {
+                break;
+            }
+            skipped += read;
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public synchronized void mark(int readlimit) {
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+        throw new IOException("mark/reset not supported");
+    }
+
+    /**
+     * 内容读取结束：对不足嗅探长度的短文件补做格式校验
+     * 读到流末尾时自动调用；只读取部分内容（如分片）时由调用方显式调用
+     */
+    public void finish() {
+        if (!headerChecked) {
+            checkHeader();
+        }
+    }
+
+    /**
+     * 已读取的字节数
+     *
+     * @return 字节数
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * 已读取内容的 SHA-256 摘要（调用后不再继续计算）
+     *
+     * @return 小写十六进制摘要
+     */
+    public String getSha256() {
+        finish();
+        if (sha256 == null) {
+            sha256 = HexFormat.of().formatHex(digest.digest());
+        }
+        return sha256;
+    }
+
+    private void update(byte[] b, int off, int len) {
+        size += len;
+        if (size > maxSize) {
+            throw new IllegalArgumentException("文件大小超出限制，最大支持" + FileStorageProperties.formatFileSize(maxSize));
+        }
+        digest.update(b, off, len);
+
+        if (!headerChecked) {
+            int copy = Math.min(len, header.length - headerLength);
+            System.arraycopy(b, off, header, headerLength, copy);
+            headerLength += copy;
+            if (headerLength == header.length) {
+                checkHeader();
+            }
+        }
+    }
+
+    private void checkHeader() {
+        headerChecked = true;
+        if (!expectedType.matchesSignature(header, headerLength)) {
+            throw new IllegalArgumentException("文件内容与扩展名不符，不是有效的" + expectedType.getDescription());
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.lw.graduation.infrastructure.storage.impl;
+
+import cn.hutool.core.date.DateUtil;
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.util.IdUtil;
+import com.lw.graduation.common.enums.FileFormatType;
+import com.lw.graduation.infrastructure.storage.FileStorageService;
+import com.lw.graduation.infrastructure.storage.StoreResult;
+import com.lw.graduation.infrastructure.storage.ValidatingInputStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * 文件存储服务公共实现
+ * 各存储实现共用的上传校验、存储路径生成（category/yyyy/MM/dd/文件名.扩展名）与内容校验流
+ *
+ * @author lw
+ */
+@Slf4j
+public abstract class AbstractFileStorageService implements FileStorageService {
+
+    /**
+     * 存储文件
+     */
+    @Override
+    public StoreResult store(MultipartFile file, String category) throws IOException {
+        return store(file, category, null);
+    }
+
+    /**
+     * 校验上传文件并生成存储路径（category/yyyy/MM/dd/文件名.扩展名）
+     */
+    protected String prepareRelativePath(MultipartFile file, String category, String filename) {
+        validateInput(file, category);
+
+        String extension = FileUtil.extName(file.getOriginalFilename());
+
+        // 验证文件类型
+        FileFormatType.ValidationResult result = FileFormatType.validate(extension, file.getSize());
+        if (!result.isValid()) {
+            throw new IllegalArgumentException(result.getMessage());
+        }
+
+        return buildRelativePath(category, generateFilename(filename, extension));
+    }
+
+    /**
+     * 校验本地源文件与分类
+     */
+    protected void validateSource(Path source, String category) {
+        if (source == null || !Files.isRegularFile(source)) {
+            throw new IllegalArgumentException("源文件不存在");
+        }
+        if (category == null || category.trim().isEmpty()) {
+            throw new IllegalArgumentException("文件分类不能为空");
+        }
+    }
+
+    /**
+     * 打开上传内容的校验流（按扩展名对应类型的大小上限）
+     */
+    protected ValidatingInputStream openValidated(MultipartFile file) throws IOException {
+        FileFormatType type = FileFormatType.getByExtension(FileUtil.extName(file.getOriginalFilename()));
+        return new ValidatingInputStream(file.getInputStream(), type, type.getMaxSize());
+    }
+
+    /**
+     * 打开本地源文件的校验流（大小已由调用方校验）
+     */
+    protected ValidatingInputStream openValidated(Path source, String originalFilename) throws IOException {
+        FileFormatType type = FileFormatType.getByExtension(FileUtil.extName(originalFilename));
+        if (type == null || !type.isAllowed()) {
+            throw new IllegalArgumentException("不支持的文件类型: " + FileUtil.extName(originalFilename));
+        }
+        return new ValidatingInputStream(Files.newInputStream(source), type, Long.MAX_VALUE);
+    }
+
+    /**
+     * 生成按日期分目录的存储路径
+     */
+    protected String buildRelativePath(String category, String finalFilename) {
+        String datePath = DateUtil.format(java.util.Date.from(java.time.Instant.now()), "yyyy/MM/dd");
+        return Paths.get(category, datePath, finalFilename).toString().replace("\\", "/");
+    }
+
+    /**
+     * 生成文件名
+     */
+    protected String generateFilename(String customName, String extension) {
+        if (customName != null && !customName.trim().isEmpty()) {
+            return customName + "." + extension.toLowerCase();
+        }
+        return IdUtil.fastSimpleUUID() + "." + extension.toLowerCase();
+    }
+
+    /**
+     * 验证输入参数
+     */
+    private void validateInput(MultipartFile file, String category) {
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("上传的文件不能为空");
+        }
+        if (category == null || category.trim().isEmpty()) {
+            throw new IllegalArgumentException("文件分类不能为空");
+        }
+
+        String originalFilename = file.getOriginalFilename();
+        if (originalFilename == null || originalFilename.isEmpty()) {
+            throw new IllegalArgumentException("文件名不能为空");
+        }
+
+        // 防止路径遍历攻击
+        if (originalFilename.contains("../") || originalFilename.contains("..\\")) {
+            throw new IllegalArgumentException("非法的文件名，可能包含路径遍历攻击");
+        }
+    }
+
+    /**
+     * 源文件已复制进存储后，在事务提交后删除源文件（无事务时立即删除）
+     * 事务回滚时保留源文件，调用方可以重试；已写入存储的副本无记录引用，由存储对账回收
+     */
+    protected static void deleteSourceAfterCommit(Path source) {
+        afterCommit(() -> {
+            try {
+                Files.deleteIfExists(source);
+            } catch (IOException e) {
+                log.warn("删除源文件失败: {}", source, e);
+            }
+        });
+    }
+
+    /**
+     * 事务内调用时注册到提交后执行，否则立即执行
+     */
+    protected static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * 事务内调用时注册到事务结束（提交或回滚）后执行，否则立即执行
+     */
+    protected static void afterCompletion(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
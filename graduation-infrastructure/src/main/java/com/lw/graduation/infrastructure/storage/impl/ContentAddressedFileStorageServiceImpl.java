@@ -0,0 +1,323 @@
+package com.lw.graduation.infrastructure.storage.impl;
+
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.util.IdUtil;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.lw.graduation.domain.entity.file.SysFileBlob;
+import com.lw.graduation.domain.entity.file.SysFileRef;
+import com.lw.graduation.infrastructure.mapper.file.SysFileBlobMapper;
+import com.lw.graduation.infrastructure.mapper.file.SysFileRefMapper;
+import com.lw.graduation.infrastructure.storage.StorageEntry;
+import com.lw.graduation.infrastructure.storage.StoreResult;
+import com.lw.graduation.infrastructure.storage.StoredFile;
+import com.lw.graduation.infrastructure.storage.ValidatingInputStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 内容寻址的本地文件存储服务实现（file.storage.content-addressed=true 时启用）
+ * 上传时边写入边校验格式、计算 SHA-256，相同内容只在 blobs/前两字节/次两字节/摘要 下保存一份；
+ * 返回给业务的仍是 category/yyyy/MM/dd/文件名 形式的逻辑路径，由 sys_file_ref 映射到内容，
+ * sys_file_blob 记录每份内容的引用数。删除逻辑路径时减少引用，引用归零的内容在事务提交后回收。
+ * 未登记映射的路径按普通本地文件处理，兼容启用前已存储的文件。
+ * 内容文件的落盘与回收通过按摘要分段的本地锁互斥，适用于单节点本地磁盘。
+ *
+ * @author lw
+ */
+@Component
+@ConditionalOnProperty(prefix = "file.storage", name = "type", havingValue = "local", matchIfMissing = true)
+@ConditionalOnProperty(prefix = "file.storage", name = "content-addressed", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class ContentAddressedFileStorageServiceImpl extends LocalFileStorageServiceImpl {
+
+    /** 内容文件目录 */
+    private static final String BLOB_DIR = "blobs";
+    /** 上传中的临时文件目录 */
+    private static final String INCOMING_DIR = BLOB_DIR + "/.incoming";
+    /** 分段锁数量 */
+    private static final int LOCK_STRIPES = 64;
+    /** 对账时分批读取映射与内容记录的批大小 */
+    private static final int SCAN_BATCH_SIZE = 1000;
+
+    private final SysFileBlobMapper sysFileBlobMapper;
+    private final SysFileRefMapper sysFileRefMapper;
+
+    private final Object[] locks = createLocks();
+    /** 所在事务尚未结束的新增引用（摘要 -> 数量），回收时跳过 */
+    private final Map<String, Integer> pins = new ConcurrentHashMap<>();
+
+    /**
+     * 存储文件（指定文件名）：写入临时文件的同时校验并计算摘要，内容已存在时丢弃临时文件
+     */
+    @Override
+    public StoreResult store(MultipartFile file, String category, String filename) throws IOException {
+        String relativePath = prepareRelativePath(file, category, filename);
+
+        Path incoming = resolvePath(INCOMING_DIR + "/" + IdUtil.fastSimpleUUID());
+        Files.createDirectories(incoming.getParent());
+        ValidatingInputStream in = openValidated(file);
+        try {
+            try (in) {
+                Files.copy(in, incoming);
+            }
+            link(relativePath, in.getSha256(), incoming, false);
+        } finally {
+            Files.deleteIfExists(incoming);
+        }
+
+        log.info("文件上传成功: {} -> {}", file.getOriginalFilename(), relativePath);
+        return new StoreResult(relativePath, in.getSize(), in.getSha256());
+    }
+
+    /**
+     * 保存本地已落盘的文件：读取一遍校验并计算摘要，内容不存在时将源文件复制进内容目录，源文件在事务提交后删除
+     */
+    @Override
+    public StoreResult store(Path source, String category, String originalFilename) throws IOException {
+        validateSource(source, category);
+        ValidatingInputStream in = scan(source, originalFilename);
+        String relativePath = buildRelativePath(category, generateFilename(null, FileUtil.extName(originalFilename)));
+
+        link(relativePath, in.getSha256(), source, true);
+        deleteSourceAfterCommit(source);
+
+        log.info("文件保存成功: {} -> {}", originalFilename, relativePath);
+        return new StoreResult(relativePath, in.getSize(), in.getSha256());
+    }
+
+    @Override
+    public StoredFile download(String filePath) throws IOException {
+        SysFileRef ref = findRef(filePath);
+        if (ref == null) {
+            return super.download(filePath);
+        }
+        return open(filePath, resolvePath(blobPath(ref.getHash())));
+    }
+
+    /**
+     * 删除逻辑路径并减少内容引用，引用归零的内容在事务提交后回收
+     */
+    @Override
+    public boolean delete(String filePath) throws IOException {
+        SysFileRef ref = findRef(filePath);
+        if (ref == null) {
+            return super.delete(filePath);
+        }
+        if (sysFileRefMapper.deleteById(filePath) == 0) {
+            return false;
+        }
+        release(ref.getHash());
+        log.info("文件删除成功: {}", filePath);
+        return true;
+    }
+
+    @Override
+    public boolean exists(String filePath) {
+        SysFileRef ref = findRef(filePath);
+        if (ref == null) {
+            return super.exists(filePath);
+        }
+        return Files.exists(resolvePath(blobPath(ref.getHash())));
+    }
+
+    @Override
+    public String getUrl(String filePath) {
+        SysFileRef ref = findRef(filePath);
+        return super.getUrl(ref == null ? filePath : blobPath(ref.getHash()));
+    }
+
+    /**
+     * 列出目录前缀下的全部文件：启用前存储的普通文件加上已登记的逻辑路径（大小为内容文件大小，时间为登记时间）
+     */
+    @Override
+    public List<StorageEntry> list(String prefix) throws IOException {
+        List<StorageEntry> entries = new ArrayList<>(super.list(prefix));
+        String lastPath = null;
+        while (true) {
+            List<SysFileRef> batch = sysFileRefMapper.selectList(new LambdaQueryWrapper<SysFileRef>()
+                    .likeRight(SysFileRef::getPath, prefix + "/")
+                    .gt(lastPath != null, SysFileRef::getPath, lastPath)
+                    .orderByAsc(SysFileRef::getPath)
+                    .last("LIMIT " + SCAN_BATCH_SIZE));
+            if (batch.isEmpty()) {
+                break;
+            }
+            List<String> hashes = batch.stream().map(SysFileRef::getHash).distinct().toList();
+            Map<String, Long> sizes = sysFileBlobMapper.selectByIds(hashes).stream()
+                    .collect(Collectors.toMap(SysFileBlob::getHash, SysFileBlob::getFileSize));
+            for (SysFileRef ref : batch) {
+                long createdAt = ref.getCreatedAt() != null
+                        ? ref.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : 0L;
+                entries.add(new StorageEntry(ref.getPath(), sizes.getOrDefault(ref.getHash(), 0L), createdAt));
+            }
+            if (batch.size() < SCAN_BATCH_SIZE) {
+                break;
+            }
+            lastPath = batch.get(batch.size() - 1).getPath();
+        }
+        return entries;
+    }
+
+    /**
+     * 回收内容目录中没有内容记录的文件（提交后回收未执行，如进程中断）与中断上传残留的临时文件
+     * 先读取全部内容摘要，再并行遍历内容目录求差集；删除前在分段锁内再次确认，期间被重新引用的内容保留
+     */
+    @Override
+    public long collectGarbage(Instant olderThan) throws IOException {
+        Set<String> known = new HashSet<>();
+        String lastHash = null;
+        while (true) {
+            List<SysFileBlob> batch = sysFileBlobMapper.selectList(new LambdaQueryWrapper<SysFileBlob>()
+                    .select(SysFileBlob::getHash)
+                    .gt(lastHash != null, SysFileBlob::getHash, lastHash)
+                    .orderByAsc(SysFileBlob::getHash)
+                    .last("LIMIT " + SCAN_BATCH_SIZE));
+            batch.forEach(blob -> known.add(blob.getHash()));
+            if (batch.size() < SCAN_BATCH_SIZE) {
+                break;
+            }
+            lastHash = batch.get(batch.size() - 1).getHash();
+        }
+
+        long reclaimed = 0;
+        for (StorageEntry entry : walkParallel(resolvePath(BLOB_DIR), 1)) {
+            if (entry.getLastModified() >= olderThan.toEpochMilli()) {
+                continue;
+            }
+            String hash = entry.getPath().substring(entry.getPath().lastIndexOf('/') + 1);
+            if (entry.getPath().startsWith(INCOMING_DIR + "/")) {
+                if (Files.deleteIfExists(resolvePath(entry.getPath()))) {
+                    reclaimed += entry.getSize();
+                }
+                continue;
+            }
+            if (known.contains(hash)) {
+                continue;
+            }
+            synchronized (lockFor(hash)) {
+                if (pins.containsKey(hash) || sysFileBlobMapper.selectById(hash) != null) {
+                    continue;
+                }
+                if (Files.deleteIfExists(resolvePath(entry.getPath()))) {
+                    reclaimed += entry.getSize();
+                    log.info("回收无记录的文件内容: {}", hash);
+                }
+            }
+        }
+        return reclaimed;
+    }
+
+    /**
+     * 将逻辑路径指向内容
+     * 先增加引用再确保内容文件存在：与回收并发时，要么回收看到引用而跳过，要么回收先删除、这里再补回文件
+     *
+     * @param relativePath 逻辑路径
+     * @param hash 内容摘要
+     * @param candidate 内容不存在时放入内容目录的文件
+     * @param keepCandidate 是否保留该文件（复制而非移动）
+     */
+    private void link(String relativePath, String hash, Path candidate, boolean keepCandidate) throws IOException {
+        // 1. 增加内容引用
+        sysFileBlobMapper.acquire(hash, Files.size(candidate));
+
+        // 2. 确保内容文件存在，所在事务结束前该内容不会被回收
+        pins.merge(hash, 1, Integer::sum);
+        try {
+            synchronized (lockFor(hash)) {
+                Path blob = resolvePath(blobPath(hash));
+                if (!Files.exists(blob)) {
+                    if (keepCandidate) {
+                        copyInto(candidate, blob);
+                    } else {
+                        moveInto(candidate, blob);
+                    }
+                }
+            }
+        } finally {
+            afterCompletion(() -> pins.computeIfPresent(hash, (k, count) -> count > 1 ? count - 1 : null));
+        }
+
+        // 3. 建立逻辑路径映射（覆盖同名路径时释放原内容的引用）
+        SysFileRef previous = sysFileRefMapper.selectById(relativePath);
+        SysFileRef ref = new SysFileRef();
+        ref.setPath(relativePath);
+        ref.setHash(hash);
+        if (previous == null) {
+            sysFileRefMapper.insert(ref);
+        } else {
+            sysFileRefMapper.updateById(ref);
+            release(previous.getHash());
+        }
+    }
+
+    /**
+     * 减少内容引用，引用归零时删除内容记录并在事务提交后回收文件
+     */
+    private void release(String hash) {
+        sysFileBlobMapper.release(hash);
+        if (sysFileBlobMapper.deleteUnreferenced(hash) > 0) {
+            afterCommit(() -> collect(hash));
+        }
+    }
+
+    /**
+     * 回收内容文件（期间被重新引用的内容保留）
+     */
+    private void collect(String hash) {
+        synchronized (lockFor(hash)) {
+            if (pins.containsKey(hash) || sysFileBlobMapper.selectById(hash) != null) {
+                return;
+            }
+            Path blob = resolvePath(blobPath(hash));
+            try {
+                Files.deleteIfExists(blob);
+                log.info("回收无引用的文件内容: {}", hash);
+            } catch (IOException e) {
+                log.warn("回收文件内容失败: {}", blob, e);
+            }
+        }
+    }
+
+    private SysFileRef findRef(String filePath) {
+        if (filePath == null || filePath.trim().isEmpty()) {
+            return null;
+        }
+        return sysFileRefMapper.selectById(filePath);
+    }
+
+    private Object lockFor(String hash) {
+        return locks[(hash.hashCode() & Integer.MAX_VALUE) % LOCK_STRIPES];
+    }
+
+    /**
+     * 内容文件路径：blobs/ab/cd/abcd...
+     */
+    private static String blobPath(String hash) {
+        return BLOB_DIR + "/" + hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash;
+    }
+
+    private static Object[] createLocks() {
+        Object[] stripes = new Object[LOCK_STRIPES];
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            stripes[i] = new Object();
+        }
+        return stripes;
+    }
+}
@@ -1,20 +1,38 @@
 package com.lw.graduation.infrastructure.storage.impl;
 
-import cn.hutool.core.date.DateUtil;
 import cn.hutool.core.io.FileUtil;
-import cn.hutool.core.util.IdUtil;
-import com.lw.graduation.common.enums.FileFormatType;
-import com.lw.graduation.infrastructure.storage.FileStorageService;
+import com.lw.graduation.infrastructure.storage.StorageEntry;
+import com.lw.graduation.infrastructure.storage.StoreResult;
+import com.lw.graduation.infrastructure.storage.StoredFile;
+import com.lw.graduation.infrastructure.storage.ValidatingInputStream;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * 本地文件存储服务实现
@@ -24,8 +42,15 @@ import java.nio.file.Paths;
  * @author lw
  */
 @Component
+@ConditionalOnProperty(prefix = "file.storage", name = "type", havingValue = "local", matchIfMissing = true)
+@ConditionalOnProperty(prefix = "file.storage", name = "content-addressed", havingValue = "false", matchIfMissing = true)
 @Slf4j
-public class LocalFileStorageServiceImpl implements FileStorageService {
+public class LocalFileStorageServiceImpl extends AbstractFileStorageService {
+
+    /** 并行遍历目录的线程数 */
+    private static final int WALK_THREADS = 4;
+    /** 按此深度的子目录拆分并行遍历任务（category/yyyy/MM 层级） */
+    private static final int WALK_SPLIT_DEPTH = 2;
 
     @Value("${file.storage.base-path:${file.dir:${UPLOAD_DIR:D:/Project/myapps/graduation-system/data/uploadFiles}}}")
     private String basePath;
@@ -34,64 +59,59 @@ public class LocalFileStorageServiceImpl implements FileStorageService {
     private String urlPrefix;
 
     /**
-     * 存储文件
+     * 存储文件（指定文件名）
+     * 边校验边写入，校验失败时删除已写入的部分内容
      */
     @Override
-    public String store(MultipartFile file, String category) throws IOException {
-        return store(file, category, null);
+    public StoreResult store(MultipartFile file, String category, String filename) throws IOException {
+        String relativePath = prepareRelativePath(file, category, filename);
+        Path fullPath = resolvePath(relativePath);
+        
+        // 创建目录并保存文件
+        Files.createDirectories(fullPath.getParent());
+        ValidatingInputStream in = openValidated(file);
+        try (in) {
+            Files.copy(in, fullPath, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(fullPath);
+            throw e;
+        }
+        
+        log.info("文件上传成功: {} -> {}", file.getOriginalFilename(), relativePath);
+        return new StoreResult(relativePath, in.getSize(), in.getSha256());
     }
 
     /**
-     * 存储文件（指定文件名）
+     * 保存本地已落盘的文件
+     * 读取一遍校验格式并计算摘要后复制进存储，源文件在事务提交后删除
      */
     @Override
-    public String store(MultipartFile file, String category, String filename) throws IOException {
-        validateInput(file, category);
-        
-        String originalFilename = file.getOriginalFilename();
-        String extension = FileUtil.extName(originalFilename);
-        
-        // 验证文件类型
-        FileFormatType.ValidationResult result = FileFormatType.validate(extension, file.getSize());
-        if (!result.isValid()) {
-            throw new IllegalArgumentException(result.getMessage());
-        }
+    public StoreResult store(Path source, String category, String originalFilename) throws IOException {
+        validateSource(source, category);
+        ValidatingInputStream in = scan(source, originalFilename);
         
-        // 生成文件名
-        String finalFilename = generateFilename(filename, extension);
-        
-        // 生成存储路径
-        String datePath = DateUtil.format(java.util.Date.from(java.time.Instant.now()), "yyyy/MM/dd");
-        String relativePath = Paths.get(category, datePath, finalFilename).toString().replace("\\", "/");
-        Path fullPath = Paths.get(basePath, relativePath);
-        
-        // 创建目录并保存文件
-        Files.createDirectories(fullPath.getParent());
-        file.transferTo(fullPath);
+        String relativePath = buildRelativePath(category, generateFilename(null, FileUtil.extName(originalFilename)));
+        copyInto(source, resolvePath(relativePath));
+        deleteSourceAfterCommit(source);
         
-        log.info("文件上传成功: {} -> {}", originalFilename, relativePath);
-        return relativePath;
+        log.info("文件保存成功: {} -> {}", originalFilename, relativePath);
+        return new StoreResult(relativePath, in.getSize(), in.getSha256());
     }
 
     /**
      * 下载文件
      */
     @Override
-    public InputStream download(String filePath) throws IOException {
+    public StoredFile download(String filePath) throws IOException {
         if (filePath == null || filePath.trim().isEmpty()) {
             throw new IllegalArgumentException("文件路径不能为空");
         }
         
-        Path fullPath = Paths.get(basePath, filePath);
-        if (!Files.exists(fullPath)) {
-            throw new IOException("文件不存在: " + filePath);
-        }
-        
-        return Files.newInputStream(fullPath);
+        return open(filePath, resolvePath(filePath));
     }
 
     /**
-     * 删除文件
+     * 删除文件（事务内调用时在事务提交后物理删除，回滚时文件保留）
      */
     @Override
     public boolean delete(String filePath) throws IOException {
@@ -99,13 +119,20 @@ public class LocalFileStorageServiceImpl implements FileStorageService {
             return false;
         }
         
-        Path fullPath = Paths.get(basePath, filePath);
-        if (Files.exists(fullPath)) {
-            Files.delete(fullPath);
-            log.info("文件删除成功: {}", filePath);
-            return true;
+        Path fullPath = resolvePath(filePath);
+        if (!Files.exists(fullPath)) {
+            return false;
         }
-        return false;
+        afterCommit(() -> {
+            try {
+                if (Files.deleteIfExists(fullPath)) {
+                    log.info("文件删除成功: {}", filePath);
+                }
+            } catch (IOException e) {
+                log.warn("文件删除失败: {}", filePath, e);
+            }
+        });
+        return true;
     }
 
     /**
@@ -117,7 +144,7 @@ public class LocalFileStorageServiceImpl implements FileStorageService {
             return false;
         }
         
-        Path fullPath = Paths.get(basePath, filePath);
+        Path fullPath = resolvePath(filePath);
         return Files.exists(fullPath);
     }
 
@@ -132,35 +159,160 @@ public class LocalFileStorageServiceImpl implements FileStorageService {
         return urlPrefix + "/" + filePath;
     }
 
+    @Override
+    public boolean supportsListing() {
+        return true;
+    }
+
+    /**
+     * 列出目录前缀下的全部文件
+     */
+    @Override
+    public List<StorageEntry> list(String prefix) throws IOException {
+        return walkParallel(resolvePath(prefix), WALK_SPLIT_DEPTH);
+    }
+
     /**
-     * 验证输入参数
+     * 并行遍历目录：浅层由当前线程遍历，拆分深度处的各子目录交给遍历线程池
+     *
+     * @param root 遍历的根目录
+     * @param splitDepth 拆分深度
+     * @return 文件条目（路径相对于存储根目录），根目录不存在时为空
      */
-    private void validateInput(MultipartFile file, String category) {
-        if (file == null || file.isEmpty()) {
-            throw new IllegalArgumentException("上传的文件不能为空");
+    protected List<StorageEntry> walkParallel(Path root, int splitDepth) throws IOException {
+        if (!Files.isDirectory(root)) {
+            return List.of();
         }
-        if (category == null || category.trim().isEmpty()) {
-            throw new IllegalArgumentException("文件分类不能为空");
+        Path base = Paths.get(basePath);
+        Queue<StorageEntry> entries = new ConcurrentLinkedQueue<>();
+
+        // 1. 遍历浅层，收集拆分深度处的子目录（达到最大深度的目录以 visitFile 回调）
+        List<Path> subtrees = new ArrayList<>();
+        Files.walkFileTree(root, EnumSet.noneOf(FileVisitOption.class), splitDepth, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (attrs.isDirectory()) {
+                    subtrees.add(file);
+                } else if (attrs.isRegularFile()) {
+                    entries.add(toEntry(base, file, attrs));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                log.warn("遍历存储目录时跳过无法访问的文件: {}", file);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        if (subtrees.isEmpty()) {
+            return new ArrayList<>(entries);
         }
-        
-        String originalFilename = file.getOriginalFilename();
-        if (originalFilename == null || originalFilename.isEmpty()) {
-            throw new IllegalArgumentException("文件名不能为空");
+
+        // 2. 并行遍历各子目录
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(WALK_THREADS, subtrees.size()), r -> {
+            Thread thread = new Thread(r, "storage-walk");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<?>> futures = new ArrayList<>(subtrees.size());
+            for (Path subtree : subtrees) {
+                futures.add(executor.submit(() -> walkSubtree(base, subtree, entries)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("存储目录遍历被中断");
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+        } finally {
+            executor.shutdownNow();
         }
-        
-        // 防止路径遍历攻击
-        if (originalFilename.contains("../") || originalFilename.contains("..\\")) {
-            throw new IllegalArgumentException("非法的文件名，可能包含路径遍历攻击");
+        return new ArrayList<>(entries);
+    }
+
+    private Void walkSubtree(Path base, Path subtree, Queue<StorageEntry> entries) throws IOException {
+        Files.walkFileTree(subtree, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (attrs.isRegularFile()) {
+                    entries.add(toEntry(base, file, attrs));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                // 遍历期间被删除的文件直接跳过
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return null;
+    }
+
+    private static StorageEntry toEntry(Path base, Path file, BasicFileAttributes attrs) {
+        String path = base.relativize(file).toString().replace("\\", "/");
+        return new StorageEntry(path, attrs.size(), attrs.lastModifiedTime().toMillis());
+    }
+
+    /**
+     * 完整读取一遍本地源文件：校验内容格式并计算摘要（大小已由调用方校验）
+     */
+    protected ValidatingInputStream scan(Path source, String originalFilename) throws IOException {
+        ValidatingInputStream in = openValidated(source, originalFilename);
+        try (in) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return in;
+    }
+
+    /**
+     * 打开磁盘文件句柄
+     */
+    protected StoredFile open(String filePath, Path fullPath) throws IOException {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(fullPath, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            throw new NoSuchFileException("文件不存在: " + filePath);
+        }
+        return new LocalStoredFile(filePath, fullPath, attributes.size(), attributes.lastModifiedTime().toMillis());
+    }
+
+    /**
+     * 存储路径对应的磁盘路径
+     */
+    protected Path resolvePath(String relativePath) {
+        return Paths.get(basePath, relativePath);
+    }
+
+    /**
+     * 移动文件到目标位置：同一文件系统内为原子重命名，不复制文件内容
+     */
+    protected void moveInto(Path source, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            // 跨文件系统时退化为复制后删除
+            Files.move(source, target);
         }
     }
 
     /**
-     * 生成文件名
+     * 复制文件到目标位置，源文件保留：先复制到同目录的临时文件再原子重命名，目标路径不会出现写了一半的文件
      */
-    private String generateFilename(String customName, String extension) {
-        if (customName != null && !customName.trim().isEmpty()) {
-            return customName + "." + extension.toLowerCase();
+    protected void copyInto(Path source, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path copying = target.resolveSibling(target.getFileName() + ".copying");
+        try {
+            Files.copy(source, copying, StandardCopyOption.REPLACE_EXISTING);
+            moveInto(copying, target);
+        } finally {
+            Files.deleteIfExists(copying);
         }
-        return IdUtil.fastSimpleUUID() + "." + extension.toLowerCase();
     }
-}
\ No newline at end of file
+}
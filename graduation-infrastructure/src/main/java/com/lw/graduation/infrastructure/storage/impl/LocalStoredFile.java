@@ -0,0 +1,81 @@
+package com.lw.graduation.infrastructure.storage.impl;
+
+import com.lw.graduation.infrastructure.storage.StoredFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 本地磁盘文件句柄
+ * 区间写出使用 FileChannel.transferTo，目标为 Socket 等通道时由内核直接拷贝，不经过堆内存
+ *
+ * @author lw
+ */
+final class LocalStoredFile implements StoredFile {
+
+    private final String path;
+    private final Path fullPath;
+    private final long size;
+    private final long lastModified;
+
+    LocalStoredFile(String path, Path fullPath, long size, long lastModified) {
+        this.path = path;
+        this.fullPath = fullPath;
+        this.size = size;
+        this.lastModified = lastModified;
+    }
+
+    @Override
+    public String getPath() {
+        return path;
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public long lastModified() {
+        return lastModified;
+    }
+
+    @Override
+    public Path localPath() {
+        return fullPath;
+    }
+
+    @Override
+    public InputStream openStream(long position) throws IOException {
+        FileChannel channel = FileChannel.open(fullPath, StandardOpenOption.READ);
+        try {
+            channel.position(position);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return Channels.newInputStream(channel);
+    }
+
+    @Override
+    public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+        try (FileChannel channel = FileChannel.open(fullPath, StandardOpenOption.READ)) {
+            long end = Math.min(position + count, channel.size());
+            long current = position;
+            // transferTo 单次可能只传输部分字节，循环直至区间写完
+            while (current < end) {
+                long transferred = channel.transferTo(current, end - current, target);
+                if (transferred <= 0) {
+                    break;
+                }
+                current += transferred;
+            }
+            return current - position;
+        }
+    }
+}
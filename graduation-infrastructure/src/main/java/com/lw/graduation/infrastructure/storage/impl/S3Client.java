@@ -0,0 +1,475 @@
+package com.lw.graduation.infrastructure.storage.impl;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * S3 兼容对象存储的 HTTP 客户端
+ * 基于 JDK HttpClient 实现 AWS Signature Version 4 签名，只覆盖存储服务用到的操作：
+ * 单次上传、分段上传、区间读取、元信息、删除、按前缀列举（ListObjectsV2）与预签名下载，
+ * 可对接 AWS S3、MinIO 等 S3 兼容服务。签名实现由 S3ClientTest 按 AWS 文档中的签名示例校验。
+ * 请求体在内存中（单次上传的小文件或一个分段），签名时计算真实的内容摘要。
+ *
+ * @author lw
+ */
+final class S3Client {
+
+    private static final String ALGORITHM = "AWS4-HMAC-SHA256";
+    private static final String EMPTY_PAYLOAD_SHA256 = "e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855";
+    private static final String UNSIGNED_PAYLOAD = "UNSIGNED-PAYLOAD";
+    private static final DateTimeFormatter AMZ_DATE_FORMAT =
+            DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+    private static final Pattern UPLOAD_ID = Pattern.compile("<UploadId>([^<]+)</UploadId>");
+    private static final Pattern ERROR_CODE = Pattern.compile("<Code>([^<]+)</Code>");
+    private static final Pattern CONTENTS = Pattern.compile("<Contents>(.*?)</Contents>", Pattern.DOTALL);
+    private static final Pattern KEY = Pattern.compile("<Key>([^<]*)</Key>");
+    private static final Pattern SIZE = Pattern.compile("<Size>(\\d+)</Size>");
+    private static final Pattern LAST_MODIFIED = Pattern.compile("<LastModified>([^<]+)</LastModified>");
+    private static final Pattern IS_TRUNCATED = Pattern.compile("<IsTruncated>true</IsTruncated>");
+    private static final Pattern NEXT_TOKEN = Pattern.compile("<NextContinuationToken>([^<]+)</NextContinuationToken>");
+    private static final Duration REQUEST_TIMEOUT = Duration.ofMinutes(5);
+
+    private final URI endpoint;
+    private final URI publicEndpoint;
+    private final String bucket;
+    private final String region;
+    private final String accessKey;
+    private final String secretKey;
+    private final boolean pathStyle;
+    private final HttpClient http;
+
+    S3Client(String endpoint, String publicEndpoint, String bucket, String region,
+             String accessKey, String secretKey, boolean pathStyle) {
+        this.endpoint = URI.create(endpoint);
+        this.publicEndpoint = URI.create(publicEndpoint);
+        this.bucket = bucket;
+        this.region = region;
+        this.accessKey = accessKey;
+        this.secretKey = secretKey;
+        this.pathStyle = pathStyle;
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    /**
+     * 对象元信息
+     *
+     * @param size 大小（字节）
+     * @param lastModified 最后修改时间（毫秒时间戳）
+     */
+    record ObjectInfo(long size, long lastModified) {
+    }
+
+    /**
+     * 列举结果中的对象
+     *
+     * @param key 对象键
+     * @param size 大小（字节）
+     * @param lastModified 最后修改时间（毫秒时间戳）
+     */
+    record ListedObject(String key, long size, long lastModified) {
+    }
+
+    /**
+     * 一页列举结果
+     *
+     * @param objects 对象
+     * @param nextContinuationToken 下一页的续传标记，已是最后一页时为 null
+     */
+    record ListPage(List<ListedObject> objects, String nextContinuationToken) {
+    }
+
+    /**
+     * 单次上传对象
+     */
+    void putObject(String key, byte[] data, int length) throws IOException {
+        check(send(request("PUT", key, Map.of(), Map.of(), data, length), HttpResponse.BodyHandlers.ofString()),
+                "上传对象 " + key);
+    }
+
+    /**
+     * 创建分段上传
+     *
+     * @return 分段上传ID
+     */
+    String createMultipartUpload(String key) throws IOException {
+        HttpResponse<String> response = check(send(request("POST", key, Map.of("uploads", ""), Map.of(), null, 0),
+                HttpResponse.BodyHandlers.ofString()), "创建分段上传 " + key);
+        Matcher matcher = UPLOAD_ID.matcher(response.body());
+        if (!matcher.find()) {
+            throw new IOException("创建分段上传失败，响应中没有 UploadId: " + key);
+        }
+        return matcher.group(1);
+    }
+
+    /**
+     * 异步上传一个分段
+     *
+     * @return 分段 ETag
+     */
+    CompletableFuture<String> uploadPartAsync(String key, String uploadId, int partNumber, byte[] data, int length) {
+        HttpRequest request = request("PUT", key,
+                Map.of("partNumber", String.valueOf(partNumber), "uploadId", uploadId), Map.of(), data, length);
+        return http.sendAsync(request, HttpResponse.BodyHandlers.ofString()).thenApply(response -> {
+            try {
+                check(response, "上传分段 " + key + "#" + partNumber);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+            return response.headers().firstValue("ETag")
+                    .orElseThrow(() -> new CompletionException(new IOException("分段响应中没有 ETag: " + key)));
+        });
+    }
+
+    /**
+     * 完成分段上传（服务端按分段序号拼接）
+     *
+     * @param etags 按分段序号排列的 ETag
+     */
+    void completeMultipartUpload(String key, String uploadId, List<String> etags) throws IOException {
+        StringBuilder xml = new StringBuilder("<CompleteMultipartUpload>");
+        for (int i = 0; i < etags.size(); i++) {
+            xml.append("<Part><PartNumber>").append(i + 1).append("</PartNumber><ETag>")
+                    .append(etags.get(i).replace("&", "&amp;").replace("\"", "&quot;"))
+                    .append("</ETag></Part>");
+        }
+        xml.append("</CompleteMultipartUpload>");
+        byte[] body = xml.toString().getBytes(StandardCharsets.UTF_8);
+
+        HttpResponse<String> response = check(send(request("POST", key, Map.of("uploadId", uploadId),
+                Map.of("content-type", "application/xml"), body, body.length), HttpResponse.BodyHandlers.ofString()),
+                "完成分段上传 " + key);
+        // 合并失败时服务端可能返回 200 且响应体为错误信息
+        if (response.body().contains("<Error>")) {
+            throw new IOException("完成分段上传失败: " + key + "，" + errorCode(response.body()));
+        }
+    }
+
+    /**
+     * 放弃分段上传，释放已上传的分段
+     */
+    void abortMultipartUpload(String key, String uploadId) throws IOException {
+        check(send(request("DELETE", key, Map.of("uploadId", uploadId), Map.of(), null, 0),
+                HttpResponse.BodyHandlers.ofString()), "放弃分段上传 " + key);
+    }
+
+    /**
+     * 获取对象元信息
+     *
+     * @return 元信息，对象不存在时返回 null
+     */
+    ObjectInfo headObject(String key) throws IOException {
+        HttpResponse<Void> response = send(request("HEAD", key, Map.of(), Map.of(), null, 0),
+                HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() == 404) {
+            return null;
+        }
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("获取对象信息失败: " + key + "，HTTP " + response.statusCode());
+        }
+        long size = response.headers().firstValueAsLong("Content-Length").orElse(0);
+        long lastModified = response.headers().firstValue("Last-Modified")
+                .map(value -> ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli())
+                .orElse(0L);
+        return new ObjectInfo(size, lastModified);
+    }
+
+    /**
+     * 读取对象的 [start, end] 区间
+     *
+     * @param end 结束位置（含），-1 表示读到末尾
+     * @return 内容输入流（由调用方关闭）
+     */
+    InputStream getObject(String key, long start, long end) throws IOException {
+        Map<String, String> headers = start == 0 && end < 0
+                ? Map.of()
+                : Map.of("range", "bytes=" + start + "-" + (end < 0 ? "" : String.valueOf(end)));
+        HttpResponse<InputStream> response = send(request("GET", key, Map.of(), headers, null, 0),
+                HttpResponse.BodyHandlers.ofInputStream());
+        if (response.statusCode() / 100 == 2) {
+            return response.body();
+        }
+        String body;
+        try (InputStream in = response.body()) {
+            body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        if (response.statusCode() == 404) {
+            throw new NoSuchFileException("文件不存在: " + key);
+        }
+        throw new IOException("读取对象失败: " + key + "，HTTP " + response.statusCode() + " " + errorCode(body));
+    }
+
+    /**
+     * 按前缀列举对象（ListObjectsV2，每页最多 1000 个）
+     *
+     * @param prefix 键前缀
+     * @param continuationToken 上一页返回的续传标记，首页为 null
+     * @return 一页列举结果
+     */
+    ListPage listObjects(String prefix, String continuationToken) throws IOException {
+        Map<String, String> query = new HashMap<>();
+        query.put("list-type", "2");
+        if (prefix != null && !prefix.isEmpty()) {
+            query.put("prefix", prefix);
+        }
+        if (continuationToken != null) {
+            query.put("continuation-token", continuationToken);
+        }
+        HttpResponse<String> response = check(send(request("GET", "", query, Map.of(), null, 0),
+                HttpResponse.BodyHandlers.ofString()), "列举对象 " + prefix);
+        return parseListPage(response.body());
+    }
+
+    /**
+     * 解析 ListObjectsV2 响应
+     */
+    static ListPage parseListPage(String xml) throws IOException {
+        List<ListedObject> objects = new ArrayList<>();
+        Matcher contents = CONTENTS.matcher(xml);
+        while (contents.find()) {
+            String item = contents.group(1);
+            Matcher key = KEY.matcher(item);
+            if (!key.find()) {
+                throw new IOException("列举结果中的对象缺少 Key");
+            }
+            Matcher size = SIZE.matcher(item);
+            Matcher lastModified = LAST_MODIFIED.matcher(item);
+            objects.add(new ListedObject(unescapeXml(key.group(1)),
+                    size.find() ? Long.parseLong(size.group(1)) : 0L,
+                    lastModified.find() ? Instant.parse(lastModified.group(1)).toEpochMilli() : 0L));
+        }
+        String nextToken = null;
+        if (IS_TRUNCATED.matcher(xml).find()) {
+            Matcher token = NEXT_TOKEN.matcher(xml);
+            if (!token.find()) {
+                throw new IOException("列举结果被截断但缺少 NextContinuationToken");
+            }
+            nextToken = unescapeXml(token.group(1));
+        }
+        return new ListPage(objects, nextToken);
+    }
+
+    /**
+     * 删除对象（对象不存在时同样成功）
+     */
+    void deleteObject(String key) throws IOException {
+        check(send(request("DELETE", key, Map.of(), Map.of(), null, 0), HttpResponse.BodyHandlers.ofString()),
+                "删除对象 " + key);
+    }
+
+    /**
+     * 生成预签名下载URL（使用客户端访问端点）
+     *
+     * @param expires 有效期
+     * @param contentDisposition 下载响应的 Content-Disposition，null 表示不指定
+     * @return 预签名URL
+     */
+    String presignGet(String key, Duration expires, String contentDisposition) {
+        return presignGet(key, expires, contentDisposition, Instant.now());
+    }
+
+    String presignGet(String key, Duration expires, String contentDisposition, Instant time) {
+        String amzDate = AMZ_DATE_FORMAT.format(time);
+        String host = host(publicEndpoint);
+        String canonicalUri = canonicalUri(publicEndpoint, key);
+
+        SortedMap<String, String> query = new TreeMap<>();
+        query.put("X-Amz-Algorithm", ALGORITHM);
+        query.put("X-Amz-Credential", accessKey + "/" + scope(amzDate));
+        query.put("X-Amz-Date", amzDate);
+        query.put("X-Amz-Expires", String.valueOf(expires.toSeconds()));
+        query.put("X-Amz-SignedHeaders", "host");
+        if (contentDisposition != null) {
+            query.put("response-content-disposition", contentDisposition);
+        }
+        String canonicalQuery = canonicalQuery(query);
+
+        String canonicalRequest = "GET\n" + canonicalUri + "\n" + canonicalQuery + "\n"
+                + "host:" + host + "\n\nhost\n" + UNSIGNED_PAYLOAD;
+        return publicEndpoint.getScheme() + "://" + host + canonicalUri + "?" + canonicalQuery
+                + "&X-Amz-Signature=" + signature(canonicalRequest, amzDate);
+    }
+
+    /**
+     * 生成 Authorization 请求头
+     *
+     * @param headers 参与签名的请求头（小写名称，已排序）
+     */
+    String authorization(String method, String canonicalUri, String canonicalQuery,
+                         SortedMap<String, String> headers, String payloadHash, String amzDate) {
+        StringBuilder canonicalHeaders = new StringBuilder();
+        headers.forEach((name, value) -> canonicalHeaders.append(name).append(':').append(value.trim()).append('\n'));
+        String signedHeaders = String.join(";", headers.keySet());
+
+        String canonicalRequest = method + "\n" + canonicalUri + "\n" + canonicalQuery + "\n"
+                + canonicalHeaders + "\n" + signedHeaders + "\n" + payloadHash;
+        return ALGORITHM + " Credential=" + accessKey + "/" + scope(amzDate)
+                + ", SignedHeaders=" + signedHeaders + ", Signature=" + signature(canonicalRequest, amzDate);
+    }
+
+    private HttpRequest request(String method, String key, Map<String, String> query, Map<String, String> headers,
+                                byte[] body, int length) {
+        String amzDate = AMZ_DATE_FORMAT.format(Instant.now());
+        String payloadHash = body == null ? EMPTY_PAYLOAD_SHA256 : sha256Hex(body, length);
+        String host = host(endpoint);
+        String canonicalUri = canonicalUri(endpoint, key);
+        String canonicalQuery = canonicalQuery(new TreeMap<>(query));
+
+        SortedMap<String, String> signed = new TreeMap<>(headers);
+        signed.put("host", host);
+        signed.put("x-amz-content-sha256", payloadHash);
+        signed.put("x-amz-date", amzDate);
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(endpoint.getScheme() + "://" + host
+                        + canonicalUri + (canonicalQuery.isEmpty() ? "" : "?" + canonicalQuery)))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Authorization", authorization(method, canonicalUri, canonicalQuery, signed, payloadHash, amzDate));
+        // Host 由 HttpClient 按 URI 生成
+        signed.forEach((name, value) -> {
+            if (!"host".equals(name)) {
+                builder.header(name, value);
+            }
+        });
+        builder.method(method, body == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofByteArray(body, 0, length));
+        return builder.build();
+    }
+
+    private <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> handler) throws IOException {
+        try {
+            return http.send(request, handler);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("对象存储请求被中断: " + request.uri());
+        }
+    }
+
+    private static HttpResponse<String> check(HttpResponse<String> response, String action) throws IOException {
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException(action + " 失败，HTTP " + response.statusCode() + " " + errorCode(response.body()));
+        }
+        return response;
+    }
+
+    private static String unescapeXml(String value) {
+        return value.replace("&lt;", "<").replace("&gt;", ">").replace("&quot;", "\"")
+                .replace("&apos;", "'").replace("&amp;", "&");
+    }
+
+    private static String errorCode(String body) {
+        Matcher matcher = ERROR_CODE.matcher(body == null ? "" : body);
+        return matcher.find() ? matcher.group(1) : "";
+    }
+
+    /**
+     * 请求主机：虚拟主机风格时为 bucket.endpoint，端口为协议默认值时省略
+     */
+    private String host(URI base) {
+        String host = pathStyle ? base.getHost() : bucket + "." + base.getHost();
+        int port = base.getPort();
+        boolean defaultPort = port == -1
+                || ("http".equals(base.getScheme()) && port == 80)
+                || ("https".equals(base.getScheme()) && port == 443);
+        return defaultPort ? host : host + ":" + port;
+    }
+
+    /**
+     * 规范化路径：路径风格时为 /bucket/key，对象键按段编码（保留 /）
+     */
+    private String canonicalUri(URI base, String key) {
+        String basePath = base.getRawPath() == null ? "" : base.getRawPath().replaceAll("/+$", "");
+        return basePath + (pathStyle ? "/" + encode(bucket, false) : "") + "/" + encode(key, true);
+    }
+
+    private static String canonicalQuery(SortedMap<String, String> query) {
+        StringBuilder sb = new StringBuilder();
+        query.forEach((name, value) -> {
+            if (!sb.isEmpty()) {
+                sb.append('&');
+            }
+            sb.append(encode(name, false)).append('=').append(encode(value, false));
+        });
+        return sb.toString();
+    }
+
+    private String scope(String amzDate) {
+        return amzDate.substring(0, 8) + "/" + region + "/s3/aws4_request";
+    }
+
+    private String signature(String canonicalRequest, String amzDate) {
+        String stringToSign = ALGORITHM + "\n" + amzDate + "\n" + scope(amzDate) + "\n"
+                + sha256Hex(canonicalRequest.getBytes(StandardCharsets.UTF_8), -1);
+        byte[] key = hmac(("AWS4" + secretKey).getBytes(StandardCharsets.UTF_8), amzDate.substring(0, 8));
+        key = hmac(key, region);
+        key = hmac(key, "s3");
+        key = hmac(key, "aws4_request");
+        return HexFormat.of().formatHex(hmac(key, stringToSign));
+    }
+
+    /**
+     * URI 编码：保留 RFC 3986 非保留字符，其余按 UTF-8 编码为 %XX
+     */
+    private static String encode(String value, boolean keepSlash) {
+        StringBuilder sb = new StringBuilder();
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            char c = (char) (b & 0xFF);
+            if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_' || c == '.' || c == '~' || (keepSlash && c == '/')) {
+                sb.append(c);
+            } else {
+                sb.append('%').append(HexFormat.of().withUpperCase().toHexDigits(b));
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String sha256Hex(byte[] data, int length) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(data, 0, length < 0 ? data.length : length);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] hmac(byte[] key, String data) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.lw.graduation.infrastructure.storage.impl;
+
+import cn.hutool.core.io.FileUtil;
+import com.lw.graduation.common.config.FileStorageProperties;
+import com.lw.graduation.infrastructure.storage.StorageEntry;
+import com.lw.graduation.infrastructure.storage.StoreResult;
+import com.lw.graduation.infrastructure.storage.StoredFile;
+import com.lw.graduation.infrastructure.storage.ValidatingInputStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ContentDisposition;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * S3 兼容对象存储服务实现（file.storage.type=minio 时启用，使用 file.storage.minio 配置）
+ * 适用于 MinIO、AWS S3 及其他 S3 兼容服务，对象键与本地存储的存储路径相同。
+ * 上传：不足一个分段的文件单次上传，否则分段并行上传；分段在请求线程中顺序读取，内容校验随读取进行，
+ * 同时在途的分段数受并发数限制，内存占用有上限。
+ * 下载：优先返回预签名URL由客户端直接从存储下载，文件流量不经过应用；需要服务端读取时按区间 GET。
+ * 遍历：按目录前缀分页列举（ListObjectsV2），供孤儿文件对账使用。
+ * 本地联调可启动 MinIO（如 docker run -p 9000:9000 minio/minio server /data）并预先创建存储桶。
+ *
+ * @author lw
+ */
+@Component
+@ConditionalOnProperty(prefix = "file.storage", name = "type", havingValue = "minio")
+@Slf4j
+public class S3FileStorageServiceImpl extends AbstractFileStorageService {
+
+    private final FileStorageProperties.MinioConfig config;
+    private final S3Client client;
+
+    public S3FileStorageServiceImpl(FileStorageProperties fileStorageProperties) {
+        this.config = fileStorageProperties.getMinio();
+        this.client = new S3Client(config.getEndpoint(), config.getPublicEndpoint(), config.getBucketName(),
+                config.getRegion(), config.getAccessKey(), config.getSecretKey(), config.isPathStyleAccess());
+        log.info("使用对象存储: {}，存储桶: {}", config.getEndpoint(), config.getBucketName());
+    }
+
+    /**
+     * 存储文件（指定文件名）：边读取边校验边上传
+     */
+    @Override
+    public StoreResult store(MultipartFile file, String category, String filename) throws IOException {
+        String key = prepareRelativePath(file, category, filename);
+
+        ValidatingInputStream in = openValidated(file);
+        try (in) {
+            upload(key, in);
+        }
+
+        log.info("文件上传成功: {} -> {}", file.getOriginalFilename(), key);
+        return new StoreResult(key, in.getSize(), in.getSha256());
+    }
+
+    /**
+     * 保存本地已落盘的文件：读取一遍完成校验与上传，上传后删除源文件
+     */
+    @Override
+    public StoreResult store(Path source, String category, String originalFilename) throws IOException {
+        validateSource(source, category);
+        String key = buildRelativePath(category, generateFilename(null, FileUtil.extName(originalFilename)));
+
+        ValidatingInputStream in = openValidated(source, originalFilename);
+        try (in) {
+            upload(key, in);
+        }
+        deleteSourceAfterCommit(source);
+
+        log.info("文件保存成功: {} -> {}", originalFilename, key);
+        return new StoreResult(key, in.getSize(), in.getSha256());
+    }
+
+    @Override
+    public StoredFile download(String filePath) throws IOException {
+        if (filePath == null || filePath.trim().isEmpty()) {
+            throw new IllegalArgumentException("文件路径不能为空");
+        }
+        S3Client.ObjectInfo info = client.headObject(filePath);
+        if (info == null) {
+            throw new NoSuchFileException("文件不存在: " + filePath);
+        }
+        return new S3StoredFile(filePath, client, info.size(), info.lastModified());
+    }
+
+    /**
+     * 删除对象（事务内调用时在事务提交后删除，回滚时对象保留）
+     */
+    @Override
+    public boolean delete(String filePath) throws IOException {
+        if (filePath == null || filePath.trim().isEmpty() || client.headObject(filePath) == null) {
+            return false;
+        }
+        afterCommit(() -> {
+            try {
+                client.deleteObject(filePath);
+                log.info("文件删除成功: {}", filePath);
+            } catch (IOException e) {
+                log.warn("文件删除失败: {}", filePath, e);
+            }
+        });
+        return true;
+    }
+
+    @Override
+    public boolean exists(String filePath) {
+        if (filePath == null || filePath.trim().isEmpty()) {
+            return false;
+        }
+        try {
+            return client.headObject(filePath) != null;
+        } catch (IOException e) {
+            log.warn("检查对象是否存在失败: {}", filePath, e);
+            return false;
+        }
+    }
+
+    /**
+     * 获取文件访问URL（预签名，有效期见 presign-expire-seconds）
+     */
+    @Override
+    public String getUrl(String filePath) {
+        if (filePath == null || filePath.trim().isEmpty()) {
+            return null;
+        }
+        return client.presignGet(filePath, Duration.ofSeconds(config.getPresignExpireSeconds()), null);
+    }
+
+    /**
+     * 获取直接下载地址：预签名URL，响应头按原始文件名作为附件下载
+     */
+    @Override
+    public String getDownloadUrl(String filePath, String downloadFilename) {
+        if (filePath == null || filePath.trim().isEmpty()) {
+            return null;
+        }
+        String disposition = downloadFilename == null ? null
+                : ContentDisposition.attachment().filename(downloadFilename, StandardCharsets.UTF_8).build().toString();
+        return client.presignGet(filePath, Duration.ofSeconds(config.getPresignExpireSeconds()), disposition);
+    }
+
+    @Override
+    public boolean supportsListing() {
+        return true;
+    }
+
+    /**
+     * 按目录前缀分页列举对象
+     */
+    @Override
+    public List<StorageEntry> list(String prefix) throws IOException {
+        String keyPrefix = prefix == null ? "" : prefix.replaceAll("^/+|/+$", "");
+        if (!keyPrefix.isEmpty()) {
+            keyPrefix += "/";
+        }
+        List<StorageEntry> entries = new ArrayList<>();
+        String token = null;
+        do {
+            S3Client.ListPage page = client.listObjects(keyPrefix, token);
+            for (S3Client.ListedObject object : page.objects()) {
+                if (!object.key().endsWith("/")) {
+                    entries.add(new StorageEntry(object.key(), object.size(), object.lastModified()));
+                }
+            }
+            token = page.nextContinuationToken();
+        } while (token != null);
+        return entries;
+    }
+
+    /**
+     * 上传对象：不足一个分段时单次上传，否则分段并行上传，失败时放弃分段上传
+     */
+    private void upload(String key, InputStream in) throws IOException {
+        int partSize = (int) config.getPartSize();
+        byte[] buffer = new byte[partSize];
+        int length = in.readNBytes(buffer, 0, partSize);
+        if (length < partSize) {
+            client.putObject(key, buffer, length);
+            return;
+        }
+
+        String uploadId = client.createMultipartUpload(key);
+        Semaphore permits = new Semaphore(config.getUploadConcurrency());
+        List<CompletableFuture<String>> parts = new ArrayList<>();
+        try {
+            while (length > 0) {
+                acquire(permits);
+                // 已有分段失败时不再继续读取
+                for (CompletableFuture<String> part : parts) {
+                    if (part.isCompletedExceptionally()) {
+                        await(part);
+                    }
+                }
+                CompletableFuture<String> part = client.uploadPartAsync(key, uploadId, parts.size() + 1, buffer, length);
+                part.whenComplete((etag, e) -> permits.release());
+                parts.add(part);
+                if (length < partSize) {
+                    break;
+                }
+                buffer = new byte[partSize];
+                length = in.readNBytes(buffer, 0, partSize);
+            }
+
+            List<String> etags = new ArrayList<>(parts.size());
+            for (CompletableFuture<String> part : parts) {
+                etags.add(await(part));
+            }
+            client.completeMultipartUpload(key, uploadId, etags);
+            log.debug("分段上传完成: {}，分段数: {}", key, parts.size());
+        } catch (IOException | RuntimeException e) {
+            parts.forEach(part -> part.cancel(true));
+            try {
+                client.abortMultipartUpload(key, uploadId);
+            } catch (IOException abortError) {
+                e.addSuppressed(abortError);
+            }
+            throw e;
+        }
+    }
+
+    private static void acquire(Semaphore permits) throws InterruptedIOException {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("分段上传被中断");
+        }
+    }
+
+    private static String await(CompletableFuture<String> part) throws IOException {
+        try {
+            return part.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("分段上传被中断");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IOException("分段上传失败", e.getCause());
+        }
+    }
+}
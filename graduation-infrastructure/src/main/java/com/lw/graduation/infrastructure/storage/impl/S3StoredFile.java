@@ -0,0 +1,72 @@
+package com.lw.graduation.infrastructure.storage.impl;
+
+import com.lw.graduation.infrastructure.storage.StoredFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * 对象存储文件句柄
+ * 每次读取发起一个带 Range 的 GET，只传输请求区间的内容
+ *
+ * @author lw
+ */
+final class S3StoredFile implements StoredFile {
+
+    private final String path;
+    private final S3Client client;
+    private final long size;
+    private final long lastModified;
+
+    S3StoredFile(String path, S3Client client, long size, long lastModified) {
+        this.path = path;
+        this.client = client;
+        this.size = size;
+        this.lastModified = lastModified;
+    }
+
+    @Override
+    public String getPath() {
+        return path;
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public long lastModified() {
+        return lastModified;
+    }
+
+    @Override
+    public InputStream openStream(long position) throws IOException {
+        return client.getObject(path, position, -1);
+    }
+
+    /**
+     * 按区间读取，服务端只返回 [position, position + count) 的内容
+     */
+    @Override
+    public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+        if (count <= 0) {
+            return 0;
+        }
+        byte[] buffer = new byte[(int) Math.min(TRANSFER_BUFFER_SIZE, count)];
+        long written = 0;
+        try (InputStream in = client.getObject(path, position, position + count - 1)) {
+            int read;
+            while (written < count && (read = in.read(buffer, 0, (int) Math.min(buffer.length, count - written))) >= 0) {
+                ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, read);
+                while (chunk.hasRemaining()) {
+                    target.write(chunk);
+                }
+                written += read;
+            }
+        }
+        return written;
+    }
+}
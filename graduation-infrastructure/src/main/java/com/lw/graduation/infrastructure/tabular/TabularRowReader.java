@@ -0,0 +1,134 @@
+package com.lw.graduation.infrastructure.tabular;
+
+import cn.hutool.core.io.BOMInputStream;
+import cn.hutool.core.text.csv.CsvUtil;
+import cn.hutool.poi.excel.ExcelUtil;
+import cn.hutool.poi.excel.sax.handler.RowHandler;
+import com.lw.graduation.common.enums.ResponseCode;
+import com.lw.graduation.common.exception.BusinessException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 表格文件流式读取器
+ * CSV 按行流式解析，XLSX 使用 SAX 事件模式解析首个工作表，
+ * 逐行回调而不在内存中构建整个工作簿，适用于批量导入场景。
+ *
+ * @author lw
+ */
+public final class TabularRowReader {
+
+    private TabularRowReader() {
+    }
+
+    /**
+     * 行处理回调
+     */
+    @FunctionalInterface
+    public interface RowCallback {
+
+        /**
+         * 处理一行数据
+         *
+         * @param rowNumber 行号（从1开始，与表格软件中显示的行号一致）
+         * @param cells 单元格文本（空单元格为空字符串）
+         */
+        void onRow(int rowNumber, List<String> cells);
+    }
+
+    /**
+     * 判断文件名是否为支持的表格格式
+     *
+     * @param filename 原始文件名
+     * @return 是否支持
+     */
+    public static boolean isSupported(String filename) {
+        String ext = extension(filename);
+        return "csv".equals(ext) || "xlsx".equals(ext);
+    }
+
+    /**
+     * 按文件扩展名选择解析方式，逐行读取
+     *
+     * @param filename 原始文件名（用于判断格式）
+     * @param in 文件输入流（由调用方关闭）
+     * @param callback 行处理回调
+     */
+    public static void read(String filename, InputStream in, RowCallback callback) {
+        String ext = extension(filename);
+        if ("csv".equals(ext)) {
+            readCsv(in, callback);
+        } else if ("xlsx".equals(ext)) {
+            readXlsx(in, callback);
+        } else {
+            throw new BusinessException(ResponseCode.PARAM_ERROR.getCode(), "仅支持CSV或XLSX格式的文件");
+        }
+    }
+
+    /**
+     * 流式解析CSV（UTF-8，兼容带BOM的文件）
+     */
+    private static void readCsv(InputStream in, RowCallback callback) {
+        try (Reader reader = new InputStreamReader(new BOMInputStream(in, StandardCharsets.UTF_8.name()),
+                StandardCharsets.UTF_8)) {
+            int[] rowNumber = {0};
+            CsvUtil.getReader().read(reader, row -> {
+                List<String> cells = new ArrayList<>(row.size());
+                for (String cell : row.getRawList()) {
+                    cells.add(cell != null ? cell.trim() : "");
+                }
+                callback.onRow(++rowNumber[0], cells);
+            });
+        } catch (IOException e) {
+            throw new BusinessException(ResponseCode.PARAM_ERROR.getCode(), "CSV文件读取失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * SAX 模式解析 XLSX 首个工作表
+     */
+    private static void readXlsx(InputStream in, RowCallback callback) {
+        ExcelUtil.readBySax(in, 0, new RowHandler() {
+            @Override
+            public void handle(int sheetIndex, long rowIndex, List<Object> rowCells) {
+                List<String> cells = new ArrayList<>(rowCells.size());
+                for (Object cell : rowCells) {
+                    cells.add(toText(cell));
+                }
+                callback.onRow((int) rowIndex + 1, cells);
+            }
+        });
+    }
+
+    /**
+     * 单元格值转文本：数值去除多余的小数位（如 3.0 -> 3）
+     */
+    private static String toText(Object cell) {
+        if (cell == null) {
+            return "";
+        }
+        if (cell instanceof Number number) {
+            return new BigDecimal(number.toString()).stripTrailingZeros().toPlainString();
+        }
+        return cell.toString().trim();
+    }
+
+    /**
+     * 获取小写扩展名
+     */
+    private static String extension(String filename) {
+        if (filename == null) {
+            return "";
+        }
+        int dot = filename.lastIndexOf('.');
+        return dot < 0 ? "" : filename.substring(dot + 1).toLowerCase(Locale.ROOT);
+    }
+}
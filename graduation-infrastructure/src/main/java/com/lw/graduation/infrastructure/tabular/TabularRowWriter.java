@@ -0,0 +1,215 @@
+package com.lw.graduation.infrastructure.tabular;
+
+import cn.hutool.core.text.csv.CsvUtil;
+import cn.hutool.core.text.csv.CsvWriter;
+import com.lw.graduation.common.enums.ResponseCode;
+import com.lw.graduation.common.exception.BusinessException;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 表格文件流式写出器
+ * CSV 逐行写入输出流；XLSX 使用 SXSSF 流式模式，内存中只保留最近的若干行，其余行刷写到临时文件，
+ * 关闭时打包写入输出流。两种格式的内存占用都与总行数无关，适用于全量导出场景。
+ *
+ * @author lw
+ */
+public final class TabularRowWriter implements Closeable {
+
+    /** SXSSF 内存中保留的行数 */
+    private static final int XLSX_WINDOW_SIZE = 200;
+    /** 单个工作表最多的数据行数（不含表头），超出后写入新的工作表 */
+    private static final int XLSX_MAX_DATA_ROWS = SpreadsheetVersion.EXCEL2007.getLastRowIndex();
+    /** 日期时间格式 */
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final List<String> headers;
+    private final CsvWriter csvWriter;
+    private final SXSSFWorkbook workbook;
+    private final OutputStream out;
+    private Sheet sheet;
+    private int rowIndex;
+
+    private TabularRowWriter(List<String> headers, CsvWriter csvWriter, SXSSFWorkbook workbook, OutputStream out) {
+        this.headers = headers;
+        this.csvWriter = csvWriter;
+        this.workbook = workbook;
+        this.out = out;
+    }
+
+    /**
+     * 判断导出格式是否支持
+     *
+     * @param format 导出格式（csv / xlsx，不区分大小写）
+     * @return 是否支持
+     */
+    public static boolean isSupported(String format) {
+        String normalized = normalize(format);
+        return "csv".equals(normalized) || "xlsx".equals(normalized);
+    }
+
+    /**
+     * 获取导出格式对应的响应内容类型
+     *
+     * @param format 导出格式
+     * @return 内容类型
+     */
+    public static String contentType(String format) {
+        return switch (requireSupported(format)) {
+            case "csv" -> "text/csv;charset=UTF-8";
+            default -> "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+        };
+    }
+
+    /**
+     * 生成带扩展名的导出文件名
+     *
+     * @param baseName 文件名（不含扩展名）
+     * @param format 导出格式
+     * @return 文件名
+     */
+    public static String filename(String baseName, String format) {
+        return baseName + "." + requireSupported(format);
+    }
+
+    /**
+     * 打开写出器并写入表头
+     *
+     * @param format 导出格式
+     * @param out 输出流（由调用方关闭）
+     * @param headers 表头
+     * @return 写出器
+     */
+    public static TabularRowWriter open(String format, OutputStream out, List<String> headers) {
+        TabularRowWriter writer;
+        if ("csv".equals(requireSupported(format))) {
+            Writer csvOut = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            try {
+                // 写入BOM，便于Excel按UTF-8识别中文
+                csvOut.write('\uFEFF');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            writer = new TabularRowWriter(headers, CsvUtil.getWriter(csvOut), null, out);
+            writer.csvWriter.writeLine(headers.toArray(new String[0]));
+        } else {
+            SXSSFWorkbook workbook = new SXSSFWorkbook(XLSX_WINDOW_SIZE);
+            workbook.setCompressTempFiles(true);
+            writer = new TabularRowWriter(headers, null, workbook, out);
+            writer.newSheet();
+        }
+        return writer;
+    }
+
+    /**
+     * 写入一行数据
+     *
+     * @param cells 单元格值（数值按数值写入XLSX，日期时间按 yyyy-MM-dd HH:mm:ss 格式化，null 为空单元格）
+     */
+    public void writeRow(Object... cells) {
+        if (csvWriter != null) {
+            String[] line = new String[cells.length];
+            for (int i = 0; i < cells.length; i++) {
+                line[i] = toText(cells[i]);
+            }
+            csvWriter.writeLine(line);
+            return;
+        }
+        if (rowIndex > XLSX_MAX_DATA_ROWS) {
+            newSheet();
+        }
+        Row row = sheet.createRow(rowIndex++);
+        for (int i = 0; i < cells.length; i++) {
+            Object value = cells[i];
+            if (value == null) {
+                continue;
+            }
+            Cell cell = row.createCell(i);
+            if (value instanceof Number number) {
+                cell.setCellValue(number instanceof BigDecimal decimal ? decimal.doubleValue() : number.doubleValue());
+            } else {
+                cell.setCellValue(toText(value));
+            }
+        }
+    }
+
+    /**
+     * 完成写出：CSV 刷新缓冲区，XLSX 打包写入输出流并删除临时文件
+     * 不关闭调用方传入的输出流
+     */
+    @Override
+    public void close() throws IOException {
+        if (csvWriter != null) {
+            csvWriter.flush();
+            return;
+        }
+        try {
+            workbook.write(out);
+        } finally {
+            workbook.close();
+        }
+    }
+
+    /**
+     * 创建新工作表并写入表头
+     */
+    private void newSheet() {
+        sheet = workbook.createSheet("Sheet" + (workbook.getNumberOfSheets() + 1));
+        Row headerRow = sheet.createRow(0);
+        for (int i = 0; i < headers.size(); i++) {
+            headerRow.createCell(i).setCellValue(headers.get(i));
+        }
+        rowIndex = 1;
+    }
+
+    /**
+     * 单元格值转文本
+     */
+    private static String toText(Object value) {
+        if (value == null) {
+            return "";
+        }
+        if (value instanceof BigDecimal decimal) {
+            return decimal.toPlainString();
+        }
+        if (value instanceof LocalDateTime dateTime) {
+            return dateTime.format(DATE_TIME_FORMATTER);
+        }
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime().format(DATE_TIME_FORMATTER);
+        }
+        return value.toString();
+    }
+
+    /**
+     * 校验导出格式，返回小写格式名
+     */
+    private static String requireSupported(String format) {
+        if (!isSupported(format)) {
+            throw new BusinessException(ResponseCode.PARAM_ERROR.getCode(), "导出格式仅支持csv或xlsx");
+        }
+        return normalize(format);
+    }
+
+    private static String normalize(String format) {
+        return format == null ? "" : format.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,6 +1,8 @@
 package com.lw.graduation.log.service;
 
 import com.baomidou.mybatisplus.extension.service.IService;
+import com.lw.graduation.api.dto.log.SysLogPageQueryDTO;
+import com.lw.graduation.common.base.CursorPage;
 import com.lw.graduation.domain.entity.log.SysLog;
 
 /**
@@ -23,6 +25,14 @@ public interface SysLogService extends IService<SysLog> {
      * @param ipAddress IP地址
      */
     void logOperation(Long userId, String userType, String operation, String ipAddress);
+
+    /**
+     * 游标分页查询日志（按创建时间倒序，日志表数据量大，不提供OFFSET分页）
+     *
+     * @param queryDTO 查询条件（cursor 为上一页返回的 nextCursor）
+     * @return 游标分页结果
+     */
+    CursorPage<SysLog> getLogCursorPage(SysLogPageQueryDTO queryDTO);
     
     // 以下方法为扩展功能，可根据实际需求逐步启用
     // logOperationEnhanced - 增强版日志记录
@@ -1,8 +1,12 @@
 package com.lw.graduation.log.service.impl;
 
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.lw.graduation.api.dto.log.SysLogPageQueryDTO;
+import com.lw.graduation.common.base.CursorPage;
 import com.lw.graduation.domain.entity.log.SysLog;
 import com.lw.graduation.infrastructure.mapper.log.SysLogMapper;
+import com.lw.graduation.infrastructure.page.KeysetPageHelper;
 import com.lw.graduation.log.service.SysLogService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -44,6 +48,18 @@ public class SysLogServiceImpl extends ServiceImpl<SysLogMapper, SysLog> impleme
         }
     }
 
+    @Override
+    public CursorPage<SysLog> getLogCursorPage(SysLogPageQueryDTO queryDTO) {
+        LambdaQueryWrapper<SysLog> wrapper = new LambdaQueryWrapper<>();
+        wrapper.eq(queryDTO.getUserId() != null, SysLog::getUserId, queryDTO.getUserId())
+                .eq(queryDTO.getModule() != null, SysLog::getModule, queryDTO.getModule())
+                .eq(queryDTO.getBusinessId() != null, SysLog::getBusinessId, queryDTO.getBusinessId())
+                .eq(queryDTO.getStatus() != null, SysLog::getStatus, queryDTO.getStatus());
+
+        return KeysetPageHelper.selectPage(sysLogMapper, wrapper, SysLog::getCreatedAt, SysLog::getId,
+                queryDTO, logs -> logs);
+    }
+
     // 以下为扩展功能实现，可根据实际需求逐步启用
     // logOperationEnhanced - 增强版日志记录
     // logSecurityEvent - 安全日志记录
@@ -9,6 +9,7 @@ import com.lw.graduation.api.dto.notice.NoticePageQueryDTO;
 import com.lw.graduation.api.dto.notice.NoticeUpdateDTO;
 import com.lw.graduation.api.service.notice.NoticeService;
 import com.lw.graduation.api.vo.notice.NoticeVO;
+import com.lw.graduation.common.base.CursorPage;
 import com.lw.graduation.common.constant.CacheConstants;
 import com.lw.graduation.common.enums.ResponseCode;
 import com.lw.graduation.common.exception.BusinessException;
@@ -19,6 +20,9 @@ import com.lw.graduation.domain.enums.notice.NoticeStatus;
 import com.lw.graduation.domain.enums.notice.NoticeType;
 import com.lw.graduation.infrastructure.mapper.notice.BizNoticeMapper;
 import com.lw.graduation.infrastructure.mapper.user.SysUserMapper;
+import com.lw.graduation.infrastructure.page.KeysetPageHelper;
+import com.lw.graduation.infrastructure.search.SearchDocType;
+import com.lw.graduation.infrastructure.search.SearchIndexService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -42,26 +46,33 @@ public class NoticeServiceImpl extends ServiceImpl<BizNoticeMapper, BizNotice> i
     private final BizNoticeMapper bizNoticeMapper;
     private final SysUserMapper sysUserMapper;
     private final CacheHelper cacheHelper;
+    private final SearchIndexService searchIndexService;
 
     @Override
     public IPage<NoticeVO> getNoticePage(NoticePageQueryDTO queryDTO) {
         log.info("分页查询通知列表: {}", queryDTO);
 
-        LambdaQueryWrapper<BizNotice> wrapper = new LambdaQueryWrapper<>();
-        wrapper.like(queryDTO.getTitle() != null, BizNotice::getTitle, queryDTO.getTitle())
-                .eq(queryDTO.getType() != null, BizNotice::getType, queryDTO.getType())
-                .eq(queryDTO.getPriority() != null, BizNotice::getPriority, queryDTO.getPriority())
-                .eq(queryDTO.getStatus() != null, BizNotice::getStatus, queryDTO.getStatus())
-                .eq(queryDTO.getIsSticky() != null, BizNotice::getIsSticky, queryDTO.getIsSticky())
-                .eq(queryDTO.getTargetScope() != null, BizNotice::getTargetScope, queryDTO.getTargetScope())
-                .eq(queryDTO.getPublisherId() != null, BizNotice::getPublisherId, queryDTO.getPublisherId())
-                .eq(BizNotice::getIsDeleted, 0)
-                .orderByDesc(BizNotice::getIsSticky)
-                .orderByDesc(BizNotice::getPublishedAt)
-                .orderByDesc(BizNotice::getCreatedAt);
-
-        IPage<BizNotice> page = new Page<>(queryDTO.getCurrent(), queryDTO.getSize());
-        IPage<BizNotice> noticePage = bizNoticeMapper.selectPage(page, wrapper);
+        // 标题关键词优先走全文索引，得到按相关度排序的候选ID
+        String title = queryDTO.getTitle();
+        List<Long> rankedIds = searchIndexService.isSearchable(title)
+                ? searchIndexService.searchIds(SearchDocType.NOTICE, title) : List.of();
+        // 索引未命中（如词中间的片段）时回退为模糊查询
+        boolean useIndex = !rankedIds.isEmpty();
+
+        LambdaQueryWrapper<BizNotice> wrapper = buildNoticeQueryWrapper(queryDTO, useIndex, rankedIds);
+        wrapper.orderByDesc(!useIndex, BizNotice::getIsSticky)
+                .orderByDesc(!useIndex, BizNotice::getPublishedAt)
+                .orderByDesc(!useIndex, BizNotice::getCreatedAt);
+
+        // 索引命中时按相关度在内存中分页
+        IPage<BizNotice> noticePage;
+        if (useIndex) {
+            noticePage = searchIndexService.toRankedPage(bizNoticeMapper.selectList(wrapper), BizNotice::getId,
+                    rankedIds, queryDTO.getCurrent(), queryDTO.getSize());
+        } else {
+            IPage<BizNotice> page = new Page<>(queryDTO.getCurrent(), queryDTO.getSize(), queryDTO.isCountRequired());
+            noticePage = bizNoticeMapper.selectPage(page, wrapper);
+        }
 
         IPage<NoticeVO> voPage = new Page<>(queryDTO.getCurrent(), queryDTO.getSize());
         voPage.setRecords(noticePage.getRecords().stream()
@@ -72,6 +83,45 @@ public class NoticeServiceImpl extends ServiceImpl<BizNoticeMapper, BizNotice> i
         return voPage;
     }
 
+    @Override
+    public CursorPage<NoticeVO> getNoticeCursorPage(NoticePageQueryDTO queryDTO) {
+        // 标题关键词通过全文索引转为ID过滤条件
+        String title = queryDTO.getTitle();
+        List<Long> matchedIds = searchIndexService.isSearchable(title)
+                ? searchIndexService.searchIds(SearchDocType.NOTICE, title) : List.of();
+        // 索引未命中（如词中间的片段）时回退为模糊查询
+        boolean useIndex = !matchedIds.isEmpty();
+
+        // 按 (created_at, id) 键集分页
+        LambdaQueryWrapper<BizNotice> wrapper = buildNoticeQueryWrapper(queryDTO, useIndex, matchedIds);
+        return KeysetPageHelper.selectPage(bizNoticeMapper, wrapper, BizNotice::getCreatedAt, BizNotice::getId,
+                queryDTO, notices -> notices.stream().map(this::convertToNoticeVO).collect(Collectors.toList()));
+    }
+
+    /**
+     * 构建通知分页过滤条件（不含排序）
+     *
+     * @param queryDTO 查询条件
+     * @param useIndex 标题是否已通过全文索引解析
+     * @param matchedIds 全文索引命中的ID
+     * @return 查询构造器
+     */
+    private LambdaQueryWrapper<BizNotice> buildNoticeQueryWrapper(NoticePageQueryDTO queryDTO, boolean useIndex,
+                                                                  List<Long> matchedIds) {
+        String title = queryDTO.getTitle();
+        LambdaQueryWrapper<BizNotice> wrapper = new LambdaQueryWrapper<>();
+        wrapper.in(useIndex, BizNotice::getId, matchedIds)
+                .like(!useIndex && title != null, BizNotice::getTitle, title)
+                .eq(queryDTO.getType() != null, BizNotice::getType, queryDTO.getType())
+                .eq(queryDTO.getPriority() != null, BizNotice::getPriority, queryDTO.getPriority())
+                .eq(queryDTO.getStatus() != null, BizNotice::getStatus, queryDTO.getStatus())
+                .eq(queryDTO.getIsSticky() != null, BizNotice::getIsSticky, queryDTO.getIsSticky())
+                .eq(queryDTO.getTargetScope() != null, BizNotice::getTargetScope, queryDTO.getTargetScope())
+                .eq(queryDTO.getPublisherId() != null, BizNotice::getPublisherId, queryDTO.getPublisherId())
+                .eq(BizNotice::getIsDeleted, 0);
+        return wrapper;
+    }
+
     @Override
     public NoticeVO getNoticeById(Long id) {
         if (id == null) {
@@ -134,6 +184,7 @@ public class NoticeServiceImpl extends ServiceImpl<BizNoticeMapper, BizNotice> i
         }
 
         clearNoticeCache(notice.getId());
+        searchIndexService.indexNotice(notice);
         return convertToNoticeVO(notice);
     }
 
@@ -171,6 +222,7 @@ public class NoticeServiceImpl extends ServiceImpl<BizNoticeMapper, BizNotice> i
         }
 
         clearNoticeCache(id);
+        searchIndexService.indexNotice(notice);
     }
 
     @Override
@@ -245,6 +297,7 @@ public class NoticeServiceImpl extends ServiceImpl<BizNoticeMapper, BizNotice> i
         }
 
         clearNoticeCache(id);
+        searchIndexService.remove(SearchDocType.NOTICE, id);
 
         log.info("通知删除成功，ID: {}", id);
     }
@@ -9,6 +9,7 @@ import com.lw.graduation.api.dto.selection.SelectionPageQueryDTO;
 import com.lw.graduation.api.dto.selection.SelectionReviewDTO;
 import com.lw.graduation.api.service.selection.SelectionService;
 import com.lw.graduation.api.vo.selection.SelectionVO;
+import com.lw.graduation.common.base.CursorPage;
 import com.lw.graduation.common.constant.CacheConstants;
 import com.lw.graduation.common.enums.ResponseCode;
 import com.lw.graduation.common.exception.BusinessException;
@@ -21,18 +22,24 @@ import com.lw.graduation.domain.entity.user.SysUser;
 import com.lw.graduation.domain.enums.status.SelectionStatus;
 import com.lw.graduation.domain.enums.status.TopicStatus;
 import com.lw.graduation.topic.service.impl.TopicServiceImpl;
+import com.lw.graduation.topic.service.internal.TopicInternalService;
 import com.lw.graduation.infrastructure.mapper.selection.BizSelectionMapper;
 import com.lw.graduation.infrastructure.mapper.student.BizStudentMapper;
 import com.lw.graduation.infrastructure.mapper.topic.BizTopicMapper;
 import com.lw.graduation.infrastructure.mapper.user.SysUserMapper;
+import com.lw.graduation.infrastructure.page.KeysetPageHelper;
+import com.lw.graduation.infrastructure.tabular.TabularRowWriter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.CollectionUtils;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 选题服务实现类
@@ -50,22 +57,24 @@ public class SelectionServiceImpl extends ServiceImpl<BizSelectionMapper, BizSel
     private final BizStudentMapper bizStudentMapper;
     private final SysUserMapper sysUserMapper;
     private final TopicServiceImpl topicService;
+    private final TopicInternalService topicInternalService;
     private final CacheHelper cacheHelper;
 
+    /** 选题导出表头 */
+    private static final List<String> SELECTION_EXPORT_HEADERS = List.of(
+            "选题ID", "学号", "学生姓名", "班级", "题目ID", "题目标题", "院系", "指导教师",
+            "状态", "审核人", "审核意见", "审核时间", "确认时间", "申请时间");
+
     @Override
     public IPage<SelectionVO> getSelectionPage(SelectionPageQueryDTO queryDTO) {
         log.info("分页查询选题列表，当前页: {}，每页大小: {}", queryDTO.getCurrent(), queryDTO.getSize());
         
         // 1. 构建查询条件
-        LambdaQueryWrapper<BizSelection> wrapper = new LambdaQueryWrapper<>();
-        wrapper.eq(queryDTO.getStudentId() != null, BizSelection::getStudentId, queryDTO.getStudentId())
-                .eq(queryDTO.getTopicId() != null, BizSelection::getTopicId, queryDTO.getTopicId())
-                .eq(queryDTO.getStatus() != null, BizSelection::getStatus, queryDTO.getStatus())
-                .eq(BizSelection::getIsDeleted, 0)
-                .orderByDesc(BizSelection::getCreatedAt);
+        LambdaQueryWrapper<BizSelection> wrapper = buildSelectionQueryWrapper(queryDTO);
+        wrapper.orderByDesc(BizSelection::getCreatedAt);
 
         // 2. 执行分页查询
-        IPage<BizSelection> page = new Page<>(queryDTO.getCurrent(), queryDTO.getSize());
+        IPage<BizSelection> page = new Page<>(queryDTO.getCurrent(), queryDTO.getSize(), queryDTO.isCountRequired());
         IPage<BizSelection> selectionPage = bizSelectionMapper.selectPage(page, wrapper);
 
         // 3. 转换为VO并填充关联信息
@@ -78,6 +87,29 @@ public class SelectionServiceImpl extends ServiceImpl<BizSelectionMapper, BizSel
         return voPage;
     }
 
+    @Override
+    public CursorPage<SelectionVO> getSelectionCursorPage(SelectionPageQueryDTO queryDTO) {
+        LambdaQueryWrapper<BizSelection> wrapper = buildSelectionQueryWrapper(queryDTO);
+        return KeysetPageHelper.selectPage(bizSelectionMapper, wrapper, BizSelection::getCreatedAt,
+                BizSelection::getId, queryDTO,
+                selections -> selections.stream().map(this::convertToSelectionVO).toList());
+    }
+
+    /**
+     * 构建选题分页过滤条件（不含排序）
+     *
+     * @param queryDTO 查询条件
+     * @return 查询构造器
+     */
+    private LambdaQueryWrapper<BizSelection> buildSelectionQueryWrapper(SelectionPageQueryDTO queryDTO) {
+        LambdaQueryWrapper<BizSelection> wrapper = new LambdaQueryWrapper<>();
+        wrapper.eq(queryDTO.getStudentId() != null, BizSelection::getStudentId, queryDTO.getStudentId())
+                .eq(queryDTO.getTopicId() != null, BizSelection::getTopicId, queryDTO.getTopicId())
+                .eq(queryDTO.getStatus() != null, BizSelection::getStatus, queryDTO.getStatus())
+                .eq(BizSelection::getIsDeleted, 0);
+        return wrapper;
+    }
+
     @Override
     public SelectionVO getSelectionById(Long id) {
         if (id == null) {
@@ -303,11 +335,7 @@ public class SelectionServiceImpl extends ServiceImpl<BizSelectionMapper, BizSel
         
         // 4. 如果是已通过的申请，需要减少题目选中人数
         if (selection.isApproved()) {
-            BizTopic topic = bizTopicMapper.selectById(topicId);
-            if (topic != null && topic.getSelectedCount() > 0) {
-                topic.setSelectedCount(topic.getSelectedCount() - 1);
-                bizTopicMapper.updateById(topic);
-            }
+            topicInternalService.releaseSelection(topicId);
         }
         
         // 5. 逻辑删除选题申请
@@ -432,6 +460,29 @@ public class SelectionServiceImpl extends ServiceImpl<BizSelectionMapper, BizSel
         log.info("选题删除成功，ID: {}", id);
     }
 
+    @Override
+    public void exportSelections(SelectionPageQueryDTO queryDTO, String format, OutputStream out) throws IOException {
+        log.info("导出选题记录，格式: {}，条件: {}", format, queryDTO);
+        long startTime = System.currentTimeMillis();
+        long[] rowCount = {0};
+        try (TabularRowWriter writer = TabularRowWriter.open(format, out, SELECTION_EXPORT_HEADERS)) {
+            bizSelectionMapper.exportSelections(queryDTO.getStudentId(), queryDTO.getTopicId(), queryDTO.getStatus(),
+                    context -> {
+                        Map<String, Object> row = context.getResultObject();
+                        SelectionStatus status = SelectionStatus.getByValue(
+                                row.get("status") != null ? ((Number) row.get("status")).intValue() : null);
+                        writer.writeRow(row.get("id"), row.get("student_number"), row.get("student_name"),
+                                row.get("class_name"), row.get("topic_id"), row.get("topic_title"),
+                                row.get("department_name"), row.get("advisor_name"),
+                                status != null ? status.getDescription() : row.get("status"),
+                                row.get("reviewer_name"), row.get("review_comment"), row.get("reviewed_at"),
+                                row.get("confirmed_at"), row.get("created_at"));
+                        rowCount[0]++;
+                    });
+        }
+        log.info("选题记录导出完成，共 {} 行，耗时 {} ms", rowCount[0], System.currentTimeMillis() - startTime);
+    }
+
     /**
      * 转换选题实体为VO
      */
@@ -0,0 +1,375 @@
+package com.lw.graduation.topic.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.lw.graduation.api.service.topic.TopicImportService;
+import com.lw.graduation.api.vo.topic.TopicImportResultVO;
+import com.lw.graduation.api.vo.topic.TopicImportRowVO;
+import com.lw.graduation.common.enums.ResponseCode;
+import com.lw.graduation.common.exception.BusinessException;
+import com.lw.graduation.domain.entity.department.SysDepartment;
+import com.lw.graduation.domain.entity.teacher.BizTeacher;
+import com.lw.graduation.domain.entity.topic.BizTopic;
+import com.lw.graduation.domain.enums.status.TopicStatus;
+import com.lw.graduation.infrastructure.mapper.department.SysDepartmentMapper;
+import com.lw.graduation.infrastructure.mapper.teacher.BizTeacherMapper;
+import com.lw.graduation.infrastructure.mapper.topic.BizTopicMapper;
+import com.lw.graduation.infrastructure.search.SearchIndexService;
+import com.lw.graduation.infrastructure.tabular.TabularRowReader;
+import com.lw.graduation.topic.service.internal.SelectableTopicCatalog;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 题目批量导入服务实现类
+ * 流式解析CSV/XLSX，并行完成字段校验，院系存在性与标题重复性各用一次查询预加载后在内存中判断，
+ * 通过JDBC批处理分块写入，最后统一刷新可选题目目录和全文索引。
+ *
+ * @author lw
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TopicImportServiceImpl implements TopicImportService {
+
+    /** 单次导入最大数据行数 */
+    private static final int MAX_IMPORT_ROWS = 5000;
+    /** 每个批处理事务写入的行数 */
+    private static final int INSERT_CHUNK_SIZE = 500;
+
+    /** 表头别名（中文或英文列名） -> 字段名 */
+    private static final Map<String, String> HEADER_ALIASES = Map.ofEntries(
+            Map.entry("标题", "title"), Map.entry("题目标题", "title"), Map.entry("title", "title"),
+            Map.entry("描述", "description"), Map.entry("题目描述", "description"), Map.entry("description", "description"),
+            Map.entry("院系id", "departmentId"), Map.entry("departmentid", "departmentId"),
+            Map.entry("来源", "source"), Map.entry("题目来源", "source"), Map.entry("source", "source"),
+            Map.entry("类型", "type"), Map.entry("题目类型", "type"), Map.entry("type", "type"),
+            Map.entry("性质", "nature"), Map.entry("题目性质", "nature"), Map.entry("nature", "nature"),
+            Map.entry("难度", "difficulty"), Map.entry("difficulty", "difficulty"),
+            Map.entry("工作量", "workload"), Map.entry("workload", "workload"),
+            Map.entry("人数上限", "maxSelections"), Map.entry("maxselections", "maxSelections"));
+
+    /** 必须存在的列 */
+    private static final List<String> REQUIRED_COLUMNS = List.of("title", "description", "departmentId");
+
+    private final BizTopicMapper bizTopicMapper;
+    private final BizTeacherMapper bizTeacherMapper;
+    private final SysDepartmentMapper sysDepartmentMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final SelectableTopicCatalog selectableTopicCatalog;
+    private final SearchIndexService searchIndexService;
+
+    @Override
+    public TopicImportResultVO importTopics(MultipartFile file, Long userId) {
+        if (file == null || file.isEmpty()) {
+            throw new BusinessException(ResponseCode.PARAM_ERROR.getCode(), "导入文件不能为空");
+        }
+        if (!TabularRowReader.isSupported(file.getOriginalFilename())) {
+            throw new BusinessException(ResponseCode.PARAM_ERROR.getCode(), "仅支持CSV或XLSX格式的文件");
+        }
+
+        // 1. 解析当前教师
+        BizTeacher teacher = bizTeacherMapper.selectOne(new LambdaQueryWrapper<BizTeacher>()
+                .eq(BizTeacher::getUserId, userId)
+                .eq(BizTeacher::getIsDeleted, 0));
+        if (teacher == null) {
+            throw new BusinessException(ResponseCode.FORBIDDEN.getCode(), "仅教师可导入题目");
+        }
+        log.info("教师 {} 开始批量导入题目，文件: {}", teacher.getId(), file.getOriginalFilename());
+
+        // 2. 流式读取数据行
+        List<ImportRow> rows = readRows(file);
+
+        // 3. 并行校验字段格式（各行之间无依赖）
+        rows.parallelStream().forEach(row -> row.topic = parseTopic(row, teacher.getId()));
+
+        // 4. 预加载院系与已存在标题，检查院系存在性和重复标题
+        checkReferences(rows);
+
+        // 5. 分块批量写入
+        List<ImportRow> valid = rows.stream().filter(ImportRow::isValid).toList();
+        for (int from = 0; from < valid.size(); from += INSERT_CHUNK_SIZE) {
+            insertChunk(valid.subList(from, Math.min(from + INSERT_CHUNK_SIZE, valid.size())));
+        }
+
+        // 6. 统一刷新可选题目目录和全文索引
+        List<BizTopic> saved = rows.stream().filter(row -> row.saved).map(row -> row.topic).toList();
+        if (!saved.isEmpty()) {
+            selectableTopicCatalog.invalidate(saved.stream().map(BizTopic::getDepartmentId).collect(Collectors.toSet()));
+            saved.forEach(searchIndexService::indexTopic);
+        }
+
+        TopicImportResultVO result = buildResult(rows);
+        log.info("题目批量导入完成，总行数: {}，成功: {}，失败: {}",
+                result.getTotalRows(), result.getSuccessCount(), result.getFailureCount());
+        return result;
+    }
+
+    /**
+     * 读取表头与数据行，跳过空行
+     */
+    private List<ImportRow> readRows(MultipartFile file) {
+        List<ImportRow> rows = new ArrayList<>();
+        Map<Integer, String> columns = new HashMap<>();
+        try (InputStream in = file.getInputStream()) {
+            TabularRowReader.read(file.getOriginalFilename(), in, (rowNumber, cells) -> {
+                if (cells.stream().allMatch(String::isEmpty)) {
+                    return;
+                }
+                if (columns.isEmpty()) {
+                    resolveHeader(cells, columns);
+                    return;
+                }
+                if (rows.size() >= MAX_IMPORT_ROWS) {
+                    throw new BusinessException(ResponseCode.PARAM_ERROR.getCode(),
+                            "单次最多导入" + MAX_IMPORT_ROWS + "行数据");
+                }
+                Map<String, String> values = new HashMap<>();
+                columns.forEach((index, field) -> values.put(field, index < cells.size() ? cells.get(index) : ""));
+                rows.add(new ImportRow(rowNumber, values));
+            });
+        } catch (IOException e) {
+            throw new BusinessException(ResponseCode.PARAM_ERROR.getCode(), "导入文件读取失败: " + e.getMessage());
+        }
+        if (rows.isEmpty()) {
+            throw new BusinessException(ResponseCode.PARAM_ERROR.getCode(), "导入文件中没有数据行");
+        }
+        return rows;
+    }
+
+    /**
+     * 解析表头，建立列下标到字段名的映射
+     */
+    private void resolveHeader(List<String> cells, Map<Integer, String> columns) {
+        for (int i = 0; i < cells.size(); i++) {
+            String field = HEADER_ALIASES.get(cells.get(i).replace(" ", "").toLowerCase(Locale.ROOT));
+            if (field != null) {
+                columns.putIfAbsent(i, field);
+            }
+        }
+        for (String required : REQUIRED_COLUMNS) {
+            if (!columns.containsValue(required)) {
+                throw new BusinessException(ResponseCode.PARAM_ERROR.getCode(), "导入文件缺少必需列: " + required);
+            }
+        }
+    }
+
+    /**
+     * 校验单行字段并构造题目实体，失败时记录原因并返回null
+     */
+    private BizTopic parseTopic(ImportRow row, Long teacherId) {
+        try {
+            String title = requireText(row, "title", "题目标题", 200);
+            String description = requireText(row, "description", "题目描述", Integer.MAX_VALUE);
+            Long departmentId = parseLong(row.get("departmentId"), "院系ID");
+            if (departmentId == null) {
+                throw new IllegalArgumentException("院系ID不能为空");
+            }
+
+            BizTopic topic = new BizTopic();
+            topic.setTitle(title);
+            topic.setDescription(description);
+            topic.setTeacherId(teacherId);
+            topic.setDepartmentId(departmentId);
+            topic.setSource(optionalText(row, "source", "题目来源", 100));
+            topic.setType(optionalText(row, "type", "题目类型", 50));
+            topic.setNature(optionalText(row, "nature", "题目性质", 50));
+            topic.setDifficulty(parseRange(row.get("difficulty"), "预计难度", 1, 5));
+            topic.setWorkload(parseRange(row.get("workload"), "预计工作量", 1, 5));
+            Integer maxSelections = parseRange(row.get("maxSelections"), "人数上限", 1, Integer.MAX_VALUE);
+            topic.setMaxSelections(maxSelections != null ? maxSelections : 1);
+            topic.setSelectedCount(0);
+            topic.setStatus(TopicStatus.OPEN.getValue());
+            return topic;
+        } catch (IllegalArgumentException e) {
+            row.error = e.getMessage();
+            return null;
+        }
+    }
+
+    /**
+     * 一次查询院系、一次查询已存在标题，在内存中完成引用和重复检查
+     */
+    private void checkReferences(List<ImportRow> rows) {
+        List<ImportRow> parsed = rows.stream().filter(ImportRow::isValid).toList();
+        if (parsed.isEmpty()) {
+            return;
+        }
+
+        Set<Long> departmentIds = parsed.stream().map(row -> row.topic.getDepartmentId()).collect(Collectors.toSet());
+        Set<Long> existingDepartments = sysDepartmentMapper.selectList(new LambdaQueryWrapper<SysDepartment>()
+                        .select(SysDepartment::getId)
+                        .in(SysDepartment::getId, departmentIds)
+                        .eq(SysDepartment::getIsDeleted, 0))
+                .stream().map(SysDepartment::getId).collect(Collectors.toSet());
+
+        Set<String> titles = parsed.stream().map(row -> row.topic.getTitle()).collect(Collectors.toSet());
+        Set<String> takenKeys = bizTopicMapper.selectList(new LambdaQueryWrapper<BizTopic>()
+                        .select(BizTopic::getDepartmentId, BizTopic::getTitle)
+                        .in(BizTopic::getDepartmentId, existingDepartments.isEmpty() ? departmentIds : existingDepartments)
+                        .in(BizTopic::getTitle, titles)
+                        .eq(BizTopic::getIsDeleted, 0))
+                .stream().map(topic -> duplicateKey(topic.getDepartmentId(), topic.getTitle()))
+                .collect(Collectors.toCollection(HashSet::new));
+
+        // 按文件顺序检查，同一文件内重复时保留首次出现的行
+        Map<String, Integer> firstRowByKey = new HashMap<>();
+        for (ImportRow row : parsed) {
+            BizTopic topic = row.topic;
+            String key = duplicateKey(topic.getDepartmentId(), topic.getTitle());
+            if (!existingDepartments.contains(topic.getDepartmentId())) {
+                row.reject("院系不存在: " + topic.getDepartmentId());
+            } else if (takenKeys.contains(key)) {
+                row.reject("该院系已存在同名题目");
+            } else if (firstRowByKey.containsKey(key)) {
+                row.reject("与第" + firstRowByKey.get(key) + "行题目重复");
+            } else {
+                firstRowByKey.put(key, row.rowNumber);
+            }
+        }
+    }
+
+    /**
+     * 在独立事务中批量写入一块数据，失败时整块标记为失败
+     */
+    private void insertChunk(List<ImportRow> chunk) {
+        List<BizTopic> topics = chunk.stream().map(row -> row.topic).toList();
+        try {
+            transactionTemplate.executeWithoutResult(status -> bizTopicMapper.insert(topics, topics.size()));
+            chunk.forEach(row -> row.saved = true);
+        } catch (Exception e) {
+            log.error("题目批量写入失败，起始行: {}，行数: {}", chunk.getFirst().rowNumber, chunk.size(), e);
+            chunk.forEach(row -> row.reject("数据库写入失败"));
+        }
+    }
+
+    /**
+     * 汇总逐行结果
+     */
+    private TopicImportResultVO buildResult(List<ImportRow> rows) {
+        List<TopicImportRowVO> rowResults = new ArrayList<>(rows.size());
+        int successCount = 0;
+        for (ImportRow row : rows) {
+            TopicImportRowVO vo = new TopicImportRowVO();
+            vo.setRowNumber(row.rowNumber);
+            vo.setTitle(row.get("title"));
+            vo.setSuccess(row.saved);
+            if (row.saved) {
+                vo.setTopicId(row.topic.getId());
+                successCount++;
+            } else {
+                vo.setMessage(row.error);
+            }
+            rowResults.add(vo);
+        }
+
+        TopicImportResultVO result = new TopicImportResultVO();
+        result.setTotalRows(rows.size());
+        result.setSuccessCount(successCount);
+        result.setFailureCount(rows.size() - successCount);
+        result.setRows(rowResults);
+        return result;
+    }
+
+    /**
+     * 读取必填文本
+     */
+    private String requireText(ImportRow row, String field, String label, int maxLength) {
+        String value = optionalText(row, field, label, maxLength);
+        if (value == null) {
+            throw new IllegalArgumentException(label + "不能为空");
+        }
+        return value;
+    }
+
+    /**
+     * 读取可选文本并检查长度
+     */
+    private String optionalText(ImportRow row, String field, String label, int maxLength) {
+        String value = row.get(field);
+        if (value.isEmpty()) {
+            return null;
+        }
+        if (value.length() > maxLength) {
+            throw new IllegalArgumentException(label + "长度不能超过" + maxLength);
+        }
+        return value;
+    }
+
+    /**
+     * 解析整数ID
+     */
+    private Long parseLong(String value, String label) {
+        if (value.isEmpty()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(label + "格式不正确: " + value);
+        }
+    }
+
+    /**
+     * 解析区间内的整数
+     */
+    private Integer parseRange(String value, String label, int min, int max) {
+        Long number = parseLong(value, label);
+        if (number == null) {
+            return null;
+        }
+        if (number < min || number > max) {
+            throw new IllegalArgumentException(label + "必须在" + min + "到" + max + "之间");
+        }
+        return number.intValue();
+    }
+
+    /**
+     * 院系内标题唯一键（忽略大小写）
+     */
+    private static String duplicateKey(Long departmentId, String title) {
+        return departmentId + "|" + title.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 导入行状态
+     */
+    private static final class ImportRow {
+
+        private final int rowNumber;
+        private final Map<String, String> values;
+        private BizTopic topic;
+        private String error;
+        private boolean saved;
+
+        private ImportRow(int rowNumber, Map<String, String> values) {
+            this.rowNumber = rowNumber;
+            this.values = values;
+        }
+
+        private String get(String field) {
+            return values.getOrDefault(field, "");
+        }
+
+        private boolean isValid() {
+            return topic != null && error == null;
+        }
+
+        private void reject(String message) {
+            this.error = message;
+        }
+    }
+}
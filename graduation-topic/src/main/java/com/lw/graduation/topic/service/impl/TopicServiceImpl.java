@@ -8,18 +8,24 @@ import com.lw.graduation.api.dto.topic.TopicCreateDTO;
 import com.lw.graduation.api.dto.topic.TopicPageQueryDTO;
 import com.lw.graduation.api.dto.topic.TopicUpdateDTO;
 import com.lw.graduation.api.service.topic.TopicService;
+import com.lw.graduation.api.vo.topic.TopicCatalogVO;
 import com.lw.graduation.api.vo.topic.TopicVO;
+import com.lw.graduation.common.base.CursorPage;
 import com.lw.graduation.common.constant.CacheConstants;
 import com.lw.graduation.common.enums.ResponseCode;
 import com.lw.graduation.common.exception.BusinessException;
 import com.lw.graduation.common.util.BeanMapperUtil;
 import com.lw.graduation.common.util.CacheHelper;
-import com.lw.graduation.domain.entity.selection.BizSelection;
 import com.lw.graduation.domain.entity.topic.BizTopic;
+import com.lw.graduation.domain.enums.status.SelectionStatus;
 import com.lw.graduation.domain.enums.status.TopicStatus;
-import com.lw.graduation.infrastructure.mapper.selection.BizSelectionMapper;
 import com.lw.graduation.infrastructure.mapper.topic.BizTopicMapper;
+import com.lw.graduation.infrastructure.page.KeysetPageHelper;
+import com.lw.graduation.infrastructure.search.SearchDocType;
+import com.lw.graduation.infrastructure.search.SearchIndexService;
+import com.lw.graduation.topic.service.internal.SelectableTopicCatalog;
 import com.lw.graduation.topic.service.internal.TopicInternalService;
+import com.lw.graduation.topic.service.internal.TopicTransitionResult;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -39,25 +45,35 @@ import java.util.List;
 public class TopicServiceImpl extends ServiceImpl<BizTopicMapper, BizTopic> implements TopicService {
 
     private final BizTopicMapper bizTopicMapper;
-    private final BizSelectionMapper bizSelectionMapper;
     private final CacheHelper cacheHelper;
     private final TopicInternalService topicInternalService; // 注入内部服务
+    private final SearchIndexService searchIndexService;
+    private final SelectableTopicCatalog selectableTopicCatalog;
 
     @Override
     public IPage<TopicVO> getTopicPage(TopicPageQueryDTO queryDTO) {
-        // 1. 构建查询条件
-        LambdaQueryWrapper<BizTopic> wrapper = new LambdaQueryWrapper<>();
-        wrapper.like(queryDTO.getTitle() != null, BizTopic::getTitle, queryDTO.getTitle())
-                .eq(queryDTO.getTeacherId() != null, BizTopic::getTeacherId, queryDTO.getTeacherId())
-                .eq(queryDTO.getStatus() != null, BizTopic::getStatus, queryDTO.getStatus())
-                .eq(BizTopic::getIsDeleted, 0)
-                .orderByDesc(BizTopic::getCreatedAt);
-
-        // 2. 执行分页查询
-        IPage<BizTopic> page = new Page<>(queryDTO.getCurrent(), queryDTO.getSize());
-        IPage<BizTopic> topicPage = bizTopicMapper.selectPage(page, wrapper);
+        // 1. 标题关键词优先走全文索引，得到按相关度排序的候选ID
+        String title = queryDTO.getTitle();
+        List<Long> rankedIds = searchIndexService.isSearchable(title)
+                ? searchIndexService.searchIds(SearchDocType.TOPIC, title) : List.of();
+        // 索引未命中（如词中间的片段）时回退为模糊查询
+        boolean useIndex = !rankedIds.isEmpty();
+
+        // 2. 构建查询条件
+        LambdaQueryWrapper<BizTopic> wrapper = buildTopicQueryWrapper(queryDTO, useIndex, rankedIds);
+
+        // 3. 执行分页查询（索引命中时按相关度在内存中分页）
+        IPage<BizTopic> topicPage;
+        if (useIndex) {
+            topicPage = searchIndexService.toRankedPage(bizTopicMapper.selectList(wrapper), BizTopic::getId,
+                    rankedIds, queryDTO.getCurrent(), queryDTO.getSize());
+        } else {
+            wrapper.orderByDesc(BizTopic::getCreatedAt);
+            IPage<BizTopic> page = new Page<>(queryDTO.getCurrent(), queryDTO.getSize(), queryDTO.isCountRequired());
+            topicPage = bizTopicMapper.selectPage(page, wrapper);
+        }
 
-        // 3. 转换为VO
+        // 4. 转换为VO
         IPage<TopicVO> voPage = new Page<>(queryDTO.getCurrent(), queryDTO.getSize());
         voPage.setRecords(topicPage.getRecords().stream()
                 .map(this::convertToTopicVO)
@@ -67,6 +83,41 @@ public class TopicServiceImpl extends ServiceImpl<BizTopicMapper, BizTopic> impl
         return voPage;
     }
 
+    @Override
+    public CursorPage<TopicVO> getTopicCursorPage(TopicPageQueryDTO queryDTO) {
+        // 1. 标题关键词通过全文索引转为ID过滤条件
+        String title = queryDTO.getTitle();
+        List<Long> matchedIds = searchIndexService.isSearchable(title)
+                ? searchIndexService.searchIds(SearchDocType.TOPIC, title) : List.of();
+        // 索引未命中（如词中间的片段）时回退为模糊查询
+        boolean useIndex = !matchedIds.isEmpty();
+
+        // 2. 按 (created_at, id) 键集分页
+        LambdaQueryWrapper<BizTopic> wrapper = buildTopicQueryWrapper(queryDTO, useIndex, matchedIds);
+        return KeysetPageHelper.selectPage(bizTopicMapper, wrapper, BizTopic::getCreatedAt, BizTopic::getId,
+                queryDTO, topics -> topics.stream().map(this::convertToTopicVO).toList());
+    }
+
+    /**
+     * 构建题目分页过滤条件（不含排序）
+     *
+     * @param queryDTO 查询条件
+     * @param useIndex 标题是否已通过全文索引解析
+     * @param matchedIds 全文索引命中的ID
+     * @return 查询构造器
+     */
+    private LambdaQueryWrapper<BizTopic> buildTopicQueryWrapper(TopicPageQueryDTO queryDTO, boolean useIndex,
+                                                                List<Long> matchedIds) {
+        String title = queryDTO.getTitle();
+        LambdaQueryWrapper<BizTopic> wrapper = new LambdaQueryWrapper<>();
+        wrapper.in(useIndex, BizTopic::getId, matchedIds)
+                .like(!useIndex && title != null, BizTopic::getTitle, title)
+                .eq(queryDTO.getTeacherId() != null, BizTopic::getTeacherId, queryDTO.getTeacherId())
+                .eq(queryDTO.getStatus() != null, BizTopic::getStatus, queryDTO.getStatus())
+                .eq(BizTopic::getIsDeleted, 0);
+        return wrapper;
+    }
+
     @Override
     public TopicVO getTopicById(Long id) {
         if (id == null) {
@@ -111,8 +162,9 @@ public class TopicServiceImpl extends ServiceImpl<BizTopicMapper, BizTopic> impl
             throw new BusinessException(ResponseCode.ERROR.getCode(), "题目创建失败");
         }
 
-        // 3. 清除相关缓存
+        // 3. 清除相关缓存，更新全文索引
         clearTopicCache(topic.getId());
+        searchIndexService.indexTopic(topic);
 
         log.info("题目创建成功，ID: {}", topic.getId());
     }
@@ -156,8 +208,9 @@ public class TopicServiceImpl extends ServiceImpl<BizTopicMapper, BizTopic> impl
             throw new BusinessException(ResponseCode.ERROR.getCode(), "题目更新失败");
         }
 
-        // 5. 清除缓存
+        // 5. 清除缓存，更新全文索引
         clearTopicCache(id);
+        searchIndexService.indexTopic(existingTopic);
 
         log.info("题目更新成功，ID: {}", id);
     }
@@ -185,40 +238,28 @@ public class TopicServiceImpl extends ServiceImpl<BizTopicMapper, BizTopic> impl
             throw new BusinessException(ResponseCode.ERROR.getCode(), "题目删除失败");
         }
 
-        // 4. 清除缓存
+        // 4. 清除缓存，移除全文索引
         clearTopicCache(id);
+        searchIndexService.remove(SearchDocType.TOPIC, id);
 
         log.info("题目删除成功，ID: {}", id);
     }
 
     @Override
     public List<TopicVO> getSelectableTopics(Long departmentId) {
-        log.info("获取可选题目列表，院系ID: {}", departmentId);
-
-        // 1. 构建查询条件
-        LambdaQueryWrapper<BizTopic> wrapper = new LambdaQueryWrapper<>();
-        wrapper.eq(BizTopic::getIsDeleted, 0);
-
-        // 如果指定了院系，则按院系筛选
-        if (departmentId != null) {
-            wrapper.eq(BizTopic::getDepartmentId, departmentId);
-        }
-
-        // 2. 查询所有题目
-        List<BizTopic> allTopics = list(wrapper);
-
-        // 3. 使用isSelectable()方法过滤可选题目
-        List<BizTopic> selectableTopics = allTopics.stream()
-                .filter(topic -> {
-                    TopicStatus status = TopicStatus.getByValue(topic.getStatus());
-                    return status != null && status.isSelectable();
-                })
-                .toList();
+        log.debug("获取可选题目列表，院系ID: {}", departmentId);
+        // 直接读取院系目录快照（SQL过滤加载，写入时增量修补）
+        return selectableTopicCatalog.get(departmentId).topics();
+    }
 
-        // 4. 转换为VO
-        return selectableTopics.stream()
-                .map(this::convertToTopicVO)
-                .toList();
+    @Override
+    public TopicCatalogVO getSelectableTopicCatalog(Long departmentId) {
+        SelectableTopicCatalog.Snapshot snapshot = selectableTopicCatalog.get(departmentId);
+        TopicCatalogVO catalogVO = new TopicCatalogVO();
+        catalogVO.setDepartmentId(departmentId);
+        catalogVO.setEtag(snapshot.etag());
+        catalogVO.setTopics(snapshot.topics());
+        return catalogVO;
     }
     
     /**
@@ -229,21 +270,13 @@ public class TopicServiceImpl extends ServiceImpl<BizTopicMapper, BizTopic> impl
      * @return 可选题目列表
      */
     public List<TopicVO> getAvailableTopics(Long departmentId) {
-        log.info("获取可选题目列表（开放且未满员），院系ID: {}", departmentId);
-        
-        LambdaQueryWrapper<BizTopic> wrapper = new LambdaQueryWrapper<>();
-        wrapper.eq(BizTopic::getStatus, TopicStatus.OPEN.getValue()) // 开放状态
-               .apply("selected_count < max_selections") // 未满员
-               .eq(BizTopic::getIsDeleted, 0);
-
-        if (departmentId != null) {
-            wrapper.eq(BizTopic::getDepartmentId, departmentId);
-        }
-
-        wrapper.orderByDesc(BizTopic::getCreatedAt);
+        log.debug("获取可选题目列表（开放且未满员），院系ID: {}", departmentId);
 
-        return list(wrapper).stream()
-                .map(this::convertToTopicVO)
+        // 开放题目是可选目录的子集，直接在快照上过滤
+        return selectableTopicCatalog.get(departmentId).topics().stream()
+                .filter(topic -> TopicStatus.OPEN.getValue().equals(topic.getStatus())) // 开放状态
+                .filter(topic -> topic.getSelectedCount() != null && topic.getMaxSelections() != null
+                        && topic.getSelectedCount() < topic.getMaxSelections()) // 未满员
                 .toList();
     }
 
@@ -369,16 +402,11 @@ public class TopicServiceImpl extends ServiceImpl<BizTopicMapper, BizTopic> impl
      */
     @Transactional(rollbackFor = Exception.class)
     public void handleSelectionApplied(Long topicId) {
-        BizTopic topic = getById(topicId);
-        if (topic == null || topic.getIsDeleted() == 1) {
-            return;
-        }
-
-        // 如果题目是开放状态，则转为审核中
-        if (TopicStatus.getByValue(topic.getStatus()) == TopicStatus.OPEN) {
-            // 通过内部服务更新状态，确保事务生效
-            topicInternalService.updateTopicStatus(topicId, TopicStatus.REVIEWING.getValue());
-            clearTopicCache(topicId); // 手动清除缓存
+        // 开放状态的题目转为审核中（条件更新，单条语句）
+        TopicTransitionResult result = topicInternalService.transitStatus(topicId,
+                TopicStatus.REVIEWING, TopicStatus.OPEN);
+        if (result.isApplied()) {
+            clearTopicCache(topicId);
             log.info("题目[{}] 操作完成: 因收到选题申请转为审核中状态", topicId);
         }
     }
@@ -391,46 +419,16 @@ public class TopicServiceImpl extends ServiceImpl<BizTopicMapper, BizTopic> impl
      */
     @Transactional(rollbackFor = Exception.class)
     public void handleSelectionReviewed(Long topicId, boolean selectionApproved) {
-        BizTopic topic = getById(topicId);
-        if (topic == null || topic.getIsDeleted() == 1) {
-            return;
-        }
-            
-        TopicStatus currentStatus = TopicStatus.getByValue(topic.getStatus());
-            
-        // 如果题目当前是审核中状态
-        if (currentStatus == TopicStatus.REVIEWING) {
-            // 审核通过时检查所有待处理和已通过的申请
-            // 审核驳回时只检查待审核的申请
-            java.util.function.Predicate<BizSelection> filter = selectionApproved ? 
-                selection -> selection.isPendingReview() || selection.isApproved() :
-                BizSelection::isPendingReview;
-                
-            handleTopicStatusRecovery(topicId, filter);
-        }
-    }
-        
-    /**
-     * 处理题目状态恢复逻辑
-     * 
-     * @param topicId 题目ID
-     * @param selectionFilter 选题过滤条件
-     */
-    private void handleTopicStatusRecovery(Long topicId, java.util.function.Predicate<BizSelection> selectionFilter) {
-        // 检查是否还有符合条件的申请
-        LambdaQueryWrapper<BizSelection> wrapper = new LambdaQueryWrapper<>();
-        wrapper.eq(BizSelection::getTopicId, topicId)
-               .eq(BizSelection::getIsDeleted, 0);
-            
-        long pendingCount = bizSelectionMapper.selectList(wrapper).stream()
-                .filter(selectionFilter)
-                .count();
-            
-        // 如果没有待处理的申请，恢复为开放状态
-        if (pendingCount == 0) {
-            // 通过内部服务更新状态，确保事务生效
-            topicInternalService.updateTopicStatus(topicId, TopicStatus.OPEN.getValue());
-            clearTopicCache(topicId); // 手动清除缓存
+        // 审核通过时待审核和已通过的申请都会阻止恢复开放
+        // 审核驳回时只检查待审核的申请
+        List<Integer> blockingStatuses = selectionApproved
+                ? List.of(SelectionStatus.PENDING_REVIEW.getValue(), SelectionStatus.APPROVED.getValue())
+                : List.of(SelectionStatus.PENDING_REVIEW.getValue());
+
+        // 审核中且无相关申请时恢复为开放状态（条件更新，单条语句）
+        TopicTransitionResult result = topicInternalService.reopenIfNoActiveSelections(topicId, blockingStatuses);
+        if (result.isApplied()) {
+            clearTopicCache(topicId);
             log.info("题目[{}] 操作完成: 所有申请处理完毕，恢复为开放状态", topicId);
         }
     }
@@ -439,29 +437,22 @@ public class TopicServiceImpl extends ServiceImpl<BizTopicMapper, BizTopic> impl
      * 处理学生确认选题事件
      *
      * @param topicId 题目ID
+     * @return 转换后的题目状态
      */
     @Transactional(rollbackFor = Exception.class)
-    public void handleSelectionConfirmed(Long topicId) {
-        BizTopic topic = getById(topicId);
-        if (topic == null || topic.getIsDeleted() == 1) {
-            return;
+    public TopicTransitionResult handleSelectionConfirmed(Long topicId) {
+        // 已选人数加一并按容量置为已选或关闭（条件更新，单条语句）
+        TopicTransitionResult result = topicInternalService.confirmSelection(topicId);
+        if (!result.isApplied()) {
+            throw new BusinessException(ResponseCode.PARAM_ERROR.getCode(), "题目不可确认或名额已满");
         }
+        clearTopicCache(topicId);
 
-        // 更新已选人数
-        topicInternalService.updateSelectedCount(topicId, 1);
-                
-        // 更新状态为已选
-        topicInternalService.updateTopicStatus(topicId, TopicStatus.SELECTED.getValue());
-        clearTopicCache(topicId); // 手动清除缓存
-                
-        // 检查是否达到人数上限
-        if (topic.getSelectedCount() >= topic.getMaxSelections()) {
-            topicInternalService.updateTopicStatus(topicId, TopicStatus.CLOSED.getValue());
-            clearTopicCache(topicId); // 手动清除缓存
+        if (result.getTopicStatus() == TopicStatus.CLOSED) {
             log.info("题目[{}] 操作完成: 达到选题人数上限，自动关闭", topicId);
         }
-
-        log.info("题目[{}] 操作完成: 当前已选人数 {}/{}", topicId, topic.getSelectedCount(), topic.getMaxSelections());
+        log.info("题目[{}] 操作完成: 当前已选人数 {}", topicId, result.getSelectedCount());
+        return result;
     }
 
     /**
@@ -470,5 +461,6 @@ public class TopicServiceImpl extends ServiceImpl<BizTopicMapper, BizTopic> impl
     private void clearTopicCache(Long topicId) {
         String cacheKey = CacheConstants.KeyPrefix.TOPIC_INFO + topicId;
         cacheHelper.evictCache(cacheKey);
+        selectableTopicCatalog.refreshTopic(topicId);
     }
 }
\ No newline at end of file
@@ -0,0 +1,314 @@
+package com.lw.graduation.topic.service.internal;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.lw.graduation.api.vo.topic.TopicVO;
+import com.lw.graduation.common.constant.CacheConstants;
+import com.lw.graduation.common.util.BeanMapperUtil;
+import com.lw.graduation.domain.entity.topic.BizTopic;
+import com.lw.graduation.domain.enums.status.TopicStatus;
+import com.lw.graduation.infrastructure.cache.CacheGenerations;
+import com.lw.graduation.infrastructure.cache.CacheInvalidationBus;
+import com.lw.graduation.infrastructure.mapper.topic.BizTopicMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * 可选题目目录
+ * 按院系维护可选题目（开放、审核中）的不可变内存快照：
+ * 首次读取时用SQL过滤加载，之后题目或选题写入在事务提交后按题目ID增量修补，
+ * 每次修补生成新快照和新版本标识，读路径无锁且不访问数据库。
+ * 修补在读库前领取递增序号，同一题目只应用序号更大的读取结果，避免并发提交的修补乱序覆盖。
+ * 快照在映射锁外加载，按院系代数发布：修补先递增全部院系及题目新旧院系的代数，
+ * 加载期间有修补提交时加载结果只返回给本次调用，不写入目录。
+ * 修补与失效经 CacheInvalidationBus 通知其他实例，快照另有过期时间，通知丢失时过期后重新加载。
+ *
+ * @author lw
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SelectableTopicCatalog {
+
+    /** 全部院系快照的键 */
+    private static final Long ALL_DEPARTMENTS = 0L;
+    /** 快照过期时间（毫秒） */
+    private static final long SNAPSHOT_TTL_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    /** 跨实例通知：修补题目、失效院系、清空 */
+    private static final String MESSAGE_PATCH = "patch:";
+    private static final String MESSAGE_INVALIDATE = "invalidate:";
+    private static final String MESSAGE_INVALIDATE_ALL = "all";
+    /** 事务内待修补题目ID集合的资源键 */
+    private static final Object PENDING_KEY = new Object();
+    /** 快照排序：创建时间倒序，同时间按ID倒序 */
+    private static final Comparator<TopicVO> ORDER = Comparator
+            .comparing(TopicVO::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(TopicVO::getId, Comparator.reverseOrder());
+
+    private final BizTopicMapper bizTopicMapper;
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    private final Map<Long, Snapshot> snapshots = new ConcurrentHashMap<>();
+    /** 院系键的代数（加载前读取，修补与失效时递增） */
+    private final CacheGenerations<Long> generations = new CacheGenerations<>();
+    /** 题目ID到最近所知院系的映射（院系变更时据此递增原院系的代数） */
+    private final Map<Long, Long> topicDepartments = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    /** 修补序号 */
+    private final AtomicLong patchSequence = new AtomicLong();
+    /** 题目ID到已应用修补序号的映射 */
+    private final Map<Long, Long> appliedPatches = new ConcurrentHashMap<>();
+    private final String bootId = Long.toString(System.currentTimeMillis(), 36);
+
+    @PostConstruct
+    public void subscribe() {
+        cacheInvalidationBus.subscribe(CacheConstants.Channel.TOPIC_CATALOG, this::onRemoteChange);
+    }
+
+    /**
+     * 获取院系可选题目快照（首次访问或过期时加载）
+     *
+     * @param departmentId 院系ID（为空表示全部院系）
+     * @return 快照
+     */
+    public Snapshot get(Long departmentId) {
+        Long key = departmentId != null ? departmentId : ALL_DEPARTMENTS;
+        Snapshot snapshot = snapshots.get(key);
+        if (snapshot != null) {
+            if (System.currentTimeMillis() - snapshot.loadedAt() < SNAPSHOT_TTL_MILLIS) {
+                return snapshot;
+            }
+            snapshots.remove(key, snapshot);
+        }
+        long generation = generations.current(key);
+        return generations.publish(snapshots, key, generation, load(key));
+    }
+
+    /**
+     * 题目发生变更，修补所有已加载快照
+     * 事务内调用时延迟到提交后执行，同一事务内同一题目只修补一次
+     *
+     * @param topicId 题目ID
+     */
+    public void refreshTopic(Long topicId) {
+        if (topicId == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            patchAndNotify(topicId);
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Set<Long> pending = (Set<Long>) TransactionSynchronizationManager.getResource(PENDING_KEY);
+        if (pending == null) {
+            Set<Long> topicIds = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(PENDING_KEY, topicIds);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    topicIds.forEach(SelectableTopicCatalog.this::patchAndNotify);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_KEY);
+                }
+            });
+            pending = topicIds;
+        }
+        pending.add(topicId);
+    }
+
+    /**
+     * 移除指定院系及全部院系的快照，下次访问时重新加载
+     * 用于批量写入后一次性失效，避免逐个题目修补
+     *
+     * @param departmentIds 受影响的院系ID
+     */
+    public void invalidate(Collection<Long> departmentIds) {
+        evict(departmentIds);
+        cacheInvalidationBus.publish(CacheConstants.Channel.TOPIC_CATALOG, MESSAGE_INVALIDATE + departmentIds.stream()
+                .filter(Objects::nonNull)
+                .map(String::valueOf)
+                .collect(Collectors.joining(",")));
+    }
+
+    /**
+     * 清空所有快照，下次访问时重新加载
+     */
+    public void invalidateAll() {
+        evictAll();
+        cacheInvalidationBus.publish(CacheConstants.Channel.TOPIC_CATALOG, MESSAGE_INVALIDATE_ALL);
+    }
+
+    /**
+     * 处理其他实例的通知：按题目修补或移除快照，不再转发
+     */
+    private void onRemoteChange(String message) {
+        if (message.startsWith(MESSAGE_PATCH)) {
+            patch(Long.valueOf(message.substring(MESSAGE_PATCH.length())));
+        } else if (message.startsWith(MESSAGE_INVALIDATE)) {
+            String ids = message.substring(MESSAGE_INVALIDATE.length());
+            evict(ids.isEmpty() ? List.of() : Arrays.stream(ids.split(",")).map(Long::valueOf).toList());
+        } else {
+            evictAll();
+        }
+    }
+
+    private void evict(Collection<Long> departmentIds) {
+        for (Long departmentId : departmentIds) {
+            if (departmentId != null) {
+                generations.bump(departmentId);
+                snapshots.remove(departmentId);
+            }
+        }
+        generations.bump(ALL_DEPARTMENTS);
+        snapshots.remove(ALL_DEPARTMENTS);
+    }
+
+    private void evictAll() {
+        generations.bumpAll();
+        snapshots.clear();
+    }
+
+    /**
+     * 用SQL过滤加载院系快照
+     */
+    private Snapshot load(Long key) {
+        LambdaQueryWrapper<BizTopic> wrapper = new LambdaQueryWrapper<>();
+        wrapper.in(BizTopic::getStatus, TopicStatus.OPEN.getValue(), TopicStatus.REVIEWING.getValue())
+                .eq(BizTopic::getIsDeleted, 0)
+                .eq(!ALL_DEPARTMENTS.equals(key), BizTopic::getDepartmentId, key)
+                .orderByDesc(BizTopic::getCreatedAt)
+                .orderByDesc(BizTopic::getId);
+
+        List<BizTopic> rows = bizTopicMapper.selectList(wrapper);
+        List<TopicVO> topics = new ArrayList<>(rows.size());
+        for (BizTopic topic : rows) {
+            if (topic.getDepartmentId() != null) {
+                // 已记录的院系来自修补（读取时间更晚），不覆盖
+                topicDepartments.putIfAbsent(topic.getId(), topic.getDepartmentId());
+            }
+            topics.add(BeanMapperUtil.copyProperties(topic, TopicVO.class));
+        }
+        log.debug("加载可选题目目录，院系键: {}，题目数: {}", key, topics.size());
+        return new Snapshot(List.copyOf(topics), nextEtag(), System.currentTimeMillis());
+    }
+
+    /**
+     * 修补本实例的快照并通知其他实例
+     */
+    private void patchAndNotify(Long topicId) {
+        patch(topicId);
+        cacheInvalidationBus.publish(CacheConstants.Channel.TOPIC_CATALOG, MESSAGE_PATCH + topicId);
+    }
+
+    /**
+     * 按题目ID修补已加载的快照
+     * 序号在提交后、读库前领取，序号更大的读取一定能看到序号更小的修补对应的提交，
+     * 因此较早读取的结果晚到时直接丢弃。
+     * 应用前递增全部院系与题目新旧院系的代数：正在加载、可能在提交前读库的快照发布时被丢弃
+     */
+    private void patch(Long topicId) {
+        long sequence = patchSequence.incrementAndGet();
+        BizTopic topic = bizTopicMapper.selectById(topicId);
+        TopicVO selectable = null;
+        if (topic != null && !Integer.valueOf(1).equals(topic.getIsDeleted())) {
+            TopicStatus status = TopicStatus.getByValue(topic.getStatus());
+            if (status != null && status.isSelectable()) {
+                selectable = BeanMapperUtil.copyProperties(topic, TopicVO.class);
+            }
+        }
+
+        Long department = topic != null ? topic.getDepartmentId() : null;
+        Long previous = department != null
+                ? topicDepartments.put(topicId, department)
+                : topicDepartments.remove(topicId);
+        generations.bump(ALL_DEPARTMENTS);
+        if (department != null) {
+            generations.bump(department);
+        }
+        if (previous != null && !previous.equals(department)) {
+            generations.bump(previous);
+        }
+
+        TopicVO current = selectable;
+        appliedPatches.compute(topicId, (id, applied) -> {
+            if (applied != null && applied > sequence) {
+                log.debug("丢弃过期的题目目录修补，题目ID: {}", topicId);
+                return applied;
+            }
+            for (Long key : snapshots.keySet()) {
+                boolean belongs = current != null
+                        && (ALL_DEPARTMENTS.equals(key) || key.equals(current.getDepartmentId()));
+                TopicVO replacement = belongs ? current : null;
+                snapshots.computeIfPresent(key, (k, snapshot) -> snapshot.with(topicId, replacement, this));
+            }
+            return sequence;
+        });
+    }
+
+    /**
+     * 生成新的版本标识
+     */
+    private String nextEtag() {
+        return "\"" + bootId + "-" + generation.incrementAndGet() + "\"";
+    }
+
+    /**
+     * 不可变快照
+     *
+     * @param topics 可选题目（只读列表）
+     * @param etag 版本标识
+     * @param loadedAt 从数据库加载的时间（毫秒，修补不改变）
+     */
+    public record Snapshot(List<TopicVO> topics, String etag, long loadedAt) {
+
+        /**
+         * 替换或移除一个题目，生成新快照；内容未变化时返回自身
+         */
+        private Snapshot with(Long topicId, TopicVO replacement, SelectableTopicCatalog catalog) {
+            TopicVO existing = topics.stream()
+                    .filter(topic -> topicId.equals(topic.getId()))
+                    .findFirst()
+                    .orElse(null);
+            if (existing == null && replacement == null) {
+                return this;
+            }
+            if (existing != null && Objects.equals(existing, replacement)) {
+                return this;
+            }
+
+            List<TopicVO> next = new ArrayList<>(topics.size() + 1);
+            for (TopicVO topic : topics) {
+                if (!topicId.equals(topic.getId())) {
+                    next.add(topic);
+                }
+            }
+            if (replacement != null) {
+                int index = Collections.binarySearch(next, replacement, ORDER);
+                next.add(index < 0 ? -index - 1 : index, replacement);
+            }
+            return new Snapshot(List.copyOf(next), catalog.nextEtag(), loadedAt);
+        }
+    }
+}
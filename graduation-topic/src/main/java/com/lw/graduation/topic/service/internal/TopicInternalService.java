@@ -3,11 +3,15 @@ package com.lw.graduation.topic.service.internal;
 import com.lw.graduation.domain.entity.topic.BizTopic;
 import com.lw.graduation.domain.enums.status.TopicStatus;
 import com.lw.graduation.infrastructure.mapper.topic.BizTopicMapper;
+import com.lw.graduation.infrastructure.mapper.topic.TopicTransition;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Arrays;
+import java.util.List;
+
 /**
  * 题目内部服务类
  * 专门处理需要事务保护的核心数据库操作
@@ -21,6 +25,7 @@ import org.springframework.transaction.annotation.Transactional;
 public class TopicInternalService {
 
     private final BizTopicMapper bizTopicMapper;
+    private final SelectableTopicCatalog selectableTopicCatalog;
 
     /**
      * 更新题目状态（带事务保护）
@@ -47,41 +52,108 @@ public class TopicInternalService {
             String currentStatusDesc = getCurrentStatusDescription(topic);
             String newStatusDesc = newStatus != null ? newStatus.getDescription() : "未知状态";
             log.info("题目[{}] 状态变更: {} -> {}", topicId, currentStatusDesc, newStatusDesc);
+            selectableTopicCatalog.refreshTopic(topicId);
         } else {
             log.error("题目[{}] 状态更新失败", topicId);
         }
     }
     
     /**
-     * 更新题目已选人数（带事务保护）
-     * 
+     * 条件转换题目状态：仅当前状态在 fromStatuses 中时更新，单条语句完成
+     *
      * @param topicId 题目ID
-     * @param increment 增量（通常为1）
+     * @param target 目标状态
+     * @param fromStatuses 允许转换的当前状态
+     * @return 转换结果
      */
     @Transactional(rollbackFor = Exception.class)
-    public void updateSelectedCount(Long topicId, int increment) {
-        log.debug("更新题目 {} 已选人数，增量: {}", topicId, increment);
-        
-        BizTopic topic = bizTopicMapper.selectById(topicId);
-        if (topic == null || topic.getIsDeleted() == 1) {
-            logTopicNotFound(topicId);
-            return;
+    public TopicTransitionResult transitStatus(Long topicId, TopicStatus target, TopicStatus... fromStatuses) {
+        TopicTransition transition = new TopicTransition();
+        transition.setTopicId(topicId);
+        transition.setTargetStatus(target.getValue());
+        transition.setFromStatuses(Arrays.stream(fromStatuses).map(TopicStatus::getValue).toList());
+
+        if (bizTopicMapper.transitStatus(transition) == 0) {
+            log.debug("题目[{}] 未转换为{}: 当前状态不满足条件", topicId, target.getDescription());
+            return TopicTransitionResult.rejected();
         }
-        
-        // 更新已选人数
-        int newCount = topic.getSelectedCount() + increment;
-        topic.setSelectedCount(Math.max(0, newCount)); // 确保不为负数
-        
-        boolean updated = bizTopicMapper.updateById(topic) > 0;
-        
-        if (updated) {
-            log.info("题目[{}] 选题人数更新: {} -> {}", 
-                    topicId, topic.getSelectedCount() - increment, topic.getSelectedCount());
-        } else {
-            log.error("题目[{}] 选题人数更新失败", topicId);
+        log.info("题目[{}] 状态变更: -> {}", topicId, target.getDescription());
+        selectableTopicCatalog.refreshTopic(topicId);
+        return new TopicTransitionResult(true, target.getValue(), null);
+    }
+
+    /**
+     * 审核中题目恢复开放：仅当题目下不存在指定状态的选题时更新，单条语句完成
+     *
+     * @param topicId 题目ID
+     * @param blockingSelectionStatuses 阻止恢复的选题状态
+     * @return 转换结果
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public TopicTransitionResult reopenIfNoActiveSelections(Long topicId, List<Integer> blockingSelectionStatuses) {
+        TopicTransition transition = new TopicTransition();
+        transition.setTopicId(topicId);
+        transition.setTargetStatus(TopicStatus.OPEN.getValue());
+        transition.setFromStatuses(List.of(TopicStatus.REVIEWING.getValue()));
+        transition.setBlockingSelectionStatuses(blockingSelectionStatuses);
+
+        if (bizTopicMapper.transitStatus(transition) == 0) {
+            return TopicTransitionResult.rejected();
         }
+        log.info("题目[{}] 状态变更: 审核中 -> 开放", topicId);
+        selectableTopicCatalog.refreshTopic(topicId);
+        return new TopicTransitionResult(true, TopicStatus.OPEN.getValue(), null);
     }
-    
+
+    /**
+     * 确认选题：已选人数加一，并按容量置为已选或关闭，单条语句完成
+     *
+     * @param topicId 题目ID
+     * @return 转换结果（状态不允许或名额已满时未转换）
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public TopicTransitionResult confirmSelection(Long topicId) {
+        TopicTransition transition = new TopicTransition();
+        transition.setTopicId(topicId);
+        transition.setFromStatuses(List.of(TopicStatus.OPEN.getValue(), TopicStatus.REVIEWING.getValue(),
+                TopicStatus.SELECTED.getValue()));
+        transition.setTargetStatus(TopicStatus.SELECTED.getValue());
+        transition.setFullStatus(TopicStatus.CLOSED.getValue());
+
+        if (bizTopicMapper.confirmSelection(transition) == 0) {
+            log.warn("题目[{}] 确认选题失败: 状态不允许或名额已满", topicId);
+            return TopicTransitionResult.rejected();
+        }
+        TopicTransitionResult result = new TopicTransitionResult(true,
+                transition.getResultStatus(), transition.getResultSelectedCount());
+        log.info("题目[{}] 确认选题: 已选人数 {}，状态 {}", topicId, result.getSelectedCount(),
+                getStatusDescription(result.getStatus()));
+        selectableTopicCatalog.refreshTopic(topicId);
+        return result;
+    }
+
+    /**
+     * 释放选题名额：已选人数减一（不低于0），单条语句完成
+     *
+     * @param topicId 题目ID
+     * @return 转换结果（已选人数已为0时未转换）
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public TopicTransitionResult releaseSelection(Long topicId) {
+        TopicTransition transition = new TopicTransition();
+        transition.setTopicId(topicId);
+
+        if (bizTopicMapper.releaseSelection(transition) == 0) {
+            log.debug("题目[{}] 无可释放的选题名额", topicId);
+            return TopicTransitionResult.rejected();
+        }
+        TopicTransitionResult result = new TopicTransitionResult(true,
+                transition.getResultStatus(), transition.getResultSelectedCount());
+        log.info("题目[{}] 释放选题名额: 已选人数 {}", topicId, result.getSelectedCount());
+        selectableTopicCatalog.refreshTopic(topicId);
+        return result;
+    }
+
     /**
      * 记录题目不存在警告日志
      * 
@@ -98,7 +170,17 @@ public class TopicInternalService {
      * @return 状态描述
      */
     private String getCurrentStatusDescription(BizTopic topic) {
-        TopicStatus currentStatus = TopicStatus.getByValue(topic.getStatus());
-        return currentStatus != null ? currentStatus.getDescription() : "未知状态";
+        return getStatusDescription(topic.getStatus());
+    }
+
+    /**
+     * 获取状态描述
+     *
+     * @param statusValue 状态值
+     * @return 状态描述
+     */
+    private String getStatusDescription(Integer statusValue) {
+        TopicStatus status = TopicStatus.getByValue(statusValue);
+        return status != null ? status.getDescription() : "未知状态";
     }
 }
\ No newline at end of file
@@ -0,0 +1,51 @@
+package com.lw.graduation.topic.service.internal;
+
+import com.lw.graduation.domain.enums.status.TopicStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 题目状态转换结果
+ * 由条件更新直接得出，调用方无需再次查询题目
+ *
+ * @author lw
+ */
+@Getter
+@AllArgsConstructor
+public class TopicTransitionResult {
+
+    private static final TopicTransitionResult REJECTED = new TopicTransitionResult(false, null, null);
+
+    /**
+     * 是否已转换（条件不满足时为false）
+     */
+    private final boolean applied;
+
+    /**
+     * 转换后的状态值
+     */
+    private final Integer status;
+
+    /**
+     * 转换后的已选人数（状态转换不涉及人数时为null）
+     */
+    private final Integer selectedCount;
+
+    /**
+     * 条件不满足、未发生转换
+     *
+     * @return 未转换结果
+     */
+    public static TopicTransitionResult rejected() {
+        return REJECTED;
+    }
+
+    /**
+     * 转换后的状态枚举
+     *
+     * @return 状态枚举，未转换时为null
+     */
+    public TopicStatus getTopicStatus() {
+        return TopicStatus.getByValue(status);
+    }
+}
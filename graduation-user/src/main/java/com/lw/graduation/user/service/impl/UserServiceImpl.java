@@ -10,6 +10,7 @@ import com.lw.graduation.api.dto.user.UserUpdateDTO;
 import com.lw.graduation.api.service.user.UserService;
 import com.lw.graduation.api.vo.user.UserListInfoVO;
 import com.lw.graduation.auth.util.PasswordUtil;
+import com.lw.graduation.common.base.CursorPage;
 import com.lw.graduation.common.constant.CacheConstants;
 import com.lw.graduation.common.enums.ResponseCode;
 import com.lw.graduation.common.exception.BusinessException;
@@ -20,6 +21,7 @@ import com.lw.graduation.domain.entity.user.SysUser;
 import com.lw.graduation.domain.enums.user.AccountStatus;
 import com.lw.graduation.domain.enums.user.UserType;
 import com.lw.graduation.infrastructure.mapper.user.SysUserMapper;
+import com.lw.graduation.infrastructure.page.KeysetPageHelper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -51,15 +53,11 @@ public class UserServiceImpl extends ServiceImpl<SysUserMapper, SysUser> impleme
     @Override
     public IPage<UserListInfoVO> getUserPage(UserPageQueryDTO queryDTO){
         // 1. 构建查询条件
-        LambdaQueryWrapper<SysUser> wrapper = new LambdaQueryWrapper<>();
-        wrapper.like(queryDTO.getUsername() != null, SysUser::getUsername, queryDTO.getUsername())
-                .like(queryDTO.getRealName() != null, SysUser::getRealName, queryDTO.getRealName())
-                .eq(queryDTO.getUserType() != null, SysUser::getUserType, queryDTO.getUserType())
-                .eq(queryDTO.getStatus() != null, SysUser::getStatus, queryDTO.getStatus())
-                .orderByDesc(SysUser::getCreatedAt); // 按创建时间倒序
+        LambdaQueryWrapper<SysUser> wrapper = buildUserQueryWrapper(queryDTO);
+        wrapper.orderByDesc(SysUser::getCreatedAt); // 按创建时间倒序
 
         // 2. 执行分页查询
-        IPage<SysUser> page = new Page<>(queryDTO.getCurrent(), queryDTO.getSize());
+        IPage<SysUser> page = new Page<>(queryDTO.getCurrent(), queryDTO.getSize(), queryDTO.isCountRequired());
         IPage<SysUser> userPage = sysUserMapper.selectPage(page, wrapper);
 
         // 3. 将实体列表转换为 VO 列表（优化：减少不必要的对象创建）
@@ -72,6 +70,28 @@ public class UserServiceImpl extends ServiceImpl<SysUserMapper, SysUser> impleme
         return voPage;
     }
 
+    @Override
+    public CursorPage<UserListInfoVO> getUserCursorPage(UserPageQueryDTO queryDTO) {
+        LambdaQueryWrapper<SysUser> wrapper = buildUserQueryWrapper(queryDTO);
+        return KeysetPageHelper.selectPage(sysUserMapper, wrapper, SysUser::getCreatedAt, SysUser::getId,
+                queryDTO, users -> users.stream().map(this::convertToUserListInfoVO).toList());
+    }
+
+    /**
+     * 构建用户分页过滤条件（不含排序）
+     *
+     * @param queryDTO 查询条件
+     * @return 查询构造器
+     */
+    private LambdaQueryWrapper<SysUser> buildUserQueryWrapper(UserPageQueryDTO queryDTO) {
+        LambdaQueryWrapper<SysUser> wrapper = new LambdaQueryWrapper<>();
+        wrapper.like(queryDTO.getUsername() != null, SysUser::getUsername, queryDTO.getUsername())
+                .like(queryDTO.getRealName() != null, SysUser::getRealName, queryDTO.getRealName())
+                .eq(queryDTO.getUserType() != null, SysUser::getUserType, queryDTO.getUserType())
+                .eq(queryDTO.getStatus() != null, SysUser::getStatus, queryDTO.getStatus());
+        return wrapper;
+    }
+
     /**
      * 根据ID获取用户详情（带缓存穿透防护）
      *
@@ -16,6 +16,14 @@ SET FOREIGN_KEY_CHECKS = 0;
 
 -- 第一层：无外键依赖的表
 TRUNCATE TABLE sys_log;
+TRUNCATE TABLE biz_grade_summary;
+TRUNCATE TABLE biz_grade_composite;
+TRUNCATE TABLE biz_grade_recompute_job;
+TRUNCATE TABLE biz_document_process_job;
+TRUNCATE TABLE biz_upload_session;
+TRUNCATE TABLE sys_storage_usage;
+TRUNCATE TABLE sys_file_ref;
+TRUNCATE TABLE sys_file_blob;
 
 -- 第二层：依赖第一层表的表
 TRUNCATE TABLE biz_grade;
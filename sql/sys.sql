@@ -30,6 +30,8 @@ CREATE TABLE `sys_user` (
   `updated_at` DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3) COMMENT '更新时间',
   `is_deleted` TINYINT(1) NOT NULL DEFAULT 0 COMMENT '逻辑删除: 0-未删除, 1-已删除',
   PRIMARY KEY (`id`),
+  -- 键集分页排序索引（InnoDB二级索引隐含主键，等价于 (created_at, id)）
+  KEY `idx_created_at` (`created_at`),
   UNIQUE KEY `uk_username` (`username`),
   KEY `idx_user_type` (`user_type`),
   KEY `idx_status` (`status`),
@@ -151,6 +153,8 @@ CREATE TABLE `biz_topic` (
   `updated_at` DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
   `is_deleted` TINYINT(1) NOT NULL DEFAULT 0,
   PRIMARY KEY (`id`),
+  -- 键集分页排序索引（InnoDB二级索引隐含主键，等价于 (created_at, id)）
+  KEY `idx_created_at` (`created_at`),
   KEY `idx_teacher` (`teacher_id`),
   KEY `idx_department` (`department_id`),
   KEY `idx_status` (`status`),
@@ -182,6 +186,8 @@ CREATE TABLE `biz_selection` (
   `updated_at` DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
   `is_deleted` TINYINT(1) NOT NULL DEFAULT 0,
   PRIMARY KEY (`id`),
+  -- 键集分页排序索引（InnoDB二级索引隐含主键，等价于 (created_at, id)）
+  KEY `idx_created_at` (`created_at`),
   KEY `idx_student` (`student_id`),
   KEY `idx_topic` (`topic_id`),
   KEY `idx_reviewer` (`reviewer_id`),
@@ -205,10 +211,17 @@ CREATE TABLE `biz_document` (
   `id` BIGINT NOT NULL AUTO_INCREMENT,
   `user_id` BIGINT NOT NULL COMMENT '上传人ID(sys_user.id)',
   `topic_id` BIGINT NOT NULL COMMENT '关联题目ID',
+  `department_id` BIGINT NULL DEFAULT NULL COMMENT '计入存储用量的院系ID(上传时题目所属院系)',
   `file_type` TINYINT NOT NULL COMMENT '文件类型: 0-开题报告, 1-中期报告, 2-毕业论文',
   `original_filename` VARCHAR(255) NOT NULL COMMENT '原始文件名',
   `stored_path` VARCHAR(500) NOT NULL COMMENT '服务器存储路径',
-  `file_size` BIGINT NOT NULL COMMENT '文件大小(字节)',
+  `file_size` BIGINT NOT NULL COMMENT '文件大小(字节，上传时实际写入的字节数)',
+  `content_hash` CHAR(64) NULL DEFAULT NULL COMMENT '文件内容SHA-256摘要(小写十六进制)',
+  `process_status` TINYINT NOT NULL DEFAULT 0 COMMENT '后台处理状态: 0-待处理, 1-处理中, 2-已完成, 3-失败',
+  `page_count` INT NULL DEFAULT NULL COMMENT '页数(后台处理提取)',
+  `thumbnail_path` VARCHAR(500) NULL DEFAULT NULL COMMENT '缩略图存储路径(后台处理生成)',
+  `extracted_text` MEDIUMTEXT NULL DEFAULT NULL COMMENT '提取的正文文本(全文检索用)',
+  `processed_at` DATETIME(3) NULL DEFAULT NULL COMMENT '后台处理完成时间',
   `review_status` TINYINT NOT NULL DEFAULT 0 COMMENT '审核状态: 0-待审, 1-通过, 2-驳回',
   `reviewed_at` DATETIME(3) NULL DEFAULT NULL COMMENT '审核时间',
   `reviewer_id` BIGINT NULL DEFAULT NULL COMMENT '审核人ID(sys_user.id)',
@@ -218,15 +231,117 @@ CREATE TABLE `biz_document` (
   `updated_at` DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
   `is_deleted` TINYINT(1) NOT NULL DEFAULT 0,
   PRIMARY KEY (`id`),
+  -- 键集分页排序索引（InnoDB二级索引隐含主键，等价于 (uploaded_at, id)）
+  KEY `idx_uploaded_at` (`uploaded_at`),
   KEY `idx_user` (`user_id`),
   KEY `idx_topic` (`topic_id`),
   KEY `idx_file_type` (`file_type`),
   KEY `idx_review_status` (`review_status`),
+  KEY `idx_content_hash` (`content_hash`),
   CONSTRAINT `fk_document_user` FOREIGN KEY (`user_id`) REFERENCES `sys_user` (`id`) ON DELETE CASCADE,
   CONSTRAINT `fk_document_topic` FOREIGN KEY (`topic_id`) REFERENCES `biz_topic` (`id`) ON DELETE CASCADE,
   CONSTRAINT `fk_document_reviewer` FOREIGN KEY (`reviewer_id`) REFERENCES `sys_user` (`id`) ON DELETE SET NULL
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='文档表';
 
+-- ----------------------------
+-- Table structure for biz_document_process_job
+-- 文档处理任务表（上传后异步处理：文本提取、页数、缩略图、校验和核对，失败按退避时间重试）
+-- ----------------------------
+DROP TABLE IF EXISTS `biz_document_process_job`;
+CREATE TABLE `biz_document_process_job` (
+  `id` BIGINT NOT NULL AUTO_INCREMENT,
+  `document_id` BIGINT NOT NULL COMMENT '文档ID(biz_document.id)',
+  `status` TINYINT NOT NULL DEFAULT 0 COMMENT '状态: 0-待处理, 1-处理中, 2-已完成, 3-失败',
+  `attempts` INT NOT NULL DEFAULT 0 COMMENT '已执行次数',
+  `next_run_at` DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) COMMENT '下次可执行时间',
+  `error_message` VARCHAR(500) NULL DEFAULT NULL COMMENT '最近一次失败原因',
+  `started_at` DATETIME(3) NULL DEFAULT NULL COMMENT '最近一次开始处理时间',
+  `heartbeat_at` DATETIME(3) NULL DEFAULT NULL COMMENT '处理中任务的最近心跳时间(超时视为实例中断)',
+  `finished_at` DATETIME(3) NULL DEFAULT NULL COMMENT '结束时间',
+  `created_at` DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+  `updated_at` DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
+  PRIMARY KEY (`id`),
+  -- 调度查询：待处理任务按下次执行时间取出
+  KEY `idx_status_next_run` (`status`, `next_run_at`),
+  KEY `idx_document` (`document_id`),
+  CONSTRAINT `fk_process_job_document` FOREIGN KEY (`document_id`) REFERENCES `biz_document` (`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='文档处理任务表';
+
+-- ----------------------------
+-- Table structure for sys_storage_usage
+-- 存储用量表（按用户、题目、院系增量累计文档占用空间，上传时据此校验配额，无需汇总查询）
+-- ----------------------------
+DROP TABLE IF EXISTS `sys_storage_usage`;
+CREATE TABLE `sys_storage_usage` (
+  `id` BIGINT NOT NULL AUTO_INCREMENT,
+  `scope` TINYINT NOT NULL COMMENT '统计范围: 0-用户, 1-题目, 2-院系',
+  `owner_id` BIGINT NOT NULL COMMENT '用户ID/题目ID/院系ID',
+  `used_bytes` BIGINT NOT NULL DEFAULT 0 COMMENT '已用空间(字节)',
+  `file_count` INT NOT NULL DEFAULT 0 COMMENT '文件数',
+  `created_at` DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+  `updated_at` DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uk_scope_owner` (`scope`, `owner_id`),
+  -- 用量排行：按范围取占用最多的前若干项
+  KEY `idx_scope_used` (`scope`, `used_bytes`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='存储用量表';
+
+-- ----------------------------
+-- Table structure for biz_upload_session
+-- 分片上传会话表（大文件断点续传，全部分片接收后合并为 biz_document）
+-- ----------------------------
+DROP TABLE IF EXISTS `biz_upload_session`;
+CREATE TABLE `biz_upload_session` (
+  `id` BIGINT NOT NULL AUTO_INCREMENT,
+  `user_id` BIGINT NOT NULL COMMENT '上传人ID(sys_user.id)',
+  `topic_id` BIGINT NOT NULL COMMENT '关联题目ID',
+  `file_type` TINYINT NOT NULL COMMENT '文件类型: 0-开题报告, 1-中期报告, 2-毕业论文, 3-外文翻译, 4-其他文档',
+  `original_filename` VARCHAR(255) NOT NULL COMMENT '原始文件名',
+  `file_size` BIGINT NOT NULL COMMENT '文件大小(字节)',
+  `chunk_size` BIGINT NOT NULL COMMENT '分片大小(字节)',
+  `total_chunks` INT NOT NULL COMMENT '分片总数',
+  `received_chunks` INT NOT NULL DEFAULT 0 COMMENT '已接收分片数',
+  `chunk_bitmap` VARBINARY(8192) NOT NULL COMMENT '已接收分片位图',
+  `temp_path` VARCHAR(500) NOT NULL COMMENT '临时文件路径(相对分片上传临时目录)',
+  `status` TINYINT NOT NULL DEFAULT 0 COMMENT '状态: 0-上传中, 1-已完成',
+  `document_id` BIGINT NULL DEFAULT NULL COMMENT '合并生成的文档ID(biz_document.id)',
+  `expires_at` DATETIME(3) NOT NULL COMMENT '过期时间',
+  `created_at` DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+  `updated_at` DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
+  PRIMARY KEY (`id`),
+  KEY `idx_user` (`user_id`),
+  KEY `idx_status_expires` (`status`, `expires_at`),
+  CONSTRAINT `fk_upload_session_user` FOREIGN KEY (`user_id`) REFERENCES `sys_user` (`id`) ON DELETE CASCADE,
+  CONSTRAINT `fk_upload_session_topic` FOREIGN KEY (`topic_id`) REFERENCES `biz_topic` (`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='分片上传会话表';
+
+-- ----------------------------
+-- Table structure for sys_file_blob
+-- 文件内容表（内容寻址存储，相同内容只保存一份，按引用数回收）
+-- ----------------------------
+DROP TABLE IF EXISTS `sys_file_blob`;
+CREATE TABLE `sys_file_blob` (
+  `hash` CHAR(64) NOT NULL COMMENT '内容SHA-256摘要',
+  `file_size` BIGINT NOT NULL COMMENT '文件大小(字节)',
+  `ref_count` INT NOT NULL DEFAULT 0 COMMENT '引用该内容的存储路径数',
+  `created_at` DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+  `updated_at` DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
+  PRIMARY KEY (`hash`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='文件内容表';
+
+-- ----------------------------
+-- Table structure for sys_file_ref
+-- 文件引用表（逻辑存储路径到文件内容的映射）
+-- ----------------------------
+DROP TABLE IF EXISTS `sys_file_ref`;
+CREATE TABLE `sys_file_ref` (
+  `path` VARCHAR(500) NOT NULL COMMENT '逻辑存储路径',
+  `hash` CHAR(64) NOT NULL COMMENT '内容SHA-256摘要(sys_file_blob.hash)',
+  `created_at` DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+  PRIMARY KEY (`path`),
+  KEY `idx_hash` (`hash`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='文件引用表';
+
 -- ----------------------------
 -- Table structure for biz_grade
 -- 成绩表
@@ -244,6 +359,8 @@ CREATE TABLE `biz_grade` (
   `updated_at` DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
   `is_deleted` TINYINT(1) NOT NULL DEFAULT 0,
   PRIMARY KEY (`id`),
+  -- 键集分页排序索引（InnoDB二级索引隐含主键，等价于 (graded_at, id)）
+  KEY `idx_graded_at` (`graded_at`),
   UNIQUE KEY `uk_student_topic` (`student_id`, `topic_id`),
   KEY `idx_grader` (`grader_id`),
   CONSTRAINT `fk_grade_student` FOREIGN KEY (`student_id`) REFERENCES `biz_student` (`id`) ON DELETE RESTRICT,
@@ -251,6 +368,67 @@ CREATE TABLE `biz_grade` (
   CONSTRAINT `fk_grade_grader` FOREIGN KEY (`grader_id`) REFERENCES `sys_user` (`id`) ON DELETE RESTRICT
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='成绩表';
 
+-- ----------------------------
+-- Table structure for biz_grade_summary
+-- 成绩统计汇总表（随成绩录入/删除增量维护，可从 biz_grade 重建）
+-- ----------------------------
+DROP TABLE IF EXISTS `biz_grade_summary`;
+CREATE TABLE `biz_grade_summary` (
+  `scope_type` TINYINT NOT NULL COMMENT '统计范围: 1-题目, 2-院系, 3-全校, 4-评分教师',
+  `scope_id` BIGINT NOT NULL COMMENT '范围ID(题目/院系/教师ID，全校为条带号: 学生ID mod 16)',
+  `total_count` INT NOT NULL DEFAULT 0 COMMENT '成绩数量',
+  `sum_score` DECIMAL(14,2) NOT NULL DEFAULT 0 COMMENT '成绩总和',
+  `sum_square` DECIMAL(20,4) NOT NULL DEFAULT 0 COMMENT '成绩平方和',
+  `sum_gpa` DECIMAL(14,2) NOT NULL DEFAULT 0 COMMENT '绩点总和',
+  `min_score` DECIMAL(5,2) NULL DEFAULT NULL COMMENT '最低分',
+  `max_score` DECIMAL(5,2) NULL DEFAULT NULL COMMENT '最高分',
+  `excellent_count` INT NOT NULL DEFAULT 0 COMMENT '优秀人数',
+  `good_count` INT NOT NULL DEFAULT 0 COMMENT '良好人数',
+  `fair_count` INT NOT NULL DEFAULT 0 COMMENT '中等人数',
+  `pass_count` INT NOT NULL DEFAULT 0 COMMENT '及格人数',
+  `fail_count` INT NOT NULL DEFAULT 0 COMMENT '不及格人数',
+  `updated_at` DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
+  PRIMARY KEY (`scope_type`, `scope_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='成绩统计汇总表';
+
+-- ----------------------------
+-- Table structure for biz_grade_composite
+-- 综合成绩表（由综合成绩重算任务按学生、题目写入）
+-- ----------------------------
+DROP TABLE IF EXISTS `biz_grade_composite`;
+CREATE TABLE `biz_grade_composite` (
+  `student_id` BIGINT NOT NULL COMMENT '学生ID(biz_student.id)',
+  `topic_id` BIGINT NOT NULL COMMENT '题目ID(biz_topic.id)',
+  `composite_score` DECIMAL(5,2) NOT NULL COMMENT '综合成绩',
+  `grade_count` INT NOT NULL COMMENT '参与计算的成绩数',
+  `job_id` BIGINT NOT NULL COMMENT '最近一次计算的任务ID',
+  `computed_at` DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3) COMMENT '计算时间',
+  PRIMARY KEY (`student_id`, `topic_id`),
+  KEY `idx_topic` (`topic_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='综合成绩表';
+
+-- ----------------------------
+-- Table structure for biz_grade_recompute_job
+-- 综合成绩重算任务表（记录进度与断点，支持中断后续跑）
+-- ----------------------------
+DROP TABLE IF EXISTS `biz_grade_recompute_job`;
+CREATE TABLE `biz_grade_recompute_job` (
+  `id` BIGINT NOT NULL AUTO_INCREMENT,
+  `status` TINYINT NOT NULL DEFAULT 0 COMMENT '状态: 0-运行中, 1-已完成, 2-失败',
+  `total_count` INT NOT NULL DEFAULT 0 COMMENT '待计算的学生题目数',
+  `processed_count` INT NOT NULL DEFAULT 0 COMMENT '已计算的学生题目数',
+  `last_student_id` BIGINT NULL DEFAULT NULL COMMENT '断点: 最后完成的学生ID',
+  `last_topic_id` BIGINT NULL DEFAULT NULL COMMENT '断点: 最后完成的题目ID',
+  `error_message` VARCHAR(500) NULL DEFAULT NULL COMMENT '失败原因',
+  `created_by` BIGINT NULL DEFAULT NULL COMMENT '发起人(sys_user.id)',
+  `started_at` DATETIME(3) NULL DEFAULT NULL COMMENT '最近一次开始运行时间',
+  `finished_at` DATETIME(3) NULL DEFAULT NULL COMMENT '结束时间',
+  `created_at` DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+  `updated_at` DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
+  PRIMARY KEY (`id`),
+  KEY `idx_status` (`status`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='综合成绩重算任务表';
+
 -- ----------------------------
 -- Table structure for sys_user_role
 -- 用户角色关联表
@@ -293,6 +471,8 @@ CREATE TABLE `biz_notice` (
   `updated_at` DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
   `is_deleted` TINYINT(1) NOT NULL DEFAULT 0 COMMENT '逻辑删除: 0-未删除, 1-已删除',
   PRIMARY KEY (`id`),
+  -- 键集分页排序索引（InnoDB二级索引隐含主键，等价于 (created_at, id)）
+  KEY `idx_created_at` (`created_at`),
   KEY `idx_publisher` (`publisher_id`),
   KEY `idx_type` (`type`),
   KEY `idx_priority` (`priority`),